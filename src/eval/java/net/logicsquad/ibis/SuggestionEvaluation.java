@@ -0,0 +1,291 @@
+package net.logicsquad.ibis;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * <p>
+ * Measures the quality and cost of {@link Dictionary#suggestionsFor(Word)} together, so that changes to suggestion (distance thresholds,
+ * bucketing, alternative engines) can be judged on both. Two sets of queries are checked against a {@link Dictionary} built from the
+ * built-in word lists:
+ * </p>
+ *
+ * <ul>
+ * <li><em>labelled</em>: real misspellings paired with their expected corrections, from {@code misspellings.txt}; and</li>
+ * <li><em>synthetic</em>: words sampled from the built-in word list, each with a single random edit (deletion, insertion, substitution
+ * or transposition) injected by a seeded {@link Random}, expecting the original word.</li>
+ * </ul>
+ *
+ * <p>
+ * For each set, the evaluation reports top-1 and top-5 recall (the proportion of queries whose expected correction is the first
+ * suggestion, or among the first five), mean and 99th percentile latency of a lookup with suggestions, and the mean number of candidate
+ * words compared per query. Queries whose misspelling is accepted by the {@link Dictionary}, or whose correction is not, are skipped and
+ * counted. Results are reproducible for a given seed. Run offline with:
+ * </p>
+ *
+ * <pre>
+ * mvn -Pevaluation test-compile exec:exec [-Devaluation.args="--typos=5000 --seed=7"]
+ * </pre>
+ *
+ * @author paulh
+ */
+public class SuggestionEvaluation {
+	/**
+	 * Labelled misspellings
+	 */
+	private static final String CORPUS = "/misspellings.txt";
+
+	/**
+	 * Word list from which to sample words for synthetic typos
+	 */
+	private static final String SOURCE = "/words-1.txt.gz";
+
+	/**
+	 * Default number of synthetic typos
+	 */
+	private static final int DEFAULT_TYPOS = 2000;
+
+	/**
+	 * Default seed for synthetic typos
+	 */
+	private static final long DEFAULT_SEED = 42;
+
+	/**
+	 * Number of untimed passes over each set before measuring
+	 */
+	private static final int WARMUP_PASSES = 3;
+
+	/**
+	 * Number of suggestions counted for top-K recall
+	 */
+	private static final int TOP_K = 5;
+
+	/**
+	 * Shortest word sampled for synthetic typos
+	 */
+	private static final int MIN_SAMPLE_LENGTH = 4;
+
+	/**
+	 * Longest word sampled for synthetic typos
+	 */
+	private static final int MAX_SAMPLE_LENGTH = 12;
+
+	/**
+	 * Private constructor
+	 */
+	private SuggestionEvaluation() {
+	}
+
+	/**
+	 * Runs the evaluation, printing a report to standard output. Accepts {@code --typos=N} (number of synthetic typos, default 2000) and
+	 * {@code --seed=N} (seed for synthetic typos, default 42).
+	 *
+	 * @param args command-line arguments
+	 * @throws IOException if a word list cannot be read
+	 */
+	public static void main(String[] args) throws IOException {
+		int typos = DEFAULT_TYPOS;
+		long seed = DEFAULT_SEED;
+		for (String arg : args) {
+			if (arg.startsWith("--typos=")) {
+				typos = Integer.parseInt(arg.substring("--typos=".length()));
+			} else if (arg.startsWith("--seed=")) {
+				seed = Long.parseLong(arg.substring("--seed=".length()));
+			} else {
+				throw new IllegalArgumentException("Unrecognised argument: " + arg);
+			}
+		}
+		Dictionary dictionary = Dictionary.builder().addWords().build();
+		List<Query> labelled = new ArrayList<>();
+		int skipped = usable(dictionary, readCorpus(), labelled);
+		List<Query> synthetic = injectTypos(dictionary, typos, seed);
+		for (int i = 0; i < WARMUP_PASSES; i++) {
+			evaluate(dictionary, labelled);
+			evaluate(dictionary, synthetic);
+		}
+		System.out.printf("Suggestion evaluation (typos=%d, seed=%d, %d labelled queries skipped)%n", typos, seed, skipped);
+		System.out.printf("%-10s %8s %8s %8s %10s %10s %11s%n", "set", "queries", "top-1", "top-" + TOP_K, "mean (us)", "p99 (us)",
+				"candidates");
+		print("labelled", evaluate(dictionary, labelled));
+		print("synthetic", evaluate(dictionary, synthetic));
+		return;
+	}
+
+	/**
+	 * Reads labelled misspellings from {@link #CORPUS}.
+	 *
+	 * @return labelled queries
+	 * @throws IOException if {@link #CORPUS} cannot be read
+	 */
+	private static List<Query> readCorpus() throws IOException {
+		List<Query> result = new ArrayList<>();
+		try (BufferedReader reader = new BufferedReader(
+				new InputStreamReader(SuggestionEvaluation.class.getResourceAsStream(CORPUS), StandardCharsets.UTF_8))) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				if (line.isBlank() || line.startsWith("#")) {
+					continue;
+				}
+				String[] fields = line.split("\t");
+				if (fields.length != 2) {
+					throw new IllegalArgumentException("Malformed line in " + CORPUS + ": " + line);
+				}
+				result.add(new Query(fields[0], fields[1]));
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Adds to {@code result} each of {@code queries} whose misspelling {@code dictionary} rejects and whose correction it accepts.
+	 *
+	 * @param dictionary a {@link Dictionary}
+	 * @param queries    candidate queries
+	 * @param result     usable queries
+	 * @return number of queries skipped
+	 */
+	private static int usable(Dictionary dictionary, List<Query> queries, List<Query> result) {
+		int skipped = 0;
+		for (Query query : queries) {
+			if (!dictionary.isCorrect(Word.of(query.misspelling(), 0)) && dictionary.isCorrect(Word.of(query.expected(), 0))) {
+				result.add(query);
+			} else {
+				skipped++;
+			}
+		}
+		return skipped;
+	}
+
+	/**
+	 * Returns {@code count} synthetic queries, each a word sampled from {@link #SOURCE} with a single random edit that {@code dictionary}
+	 * rejects.
+	 *
+	 * @param dictionary a {@link Dictionary}
+	 * @param count      number of queries
+	 * @param seed       seed for {@link Random}
+	 * @return synthetic queries
+	 * @throws IOException if {@link #SOURCE} cannot be read
+	 */
+	private static List<Query> injectTypos(Dictionary dictionary, int count, long seed) throws IOException {
+		List<String> words = new ArrayList<>();
+		try (BufferedReader reader = new BufferedReader(Dictionary.Builder.openResource(SOURCE))) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				String word = line.strip();
+				if (word.length() >= MIN_SAMPLE_LENGTH && word.length() <= MAX_SAMPLE_LENGTH && word.chars().allMatch(c -> c >= 'a' && c <= 'z')) {
+					words.add(word);
+				}
+			}
+		}
+		Random random = new Random(seed);
+		Collections.shuffle(words, random);
+		List<Query> result = new ArrayList<>();
+		for (int i = 0; i < words.size() && result.size() < count; i++) {
+			String typo = injectTypo(words.get(i), random);
+			if (!dictionary.isCorrect(Word.of(typo, 0))) {
+				result.add(new Query(typo, words.get(i)));
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Returns {@code word} with a single random edit: a deletion, insertion, substitution or transposition of adjacent letters.
+	 *
+	 * @param word   a word
+	 * @param random a {@link Random}
+	 * @return {@code word} with a typo
+	 */
+	private static String injectTypo(String word, Random random) {
+		StringBuilder sb = new StringBuilder(word);
+		int i = random.nextInt(word.length());
+		char letter = (char) ('a' + random.nextInt(26));
+		switch (random.nextInt(4)) {
+		case 0 -> sb.deleteCharAt(i);
+		case 1 -> sb.insert(i, letter);
+		case 2 -> sb.setCharAt(i, letter);
+		default -> {
+			int j = i == word.length() - 1 ? i - 1 : i;
+			sb.setCharAt(j, word.charAt(j + 1));
+			sb.setCharAt(j + 1, word.charAt(j));
+		}
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Looks up each of {@code queries} in {@code dictionary}, with suggestions, and measures recall, latency and candidates compared.
+	 *
+	 * @param dictionary a {@link Dictionary}
+	 * @param queries    queries
+	 * @return measurements
+	 */
+	private static Result evaluate(Dictionary dictionary, List<Query> queries) {
+		long[] nanos = new long[queries.size()];
+		long candidates = 0;
+		int top1 = 0;
+		int topK = 0;
+		for (int i = 0; i < queries.size(); i++) {
+			Query query = queries.get(i);
+			Word word = Word.of(query.misspelling(), 0);
+			long start = System.nanoTime();
+			Lookup lookup = dictionary.lookup(word);
+			List<String> suggestions = lookup.suggestions();
+			nanos[i] = System.nanoTime() - start;
+			candidates += lookup.candidates();
+			int rank = suggestions.indexOf(query.expected());
+			if (rank == 0) {
+				top1++;
+			}
+			if (rank != -1 && rank < TOP_K) {
+				topK++;
+			}
+		}
+		Arrays.sort(nanos);
+		int n = Math.max(1, queries.size());
+		double mean = Arrays.stream(nanos).average().orElse(0);
+		long p99 = nanos.length == 0 ? 0 : nanos[Math.min(nanos.length - 1, (int) Math.ceil(nanos.length * 0.99) - 1)];
+		return new Result(queries.size(), (double) top1 / n, (double) topK / n, mean / 1000, p99 / 1000.0, (double) candidates / n);
+	}
+
+	/**
+	 * Prints a row of the report.
+	 *
+	 * @param set    name of query set
+	 * @param result measurements
+	 */
+	private static void print(String set, Result result) {
+		System.out.printf("%-10s %8d %7.1f%% %7.1f%% %10.1f %10.1f %11.1f%n", set, result.queries(), 100 * result.top1(), 100 * result.topK(),
+				result.meanMicros(), result.p99Micros(), result.meanCandidates());
+		return;
+	}
+
+	/**
+	 * A misspelling and its expected correction.
+	 *
+	 * @param misspelling a misspelled word
+	 * @param expected    expected correction
+	 */
+	private record Query(String misspelling, String expected) {
+	}
+
+	/**
+	 * Measurements over a set of queries.
+	 *
+	 * @param queries        number of queries
+	 * @param top1           proportion of queries with expected correction first
+	 * @param topK           proportion of queries with expected correction in first {@link #TOP_K}
+	 * @param meanMicros     mean latency, in microseconds
+	 * @param p99Micros      99th percentile latency, in microseconds
+	 * @param meanCandidates mean number of candidates compared
+	 */
+	private record Result(int queries, double top1, double topK, double meanMicros, double p99Micros, double meanCandidates) {
+	}
+}
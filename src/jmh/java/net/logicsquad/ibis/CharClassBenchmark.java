@@ -0,0 +1,81 @@
+package net.logicsquad.ibis;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the methods in {@link CharClass} with the JDK equivalents, on texts from token length to whole documents. Each text is
+ * entirely ASCII prose, except for a single non-ASCII character and a single digit at the very end, so every method scans the whole
+ * text. Run with {@code mvn -Pjmh test-compile exec:exec}.
+ *
+ * @author paulh
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CharClassBenchmark {
+	private static final String PARAGRAPH = "The Quick Brown Fox jumps over the Lazy Dog, and then it RUNS away into the forest. ";
+
+	@Param({ "8", "64", "65536" })
+	private int length;
+
+	private String text;
+
+	private String ascii;
+
+	@Setup
+	public void setUp() {
+		StringBuilder sb = new StringBuilder(length);
+		while (sb.length() < length) {
+			sb.append(PARAGRAPH);
+		}
+		sb.setLength(length - 2);
+		ascii = sb.toString();
+		text = ascii + "é7";
+		return;
+	}
+
+	@Benchmark
+	public int indexOfNonAscii() {
+		return CharClass.indexOfNonAscii(text);
+	}
+
+	@Benchmark
+	public int indexOfNonAsciiJdk() {
+		return text.chars().filter(c -> c >= 0x80).findFirst().orElse(-1);
+	}
+
+	@Benchmark
+	public boolean containsDigit() {
+		return CharClass.containsDigit(text);
+	}
+
+	@Benchmark
+	public boolean containsDigitJdk() {
+		return text.chars().anyMatch(Character::isDigit);
+	}
+
+	@Benchmark
+	public String toLowerCase() {
+		return CharClass.toLowerCase(ascii);
+	}
+
+	@Benchmark
+	public String toLowerCaseJdk() {
+		return ascii.toLowerCase();
+	}
+}
@@ -0,0 +1,219 @@
+package net.logicsquad.ibis;
+
+/**
+ * <p>
+ * A blocked <a href="https://en.wikipedia.org/wiki/Bloom_filter">Bloom filter</a> over strings, for a check-only {@link Dictionary} (see
+ * {@link Dictionary.Builder#buildCheckOnly(double)}). The bit array is divided into 512-bit blocks, each the size of a typical cache line,
+ * and all the bits for a string are set in a single block chosen by its hash. A query therefore touches one cache line, however many
+ * bits it tests. Confining each string to a block makes the filter slightly less accurate than a classic Bloom filter of the same size,
+ * so it is sized with a little more than the classic number of bits per string.
+ * </p>
+ *
+ * <p>
+ * A {@code BloomFilter} has no false negatives: {@link #mightContain(CharSequence)} is {@code true} for every string added. It is
+ * {@code true} for a string not added with probability close to the false-positive rate it was sized for. It is not thread-safe while
+ * strings are being added, but may be shared freely once safely published.
+ * </p>
+ *
+ * @author paulh
+ * @since 1.0
+ */
+final class BloomFilter {
+	/**
+	 * Number of bits in a block
+	 */
+	private static final int BLOCK_BITS = 512;
+
+	/**
+	 * Number of {@code long}s in a block
+	 */
+	private static final int BLOCK_LONGS = BLOCK_BITS / Long.SIZE;
+
+	/**
+	 * Extra bits per string to compensate for blocking
+	 */
+	private static final double BLOCKING_OVERHEAD = 1.1;
+
+	/**
+	 * Maximum number of bits set per string
+	 */
+	private static final int MAX_HASHES = 16;
+
+	/**
+	 * Number of bits in a position within a block
+	 */
+	private static final int POSITION_BITS = Integer.numberOfTrailingZeros(BLOCK_BITS);
+
+	/**
+	 * Number of positions taken from each mixed hash
+	 */
+	private static final int POSITIONS_PER_MIX = Long.SIZE / POSITION_BITS;
+
+	/**
+	 * FNV-1a 64-bit offset basis
+	 */
+	private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+
+	/**
+	 * FNV-1a 64-bit prime
+	 */
+	private static final long FNV_PRIME = 0x100000001b3L;
+
+	/**
+	 * 2<sup>64</sup> divided by the golden ratio, to derive further hashes from the first
+	 */
+	private static final long GOLDEN_RATIO = 0x9e3779b97f4a7c15L;
+
+	/**
+	 * Bits, in blocks of {@link #BLOCK_LONGS}
+	 */
+	private final long[] bits;
+
+	/**
+	 * Number of blocks
+	 */
+	private final int blocks;
+
+	/**
+	 * Number of bits set per string
+	 */
+	private final int hashes;
+
+	/**
+	 * Number of strings added
+	 */
+	private int count;
+
+	/**
+	 * Constructor
+	 *
+	 * @param expected          expected number of strings
+	 * @param falsePositiveRate target false-positive rate
+	 * @throws IllegalArgumentException if {@code expected} is negative, or {@code falsePositiveRate} is not strictly between 0 and 1
+	 */
+	BloomFilter(int expected, double falsePositiveRate) {
+		if (expected < 0) {
+			throw new IllegalArgumentException("expected cannot be negative.");
+		}
+		if (!(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+			throw new IllegalArgumentException("falsePositiveRate must be between 0 and 1.");
+		}
+		// Classic optimum: -ln(p) / ln(2)^2 bits per string, with ln(2) times that many hashes
+		double bitsPerString = -Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)) * BLOCKING_OVERHEAD;
+		long totalBits = (long) Math.ceil(Math.max(1, expected) * bitsPerString);
+		this.blocks = (int) Math.min(Integer.MAX_VALUE / BLOCK_LONGS, (totalBits + BLOCK_BITS - 1) / BLOCK_BITS);
+		this.bits = new long[blocks * BLOCK_LONGS];
+		this.hashes = (int) Math.max(1, Math.min(MAX_HASHES, Math.round(bitsPerString / BLOCKING_OVERHEAD * Math.log(2))));
+		return;
+	}
+
+	/**
+	 * Adds {@code s}.
+	 *
+	 * @param s a string
+	 */
+	void add(CharSequence s) {
+		long hash = hash(s);
+		int base = block(hash);
+		long positions = 0;
+		for (int i = 0; i < hashes; i++) {
+			// Each bit position is a 9-bit slice of a further mix of the hash, independent of the block
+			if (i % POSITIONS_PER_MIX == 0) {
+				positions = mix(hash + (i / POSITIONS_PER_MIX + 1) * GOLDEN_RATIO);
+			}
+			int bit = (int) positions & (BLOCK_BITS - 1);
+			positions >>>= POSITION_BITS;
+			bits[base + (bit >>> 6)] |= 1L << bit;
+		}
+		count++;
+		return;
+	}
+
+	/**
+	 * Might {@code s} have been added?
+	 *
+	 * @param s a string
+	 * @return {@code false} if {@code s} was definitely not added, otherwise {@code true}
+	 */
+	boolean mightContain(CharSequence s) {
+		long hash = hash(s);
+		int base = block(hash);
+		long positions = 0;
+		for (int i = 0; i < hashes; i++) {
+			// Each bit position is a 9-bit slice of a further mix of the hash, independent of the block
+			if (i % POSITIONS_PER_MIX == 0) {
+				positions = mix(hash + (i / POSITIONS_PER_MIX + 1) * GOLDEN_RATIO);
+			}
+			int bit = (int) positions & (BLOCK_BITS - 1);
+			positions >>>= POSITION_BITS;
+			if ((bits[base + (bit >>> 6)] & (1L << bit)) == 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the number of strings added.
+	 *
+	 * @return number of strings
+	 */
+	int count() {
+		return count;
+	}
+
+	/**
+	 * Returns the number of bits set per string.
+	 *
+	 * @return number of hashes
+	 */
+	int hashes() {
+		return hashes;
+	}
+
+	/**
+	 * Returns the size of the bit array, in bytes.
+	 *
+	 * @return size in bytes
+	 */
+	long sizeInBytes() {
+		return (long) bits.length * Long.BYTES;
+	}
+
+	/**
+	 * Returns the index in {@link #bits} of the first {@code long} of the block for {@code hash}.
+	 *
+	 * @param hash a hash
+	 * @return start of block
+	 */
+	private int block(long hash) {
+		// Map the high 32 bits onto [0, blocks) without division
+		return (int) (((hash >>> 32) * blocks) >>> 32) * BLOCK_LONGS;
+	}
+
+	/**
+	 * Returns a 64-bit hash of {@code s}: FNV-1a over its {@code char}s, then mixed.
+	 *
+	 * @param s a string
+	 * @return hash
+	 */
+	private static long hash(CharSequence s) {
+		long h = FNV_OFFSET;
+		for (int i = 0; i < s.length(); i++) {
+			h = (h ^ s.charAt(i)) * FNV_PRIME;
+		}
+		return mix(h);
+	}
+
+	/**
+	 * Returns {@code h} with its bits mixed (MurmurHash3's {@code fmix64}), so that every output bit depends on every input bit.
+	 *
+	 * @param h a value
+	 * @return mixed value
+	 */
+	private static long mix(long h) {
+		h = (h ^ (h >>> 33)) * 0xff51afd7ed558ccdL;
+		h = (h ^ (h >>> 33)) * 0xc4ceb9fe1a85ec53L;
+		return h ^ (h >>> 33);
+	}
+}
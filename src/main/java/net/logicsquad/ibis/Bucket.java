@@ -0,0 +1,137 @@
+package net.logicsquad.ibis;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.RandomAccess;
+
+/**
+ * <p>
+ * An immutable bucket of words sharing a {@link PhoneticCode}, frozen when a {@link Dictionary} is built. As a {@link java.util.List}, a
+ * {@code Bucket} holds its words in the order they were added. It also holds a permutation of them ordered by length, so that the words
+ * of a given length, or within a band of lengths, can be found by binary search rather than by scanning the whole bucket.
+ * </p>
+ *
+ * <p>
+ * Two words whose lengths differ by {@code n} are at least {@code n} edits apart, so {@link Dictionary#suggestionsFor(Word)} need only
+ * consider the band of lengths within its maximum distance of the incorrect word's length; and {@link #contains(Object)} need only
+ * compare words of exactly the right length.
+ * </p>
+ *
+ * @author paulh
+ * @since 1.0
+ */
+final class Bucket extends AbstractList<String> implements RandomAccess {
+	/**
+	 * {@link #byLength} for a single word
+	 */
+	private static final int[] SINGLE = { 0 };
+
+	/**
+	 * Words, in the order they were added
+	 */
+	private final String[] words;
+
+	/**
+	 * Indexes into {@link #words}, in ascending order of word length (and in the order they were added within each length)
+	 */
+	private final int[] byLength;
+
+	/**
+	 * Constructor
+	 *
+	 * @param words words, in the order they were added
+	 */
+	Bucket(Collection<String> words) {
+		this.words = words.toArray(new String[0]);
+		this.byLength = sortedByLength(this.words);
+		return;
+	}
+
+	@Override
+	public String get(int index) {
+		return words[index];
+	}
+
+	@Override
+	public int size() {
+		return words.length;
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		if (!(o instanceof String s)) {
+			return false;
+		}
+		for (int i = lowerBound(s.length()); i < byLength.length && words[byLength[i]].length() == s.length(); i++) {
+			if (words[byLength[i]].equals(s)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns indexes of words whose length is within {@code slack} of {@code length}, in the order the words were added.
+	 *
+	 * @param length a length
+	 * @param slack  maximum difference in length
+	 * @return indexes of words in length band, in ascending order
+	 */
+	int[] within(int length, int slack) {
+		int from = lowerBound(length - slack);
+		int to = lowerBound(length + slack + 1);
+		int[] result = Arrays.copyOfRange(byLength, from, to);
+		Arrays.sort(result);
+		return result;
+	}
+
+	/**
+	 * Returns the position in {@link #byLength} of the first word at least {@code length} long.
+	 *
+	 * @param length a length
+	 * @return lower bound for {@code length}
+	 */
+	private int lowerBound(int length) {
+		int lo = 0;
+		int hi = byLength.length;
+		while (lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			if (words[byLength[mid]].length() < length) {
+				lo = mid + 1;
+			} else {
+				hi = mid;
+			}
+		}
+		return lo;
+	}
+
+	/**
+	 * Returns indexes into {@code words} in ascending order of word length, keeping words of the same length in their original order.
+	 *
+	 * @param words an array of words
+	 * @return indexes ordered by word length
+	 */
+	private static int[] sortedByLength(String[] words) {
+		if (words.length == 1) {
+			return SINGLE;
+		}
+		// Counting sort on length: stable, and linear in the number of words
+		int maxLength = 0;
+		for (String s : words) {
+			maxLength = Math.max(maxLength, s.length());
+		}
+		int[] starts = new int[maxLength + 2];
+		for (String s : words) {
+			starts[s.length() + 1]++;
+		}
+		for (int l = 1; l < starts.length; l++) {
+			starts[l] += starts[l - 1];
+		}
+		int[] result = new int[words.length];
+		for (int i = 0; i < words.length; i++) {
+			result[starts[words[i].length()]++] = i;
+		}
+		return result;
+	}
+}
@@ -0,0 +1,186 @@
+package net.logicsquad.ibis;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * <p>
+ * Limits on the work done by a single call to {@link Checker#checkSpelling(Tokenizer, Budget)}. A {@code Budget} can limit:
+ * </p>
+ * 
+ * <ul>
+ * <li>the time spent computing suggestions (a <em>timeout</em>, measured from the start of the call);</li>
+ * <li>the number of tokens checked; and</li>
+ * <li>the number of incorrect words for which suggestions are computed.</li>
+ * </ul>
+ * 
+ * <p>
+ * Finding suggestions is by far the most expensive part of checking, so once the timeout expires or the suggestion limit is reached,
+ * incorrect {@link Word}s are still reported, but without suggestions. Once the token limit is reached, checking stops. In each case the
+ * {@link CheckResult} is marked as partial. {@code Budget}s are immutable and thread-safe.
+ * </p>
+ * 
+ * @author paulh
+ * @since 1.0
+ */
+public class Budget {
+	/**
+	 * A {@code Budget} with no limits
+	 */
+	private static final Budget UNLIMITED = builder().build();
+
+	/**
+	 * Timeout in nanoseconds ({@link Long#MAX_VALUE} if none)
+	 */
+	private final long timeoutNanos;
+
+	/**
+	 * Maximum number of tokens to check
+	 */
+	private final int maxTokens;
+
+	/**
+	 * Maximum number of words for which to compute suggestions
+	 */
+	private final int maxSuggestions;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param builder a {@link Builder}
+	 */
+	private Budget(Builder builder) {
+		this.timeoutNanos = builder.timeoutNanos;
+		this.maxTokens = builder.maxTokens;
+		this.maxSuggestions = builder.maxSuggestions;
+		return;
+	}
+
+	/**
+	 * Returns a {@code Budget} with no limits.
+	 * 
+	 * @return unlimited {@code Budget}
+	 */
+	public static Budget unlimited() {
+		return UNLIMITED;
+	}
+
+	/**
+	 * Returns a new {@code Builder}.
+	 * 
+	 * @return a new {@code Builder}
+	 */
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * Has the timeout expired for a call that started at {@code startNanos}?
+	 * 
+	 * @param startNanos start time of a call, from {@link System#nanoTime()}
+	 * @return {@code true} if the timeout has expired, otherwise {@code false}
+	 */
+	boolean hasExpired(long startNanos) {
+		return timeoutNanos != Long.MAX_VALUE && System.nanoTime() - startNanos >= timeoutNanos;
+	}
+
+	/**
+	 * Returns maximum number of tokens to check.
+	 * 
+	 * @return maximum number of tokens
+	 */
+	int maxTokens() {
+		return maxTokens;
+	}
+
+	/**
+	 * Returns maximum number of words for which to compute suggestions.
+	 * 
+	 * @return maximum number of words for which to compute suggestions
+	 */
+	int maxSuggestions() {
+		return maxSuggestions;
+	}
+
+	/**
+	 * Builder for {@code Budget} objects. Limits not set are unlimited.
+	 */
+	public static class Builder {
+		/**
+		 * Timeout in nanoseconds
+		 */
+		private long timeoutNanos = Long.MAX_VALUE;
+
+		/**
+		 * Maximum number of tokens to check
+		 */
+		private int maxTokens = Integer.MAX_VALUE;
+
+		/**
+		 * Maximum number of words for which to compute suggestions
+		 */
+		private int maxSuggestions = Integer.MAX_VALUE;
+
+		/**
+		 * Constructor
+		 */
+		private Builder() {
+		}
+
+		/**
+		 * Sets the time after which no more suggestions are computed, measured from the start of each call.
+		 * 
+		 * @param timeout a {@link Duration}
+		 * @return this object
+		 * @throws NullPointerException     if {@code timeout} is {@code null}
+		 * @throws IllegalArgumentException if {@code timeout} is negative
+		 */
+		public Builder timeout(Duration timeout) {
+			Objects.requireNonNull(timeout);
+			if (timeout.isNegative()) {
+				throw new IllegalArgumentException("timeout cannot be negative.");
+			}
+			this.timeoutNanos = timeout.compareTo(Duration.ofNanos(Long.MAX_VALUE)) < 0 ? timeout.toNanos() : Long.MAX_VALUE;
+			return this;
+		}
+
+		/**
+		 * Sets the maximum number of tokens to check.
+		 * 
+		 * @param maxTokens maximum number of tokens
+		 * @return this object
+		 * @throws IllegalArgumentException if {@code maxTokens} is negative
+		 */
+		public Builder maxTokens(int maxTokens) {
+			if (maxTokens < 0) {
+				throw new IllegalArgumentException("maxTokens cannot be negative.");
+			}
+			this.maxTokens = maxTokens;
+			return this;
+		}
+
+		/**
+		 * Sets the maximum number of incorrect words for which to compute suggestions.
+		 * 
+		 * @param maxSuggestions maximum number of words for which to compute suggestions
+		 * @return this object
+		 * @throws IllegalArgumentException if {@code maxSuggestions} is negative
+		 */
+		public Builder maxSuggestions(int maxSuggestions) {
+			if (maxSuggestions < 0) {
+				throw new IllegalArgumentException("maxSuggestions cannot be negative.");
+			}
+			this.maxSuggestions = maxSuggestions;
+			return this;
+		}
+
+		/**
+		 * Creates and returns a new {@code Budget} from this {@code Builder}.
+		 * 
+		 * @return new {@code Budget}
+		 */
+		public Budget build() {
+			return new Budget(this);
+		}
+	}
+}
@@ -0,0 +1,142 @@
+package net.logicsquad.ibis;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * <p>
+ * Character classification and case folding over whole runs of text: finding the first non-ASCII character, detecting digits,
+ * lower-casing, and Unicode normalisation. Each works on the {@link String} in place, with a fast path for ASCII text, and copies only
+ * when it has to produce a new {@link String}. There are no SIMD versions: the incubating Vector API loads only from arrays, and copying
+ * each {@link String} into one costs more than vectorising saves on the short tokens checked here.
+ * </p>
+ *
+ * @author paulh
+ * @since 1.0
+ */
+final class CharClass {
+	/**
+	 * Private constructor
+	 */
+	private CharClass() {
+		return;
+	}
+
+	/**
+	 * Returns the index of the first non-ASCII character in {@code text}, or {@code -1} if there is none.
+	 *
+	 * @param text some text
+	 * @return index of first non-ASCII character, or {@code -1}
+	 * @throws NullPointerException if {@code text} is {@code null}
+	 */
+	static int indexOfNonAscii(String text) {
+		Objects.requireNonNull(text);
+		for (int i = 0; i < text.length(); i++) {
+			if (text.charAt(i) >= 0x80) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Does {@code text} contain at least one digit (as defined by {@link Character#isDigit(char)})?
+	 *
+	 * @param text some text
+	 * @return {@code true} if {@code text} contains a digit, otherwise {@code false}
+	 * @throws NullPointerException if {@code text} is {@code null}
+	 */
+	static boolean containsDigit(String text) {
+		Objects.requireNonNull(text);
+		for (int i = 0; i < text.length(); i++) {
+			if (Character.isDigit(text.charAt(i))) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns {@code text} lower-cased exactly as by {@link String#toLowerCase()}, with a fast path for ASCII text. If {@code text} is
+	 * already lower case, it is returned as is.
+	 *
+	 * @param text some text
+	 * @return {@code text} in lower case
+	 * @throws NullPointerException if {@code text} is {@code null}
+	 */
+	static String toLowerCase(String text) {
+		Objects.requireNonNull(text);
+		if (!foldsAscii()) {
+			return text.toLowerCase();
+		}
+		int first = -1;
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			if (c >= 0x80) {
+				return text.toLowerCase();
+			} else if (first == -1 && c >= 'A' && c <= 'Z') {
+				first = i;
+			}
+		}
+		if (first == -1) {
+			return text;
+		}
+		char[] chars = text.toCharArray();
+		for (int i = first; i < chars.length; i++) {
+			if (chars[i] >= 'A' && chars[i] <= 'Z') {
+				chars[i] += 'a' - 'A';
+			}
+		}
+		return new String(chars);
+	}
+
+	/**
+	 * Returns {@code text} in Unicode normalisation form {@code form}. Text already in {@code form} is returned as is, without allocating.
+	 * Text made up only of characters below {@link #normalizedBelow(Normalizer.Form)} (which includes all ASCII text) is known to be in
+	 * {@code form} without consulting {@link Normalizer}.
+	 *
+	 * @param text some text
+	 * @param form a {@link Normalizer.Form}
+	 * @return {@code text} in {@code form}
+	 * @throws NullPointerException if either argument is {@code null}
+	 */
+	static String normalize(String text, Normalizer.Form form) {
+		Objects.requireNonNull(form);
+		char limit = normalizedBelow(form);
+		for (int i = 0; i < text.length(); i++) {
+			if (text.charAt(i) >= limit) {
+				return Normalizer.isNormalized(text, form) ? text : Normalizer.normalize(text, form);
+			}
+		}
+		return text;
+	}
+
+	/**
+	 * Returns a character such that any text made up only of characters below it is in normalisation form {@code form}. For the composed
+	 * forms, no such character has a decomposition (of the relevant kind), and none is a combining mark, so nothing can be composed. The
+	 * first combining diacritical mark is U+0300, and the first character with a compatibility decomposition is U+00A0 (no-break space).
+	 * For the decomposed forms, Latin-1 letters with diacritics (from U+00C0) decompose.
+	 *
+	 * @param form a {@link Normalizer.Form}
+	 * @return lowest character that might need normalising
+	 */
+	static char normalizedBelow(Normalizer.Form form) {
+		return switch (form) {
+		case NFC -> '\u0300';
+		case NFD -> '\u00c0';
+		case NFKC, NFKD -> '\u00a0';
+		};
+	}
+
+	/**
+	 * Does {@link String#toLowerCase()} fold ASCII letters to ASCII in the default locale? It does not in Turkish, Azeri and Lithuanian,
+	 * which have their own rules for {@code I}.
+	 *
+	 * @return {@code true} if the ASCII fast path is safe, otherwise {@code false}
+	 */
+	private static boolean foldsAscii() {
+		String language = Locale.getDefault().getLanguage();
+		return !("tr".equals(language) || "az".equals(language) || "lt".equals(language));
+	}
+}
@@ -0,0 +1,61 @@
+package net.logicsquad.ibis;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The result of checking text within a {@link Budget}: a list of incorrect {@link Word}s, and an indication of whether any limit was
+ * reached. In a <em>partial</em> result, some incorrect {@link Word}s may have no suggestions (that is, {@link Word#suggestions()} returns
+ * {@code null}), and text beyond the token limit will not have been checked. {@code CheckResult}s are immutable and thread-safe.
+ * 
+ * @author paulh
+ * @since 1.0
+ */
+public class CheckResult {
+	/**
+	 * Incorrect {@link Word}s
+	 */
+	private final List<Word> words;
+
+	/**
+	 * Was any limit reached?
+	 */
+	private final boolean partial;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param words   incorrect {@link Word}s
+	 * @param partial was any limit reached?
+	 * @throws NullPointerException if {@code words} is {@code null}
+	 */
+	CheckResult(List<Word> words, boolean partial) {
+		Objects.requireNonNull(words);
+		this.words = List.copyOf(words);
+		this.partial = partial;
+		return;
+	}
+
+	/**
+	 * Returns incorrect {@link Word}s, in the order they appear in the text.
+	 * 
+	 * @return list of incorrect {@link Word}s
+	 */
+	public List<Word> words() {
+		return words;
+	}
+
+	/**
+	 * Was any limit in the {@link Budget} reached?
+	 * 
+	 * @return {@code true} if this result is partial, otherwise {@code false}
+	 */
+	public boolean isPartial() {
+		return partial;
+	}
+
+	@Override
+	public String toString() {
+		return "CheckResult [words=" + words + ", partial=" + partial + "]";
+	}
+}
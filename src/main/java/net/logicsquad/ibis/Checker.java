@@ -3,19 +3,42 @@ package net.logicsquad.ibis;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * A simple spelling checker. A {@code Checker} requires a {@link Dictionary} on construction, and a word {@link Tokenizer} over the text to
- * check when calling {@link #checkSpelling(Tokenizer)}.
+ * check when calling {@link #checkSpelling(Tokenizer)}. Alternatively, a {@code Checker} can be constructed with a {@link Supplier} of
+ * {@link Dictionary} objects (such as a {@link DictionaryReloader}), in which case each call to {@link #checkSpelling(Tokenizer)} uses
+ * the {@link Dictionary} current at the start of that call.
+ * 
+ * <p>
+ * As well as returning all incorrect {@link Word}s at once, a {@code Checker} can deliver them as they are found: to a
+ * {@link MisspellingListener}, as a lazy {@link Stream}, or from a {@link Flow.Publisher}. In each case the caller can stop checking
+ * early.
+ * </p>
  * 
  * @author paulh
  * @since 1.0
  */
 public class Checker {
 	/**
-	 * Dictionary providing correct spellings
+	 * Target chunk size (in characters) for {@link #checkSpellingInParallel(String, ForkJoinPool)}
+	 */
+	private static final int CHUNK_SIZE = 64 * 1024;
+
+	/**
+	 * Supplier of the dictionary providing correct spellings
 	 */
-	private final Dictionary dictionary;
+	private final Supplier<Dictionary> dictionarySupplier;
 
 	/**
 	 * Constructor
@@ -25,7 +48,19 @@ public class Checker {
 	 */
 	public Checker(Dictionary dictionary) {
 		Objects.requireNonNull(dictionary);
-		this.dictionary = dictionary;
+		this.dictionarySupplier = () -> dictionary;
+		return;
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param dictionarySupplier a {@link Supplier} of {@link Dictionary} objects
+	 * @throws NullPointerException if {@code dictionarySupplier} is {@code null}
+	 */
+	public Checker(Supplier<Dictionary> dictionarySupplier) {
+		Objects.requireNonNull(dictionarySupplier);
+		this.dictionarySupplier = dictionarySupplier;
 		return;
 	}
 
@@ -40,12 +75,282 @@ public class Checker {
 	public List<Word> checkSpelling(Tokenizer tokenizer) {
 		Objects.requireNonNull(tokenizer);
 		List<Word> result = new ArrayList<>();
+		checkSpelling(tokenizer, result::add);
+		return result;
+	}
+
+	/**
+	 * Checks spelling of text represented by {@link Tokenizer}, passing each incorrect {@link Word} (along with suggestions for the correct
+	 * word) to {@code listener} as soon as it is found. Checking stops early if {@code listener} returns {@code false}.
+	 * 
+	 * @param tokenizer a {@link Tokenizer}
+	 * @param listener  a {@link MisspellingListener}
+	 * @return {@code true} if the whole text was checked, or {@code false} if {@code listener} stopped checking early
+	 * @throws NullPointerException if either argument is {@code null}
+	 */
+	public boolean checkSpelling(Tokenizer tokenizer, MisspellingListener listener) {
+		Objects.requireNonNull(tokenizer);
+		Objects.requireNonNull(listener);
+		Dictionary dictionary = dictionarySupplier.get();
+		while (tokenizer.hasNext()) {
+			Word w = check(dictionary, tokenizer.next());
+			if (w != null && !listener.misspelled(w)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Checks spelling of text represented by {@link Tokenizer} within the limits set by {@code budget}. Once its timeout has expired or its
+	 * suggestion limit has been reached, incorrect {@link Word}s are reported without suggestions; once its token limit has been reached,
+	 * checking stops. In either case the {@link CheckResult} is marked as partial.
+	 * 
+	 * @param tokenizer a {@link Tokenizer}
+	 * @param budget    a {@link Budget}
+	 * @return {@link CheckResult} containing incorrect {@link Word}s
+	 * @throws NullPointerException if either argument is {@code null}
+	 */
+	public CheckResult checkSpelling(Tokenizer tokenizer, Budget budget) {
+		Objects.requireNonNull(tokenizer);
+		Objects.requireNonNull(budget);
+		long start = System.nanoTime();
+		Dictionary dictionary = dictionarySupplier.get();
+		List<Word> result = new ArrayList<>();
+		boolean partial = false;
+		int tokens = 0;
+		int suggestions = 0;
 		while (tokenizer.hasNext()) {
+			if (tokens++ == budget.maxTokens()) {
+				partial = true;
+				break;
+			}
 			Word w = tokenizer.next();
-			if (!dictionary.isCorrect(w)) {
-				result.add(w.withSuggestions(dictionary.suggestionsFor(w)));
+			Lookup lookup = dictionary.lookup(w);
+			if (!lookup.isCorrect()) {
+				if (suggestions < budget.maxSuggestions() && !budget.hasExpired(start)) {
+					suggestions++;
+					result.add(w.withSuggestions(lookup.suggestions()));
+				} else {
+					partial = true;
+					result.add(w);
+				}
+			}
+		}
+		return new CheckResult(result, partial);
+	}
+
+	/**
+	 * Checks spelling of {@code text}, reusing results for unchanged paragraphs from {@code cache}. The text is split into paragraphs at
+	 * blank lines; each paragraph found in {@code cache} is not tokenized or checked again, and each that is not is checked with a
+	 * {@link Tokenizer} built with default settings, and its result cached. The result is identical to that of
+	 * {@link #checkSpelling(Tokenizer)} with such a {@link Tokenizer} over {@code text}: {@link Word}s are in order, and their start
+	 * positions are relative to {@code text}.
+	 * 
+	 * @param text  some text
+	 * @param cache a {@link ParagraphCache}
+	 * @return list of incorrect {@link Word}s with suggestions
+	 * @throws NullPointerException if either argument is {@code null}
+	 */
+	public List<Word> checkSpelling(String text, ParagraphCache cache) {
+		Objects.requireNonNull(text);
+		Objects.requireNonNull(cache);
+		Dictionary dictionary = dictionarySupplier.get();
+		int[] boundaries = TextSplitter.paragraphs(text);
+		List<Word> result = new ArrayList<>();
+		for (int i = 0; i < boundaries.length - 1; i++) {
+			int offset = boundaries[i];
+			ParagraphCache.Key key = ParagraphCache.key(text, offset, boundaries[i + 1]);
+			List<Word> words = cache.get(dictionary, key);
+			if (words == null) {
+				words = new ArrayList<>();
+				Tokenizer tokenizer = new Tokenizer(text.substring(offset, boundaries[i + 1]));
+				while (tokenizer.hasNext()) {
+					Word w = check(dictionary, tokenizer.next());
+					if (w != null) {
+						words.add(w);
+					}
+				}
+				cache.put(dictionary, key, words);
+			}
+			for (Word w : words) {
+				result.add(offset == 0 ? w : w.shift(offset));
 			}
 		}
 		return result;
 	}
+
+	/**
+	 * Checks spelling of {@code text} using {@link ForkJoinPool#commonPool()}. See {@link #checkSpellingInParallel(String, ForkJoinPool)}.
+	 * 
+	 * @param text some text
+	 * @return list of incorrect {@link Word}s with suggestions
+	 * @throws NullPointerException if {@code text} is {@code null}
+	 */
+	public List<Word> checkSpellingInParallel(String text) {
+		return checkSpellingInParallel(text, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Checks spelling of {@code text} using {@code pool}, returning a {@link List} of incorrect {@link Word}s, along with suggestions for the
+	 * correct word. The text is split into chunks at paragraph, sentence or (failing those) word boundaries, and the chunks are tokenized
+	 * and checked in parallel. The result is identical to that of {@link #checkSpelling(Tokenizer)} with a {@link Tokenizer} over
+	 * {@code text}: {@link Word}s are in order, and their start positions are relative to {@code text}. This method is only worthwhile for
+	 * large texts; small texts are checked on the calling thread.
+	 * 
+	 * @param text some text
+	 * @param pool a {@link ForkJoinPool}
+	 * @return list of incorrect {@link Word}s with suggestions
+	 * @throws NullPointerException if either argument is {@code null}
+	 */
+	public List<Word> checkSpellingInParallel(String text, ForkJoinPool pool) {
+		Objects.requireNonNull(text);
+		Objects.requireNonNull(pool);
+		int[] boundaries = TextSplitter.split(text, CHUNK_SIZE);
+		ChunkTask task = new ChunkTask(dictionarySupplier.get(), text, boundaries, 0, boundaries.length - 1);
+		return boundaries.length == 2 ? task.compute() : pool.invoke(task);
+	}
+
+	/**
+	 * Returns a lazy, sequential {@link Stream} of incorrect {@link Word}s (with suggestions) in the text represented by {@link Tokenizer}.
+	 * Text is checked only as far as is needed to satisfy the {@link Stream}'s terminal operation, so short-circuiting operations such as
+	 * {@link Stream#limit(long)} or {@link Stream#findFirst()} end checking early.
+	 * 
+	 * @param tokenizer a {@link Tokenizer}
+	 * @return {@link Stream} of incorrect {@link Word}s with suggestions
+	 * @throws NullPointerException if {@code tokenizer} is {@code null}
+	 */
+	public Stream<Word> misspellings(Tokenizer tokenizer) {
+		Objects.requireNonNull(tokenizer);
+		Dictionary dictionary = dictionarySupplier.get();
+		Spliterator<Word> spliterator = new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+			@Override
+			public boolean tryAdvance(Consumer<? super Word> action) {
+				while (tokenizer.hasNext()) {
+					Word w = check(dictionary, tokenizer.next());
+					if (w != null) {
+						action.accept(w);
+						return true;
+					}
+				}
+				return false;
+			}
+		};
+		return StreamSupport.stream(spliterator, false);
+	}
+
+	/**
+	 * Returns a {@link Flow.Publisher} of incorrect {@link Word}s (with suggestions) in the text represented by {@link Tokenizer}, checking
+	 * text on {@link ForkJoinPool#commonPool()}. See {@link #publisher(Tokenizer, Executor)}.
+	 * 
+	 * @param tokenizer a {@link Tokenizer}
+	 * @return {@link Flow.Publisher} of incorrect {@link Word}s with suggestions
+	 * @throws NullPointerException if {@code tokenizer} is {@code null}
+	 */
+	public Flow.Publisher<Word> publisher(Tokenizer tokenizer) {
+		return publisher(tokenizer, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Returns a {@link Flow.Publisher} of incorrect {@link Word}s (with suggestions) in the text represented by {@link Tokenizer}, checking
+	 * text using {@code executor}. Text is checked only as far as is needed to satisfy demand signalled by the
+	 * {@link Flow.Subscriber}, and checking stops if the {@link Flow.Subscription} is cancelled. Since a {@link Tokenizer} can be consumed
+	 * only once, the {@link Flow.Publisher} accepts a single {@link Flow.Subscriber}.
+	 * 
+	 * @param tokenizer a {@link Tokenizer}
+	 * @param executor  an {@link Executor} on which to check text and signal the {@link Flow.Subscriber}
+	 * @return {@link Flow.Publisher} of incorrect {@link Word}s with suggestions
+	 * @throws NullPointerException if either argument is {@code null}
+	 */
+	public Flow.Publisher<Word> publisher(Tokenizer tokenizer, Executor executor) {
+		Objects.requireNonNull(executor);
+		return new MisspellingPublisher(misspellings(tokenizer).iterator(), executor);
+	}
+
+	/**
+	 * Checks a range of chunks of some text, splitting the range in half until a single chunk remains.
+	 */
+	private static final class ChunkTask extends RecursiveTask<List<Word>> {
+		/**
+		 * Serial version UID
+		 */
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * {@link Dictionary} to check against
+		 */
+		private final transient Dictionary dictionary;
+
+		/**
+		 * Text to check
+		 */
+		private final String text;
+
+		/**
+		 * Chunk boundaries from {@link TextSplitter#split(String, int)}
+		 */
+		private final int[] boundaries;
+
+		/**
+		 * Index of first chunk (inclusive)
+		 */
+		private final int from;
+
+		/**
+		 * Index of last chunk (exclusive)
+		 */
+		private final int to;
+
+		/**
+		 * Constructor
+		 * 
+		 * @param dictionary {@link Dictionary} to check against
+		 * @param text       text to check
+		 * @param boundaries chunk boundaries
+		 * @param from       index of first chunk (inclusive)
+		 * @param to         index of last chunk (exclusive)
+		 */
+		private ChunkTask(Dictionary dictionary, String text, int[] boundaries, int from, int to) {
+			this.dictionary = dictionary;
+			this.text = text;
+			this.boundaries = boundaries;
+			this.from = from;
+			this.to = to;
+			return;
+		}
+
+		@Override
+		protected List<Word> compute() {
+			if (to - from == 1) {
+				int offset = boundaries[from];
+				Tokenizer tokenizer = new Tokenizer(text.substring(offset, boundaries[to]));
+				List<Word> result = new ArrayList<>();
+				while (tokenizer.hasNext()) {
+					Word w = check(dictionary, tokenizer.next());
+					if (w != null) {
+						result.add(w.shift(offset));
+					}
+				}
+				return result;
+			}
+			int middle = (from + to) >>> 1;
+			ChunkTask right = new ChunkTask(dictionary, text, boundaries, middle, to);
+			right.fork();
+			List<Word> result = new ChunkTask(dictionary, text, boundaries, from, middle).compute();
+			result.addAll(right.join());
+			return result;
+		}
+	}
+
+	/**
+	 * Checks {@code word} against {@code dictionary}.
+	 * 
+	 * @param dictionary a {@link Dictionary}
+	 * @param word       a {@link Word}
+	 * @return {@code null} if {@code word} is correct, otherwise a copy of {@code word} with suggestions
+	 */
+	private static Word check(Dictionary dictionary, Word word) {
+		Lookup lookup = dictionary.lookup(word);
+		return lookup.isCorrect() ? null : word.withSuggestions(lookup.suggestions());
+	}
 }
@@ -0,0 +1,282 @@
+package net.logicsquad.ibis;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * <p>
+ * Finds <em>real-word</em> errors: correctly spelled words that are probably not the word intended, such as "their" for "there", or "form"
+ * for "from". Such words pass {@link Checker}, since they are in the {@link Dictionary}.
+ * </p>
+ *
+ * <p>
+ * A {@code ContextChecker} knows a number of <em>confusion sets</em> of words that are easily mistaken for each other. For each word from a
+ * {@link Tokenizer} that belongs to a confusion set, each member of the set is scored against the two words either side of it using an
+ * {@link NgramModel} (with "stupid backoff" from trigrams to bigrams to unigrams), and the word is reported if another member scores
+ * better by more than a threshold. The only suggestion for a reported {@link Word} is the best-scoring member. Words not in any confusion
+ * set cost a single hash lookup.
+ * </p>
+ *
+ * <pre>
+ * ContextChecker contextChecker = new ContextChecker(NgramModel.load(Path.of("ngrams.txt")));
+ * List&lt;Word&gt; confused = contextChecker.check(new Tokenizer(text));
+ * </pre>
+ *
+ * <p>
+ * A {@code ContextChecker} is immutable and thread-safe.
+ * </p>
+ *
+ * @author paulh
+ * @since 1.0
+ */
+public class ContextChecker {
+	/**
+	 * Default confusion sets
+	 */
+	private static final List<Set<String>> DEFAULT_CONFUSION_SETS = List.of(Set.of("their", "there", "they're"), Set.of("your", "you're"),
+			Set.of("to", "too", "two"), Set.of("then", "than"), Set.of("form", "from"), Set.of("loose", "lose"), Set.of("affect", "effect"),
+			Set.of("accept", "except"), Set.of("quiet", "quite"), Set.of("weather", "whether"), Set.of("principal", "principle"),
+			Set.of("peace", "piece"), Set.of("brake", "break"), Set.of("past", "passed"), Set.of("were", "where"));
+
+	/**
+	 * Default threshold: another word must be at least five times as likely
+	 */
+	private static final double DEFAULT_THRESHOLD = Math.log(5);
+
+	/**
+	 * Penalty (as a natural logarithm) applied for each step of backoff
+	 */
+	private static final double BACKOFF = Math.log(0.4);
+
+	/**
+	 * Words either side of the scored word
+	 */
+	private static final int CONTEXT = 2;
+
+	/**
+	 * Size of window of {@link Word}s
+	 */
+	private static final int WINDOW = 2 * CONTEXT + 1;
+
+	/**
+	 * {@link NgramModel} for scoring
+	 */
+	private final NgramModel model;
+
+	/**
+	 * Map from (lower case) words to the confusion sets containing them
+	 */
+	private final Map<String, ConfusionSet> confusionSets = new HashMap<>();
+
+	/**
+	 * Score by which another word must beat the word found, as a natural logarithm of the ratio of likelihoods
+	 */
+	private final double threshold;
+
+	/**
+	 * Constructor using default confusion sets (for English) and threshold.
+	 *
+	 * @param model an {@link NgramModel}
+	 * @throws NullPointerException if {@code model} is {@code null}
+	 */
+	public ContextChecker(NgramModel model) {
+		this(model, DEFAULT_CONFUSION_SETS, DEFAULT_THRESHOLD);
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param model         an {@link NgramModel}
+	 * @param confusionSets sets of (lower case) words that are easily confused
+	 * @param threshold     natural logarithm of the ratio by which another word must be more likely than the word found for it to be
+	 *                      reported
+	 * @throws IllegalArgumentException if {@code threshold} is negative, or any word is in more than one confusion set
+	 * @throws NullPointerException     if {@code model} or {@code confusionSets} is {@code null}
+	 */
+	public ContextChecker(NgramModel model, Collection<Set<String>> confusionSets, double threshold) {
+		Objects.requireNonNull(model);
+		Objects.requireNonNull(confusionSets);
+		if (!(threshold >= 0)) {
+			throw new IllegalArgumentException("threshold must be non-negative.");
+		}
+		this.model = model;
+		this.threshold = threshold;
+		for (Set<String> set : confusionSets) {
+			ConfusionSet confusionSet = new ConfusionSet(set);
+			for (String word : confusionSet.words) {
+				if (this.confusionSets.put(word, confusionSet) != null) {
+					throw new IllegalArgumentException("'" + word + "' is in more than one confusion set.");
+				}
+			}
+		}
+		return;
+	}
+
+	/**
+	 * Checks text represented by {@link Tokenizer}, returning a {@link List} of {@link Word}s that are probably real-word errors, each with
+	 * a single suggestion.
+	 *
+	 * @param tokenizer a {@link Tokenizer}
+	 * @return list of {@link Word}s with suggestions
+	 * @throws NullPointerException if {@code tokenizer} is {@code null}
+	 */
+	public List<Word> check(Tokenizer tokenizer) {
+		Objects.requireNonNull(tokenizer);
+		List<Word> result = new ArrayList<>();
+		// A sliding window, with the word being scored in the middle (and null for positions beyond either end of the text)
+		Word[] words = new Word[WINDOW];
+		long[] hashes = new long[WINDOW];
+		int trailing = CONTEXT;
+		while (trailing > 0) {
+			System.arraycopy(words, 1, words, 0, WINDOW - 1);
+			System.arraycopy(hashes, 1, hashes, 0, WINDOW - 1);
+			if (tokenizer.hasNext()) {
+				words[WINDOW - 1] = tokenizer.next();
+				hashes[WINDOW - 1] = NgramModel.hash(words[WINDOW - 1].text());
+			} else {
+				words[WINDOW - 1] = null;
+				trailing--;
+			}
+			Word w = words[CONTEXT] == null ? null : check(words, hashes);
+			if (w != null) {
+				result.add(w);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Checks {@link Word} in the middle of {@code words}.
+	 *
+	 * @param words  window of {@link Word}s
+	 * @param hashes hashes of {@code words}
+	 * @return {@link Word} with suggestion if it is probably a real-word error, otherwise {@code null}
+	 */
+	private Word check(Word[] words, long[] hashes) {
+		Word word = words[CONTEXT];
+		ConfusionSet confusionSet = confusionSets.get(word.toLowerCase());
+		if (confusionSet == null) {
+			return null;
+		}
+		long original = hashes[CONTEXT];
+		double actual = score(words, hashes);
+		double best = actual;
+		String suggestion = null;
+		for (int i = 0; i < confusionSet.words.length; i++) {
+			hashes[CONTEXT] = confusionSet.hashes[i];
+			double score = score(words, hashes);
+			if (score > best) {
+				best = score;
+				suggestion = confusionSet.words[i];
+			}
+		}
+		hashes[CONTEXT] = original;
+		if (suggestion == null || best - actual <= threshold) {
+			return null;
+		}
+		if (Character.isUpperCase(word.text().charAt(0))) {
+			suggestion = Character.toUpperCase(suggestion.charAt(0)) + suggestion.substring(1);
+		}
+		return word.withSuggestions(List.of(suggestion));
+	}
+
+	/**
+	 * Returns score (as a natural logarithm) of the text in a window, using {@code hashes} for words (so the middle word can be replaced by
+	 * a candidate). Only the terms of the score that depend on the middle word are included, so scores for different candidates in the
+	 * same window are comparable.
+	 *
+	 * @param words  window of {@link Word}s
+	 * @param hashes hashes of words in window
+	 * @return score
+	 */
+	private double score(Word[] words, long[] hashes) {
+		double score = 0;
+		for (int i = CONTEXT; i <= 2 * CONTEXT; i++) {
+			if (words[i] == null) {
+				break;
+			}
+			if (words[i - 2] != null) {
+				score += trigramScore(hashes[i - 2], hashes[i - 1], hashes[i]);
+			} else if (words[i - 1] != null) {
+				score += bigramScore(hashes[i - 1], hashes[i]);
+			} else {
+				score += unigramScore(hashes[i]);
+			}
+		}
+		return score;
+	}
+
+	/**
+	 * Returns score of {@code w3} following {@code w1} and {@code w2}.
+	 *
+	 * @param w1 hash of first word
+	 * @param w2 hash of second word
+	 * @param w3 hash of third word
+	 * @return score
+	 */
+	private double trigramScore(long w1, long w2, long w3) {
+		double trigram = model.logCount(w1, w2, w3);
+		double context = model.logCount(w1, w2);
+		return trigram == Double.NEGATIVE_INFINITY || context == Double.NEGATIVE_INFINITY ? BACKOFF + bigramScore(w2, w3) : trigram - context;
+	}
+
+	/**
+	 * Returns score of {@code w2} following {@code w1}.
+	 *
+	 * @param w1 hash of first word
+	 * @param w2 hash of second word
+	 * @return score
+	 */
+	private double bigramScore(long w1, long w2) {
+		double bigram = model.logCount(w1, w2);
+		double context = model.logCount(w1);
+		return bigram == Double.NEGATIVE_INFINITY || context == Double.NEGATIVE_INFINITY ? BACKOFF + unigramScore(w2) : bigram - context;
+	}
+
+	/**
+	 * Returns score of {@code w1}.
+	 *
+	 * @param w1 hash of word
+	 * @return score
+	 */
+	private double unigramScore(long w1) {
+		// An unseen word is treated as seen half a time
+		double unigram = Math.max(model.logCount(w1), Math.log(0.5));
+		return unigram - Math.log(Math.max(model.total(), 1));
+	}
+
+	/**
+	 * A set of words that are easily confused, with their hashes.
+	 */
+	private static final class ConfusionSet {
+		/**
+		 * Words (in lower case)
+		 */
+		private final String[] words;
+
+		/**
+		 * Hashes of {@link #words}
+		 */
+		private final long[] hashes;
+
+		/**
+		 * Constructor
+		 *
+		 * @param set a set of words
+		 */
+		private ConfusionSet(Set<String> set) {
+			this.words = set.stream().map(s -> s.toLowerCase(Locale.ENGLISH)).sorted().toArray(String[]::new);
+			this.hashes = new long[words.length];
+			for (int i = 0; i < words.length; i++) {
+				hashes[i] = NgramModel.hash(words[i]);
+			}
+			return;
+		}
+	}
+}
@@ -5,20 +5,26 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
+import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.text.Normalizer;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
 import java.util.stream.Stream;
 import java.util.zip.GZIPInputStream;
 
-import org.apache.commons.codec.EncoderException;
-import org.apache.commons.codec.StringEncoder;
-import org.apache.commons.codec.language.Metaphone;
 import org.apache.commons.text.similarity.LevenshteinDistance;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -33,6 +39,23 @@ import org.slf4j.LoggerFactory;
  * <li>provide suggestions for incorrect words.</li>
  * </ul>
  * 
+ * <p>
+ * A {@code Dictionary} can be layered over a <em>base</em> {@code Dictionary} (see {@link #builder(Dictionary)}), in which case it is
+ * consulted together with its base, but holds only its own words. This allows a single large {@code Dictionary} (such as one built from
+ * the built-in word lists) to be shared by any number of small overlays, such as per-tenant vocabularies or per-request allow-lists. An
+ * overlay can also <em>remove</em> words (see {@link Builder#removeWord(String)}), hiding them in its base.
+ * </p>
+ * 
+ * <p>
+ * In <em>compound mode</em> (see {@link Builder#allowCompounds(int)}), a word that is not itself known is still correct if it can be split
+ * into known words, such as "bookshelf" or "spellchecker".
+ * </p>
+ * 
+ * <p>
+ * A <em>check-only</em> {@code Dictionary} (see {@link Builder#buildCheckOnly(double)}) holds no words at all, only a compact filter over
+ * them, for deployments that need to know whether a word is correct but never need suggestions.
+ * </p>
+ * 
  * @author paulh
  * @since 1.0
  */
@@ -42,11 +65,6 @@ public class Dictionary {
 	 */
 	private static final Logger LOG = LoggerFactory.getLogger(Dictionary.class);
 
-	/**
-	 * Codec for providing phonetic representations
-	 */
-	private static final StringEncoder CODEC = new Metaphone();
-
 	/**
 	 * Maximum <a href="https://en.wikipedia.org/wiki/Levenshtein_distance">Levenshtein distance</a> between an incorrect word and suggestions
 	 * returned
@@ -54,22 +72,97 @@ public class Dictionary {
 	private static final int MAX_DISTANCE = 4;
 
 	/**
-	 * Map for words keyed on phonetic representation
+	 * Buckets for any {@link Word} in a check-only {@code Dictionary} with no base
+	 */
+	private static final Bucket[] NO_BUCKETS = new Bucket[1];
+
+	/**
+	 * Map for words keyed on (packed) phonetic representation, frozen into {@link Bucket}s on construction
+	 */
+	private final LongMap<Bucket> map;
+
+	/**
+	 * Optional {@code Dictionary} consulted after this one
+	 */
+	private final Dictionary base;
+
+	/**
+	 * Number of layers: one more than the base's, or one if there is no base
+	 */
+	private final int depth;
+
+	/**
+	 * Words removed from any base
+	 */
+	private final Set<String> removed;
+
+	/**
+	 * Statistics on sources of words
+	 */
+	private final List<DictionaryStatistics.Source> sources;
+
+	/**
+	 * Frequencies of words in {@link #map}, where known
+	 */
+	private final Map<String, Integer> frequencies;
+
+	/**
+	 * Hunspell dictionaries whose inflected forms are recognised by affix stripping
+	 */
+	private final List<Hunspell> hunspells;
+
+	/**
+	 * Does this {@code Dictionary} or any base hold Hunspell dictionaries?
+	 */
+	private final boolean hasAffixes;
+
+	/**
+	 * Filter over case-folded words, in place of {@link #map}, if this {@code Dictionary} is check-only (otherwise {@code null})
+	 */
+	private final BloomFilter filter;
+
+	/**
+	 * Does this {@code Dictionary} or any base have a {@link #filter}?
+	 */
+	private final boolean hasFilters;
+
+	/**
+	 * Index of words in {@link #map}, for prefix search: built on construction in compound mode, otherwise on first use
+	 */
+	private volatile PrefixIndex index;
+
+	/**
+	 * Minimum length of each part of a compound word, or zero if compounds are not accepted
 	 */
-	private final Map<String, List<String>> map;
+	private final int minimumPartLength;
 
 	/**
 	 * Constructor
 	 * 
-	 * @param map map from phonetic representations to word lists
+	 * @param builder           a {@link Builder}
+	 * @param base              optional base {@code Dictionary}
+	 * @param minimumPartLength minimum length of each part of a compound word, or zero if compounds are not accepted
+	 * @param filter            filter over words in {@code builder}, which are then not kept, or {@code null}
 	 */
-	private Dictionary(Map<String, List<String>> map) {
-		this.map = map;
+	private Dictionary(Builder builder, Dictionary base, int minimumPartLength, BloomFilter filter) {
+		this.map = filter == null ? builder.map.mapValues(Bucket::new) : new LongMap<>();
+		this.base = base;
+		this.depth = base == null ? 1 : base.depth + 1;
+		this.removed = builder.removed.isEmpty() ? Set.of() : Set.copyOf(builder.removed);
+		this.sources = List.copyOf(builder.sources);
+		this.frequencies = builder.frequencies.isEmpty() || filter != null ? Map.of() : Map.copyOf(builder.frequencies);
+		this.hunspells = List.copyOf(builder.hunspells);
+		this.hasAffixes = !hunspells.isEmpty() || (base != null && base.hasAffixes);
+		this.filter = filter;
+		this.hasFilters = filter != null || (base != null && base.hasFilters);
+		this.index = minimumPartLength > 0 ? new PrefixIndex(map.values(), frequencies) : null;
+		this.minimumPartLength = minimumPartLength;
 		return;
 	}
 
 	/**
-	 * Does {@code word} contain a word that is spelled correctly?
+	 * Does {@code word} contain a word that is spelled correctly? In compound mode, {@code word} is also correct if it can be split into
+	 * known words.
 	 * 
 	 * @param word a {@link Word}
 	 * @return {@code true} if {@code word} contains a word that is spelled correctly, otherwise {@code false}
@@ -77,25 +170,263 @@ public class Dictionary {
 	 */
 	public boolean isCorrect(Word word) {
 		Objects.requireNonNull(word);
-		String code = codeForWord(word);
-		if (map.containsKey(code)) {
-			if (map.get(code).contains(word.text())) {
-				// Verbatim
-				return true;
-			} else if (map.get(code).contains(word.toLowerCase())) {
-				// All lower case
+		return isCorrect(word, buckets(word));
+	}
+
+	/**
+	 * Looks up {@code word}, returning a {@link Lookup} holding both a verdict on whether it is spelled correctly (as from
+	 * {@link #isCorrect(Word)}) and the means to find suggestions for it (as from {@link #suggestionsFor(Word)}). {@code word} is encoded and
+	 * its bucket found in each layer only once, however many forms of it are tried, and suggestions reuse those buckets.
+	 * 
+	 * @param word a {@link Word}
+	 * @return a {@link Lookup} for {@code word}
+	 * @throws NullPointerException if {@code word} is {@code null}
+	 */
+	public Lookup lookup(Word word) {
+		Objects.requireNonNull(word);
+		Bucket[] buckets = buckets(word);
+		return new Lookup(this, word, buckets, isCorrect(word, buckets));
+	}
+
+	/**
+	 * Is this {@code Dictionary} check-only (see {@link Builder#buildCheckOnly(double)})?
+	 * 
+	 * @return {@code true} if this {@code Dictionary} is check-only, otherwise {@code false}
+	 */
+	public boolean isCheckOnly() {
+		return filter != null;
+	}
+
+	/**
+	 * Returns number of layers: one more than the base's, or one if there is no base.
+	 * 
+	 * @return number of layers
+	 */
+	int depth() {
+		return depth;
+	}
+
+	/**
+	 * Returns the bucket for {@code word} in each layer, from this {@code Dictionary} down. A check-only {@code Dictionary} with no base has
+	 * no buckets, so {@code word} is not encoded at all.
+	 * 
+	 * @param word a {@link Word}
+	 * @return bucket in each layer ({@code null} where there is none)
+	 */
+	private Bucket[] buckets(Word word) {
+		return filter != null && base == null ? NO_BUCKETS : buckets(codeForWord(word));
+	}
+
+	/**
+	 * Returns the bucket for {@code code} in each layer, from this {@code Dictionary} down.
+	 * 
+	 * @param code a phonetic code
+	 * @return bucket in each layer ({@code null} where there is none)
+	 */
+	private Bucket[] buckets(long code) {
+		Bucket[] buckets = new Bucket[depth];
+		int layer = 0;
+		for (Dictionary d = this; d != null; d = d.base) {
+			buckets[layer++] = d.map.get(code);
+		}
+		return buckets;
+	}
+
+	/**
+	 * Does {@code word}, whose buckets are {@code buckets}, contain a word that is spelled correctly?
+	 * 
+	 * @param word    a {@link Word}
+	 * @param buckets bucket for {@code word} in each layer
+	 * @return {@code true} if {@code word} contains a word that is spelled correctly, otherwise {@code false}
+	 */
+	private boolean isCorrect(Word word, Bucket[] buckets) {
+		return isKnown(word, buckets) || (minimumPartLength > 0 && isCompound(word.text()));
+	}
+
+	/**
+	 * Is {@code word} known, verbatim, in lower case or with an initial capital?
+	 * 
+	 * @param word a {@link Word}
+	 * @return {@code true} if {@code word} is known, otherwise {@code false}
+	 */
+	private boolean isKnown(Word word) {
+		return isKnown(word, buckets(word));
+	}
+
+	/**
+	 * Is {@code word}, whose buckets are {@code buckets}, known verbatim, in lower case or with an initial capital? Failing that, is it in
+	 * any check-only layer's filter (in lower case), or is any of those forms derived from a Hunspell stem?
+	 * 
+	 * @param word    a {@link Word}
+	 * @param buckets bucket for {@code word} in each layer
+	 * @return {@code true} if {@code word} is known, otherwise {@code false}
+	 */
+	private boolean isKnown(Word word, Bucket[] buckets) {
+		if (contains(buckets, word.text())) {
+			// Verbatim
+			return true;
+		} else if (contains(buckets, word.toLowerCase())) {
+			// All lower case
+			return true;
+		} else if (contains(buckets, word.toInitialCap())) {
+			// Initial cap
+			return true;
+		} else if (hasFilters && filtered(word.toLowerCase())) {
+			// Check-only layers
+			return true;
+		} else {
+			// Inflected forms
+			return hasAffixes && (derives(word.text()) || derives(word.toLowerCase()) || derives(word.toInitialCap()));
+		}
+	}
+
+	/**
+	 * Might {@code folded} be in any check-only layer's filter (unless removed from that layer or one above it)?
+	 * 
+	 * @param folded a word in lower case
+	 * @return {@code true} if {@code folded} might be in a filter, otherwise {@code false}
+	 */
+	private boolean filtered(String folded) {
+		for (Dictionary d = this; d != null; d = d.base) {
+			if (d.removed.contains(folded)) {
+				return false;
+			} else if (d.filter != null && d.filter.mightContain(folded)) {
 				return true;
-			} else {
-				// Initial cap
-				return map.get(code).contains(word.toInitialCap());
 			}
-		} else {
+		}
+		return false;
+	}
+
+	/**
+	 * Is {@code form} derived from a stem in any layer's Hunspell dictionaries (unless removed from that layer or one above it)?
+	 * 
+	 * @param form a form of a word
+	 * @return {@code true} if {@code form} is derived, otherwise {@code false}
+	 */
+	private boolean derives(String form) {
+		for (Dictionary d = this; d != null; d = d.base) {
+			if (d.removed.contains(form)) {
+				return false;
+			}
+			for (Hunspell hunspell : d.hunspells) {
+				if (hunspell.derives(form)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * <p>
+	 * Can {@code text} be split into two or more known words, each at least {@link #minimumPartLength} long?
+	 * </p>
+	 * 
+	 * <p>
+	 * This is a dynamic-programming search over split points: {@code reachable[i]} records that {@code text[0, i)} is a sequence of known
+	 * words, so each position is explored at most once. From each reachable position, candidate parts are found by narrowing a range of the
+	 * {@link PrefixIndex} of each layer one character at a time, stopping as soon as no word has the prefix read so far. The work is
+	 * therefore linear in the length of {@code text}, bounded by the length of the longest word sharing a prefix with it.
+	 * </p>
+	 * 
+	 * @param text a word
+	 * @return {@code true} if {@code text} is a compound of known words, otherwise {@code false}
+	 */
+	private boolean isCompound(String text) {
+		int length = text.length();
+		if (length < 2 * minimumPartLength) {
 			return false;
 		}
+		boolean[] reachable = new boolean[length + 1];
+		reachable[0] = true;
+		for (int i = 0; i < length; i++) {
+			if (!reachable[i]) {
+				continue;
+			}
+			// The first part cannot be the whole word, which isKnown() has already rejected
+			int limit = i == 0 ? length - 1 : length;
+			for (Dictionary d = this; d != null; d = d.base) {
+				markParts(d.index(), text, i, limit, reachable);
+			}
+			if (reachable[length]) {
+				return true;
+			}
+		}
+		return false;
 	}
 
 	/**
-	 * Returns a list of suggestions for {@code word}.
+	 * Sets {@code reachable[j]} for each {@code j} up to {@code limit} such that {@code text[start, j)} is a known word found in
+	 * {@code index}.
+	 * 
+	 * @param index     a {@link PrefixIndex}
+	 * @param text      a word
+	 * @param start     start of part
+	 * @param limit     maximum end of part
+	 * @param reachable reachable positions
+	 */
+	private void markParts(PrefixIndex index, String text, int start, int limit, boolean[] reachable) {
+		int lo = 0;
+		int hi = index.size();
+		for (int j = start; j < limit; j++) {
+			int depth = j - start;
+			char c = text.charAt(j);
+			lo = index.lowerBound(lo, hi, depth, c);
+			hi = index.upperBound(lo, hi, depth, c);
+			if (lo == hi) {
+				return;
+			}
+			int partLength = depth + 1;
+			// Any word exactly matching the prefix sorts first in its range
+			if (partLength >= minimumPartLength && !reachable[j + 1] && index.get(lo).length() == partLength
+					&& isKnown(Word.of(text.substring(start, j + 1), 0))) {
+				reachable[j + 1] = true;
+			}
+		}
+		return;
+	}
+
+	/**
+	 * Does this {@code Dictionary} (or its base, unless removed here) contain {@code form}?
+	 * 
+	 * @param buckets bucket for {@code form} in each layer
+	 * @param form    a form of a word
+	 * @return {@code true} if {@code form} is found, otherwise {@code false}
+	 */
+	private boolean contains(Bucket[] buckets, String form) {
+		int layer = 0;
+		for (Dictionary d = this; d != null; d = d.base) {
+			Bucket bucket = buckets[layer++];
+			if (bucket != null && bucket.contains(form)) {
+				return true;
+			} else if (d.removed.contains(form)) {
+				return false;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Has {@code s} been removed by any layer above {@code layer}?
+	 * 
+	 * @param s     a word
+	 * @param layer this {@code Dictionary} or one of its bases
+	 * @return {@code true} if {@code s} has been removed, otherwise {@code false}
+	 */
+	private boolean isRemovedAbove(String s, Dictionary layer) {
+		for (Dictionary d = this; d != layer; d = d.base) {
+			if (d.removed.contains(s)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns a list of suggestions for {@code word}. Suggestions from this {@code Dictionary} precede those from any base. In compound mode,
+	 * these are followed by any splits of {@code word} into two known words (such as "a lot" for "alot"). Only words in {@code word}'s
+	 * phonetic bucket whose length is close enough to its own to be within the maximum edit distance are compared with it. A check-only
+	 * {@code Dictionary} holds no words to suggest.
 	 * 
 	 * @param word a {@link Word}
 	 * @return a list of suggestions
@@ -104,45 +435,224 @@ public class Dictionary {
 	 */
 	public List<String> suggestionsFor(Word word) {
 		Objects.requireNonNull(word);
-		if (isCorrect(word)) {
+		Bucket[] buckets = buckets(word);
+		if (isCorrect(word, buckets)) {
 			throw new IllegalArgumentException("word is correct.");
 		}
-		String code = codeForWord(word);
-		if (map.containsKey(code)) {
-			List<String> result = new ArrayList<>();
-			for (String s : map.get(code)) {
-				if (LevenshteinDistance.getDefaultInstance().apply(word.text(), s) < MAX_DISTANCE) {
-					result.add(s);
+		return suggestionsFor(word, buckets);
+	}
+
+	/**
+	 * Returns a list of suggestions for {@code word}, which is known to be incorrect, and whose buckets are {@code buckets}.
+	 * 
+	 * @param word    an incorrect {@link Word}
+	 * @param buckets bucket for {@code word} in each layer
+	 * @return a list of suggestions
+	 */
+	List<String> suggestionsFor(Word word, Bucket[] buckets) {
+		List<String> result = new ArrayList<>();
+		int layer = 0;
+		for (Dictionary d = this; d != null; d = d.base) {
+			Bucket bucket = buckets[layer++];
+			if (bucket != null) {
+				for (int i : bucket.within(word.length(), MAX_DISTANCE - 1)) {
+					String s = bucket.get(i);
+					if (LevenshteinDistance.getDefaultInstance().apply(word.text(), s) < MAX_DISTANCE && !result.contains(s) && !isRemovedAbove(s, d)) {
+						result.add(s);
+					}
 				}
 			}
-			return result;
-		} else {
-			return List.of();
 		}
+		if (minimumPartLength > 0) {
+			addSplits(word.text(), result);
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the number of words {@link #suggestionsFor(Word, Bucket[])} compares with {@code word} (that is, the words in its buckets
+	 * whose length is close enough to its own), for evaluating suggestion cost.
+	 * 
+	 * @param word    a {@link Word}
+	 * @param buckets bucket for {@code word} in each layer
+	 * @return number of candidate suggestions
+	 */
+	int candidatesFor(Word word, Bucket[] buckets) {
+		int count = 0;
+		for (Bucket bucket : buckets) {
+			if (bucket != null) {
+				count += bucket.within(word.length(), MAX_DISTANCE - 1).length;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Adds to {@code result} each split of {@code text} into two known words, separated by a space.
+	 * 
+	 * @param text   a word
+	 * @param result list of suggestions
+	 */
+	private void addSplits(String text, List<String> result) {
+		for (int i = 1; i < text.length(); i++) {
+			String left = text.substring(0, i);
+			String right = text.substring(i);
+			if (isKnown(Word.of(left, 0)) && isKnown(Word.of(right, 0))) {
+				String split = left + ' ' + right;
+				if (!result.contains(split)) {
+					result.add(split);
+				}
+			}
+		}
+		return;
+	}
+
+	/**
+	 * Returns a snapshot of statistics on the size and shape of this {@code Dictionary}. For a layered {@code Dictionary}, the statistics
+	 * cover only its own words: call this method on the base for statistics on that. This method visits every bucket and word, but
+	 * allocates little, and is cheap enough to call periodically.
+	 * 
+	 * @return statistics on this {@code Dictionary}
+	 */
+	public DictionaryStatistics statistics() {
+		SortedMap<Integer, Integer> histogram = new TreeMap<>();
+		int wordCount = 0;
+		PrefixIndex index = this.index;
+		long heapBytes = HeapEstimate.longMap(map.capacity()) + (index == null ? 0 : HeapEstimate.prefixIndex(index));
+		int bucketCount = 0;
+		for (Bucket bucket : map.values()) {
+			if (bucket.isEmpty()) {
+				continue;
+			}
+			bucketCount++;
+			histogram.merge(bucket.size(), 1, Integer::sum);
+			wordCount += bucket.size();
+			heapBytes += HeapEstimate.bucket(bucket.size());
+			for (String s : bucket) {
+				heapBytes += HeapEstimate.string(s);
+			}
+		}
+		if (filter != null) {
+			wordCount = filter.count();
+			heapBytes += HeapEstimate.bloomFilter(filter);
+		}
+		return new DictionaryStatistics(wordCount, bucketCount, histogram, heapBytes, sources);
+	}
+
+	/**
+	 * Returns {@link #index}, building it if necessary. Sorting every word is the most expensive step in building a {@code Dictionary},
+	 * so outside compound mode it is deferred until a compound word is checked against this {@code Dictionary} (through an overlay in
+	 * compound mode) or completions are first requested.
+	 * 
+	 * @return a {@link PrefixIndex}
+	 */
+	private PrefixIndex index() {
+		PrefixIndex result = index;
+		if (result == null) {
+			synchronized (this) {
+				result = index;
+				if (result == null) {
+					result = new PrefixIndex(map.values(), frequencies);
+					index = result;
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * <p>
+	 * Returns up to {@code k} words starting with {@code prefix} (case-insensitively), for word completion. Words are ranked by frequency
+	 * (see {@link Builder#addWord(String, int)}), most frequent first, and otherwise in case-insensitive alphabetical order. Words from all
+	 * layers are merged, except those removed by a layer above the one they are found in.
+	 * </p>
+	 * 
+	 * <p>
+	 * Completions come from the same sorted index as compound splitting, built on first use. Finding the range of words with
+	 * {@code prefix} takes a binary search per character, and each completion then costs {@code O(log n)}, so no call scans the
+	 * vocabulary (or even the range).
+	 * </p>
+	 * 
+	 * @param prefix a prefix
+	 * @param k      maximum number of completions
+	 * @return list of completions, most highly ranked first
+	 * @throws NullPointerException     if {@code prefix} is {@code null}
+	 * @throws IllegalArgumentException if {@code k} is not positive
+	 */
+	public List<String> completionsFor(CharSequence prefix, int k) {
+		Objects.requireNonNull(prefix);
+		if (k < 1) {
+			throw new IllegalArgumentException("k must be positive.");
+		}
+		List<Completion> completions = new ArrayList<>();
+		Set<String> seen = new HashSet<>();
+		for (Dictionary d = this; d != null; d = d.base) {
+			PrefixIndex index = d.index();
+			int lo = 0;
+			int hi = index.size();
+			for (int depth = 0; depth < prefix.length() && lo < hi; depth++) {
+				char c = prefix.charAt(depth);
+				lo = index.lowerBound(lo, hi, depth, c);
+				hi = index.upperBound(lo, hi, depth, c);
+			}
+			Dictionary layer = d;
+			int[] accepted = new int[1];
+			index.forEachByFrequency(lo, hi, i -> {
+				String s = index.get(i);
+				if (!isRemovedAbove(s, layer) && seen.add(s)) {
+					completions.add(new Completion(s, index.frequency(i)));
+					accepted[0]++;
+				}
+				return accepted[0] < k;
+			});
+		}
+		// Each layer's completions are already ranked; this merges layers
+		return completions.stream().sorted(Completion.ORDER).limit(k).map(Completion::word).toList();
+	}
+
+	/**
+	 * A candidate completion and its frequency.
+	 * 
+	 * @param word      a word
+	 * @param frequency frequency of {@code word}
+	 */
+	private record Completion(String word, int frequency) {
+		/**
+		 * Ranking: descending frequency, then case-insensitive order
+		 */
+		private static final Comparator<Completion> ORDER = Comparator.comparingInt((Completion c) -> -c.frequency())
+				.thenComparing(Completion::word, String.CASE_INSENSITIVE_ORDER);
+	}
+
+	/**
+	 * Returns a new {@code Dictionary} containing {@code words}, layered over this one. This is a cheap way to create an ephemeral
+	 * allow-list (say, for a single request): the cost is proportional to the size of {@code words}, not of this {@code Dictionary}.
+	 * 
+	 * @param words words to add
+	 * @return new {@code Dictionary} with this one as its base
+	 * @throws NullPointerException if {@code words} is {@code null}
+	 */
+	public Dictionary withWords(Collection<String> words) {
+		return builder(this).addWords(words).build();
 	}
 
 	/**
-	 * Returns a code for {@code word} using {@link StringEncoder}.
+	 * Returns a code for {@code word} using {@link PhoneticCode}.
 	 * 
 	 * @param word a word
 	 * @return code for {@code word}
 	 */
-	private static String codeForString(String word) {
-		try {
-			return CODEC.encode(word);
-		} catch (EncoderException e) {
-			LOG.error("Unable to encode '{}'.", word, e);
-			return null;
-		}
+	private static long codeForString(CharSequence word) {
+		return PhoneticCode.encode(word);
 	}
 
 	/**
-	 * Returns a code for {@code word} using {@link StringEncoder}.
+	 * Returns a code for {@code word} using {@link PhoneticCode}.
 	 * 
 	 * @param word a {@link Word}
 	 * @return code for {@code word}
 	 */
-	private static String codeForWord(Word word) {
+	private static long codeForWord(Word word) {
 		return codeForString(word.text());
 	}
 
@@ -152,7 +662,20 @@ public class Dictionary {
 	 * @return a new {@code Builder}
 	 */
 	public static Builder builder() {
-		return new Builder();
+		return new Builder(null);
+	}
+
+	/**
+	 * Returns a new {@code Builder} for a {@code Dictionary} layered over {@code base}. The resulting {@code Dictionary} holds only the words
+	 * added to the {@code Builder}, and consults {@code base} for everything else.
+	 * 
+	 * @param base base {@code Dictionary}
+	 * @return a new {@code Builder}
+	 * @throws NullPointerException if {@code base} is {@code null}
+	 */
+	public static Builder builder(Dictionary base) {
+		Objects.requireNonNull(base);
+		return new Builder(base);
 	}
 
 	/**
@@ -189,15 +712,95 @@ public class Dictionary {
 		 */
 		private static final String GZIP_EXTENSION = ".gz";
 
+		/**
+		 * All built-in word lists
+		 */
+		static final List<String> BUILT_IN = List.of(WORDS_1, WORDS_2, NAMES_1, NAMES_2, ACRONYMS);
+
 		/**
 		 * Map from phonetic codes to lists of words
 		 */
-		private final Map<String, List<String>> map = new HashMap<>();
+		private final LongMap<List<String>> map = new LongMap<>();
+
+		/**
+		 * Optional base {@code Dictionary}
+		 */
+		private final Dictionary base;
+
+		/**
+		 * Words removed from any base
+		 */
+		private final Set<String> removed = new HashSet<>();
+
+		/**
+		 * Statistics on sources of words
+		 */
+		private final List<DictionaryStatistics.Source> sources = new ArrayList<>();
+
+		/**
+		 * Frequencies of words, where known
+		 */
+		private final Map<String, Integer> frequencies = new HashMap<>();
+
+		/**
+		 * Hunspell dictionaries added
+		 */
+		private final List<Hunspell> hunspells = new ArrayList<>();
+
+		/**
+		 * Number of words added
+		 */
+		private int wordCount;
+
+		/**
+		 * Minimum length of each part of a compound word, or zero if compounds are not accepted
+		 */
+		private int minimumPartLength;
+
+		/**
+		 * Normalisation form for words added, or {@code null} for none
+		 */
+		private Normalizer.Form normalization = Normalizer.Form.NFC;
 
 		/**
 		 * Constructor
+		 * 
+		 * @param base optional base {@code Dictionary}
+		 */
+		private Builder(Dictionary base) {
+			this.base = base;
+			this.minimumPartLength = base == null ? 0 : base.minimumPartLength;
+			return;
+		}
+
+		/**
+		 * Enables compound mode, in which a word that is not known is still correct if it can be split into two or more known words (from
+		 * this {@code Dictionary} or any base), each at least {@code minimumPartLength} characters long. A {@code Builder} layered over a
+		 * base in compound mode starts in compound mode too.
+		 * 
+		 * @param minimumPartLength minimum length of each part
+		 * @return this object
+		 * @throws IllegalArgumentException if {@code minimumPartLength} is less than 1
+		 */
+		public Builder allowCompounds(int minimumPartLength) {
+			if (minimumPartLength < 1) {
+				throw new IllegalArgumentException("minimumPartLength must be at least 1.");
+			}
+			this.minimumPartLength = minimumPartLength;
+			return this;
+		}
+
+		/**
+		 * Sets the Unicode normalisation form applied to words added to (or removed from) this {@code Builder}, or {@code null} to add words
+		 * exactly as given. The default is {@link Normalizer.Form#NFC NFC}, matching the default for a {@link Tokenizer} (see
+		 * {@link Tokenizer.Builder#normalization(Normalizer.Form)}). Words already added are not affected, so call this method first.
+		 * 
+		 * @param normalization a {@link Normalizer.Form}, or {@code null}
+		 * @return this object
 		 */
-		private Builder() {
+		public Builder normalization(Normalizer.Form normalization) {
+			this.normalization = normalization;
+			return this;
 		}
 
 		/**
@@ -206,11 +809,7 @@ public class Dictionary {
 		 * @return this object
 		 */
 		public Builder addWords() {
-			addWords(WORDS_1);
-			addWords(WORDS_2);
-			addWords(NAMES_1);
-			addWords(NAMES_2);
-			addWords(ACRONYMS);
+			BUILT_IN.forEach(this::addWords);
 			return this;
 		}
 
@@ -224,15 +823,29 @@ public class Dictionary {
 		public Builder addWords(String resourceName) {
 			Objects.requireNonNull(resourceName);
 			LOG.debug("Adding words from resource '{}'...", resourceName);
-			try (InputStream is = Dictionary.class.getResourceAsStream(resourceName);
-					Reader reader = isGzipped(resourceName) ? new InputStreamReader(new GZIPInputStream(is), StandardCharsets.UTF_8) : new InputStreamReader(is, StandardCharsets.UTF_8)) {
-				addWords(reader);
+			long start = System.nanoTime();
+			int count = wordCount;
+			try (Reader reader = openResource(resourceName)) {
+				load(reader);
 			} catch (IOException e) {
 				LOG.error("Unable to add words from {}.", resourceName, e);
 			}
+			record(resourceName, start, count);
 			return this;
 		}
 
+		/**
+		 * Opens {@code resourceName} on classpath, decompressing it if it is compressed with GZip.
+		 * 
+		 * @param resourceName name of a resource on classpath
+		 * @return a {@link Reader}
+		 * @throws IOException if the resource cannot be opened
+		 */
+		static Reader openResource(String resourceName) throws IOException {
+			InputStream is = Dictionary.class.getResourceAsStream(resourceName);
+			return new InputStreamReader(isGzipped(resourceName) ? new GZIPInputStream(is) : is, StandardCharsets.UTF_8);
+		}
+
 		/**
 		 * Adds words from {@code reader}.
 		 * 
@@ -242,30 +855,113 @@ public class Dictionary {
 		 */
 		public Builder addWords(Reader reader) {
 			Objects.requireNonNull(reader);
+			long start = System.nanoTime();
+			int count = wordCount;
+			load(reader);
+			record("Reader", start, count);
+			return this;
+		}
+
+		/**
+		 * Adds words from {@code reader}, and closes it.
+		 * 
+		 * @param reader a {@link Reader}
+		 */
+		private void load(Reader reader) {
 			try (BufferedReader bufferedReader = new BufferedReader(reader)) {
 				bufferedReader.lines().forEach(this::addWord);
 			} catch (IOException e) {
 				LOG.error("Unable to add words from Reader.", e);
 			}
-			return this;
+			return;
+		}
+
+		/**
+		 * Records statistics on a source of words.
+		 * 
+		 * @param name       name of source
+		 * @param startNanos time loading started, from {@link System#nanoTime()}
+		 * @param startCount {@link #wordCount} when loading started
+		 */
+		private void record(String name, long startNanos, int startCount) {
+			sources.add(new DictionaryStatistics.Source(name, wordCount - startCount, Duration.ofNanos(System.nanoTime() - startNanos)));
+			return;
 		}
 
 		/**
-		 * Adds words from file at {@code path}.
+		 * Adds words from file at {@code path}, which must be UTF-8.
 		 * 
 		 * @param path a {@link Path}
 		 * @return this object
-		 * @throws NullPointerException if {@code path} is {@code null}
+		 * @throws IllegalArgumentException if the file cannot be read (including if it is not valid UTF-8)
+		 * @throws NullPointerException     if {@code path} is {@code null}
 		 */
 		public Builder addWords(Path path) {
 			Objects.requireNonNull(path);
 			LOG.debug("Adding words from path '{}'...", path);
+			long start = System.nanoTime();
+			int count = wordCount;
 			try (Stream<String> lines = Files.lines(path, StandardCharsets.UTF_8)) {
 				lines.forEach(this::addWord);
-			} catch (IOException e) {
+			} catch (IOException | UncheckedIOException e) {
 				LOG.error("Unable to load word list from {}.", path, e);
 				throw new IllegalArgumentException("Unable to load word list from Path.", e);
 			}
+			record(path.toString(), start, count);
+			return this;
+		}
+
+		/**
+		 * <p>
+		 * Adds words from a <a href="https://github.com/hunspell/hunspell">Hunspell</a> dictionary: a {@code .dic} file of stems with affix
+		 * flags, and the {@code .aff} file defining those flags' prefix and suffix rules. Stems are added as words, but their inflected forms
+		 * are not expanded; instead, {@link Dictionary#isCorrect(Word)} recognises them by stripping affixes from the word being checked.
+		 * This keeps only the stems in memory, and makes loading large, highly inflected vocabularies much faster.
+		 * </p>
+		 * 
+		 * <p>
+		 * Since inflected forms are not held in phonetic buckets, {@link Dictionary#suggestionsFor(Word)} and
+		 * {@link Dictionary#completionsFor(CharSequence, int)} offer only stems. See {@link Hunspell} for the {@code .aff} features
+		 * supported.
+		 * </p>
+		 * 
+		 * @param dic path to {@code .dic} file
+		 * @param aff path to {@code .aff} file
+		 * @return this object
+		 * @throws IllegalArgumentException if either file cannot be read, or is malformed
+		 * @throws NullPointerException     if either argument is {@code null}
+		 */
+		public Builder addHunspell(Path dic, Path aff) {
+			Objects.requireNonNull(dic);
+			Objects.requireNonNull(aff);
+			LOG.debug("Adding Hunspell dictionary from paths '{}' and '{}'...", dic, aff);
+			long start = System.nanoTime();
+			int count = wordCount;
+			Hunspell hunspell;
+			try {
+				hunspell = Hunspell.read(dic, aff, this::cook);
+			} catch (IOException e) {
+				LOG.error("Unable to load Hunspell dictionary from {} and {}.", dic, aff, e);
+				throw new IllegalArgumentException("Unable to load Hunspell dictionary from Paths.", e);
+			}
+			for (String stem : hunspell.words()) {
+				add(codeForString(stem), stem);
+			}
+			hunspells.add(hunspell);
+			record(dic.toString(), start, count);
+			return this;
+		}
+
+		/**
+		 * Adds each of {@code words}.
+		 * 
+		 * @param words a {@link Collection} of words
+		 * @return this object
+		 * @throws NullPointerException if {@code words} is {@code null}
+		 */
+		public Builder addWords(Collection<String> words) {
+			Objects.requireNonNull(words);
+			words.forEach(this::addWord);
 			return this;
 		}
 
@@ -278,19 +974,111 @@ public class Dictionary {
 		 */
 		public Builder addWord(String word) {
 			Objects.requireNonNull(word);
-			String cookedWord = word.strip();
+			String cookedWord = cook(word);
 			if (cookedWord.isEmpty()) {
 				return this;
 			}
-			List<String> list = map.computeIfAbsent(codeForString(cookedWord), s -> new ArrayList<>());
-			if (!list.contains(cookedWord)) {
-				list.add(cookedWord);
+			add(codeForString(cookedWord), cookedWord);
+			return this;
+		}
+
+		/**
+		 * Adds {@code word} to {@code Dictionary}, with {@code frequency}, which ranks it among completions (see
+		 * {@link Dictionary#completionsFor(CharSequence, int)}). Words added without a frequency have frequency zero. If {@code word} is
+		 * already present, only its frequency is updated. If {@code word} is an empty string after stripping whitespace, this method is a
+		 * no-op.
+		 * 
+		 * @param word      a word
+		 * @param frequency frequency of {@code word} (in any unit, provided all frequencies use the same one)
+		 * @return this object
+		 * @throws NullPointerException     if {@code word} is {@code null}
+		 * @throws IllegalArgumentException if {@code frequency} is negative
+		 */
+		public Builder addWord(String word, int frequency) {
+			Objects.requireNonNull(word);
+			if (frequency < 0) {
+				throw new IllegalArgumentException("frequency cannot be negative.");
+			}
+			String cookedWord = cook(word);
+			if (cookedWord.isEmpty()) {
+				return this;
+			}
+			add(codeForString(cookedWord), cookedWord);
+			if (frequency == 0) {
+				frequencies.remove(cookedWord);
 			} else {
-				LOG.debug("'{}' is already in this Dictionary.", cookedWord);
+				frequencies.put(cookedWord, frequency);
 			}
 			return this;
 		}
 
+		/**
+		 * Returns {@code word} stripped of whitespace and normalised to {@link #normalization}.
+		 * 
+		 * @param word a word
+		 * @return cooked word
+		 */
+		String cook(String word) {
+			String stripped = word.strip();
+			return normalization == null ? stripped : CharClass.normalize(stripped, normalization);
+		}
+
+		/**
+		 * Adds {@code word}, already cooked (see {@link #cook(String)}), under {@code code}, which must be its {@link PhoneticCode}.
+		 * 
+		 * @param code code for {@code word}
+		 * @param word a word
+		 * @return {@code true} if {@code word} was added, or {@code false} if it was already present
+		 */
+		boolean add(long code, String word) {
+			List<String> list = map.computeIfAbsent(code, c -> new ArrayList<>());
+			removed.remove(word);
+			if (!list.contains(word)) {
+				list.add(word);
+				wordCount++;
+				return true;
+			} else {
+				LOG.debug("'{}' is already in this Dictionary.", word);
+				return false;
+			}
+		}
+
+		/**
+		 * Records statistics on a source of words loaded elsewhere (see {@link DictionaryLoader}).
+		 * 
+		 * @param source statistics on a source of words
+		 * @return this object
+		 */
+		Builder addSource(DictionaryStatistics.Source source) {
+			sources.add(source);
+			return this;
+		}
+
+		/**
+		 * Removes {@code word} from {@code Dictionary}. If {@code word} was added to this {@code Builder} it is removed; in any case, a
+		 * layered {@code Dictionary} will not find {@code word} in its base. Only the exact form given is removed: removing "colour" hides
+		 * "colour" (and hence "Colour" and "COLOUR", which are checked in lower case), but removing "Colour" does not hide "colour". If
+		 * {@code word} is an empty string after stripping whitespace, this method is a no-op.
+		 * 
+		 * @param word a word
+		 * @return this object
+		 * @throws NullPointerException if {@code word} is {@code null}
+		 */
+		public Builder removeWord(String word) {
+			Objects.requireNonNull(word);
+			String cookedWord = cook(word);
+			if (cookedWord.isEmpty()) {
+				return this;
+			}
+			List<String> list = map.get(codeForString(cookedWord));
+			if (list != null && list.remove(cookedWord)) {
+				wordCount--;
+			}
+			frequencies.remove(cookedWord);
+			removed.add(cookedWord);
+			return this;
+		}
+
 		/**
 		 * Does {@code resourceName} represent a file compressed with GZip?
 		 * 
@@ -308,16 +1096,64 @@ public class Dictionary {
 		 * @return new {@code Dictionary}
 		 */
 		public Dictionary build() {
-			return new Dictionary(map);
+			return new Dictionary(this, base, minimumPartLength, null);
+		}
+
+		/**
+		 * <p>
+		 * Creates and returns a new <em>check-only</em> {@code Dictionary} from this {@code Builder}. Rather than the words themselves, it
+		 * holds a Bloom filter over their lower-case forms, taking about {@code 1.6 * log2(1 / falsePositiveRate)} bits per word (around 2.6
+		 * bytes per word at a rate of 0.0001) and testing a single cache-sized block of it per lookup. {@link Dictionary#isCorrect(Word)}
+		 * accepts a word not in this {@code Builder} with probability about {@code falsePositiveRate}, but never rejects one that is.
+		 * </p>
+		 * 
+		 * <p>
+		 * Because the filter is case-folded, a check-only {@code Dictionary} does not catch capitalisation errors: if "Paris" was added,
+		 * "paris" is correct too. It has no words to offer as suggestions or completions, so those are always empty (apart from words from
+		 * any base {@code Dictionary}), though overlays built over it may still add and remove words. Hunspell dictionaries are kept as they
+		 * are.
+		 * </p>
+		 * 
+		 * @param falsePositiveRate target rate of false positives, strictly between 0 and 1
+		 * @return new check-only {@code Dictionary}
+		 * @throws IllegalArgumentException if {@code falsePositiveRate} is not strictly between 0 and 1
+		 * @throws IllegalStateException    if this {@code Builder} is in compound mode
+		 */
+		public Dictionary buildCheckOnly(double falsePositiveRate) {
+			// Validate before allocating a filter sized for the whole vocabulary
+			if (!(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+				throw new IllegalArgumentException("falsePositiveRate must be between 0 and 1.");
+			}
+			if (minimumPartLength > 0) {
+				throw new IllegalStateException("Compound mode cannot be check-only.");
+			}
+			BloomFilter filter = new BloomFilter(wordCount, falsePositiveRate);
+			for (List<String> words : map.values()) {
+				for (String word : words) {
+					filter.add(CharClass.toLowerCase(word));
+				}
+			}
+			return new Dictionary(this, base, 0, filter);
+		}
+
+		/**
+		 * Creates and returns a new {@code Dictionary} from this {@code Builder}, layered over {@code base} (whatever base this
+		 * {@code Builder} was created with) and in the same mode as {@code base}. This {@code Builder} must not be used afterwards.
+		 * 
+		 * @param base base {@code Dictionary}
+		 * @return new {@code Dictionary}
+		 */
+		Dictionary buildOver(Dictionary base) {
+			return new Dictionary(this, base, base.minimumPartLength, null);
 		}
 	}
 
 	/**
-	 * Returns the number of <em>entries</em> (not <em>words</em>) in this {@code Dictionary}'s map.
+	 * Returns the number of <em>entries</em> (not <em>words</em>) in this {@code Dictionary}'s map. Entries in any base are not counted.
 	 * 
 	 * @return count of entries in {@link #map}
 	 */
 	int size() {
-		return map == null ? 0 : map.size();
+		return map.size();
 	}
 }
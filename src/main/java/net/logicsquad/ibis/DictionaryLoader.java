@@ -0,0 +1,340 @@
+package net.logicsquad.ibis;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>
+ * Loads a {@link Dictionary} in the background, so that an application can start serving requests before the whole vocabulary is in
+ * memory. Each word list is read by its own task on the given {@link Executor}, and every {@value #SEGMENT_SIZE} words read form a
+ * <em>segment</em> that is handed back to the {@link Executor} to be encoded while reading continues. A segment is published as soon as
+ * it is encoded, so the first words are available before the remaining word lists have been read.
+ * </p>
+ *
+ * <p>
+ * A {@code DictionaryLoader} is a {@link Supplier} of {@link Dictionary} objects, so it can be passed directly to
+ * {@link Checker#Checker(Supplier)}. Until loading is complete, {@link #get()} returns a <em>partial</em> snapshot holding the segments
+ * loaded so far, each layered over the last (see {@link Dictionary#builder(Dictionary)}). Words in segments not yet loaded are reported
+ * as incorrect. Once every segment is loaded, the segments are merged into a single {@link Dictionary}, which completes {@link #ready()}
+ * and is returned by {@link #get()} from then on. If loading fails, {@link #ready()} completes exceptionally, and {@link #get()} keeps
+ * returning the last snapshot.
+ * </p>
+ *
+ * @author paulh
+ * @since 1.0
+ */
+public final class DictionaryLoader implements Supplier<Dictionary> {
+	/**
+	 * Logger
+	 */
+	private static final Logger LOG = LoggerFactory.getLogger(DictionaryLoader.class);
+
+	/**
+	 * Number of words in a segment
+	 */
+	static final int SEGMENT_SIZE = 8192;
+
+	/**
+	 * Supplier of new {@link Dictionary.Builder}s
+	 */
+	private final Supplier<Dictionary.Builder> builderSupplier;
+
+	/**
+	 * Executor for loading tasks
+	 */
+	private final Executor executor;
+
+	/**
+	 * Completed with full {@link Dictionary}
+	 */
+	private final CompletableFuture<Dictionary> ready = new CompletableFuture<>();
+
+	/**
+	 * Prepares each word for adding, as by the {@link Dictionary.Builder}s from {@link #builderSupplier}
+	 */
+	private final UnaryOperator<String> cook;
+
+	/**
+	 * Current {@link Dictionary}
+	 */
+	private volatile Dictionary dictionary;
+
+	/**
+	 * Constructor
+	 *
+	 * @param builderSupplier supplier of new {@link Dictionary.Builder}s
+	 * @param executor        executor for loading tasks
+	 */
+	private DictionaryLoader(Supplier<Dictionary.Builder> builderSupplier, Executor executor) {
+		this.builderSupplier = builderSupplier;
+		this.executor = executor;
+		Dictionary.Builder builder = builderSupplier.get();
+		this.cook = builder::cook;
+		this.dictionary = builder.build();
+		return;
+	}
+
+	/**
+	 * Returns a new {@code DictionaryLoader} that has started loading the built-in word lists (as for
+	 * {@link Dictionary.Builder#addWords()}) into {@link Dictionary.Builder}s from {@code builderSupplier}. Words are added after anything
+	 * already added to (or removed from) those {@link Dictionary.Builder}s.
+	 *
+	 * @param builderSupplier supplier of new {@link Dictionary.Builder}s
+	 * @param executor        executor for loading tasks
+	 * @return new object
+	 * @throws NullPointerException if any argument is {@code null}
+	 */
+	public static DictionaryLoader start(Supplier<Dictionary.Builder> builderSupplier, Executor executor) {
+		return start(builderSupplier, executor, Dictionary.Builder.BUILT_IN.stream().<Source> map(ResourceSource::new).toList());
+	}
+
+	/**
+	 * Returns a new {@code DictionaryLoader} that has started loading the word lists at {@code paths} into {@link Dictionary.Builder}s from
+	 * {@code builderSupplier}, after anything already added to (or removed from) them. If a file cannot be read, {@link #ready()} completes
+	 * exceptionally with an {@link IllegalArgumentException}.
+	 *
+	 * @param builderSupplier supplier of new {@link Dictionary.Builder}s
+	 * @param paths           paths to word lists
+	 * @param executor        executor for loading tasks
+	 * @return new object
+	 * @throws NullPointerException if any argument is {@code null}
+	 */
+	public static DictionaryLoader start(Supplier<Dictionary.Builder> builderSupplier, Collection<Path> paths, Executor executor) {
+		Objects.requireNonNull(paths);
+		return start(builderSupplier, executor, paths.stream().<Source> map(PathSource::new).toList());
+	}
+
+	/**
+	 * Returns a new {@code DictionaryLoader} that has started loading {@code sources}.
+	 *
+	 * @param builderSupplier supplier of new {@link Dictionary.Builder}s
+	 * @param executor        executor for loading tasks
+	 * @param sources         word lists
+	 * @return new object
+	 */
+	private static DictionaryLoader start(Supplier<Dictionary.Builder> builderSupplier, Executor executor, List<Source> sources) {
+		Objects.requireNonNull(builderSupplier);
+		Objects.requireNonNull(executor);
+		DictionaryLoader loader = new DictionaryLoader(builderSupplier, executor);
+		List<CompletableFuture<LoadedSource>> futures = new ArrayList<>();
+		for (Source source : sources) {
+			futures.add(CompletableFuture.supplyAsync(() -> loader.read(source), executor).thenCompose(Function.identity()));
+		}
+		CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+				.thenApply(v -> loader.merge(futures.stream().map(CompletableFuture::join).toList()))
+				.whenComplete((dictionary, e) -> {
+					if (e == null) {
+						loader.ready.complete(dictionary);
+					} else {
+						LOG.error("Unable to load Dictionary.", e);
+						loader.ready.completeExceptionally(e instanceof CompletionException && e.getCause() != null ? e.getCause() : e);
+					}
+				});
+		return loader;
+	}
+
+	/**
+	 * Returns the current {@link Dictionary}: the full {@link Dictionary} once loading is complete, otherwise a partial snapshot.
+	 *
+	 * @return current {@link Dictionary}
+	 */
+	@Override
+	public Dictionary get() {
+		return dictionary;
+	}
+
+	/**
+	 * Returns a {@link CompletableFuture} completed with the full {@link Dictionary} once loading is complete.
+	 *
+	 * @return full {@link Dictionary}
+	 */
+	public CompletableFuture<Dictionary> ready() {
+		return ready.copy();
+	}
+
+	/**
+	 * Is loading complete?
+	 *
+	 * @return {@code true} if the full {@link Dictionary} has been loaded, otherwise {@code false}
+	 */
+	public boolean isReady() {
+		return ready.isDone() && !ready.isCompletedExceptionally();
+	}
+
+	/**
+	 * Reads {@code source}, handing each {@value #SEGMENT_SIZE} words to {@link #executor} to be encoded and published as soon as they
+	 * are read.
+	 *
+	 * @param source a word list
+	 * @return {@link CompletableFuture} completed with the loaded word list once all of its segments are published
+	 */
+	private CompletableFuture<LoadedSource> read(Source source) {
+		long start = System.nanoTime();
+		List<CompletableFuture<Segment>> segments = new ArrayList<>();
+		try (BufferedReader reader = new BufferedReader(source.open())) {
+			List<String> words = new ArrayList<>();
+			String line;
+			while ((line = reader.readLine()) != null) {
+				String word = cook.apply(line);
+				if (!word.isEmpty()) {
+					words.add(word);
+					if (words.size() == SEGMENT_SIZE) {
+						segments.add(load(words));
+						words = new ArrayList<>();
+					}
+				}
+			}
+			if (!words.isEmpty()) {
+				segments.add(load(words));
+			}
+		} catch (IOException e) {
+			throw new IllegalArgumentException("Unable to load word list from " + source + ".", e);
+		}
+		Duration readTime = Duration.ofNanos(System.nanoTime() - start);
+		return CompletableFuture.allOf(segments.toArray(CompletableFuture[]::new))
+				.thenApply(v -> new LoadedSource(source, readTime, segments.stream().map(CompletableFuture::join).toList()));
+	}
+
+	/**
+	 * Encodes {@code words} on {@link #executor}, publishing a snapshot holding them.
+	 *
+	 * @param words words in a segment
+	 * @return {@link CompletableFuture} completed with the encoded segment once it is published
+	 */
+	private CompletableFuture<Segment> load(List<String> words) {
+		return CompletableFuture.supplyAsync(() -> {
+			Dictionary.Builder builder = Dictionary.builder();
+			long[] codes = new long[words.size()];
+			for (int i = 0; i < codes.length; i++) {
+				codes[i] = PhoneticCode.encode(words.get(i));
+				builder.add(codes[i], words.get(i));
+			}
+			publish(builder);
+			return new Segment(words, codes);
+		}, executor);
+	}
+
+	/**
+	 * Builds the full {@link Dictionary} from {@code sources} and publishes it.
+	 *
+	 * @param sources loaded word lists, in order
+	 * @return full {@link Dictionary}
+	 */
+	private Dictionary merge(List<LoadedSource> sources) {
+		// Add words in their original order, so buckets are ordered exactly as by Dictionary.Builder.addWords()
+		Dictionary.Builder builder = builderSupplier.get();
+		int words = 0;
+		int segments = 0;
+		for (LoadedSource source : sources) {
+			int count = 0;
+			for (Segment segment : source.segments()) {
+				for (int i = 0; i < segment.codes().length; i++) {
+					if (builder.add(segment.codes()[i], segment.words().get(i))) {
+						count++;
+					}
+				}
+				words += segment.codes().length;
+			}
+			segments += source.segments().size();
+			builder.addSource(new DictionaryStatistics.Source(source.source().toString(), count, source.readTime()));
+		}
+		Dictionary full = builder.build();
+		dictionary = full;
+		LOG.debug("Loaded {} words in {} segments.", words, segments);
+		return full;
+	}
+
+	/**
+	 * Publishes a new snapshot with {@code segment} layered over the current {@link Dictionary}.
+	 *
+	 * @param segment a loaded segment
+	 */
+	private synchronized void publish(Dictionary.Builder segment) {
+		dictionary = segment.buildOver(dictionary);
+		return;
+	}
+
+	/**
+	 * Words in a segment, with their {@link PhoneticCode}s.
+	 *
+	 * @param words words, in order read
+	 * @param codes {@link PhoneticCode} for each word
+	 */
+	private record Segment(List<String> words, long[] codes) {
+	}
+
+	/**
+	 * A word list, read and split into segments.
+	 *
+	 * @param source   word list
+	 * @param readTime time taken to read the word list
+	 * @param segments segments, in order read
+	 */
+	private record LoadedSource(Source source, Duration readTime, List<Segment> segments) {
+	}
+
+	/**
+	 * A word list.
+	 */
+	private interface Source {
+		/**
+		 * Opens this word list.
+		 *
+		 * @return a {@link Reader}
+		 * @throws IOException if the word list cannot be opened
+		 */
+		Reader open() throws IOException;
+	}
+
+	/**
+	 * A word list on classpath.
+	 *
+	 * @param name resource name
+	 */
+	private record ResourceSource(String name) implements Source {
+		@Override
+		public Reader open() throws IOException {
+			return Dictionary.Builder.openResource(name);
+		}
+
+		@Override
+		public String toString() {
+			return name;
+		}
+	}
+
+	/**
+	 * A word list file.
+	 *
+	 * @param path a {@link Path}
+	 */
+	private record PathSource(Path path) implements Source {
+		@Override
+		public Reader open() throws IOException {
+			return Files.newBufferedReader(path, StandardCharsets.UTF_8);
+		}
+
+		@Override
+		public String toString() {
+			return path.toString();
+		}
+	}
+}
@@ -0,0 +1,219 @@
+package net.logicsquad.ibis;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>
+ * Holds a {@link Dictionary} built from word lists at one or more {@link Path}s, and rebuilds it in the background whenever any of those
+ * files changes. Each rebuild starts from a fresh {@link Dictionary.Builder} (typically one layered over a shared base, via
+ * {@link Dictionary#builder(Dictionary)}), and the new {@link Dictionary} replaces the old one only once it is complete. Since
+ * {@link Dictionary} objects are never modified after they are built, readers are never blocked and never see a partially built
+ * {@link Dictionary}.
+ * </p>
+ *
+ * <p>
+ * A {@code DictionaryReloader} is a {@link Supplier} of {@link Dictionary} objects, so it can be passed directly to
+ * {@link Checker#Checker(Supplier)}. If a rebuild fails (say, because a file was deleted or is half written), the error is logged, the
+ * previous {@link Dictionary} is retained, and watching continues. Call {@link #close()} to stop watching.
+ * </p>
+ *
+ * @author paulh
+ * @since 1.0
+ */
+public class DictionaryReloader implements Supplier<Dictionary>, Closeable {
+	/**
+	 * Logger
+	 */
+	private static final Logger LOG = LoggerFactory.getLogger(DictionaryReloader.class);
+
+	/**
+	 * Time to wait for further changes before rebuilding, in milliseconds
+	 */
+	private static final long QUIET_PERIOD = 200;
+
+	/**
+	 * Supplier of new {@link Dictionary.Builder}s
+	 */
+	private final Supplier<Dictionary.Builder> builderSupplier;
+
+	/**
+	 * Paths to word lists
+	 */
+	private final List<Path> paths;
+
+	/**
+	 * Watches directories containing {@link #paths}
+	 */
+	private final WatchService watchService;
+
+	/**
+	 * Thread processing events from {@link #watchService}
+	 */
+	private final Thread thread;
+
+	/**
+	 * Current {@link Dictionary}
+	 */
+	private volatile Dictionary dictionary;
+
+	/**
+	 * Constructor
+	 *
+	 * @param builderSupplier supplier of new {@link Dictionary.Builder}s
+	 * @param paths           paths to word lists
+	 * @throws IOException if a {@link WatchService} cannot be created
+	 */
+	private DictionaryReloader(Supplier<Dictionary.Builder> builderSupplier, List<Path> paths) throws IOException {
+		this.builderSupplier = builderSupplier;
+		this.paths = paths;
+		this.dictionary = build();
+		this.watchService = FileSystems.getDefault().newWatchService();
+		Set<Path> directories = new LinkedHashSet<>();
+		for (Path path : paths) {
+			directories.add(path.getParent());
+		}
+		try {
+			for (Path directory : directories) {
+				directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY,
+						StandardWatchEventKinds.ENTRY_DELETE);
+			}
+		} catch (IOException | RuntimeException e) {
+			watchService.close();
+			throw e;
+		}
+		this.thread = Thread.ofPlatform().daemon().name("ibis-dictionary-reloader").unstarted(this::watch);
+		return;
+	}
+
+	/**
+	 * Returns a new {@code DictionaryReloader} that builds a {@link Dictionary} by adding words from each of {@code paths} to a
+	 * {@link Dictionary.Builder} from {@code builderSupplier}, and then watches {@code paths} for changes.
+	 *
+	 * @param builderSupplier supplier of new {@link Dictionary.Builder}s
+	 * @param paths           paths to word lists
+	 * @return new object
+	 * @throws IOException              if the containing directories cannot be watched
+	 * @throws IllegalArgumentException if the initial {@link Dictionary} cannot be built
+	 * @throws NullPointerException     if any argument is {@code null}
+	 */
+	public static DictionaryReloader watch(Supplier<Dictionary.Builder> builderSupplier, Collection<Path> paths) throws IOException {
+		Objects.requireNonNull(builderSupplier);
+		Objects.requireNonNull(paths);
+		List<Path> absolutePaths = paths.stream().map(Path::toAbsolutePath).map(Path::normalize).toList();
+		DictionaryReloader reloader = new DictionaryReloader(builderSupplier, absolutePaths);
+		reloader.thread.start();
+		return reloader;
+	}
+
+	/**
+	 * Returns the current {@link Dictionary}.
+	 *
+	 * @return current {@link Dictionary}
+	 */
+	@Override
+	public Dictionary get() {
+		return dictionary;
+	}
+
+	/**
+	 * Rebuilds the {@link Dictionary} immediately, on the calling thread.
+	 *
+	 * @throws IllegalArgumentException if a word list cannot be loaded (in which case the current {@link Dictionary} is retained)
+	 */
+	public void reload() {
+		dictionary = build();
+		LOG.debug("Reloaded Dictionary from {}.", paths);
+		return;
+	}
+
+	/**
+	 * Stops watching for changes. The current {@link Dictionary} remains available from {@link #get()}.
+	 *
+	 * @throws IOException if the {@link WatchService} cannot be closed
+	 */
+	@Override
+	public void close() throws IOException {
+		watchService.close();
+		thread.interrupt();
+		return;
+	}
+
+	/**
+	 * Builds a new {@link Dictionary}.
+	 *
+	 * @return new {@link Dictionary}
+	 * @throws IllegalArgumentException if a word list cannot be loaded
+	 */
+	private Dictionary build() {
+		Dictionary.Builder builder = builderSupplier.get();
+		for (Path path : paths) {
+			builder.addWords(path);
+		}
+		return builder.build();
+	}
+
+	/**
+	 * Processes events from {@link #watchService} until it is closed, calling {@link #reload()} once changes to {@link #paths} have
+	 * settled for {@link #QUIET_PERIOD}.
+	 */
+	private void watch() {
+		try {
+			while (true) {
+				boolean changed = drain(watchService.take());
+				while (changed) {
+					WatchKey key = watchService.poll(QUIET_PERIOD, TimeUnit.MILLISECONDS);
+					if (key == null) {
+						try {
+							reload();
+						} catch (RuntimeException e) {
+							// Whatever the builder throws, keep watching: the next change may fix it
+							LOG.error("Unable to reload Dictionary; retaining previous one.", e);
+						}
+						changed = false;
+					} else {
+						drain(key);
+					}
+				}
+			}
+		} catch (InterruptedException | ClosedWatchServiceException e) {
+			LOG.debug("Stopped watching {}.", paths);
+		}
+		return;
+	}
+
+	/**
+	 * Consumes events from {@code key} and resets it.
+	 *
+	 * @param key a {@link WatchKey}
+	 * @return {@code true} if any event concerned one of {@link #paths}, otherwise {@code false}
+	 */
+	private boolean drain(WatchKey key) {
+		boolean changed = false;
+		Path directory = (Path) key.watchable();
+		for (WatchEvent<?> event : key.pollEvents()) {
+			if (event.kind() == StandardWatchEventKinds.OVERFLOW || paths.contains(directory.resolve((Path) event.context()))) {
+				changed = true;
+			}
+		}
+		key.reset();
+		return changed;
+	}
+}
@@ -0,0 +1,203 @@
+package net.logicsquad.ibis;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * <p>
+ * A snapshot of statistics on the size and shape of a {@link Dictionary}, returned by {@link Dictionary#statistics()}. As well as simple
+ * counts of words and phonetic buckets, this includes:
+ * </p>
+ *
+ * <ul>
+ * <li>a histogram of bucket sizes (since every word in a bucket is a candidate for {@link Dictionary#suggestionsFor(Word)}, the largest
+ * buckets drive worst-case suggestion latency);</li>
+ * <li>a rough estimate of the heap retained by the {@link Dictionary}, assuming a 64-bit JVM with compressed references; and</li>
+ * <li>the number of words added from, and the time taken to load, each word list passed to the {@link Dictionary.Builder}.</li>
+ * </ul>
+ *
+ * <p>
+ * {@code DictionaryStatistics} objects are immutable and thread-safe.
+ * </p>
+ *
+ * @author paulh
+ * @since 1.0
+ */
+public class DictionaryStatistics {
+	/**
+	 * Number of words
+	 */
+	private final int wordCount;
+
+	/**
+	 * Number of phonetic buckets
+	 */
+	private final int bucketCount;
+
+	/**
+	 * Map from bucket size to number of buckets of that size
+	 */
+	private final SortedMap<Integer, Integer> bucketSizeHistogram;
+
+	/**
+	 * Estimated retained heap in bytes
+	 */
+	private final long estimatedHeapBytes;
+
+	/**
+	 * Statistics on sources of words
+	 */
+	private final List<Source> sources;
+
+	/**
+	 * Constructor
+	 *
+	 * @param wordCount           number of words
+	 * @param bucketCount         number of phonetic buckets
+	 * @param bucketSizeHistogram map from bucket size to number of buckets of that size
+	 * @param estimatedHeapBytes  estimated retained heap in bytes
+	 * @param sources             statistics on sources of words
+	 */
+	DictionaryStatistics(int wordCount, int bucketCount, SortedMap<Integer, Integer> bucketSizeHistogram, long estimatedHeapBytes, List<Source> sources) {
+		this.wordCount = wordCount;
+		this.bucketCount = bucketCount;
+		this.bucketSizeHistogram = Collections.unmodifiableSortedMap(new TreeMap<>(bucketSizeHistogram));
+		this.estimatedHeapBytes = estimatedHeapBytes;
+		this.sources = List.copyOf(sources);
+		return;
+	}
+
+	/**
+	 * Returns number of words.
+	 *
+	 * @return number of words
+	 */
+	public int wordCount() {
+		return wordCount;
+	}
+
+	/**
+	 * Returns number of phonetic buckets.
+	 *
+	 * @return number of buckets
+	 */
+	public int bucketCount() {
+		return bucketCount;
+	}
+
+	/**
+	 * Returns number of words in the largest phonetic bucket.
+	 *
+	 * @return maximum bucket size
+	 */
+	public int maxBucketSize() {
+		return bucketSizeHistogram.isEmpty() ? 0 : bucketSizeHistogram.lastKey();
+	}
+
+	/**
+	 * Returns a map from bucket size to the number of buckets of that size, in ascending order of size.
+	 *
+	 * @return bucket size histogram
+	 */
+	public SortedMap<Integer, Integer> bucketSizeHistogram() {
+		return bucketSizeHistogram;
+	}
+
+	/**
+	 * Returns an estimate of the heap retained by the {@link Dictionary} (excluding any base), in bytes.
+	 *
+	 * @return estimated retained heap in bytes
+	 */
+	public long estimatedHeapBytes() {
+		return estimatedHeapBytes;
+	}
+
+	/**
+	 * Returns statistics on each word list added to the {@link Dictionary.Builder}, in the order they were added. Words added individually
+	 * are not included.
+	 *
+	 * @return statistics on sources of words
+	 */
+	public List<Source> sources() {
+		return sources;
+	}
+
+	@Override
+	public String toString() {
+		return "DictionaryStatistics [wordCount=" + wordCount + ", bucketCount=" + bucketCount + ", maxBucketSize=" + maxBucketSize()
+				+ ", estimatedHeapBytes=" + estimatedHeapBytes + ", sources=" + sources + "]";
+	}
+
+	/**
+	 * Statistics on a single word list added to a {@link Dictionary.Builder}.
+	 */
+	public static class Source {
+		/**
+		 * Name of word list
+		 */
+		private final String name;
+
+		/**
+		 * Number of words added (excluding duplicates)
+		 */
+		private final int wordCount;
+
+		/**
+		 * Time taken to load
+		 */
+		private final Duration loadTime;
+
+		/**
+		 * Constructor
+		 *
+		 * @param name      name of word list
+		 * @param wordCount number of words added
+		 * @param loadTime  time taken to load
+		 * @throws NullPointerException if {@code name} or {@code loadTime} is {@code null}
+		 */
+		Source(String name, int wordCount, Duration loadTime) {
+			Objects.requireNonNull(name);
+			Objects.requireNonNull(loadTime);
+			this.name = name;
+			this.wordCount = wordCount;
+			this.loadTime = loadTime;
+			return;
+		}
+
+		/**
+		 * Returns name of word list (a resource name or path).
+		 *
+		 * @return name
+		 */
+		public String name() {
+			return name;
+		}
+
+		/**
+		 * Returns number of words added from this word list, excluding any already present.
+		 *
+		 * @return number of words added
+		 */
+		public int wordCount() {
+			return wordCount;
+		}
+
+		/**
+		 * Returns time taken to load this word list.
+		 *
+		 * @return load time
+		 */
+		public Duration loadTime() {
+			return loadTime;
+		}
+
+		@Override
+		public String toString() {
+			return "Source [name=" + name + ", wordCount=" + wordCount + ", loadTime=" + loadTime + "]";
+		}
+	}
+}
@@ -3,7 +3,9 @@ package net.logicsquad.ibis;
 import java.util.ArrayList;
 import java.util.Deque;
 import java.util.List;
+import java.util.Locale;
 import java.util.Objects;
+import java.util.Set;
 
 /**
  * <p>
@@ -16,7 +18,8 @@ import java.util.Objects;
  * <ul>
  * <li>strips <em>all</em> dash characters and breaks the {@link Word} into component {@link Word}s;</li>
  * <li>reverts "e.g" and "i.e" (where the terminal period has been removed) back to "e.g." and "i.e." (as long as there was a terminal
- * period in the original text); and</li>
+ * period in the original text);</li>
+ * <li>for French, removes an elided article or pronoun such as "l'" or "qu'" (so "l'homme" is checked as "homme"); and</li>
  * <li>removes a terminal "'s" denoting a possessive form.</li>
  * </ul>
  * 
@@ -24,6 +27,40 @@ import java.util.Objects;
  * @since 1.0
  */
 public class Handler {
+	/**
+	 * Languages (as ISO 639 codes) whose elisions are removed
+	 */
+	private static final Set<String> ELIDING_LANGUAGES = Set.of("fr");
+
+	/**
+	 * Elided words (in lower case, without apostrophe) removed from the start of a {@link Word}
+	 */
+	private static final Set<String> ELISIONS = Set.of("c", "d", "j", "l", "m", "n", "s", "t", "qu", "jusqu", "lorsqu", "puisqu", "quoiqu");
+
+	/**
+	 * Remove elisions?
+	 */
+	private final boolean elisions;
+
+	/**
+	 * Constructor for a {@code Handler} applying no language-specific rules.
+	 */
+	public Handler() {
+		this(Locale.ROOT);
+	}
+
+	/**
+	 * Constructor for a {@code Handler} applying rules for {@code locale}'s language.
+	 * 
+	 * @param locale a {@link Locale}
+	 * @throws NullPointerException if {@code locale} is {@code null}
+	 */
+	public Handler(Locale locale) {
+		Objects.requireNonNull(locale);
+		this.elisions = ELIDING_LANGUAGES.contains(locale.getLanguage());
+		return;
+	}
+
 	/**
 	 * Handles {@code word} (in the larger context of {@code text}). If the {@link Word} needs to be modified as a special case, a new
 	 * {@link Word} is returned for the initial part, and subsequent parts are added as {@link Word} to the {@code queue}. Otherwise,
@@ -39,14 +76,18 @@ public class Handler {
 		Objects.requireNonNull(word);
 		Objects.requireNonNull(text);
 		Objects.requireNonNull(queue);
+		int elision = elisions ? elisionLength(word) : 0;
 		if (word.text().contains("-") || word.text().contains("–") || word.text().contains("—")) {
-			return handle(handleDashes(word, text, queue), text, queue);
+			Word first = handleDashes(word, text, queue);
+			return first == word ? word : handle(first, text, queue);
 		} else if ("e.g".equals(word.toLowerCase()) || "i.e".equals(word.toLowerCase())) {
 			if ('.' == text.charAt(word.end())) {
 				return Word.of(word.text() + ".", word.start());
 			} else {
 				return word;
 			}
+		} else if (elision > 0) {
+			return handle(Word.of(word.text().substring(elision), word.start() + elision), text, queue);
 		} else if (word.text().endsWith("'s")) {
 			return Word.of(word.text().substring(0, word.length() - 2), word.start());
 		} else {
@@ -56,7 +97,7 @@ public class Handler {
 
 	/**
 	 * Handles any dash characters in {@code word} by breaking it into component parts at those dashes. The first part is returned as a new
-	 * {@link Word}, and subsequent parts are added to {@code queue}.
+	 * {@link Word}, and subsequent parts are added to {@code queue}. If {@code word} is nothing but dashes, it is returned as is.
 	 * 
 	 * @param word  a {@link Word} containing dashes
 	 * @param text  text containing {@link Word}
@@ -86,7 +127,8 @@ public class Handler {
 			}
 		}
 		if (parts.isEmpty()) {
-			throw new IllegalArgumentException("No text found.");
+			// Nothing but dashes: leave it for the Rejector
+			return word;
 		} else if (parts.size() > 1) {
 			for (int j = parts.size() - 1; j > 0; j--) {
 				queue.addFirst(handle(parts.get(j), text, queue));
@@ -95,6 +137,20 @@ public class Handler {
 		return parts.getFirst();
 	}
 
+	/**
+	 * Returns the length of an elided word (including its apostrophe) at the start of {@code word}, or {@code 0} if there is none.
+	 * 
+	 * @param word a {@link Word}
+	 * @return length of elision, or {@code 0}
+	 */
+	private static int elisionLength(Word word) {
+		int apostrophe = word.text().indexOf('\'');
+		if (apostrophe < 1 || apostrophe == word.length() - 1) {
+			return 0;
+		}
+		return ELISIONS.contains(word.text().substring(0, apostrophe).toLowerCase(Locale.ROOT)) ? apostrophe + 1 : 0;
+	}
+
 	/**
 	 * <p>
 	 * Is {@code c} a <em>dash</em> character? More specifically, is {@code c} any of:
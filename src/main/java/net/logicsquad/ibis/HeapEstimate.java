@@ -0,0 +1,110 @@
+package net.logicsquad.ibis;
+
+/**
+ * Rough estimates of the heap occupied by the objects making up a {@link Dictionary}. Estimates assume a 64-bit JVM with compressed
+ * references (12-byte object headers, 4-byte references, 8-byte alignment) and compact strings.
+ *
+ * @author paulh
+ * @since 1.0
+ */
+final class HeapEstimate {
+	/**
+	 * Object header size
+	 */
+	private static final int HEADER = 12;
+
+	/**
+	 * Array header size (object header plus length)
+	 */
+	private static final int ARRAY_HEADER = 16;
+
+	/**
+	 * Reference size
+	 */
+	private static final int REFERENCE = 4;
+
+	/**
+	 * Constructor
+	 */
+	private HeapEstimate() {
+	}
+
+	/**
+	 * Returns estimated size of {@code s}, including its backing array.
+	 *
+	 * @param s a string
+	 * @return estimated size in bytes
+	 */
+	static long string(String s) {
+		boolean latin1 = true;
+		for (int i = 0; i < s.length() && latin1; i++) {
+			latin1 = s.charAt(i) <= 0xFF;
+		}
+		// String has a reference, an int hash, a byte coder and a boolean flag
+		return align(HEADER + REFERENCE + Integer.BYTES + 2) + align(ARRAY_HEADER + (long) s.length() * (latin1 ? 1 : 2));
+	}
+
+	/**
+	 * Returns estimated size of a {@link Bucket} holding {@code size} words (excluding the words).
+	 *
+	 * @param size number of words
+	 * @return estimated size in bytes
+	 */
+	static long bucket(int size) {
+		// A single word shares its length index with every other single-word bucket
+		long lengthIndex = size == 1 ? 0 : align(ARRAY_HEADER + (long) size * Integer.BYTES);
+		return align(HEADER + Integer.BYTES + 2 * REFERENCE) + referenceArray(size) + lengthIndex;
+	}
+
+	/**
+	 * Returns estimated size of a {@link LongMap} of {@code capacity} (excluding the values).
+	 *
+	 * @param capacity table capacity
+	 * @return estimated size in bytes
+	 */
+	static long longMap(int capacity) {
+		return align(HEADER + 2 * REFERENCE + Integer.BYTES) + align(ARRAY_HEADER + (long) capacity * Long.BYTES) + referenceArray(capacity);
+	}
+
+	/**
+	 * Returns estimated size of {@code index} (excluding the words), including any frequencies and their segment tree.
+	 *
+	 * @param index a {@link PrefixIndex}
+	 * @return estimated size in bytes
+	 */
+	static long prefixIndex(PrefixIndex index) {
+		long frequencies = index.hasFrequencies() ? align(ARRAY_HEADER + (long) index.size() * Integer.BYTES)
+				+ align(ARRAY_HEADER + 2L * index.size() * Integer.BYTES) : 0;
+		return referenceArray(index.size()) + frequencies;
+	}
+
+	/**
+	 * Returns estimated size of {@code filter}, including its bit array.
+	 *
+	 * @param filter a {@link BloomFilter}
+	 * @return estimated size in bytes
+	 */
+	static long bloomFilter(BloomFilter filter) {
+		return align(HEADER + REFERENCE + 3 * Integer.BYTES) + align(ARRAY_HEADER + filter.sizeInBytes());
+	}
+
+	/**
+	 * Returns estimated size of an array of {@code length} references (excluding the referents).
+	 *
+	 * @param length array length
+	 * @return estimated size in bytes
+	 */
+	static long referenceArray(int length) {
+		return align(ARRAY_HEADER + (long) length * REFERENCE);
+	}
+
+	/**
+	 * Returns {@code size} rounded up to object alignment.
+	 *
+	 * @param size a size in bytes
+	 * @return aligned size
+	 */
+	private static long align(long size) {
+		return (size + 7) & ~7L;
+	}
+}
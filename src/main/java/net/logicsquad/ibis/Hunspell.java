@@ -0,0 +1,483 @@
+package net.logicsquad.ibis;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.IllegalCharsetNameException;
+import java.nio.charset.StandardCharsets;
+import java.nio.charset.UnsupportedCharsetException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.UnaryOperator;
+
+/**
+ * <p>
+ * Stems and affix rules read from a <a href="https://github.com/hunspell/hunspell">Hunspell</a> dictionary (a {@code .dic} file of stems
+ * with affix flags, and an {@code .aff} file of rules), for {@link Dictionary.Builder#addHunspell(Path, Path)}. Rather than expanding every
+ * stem into all its inflected forms when loading, a {@code Hunspell} holds only the stems, and recognises inflected forms on lookup by
+ * stripping affixes: {@link #derives(String)} undoes each suffix (and prefix) whose affix the word ends (or starts) with, and checks
+ * whether the resulting stem exists with the rule's flag.
+ * </p>
+ *
+ * <p>
+ * Supported {@code .aff} directives are {@code SET}, {@code FLAG} (single-character, {@code long}, {@code num} and {@code UTF-8} flags),
+ * {@code PFX}, {@code SFX}, {@code NEEDAFFIX} and {@code FORBIDDENWORD}. Affixes combine as in Hunspell's default mode: at most one suffix
+ * and one prefix, and both only if both rules allow cross products. Continuation flags on affixes, compounding and morphological fields
+ * are ignored. Instances are immutable once read, so are thread-safe.
+ * </p>
+ *
+ * @author paulh
+ * @since 1.0
+ */
+final class Hunspell {
+	/**
+	 * Stems and their (encoded) flags
+	 */
+	private final Map<String, String> stems;
+
+	/**
+	 * Suffix rules keyed by the affix they add
+	 */
+	private final Map<String, List<Affix>> suffixes;
+
+	/**
+	 * Prefix rules keyed by the affix they add
+	 */
+	private final Map<String, List<Affix>> prefixes;
+
+	/**
+	 * Length of longest suffix added
+	 */
+	private final int maxSuffixLength;
+
+	/**
+	 * Length of longest prefix added
+	 */
+	private final int maxPrefixLength;
+
+	/**
+	 * (Encoded) flag marking stems that are not words without an affix, or {@code 0} if none
+	 */
+	private final char needAffix;
+
+	/**
+	 * Constructor
+	 *
+	 * @param stems     stems and their (encoded) flags
+	 * @param rules     affix rules
+	 * @param needAffix (encoded) flag marking stems that need an affix, or {@code 0}
+	 */
+	private Hunspell(Map<String, String> stems, List<Affix> rules, char needAffix) {
+		this.stems = stems;
+		this.suffixes = new HashMap<>();
+		this.prefixes = new HashMap<>();
+		int maxSuffix = 0;
+		int maxPrefix = 0;
+		for (Affix rule : rules) {
+			(rule.suffix() ? suffixes : prefixes).computeIfAbsent(rule.add(), k -> new ArrayList<>()).add(rule);
+			if (rule.suffix()) {
+				maxSuffix = Math.max(maxSuffix, rule.add().length());
+			} else {
+				maxPrefix = Math.max(maxPrefix, rule.add().length());
+			}
+		}
+		this.maxSuffixLength = maxSuffix;
+		this.maxPrefixLength = maxPrefix;
+		this.needAffix = needAffix;
+		return;
+	}
+
+	/**
+	 * Reads a Hunspell dictionary.
+	 *
+	 * @param dic  path to {@code .dic} file
+	 * @param aff  path to {@code .aff} file
+	 * @param cook function to apply to each stem before storing it (see {@link Dictionary.Builder#cook(String)})
+	 * @return new {@code Hunspell}
+	 * @throws IOException              if either file cannot be read
+	 * @throws IllegalArgumentException if either file is malformed
+	 * @throws NullPointerException     if any argument is {@code null}
+	 */
+	static Hunspell read(Path dic, Path aff, UnaryOperator<String> cook) throws IOException {
+		Objects.requireNonNull(dic);
+		Objects.requireNonNull(aff);
+		Objects.requireNonNull(cook);
+		Charset charset = charset(aff);
+		FlagParser flags = new FlagParser();
+		List<Affix> rules = new ArrayList<>();
+		String needAffix = null;
+		String forbidden = null;
+		try (BufferedReader reader = Files.newBufferedReader(aff, charset)) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				String[] fields = line.strip().split("\\s+");
+				switch (fields[0]) {
+				case "FLAG" -> flags.type = field(fields, 1, line);
+				case "NEEDAFFIX" -> needAffix = field(fields, 1, line);
+				case "FORBIDDENWORD" -> forbidden = field(fields, 1, line);
+				case "PFX", "SFX" -> readRules(reader, fields, flags, rules, line);
+				default -> {
+					// Ignore unsupported directives and comments
+				}
+				}
+			}
+		}
+		char needAffixFlag = needAffix == null ? 0 : flags.parse(needAffix).charAt(0);
+		char forbiddenFlag = forbidden == null ? 0 : flags.parse(forbidden).charAt(0);
+		Map<String, String> stems = new HashMap<>();
+		try (BufferedReader reader = Files.newBufferedReader(dic, charset)) {
+			// The first line is an approximate word count
+			String line = reader.readLine();
+			while ((line = reader.readLine()) != null) {
+				String entry = line.strip();
+				if (entry.isEmpty() || line.startsWith("\t") || entry.startsWith("#")) {
+					continue;
+				}
+				int space = indexOfWhitespace(entry);
+				if (space != -1) {
+					// Drop morphological fields
+					entry = entry.substring(0, space);
+				}
+				int slash = entry.indexOf('/');
+				String stem = cook.apply(slash == -1 ? entry : entry.substring(0, slash));
+				String stemFlags = slash == -1 ? "" : flags.parse(entry.substring(slash + 1));
+				if (stem.isEmpty() || (forbiddenFlag != 0 && stemFlags.indexOf(forbiddenFlag) != -1)) {
+					continue;
+				}
+				stems.merge(stem, stemFlags, String::concat);
+			}
+		}
+		return new Hunspell(stems, rules, needAffixFlag);
+	}
+
+	/**
+	 * Returns stems that are words in their own right (that is, without an affix), in no particular order.
+	 *
+	 * @return words
+	 */
+	Collection<String> words() {
+		List<String> result = new ArrayList<>(stems.size());
+		stems.forEach((stem, flags) -> {
+			if (needAffix == 0 || flags.indexOf(needAffix) == -1) {
+				result.add(stem);
+			}
+		});
+		return result;
+	}
+
+	/**
+	 * Is {@code word} derived from a stem by a suffix, a prefix, or (where both rules allow it) both?
+	 *
+	 * @param word a word
+	 * @return {@code true} if {@code word} is a derived form, otherwise {@code false}
+	 */
+	boolean derives(String word) {
+		return derivesBySuffix(word, null) || derivesByPrefix(word);
+	}
+
+	/**
+	 * Is {@code word} derived from a stem by a suffix (and, if {@code prefix} is not {@code null}, that prefix as well)?
+	 *
+	 * @param word   a word (with any prefix already undone)
+	 * @param prefix prefix rule already undone, or {@code null}
+	 * @return {@code true} if {@code word} is derived, otherwise {@code false}
+	 */
+	private boolean derivesBySuffix(String word, Affix prefix) {
+		for (int i = Math.max(0, word.length() - maxSuffixLength); i <= word.length(); i++) {
+			List<Affix> rules = suffixes.get(word.substring(i));
+			if (rules == null) {
+				continue;
+			}
+			for (Affix rule : rules) {
+				if ((i == 0 && rule.strip().isEmpty()) || (prefix != null && !rule.cross())) {
+					continue;
+				}
+				String stem = word.substring(0, i) + rule.strip();
+				if (rule.matches(stem) && hasFlags(stem, rule.flag(), prefix)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Is {@code word} derived from a stem by a prefix, optionally with a suffix?
+	 *
+	 * @param word a word
+	 * @return {@code true} if {@code word} is derived, otherwise {@code false}
+	 */
+	private boolean derivesByPrefix(String word) {
+		for (int i = Math.min(word.length(), maxPrefixLength); i >= 0; i--) {
+			List<Affix> rules = prefixes.get(word.substring(0, i));
+			if (rules == null) {
+				continue;
+			}
+			for (Affix rule : rules) {
+				if (i == word.length() && rule.strip().isEmpty()) {
+					continue;
+				}
+				String stem = rule.strip() + word.substring(i);
+				if (rule.matches(stem) && (hasFlags(stem, rule.flag(), null) || (rule.cross() && derivesBySuffix(stem, rule)))) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Does {@code stem} exist with {@code flag} (and, if {@code prefix} is not {@code null}, that prefix's flag)?
+	 *
+	 * @param stem   a stem
+	 * @param flag   an (encoded) flag
+	 * @param prefix a prefix rule, or {@code null}
+	 * @return {@code true} if {@code stem} has the flags, otherwise {@code false}
+	 */
+	private boolean hasFlags(String stem, char flag, Affix prefix) {
+		String flags = stems.get(stem);
+		return flags != null && flags.indexOf(flag) != -1 && (prefix == null || flags.indexOf(prefix.flag()) != -1);
+	}
+
+	/**
+	 * Reads the rules of an affix class whose header is {@code header}.
+	 *
+	 * @param reader a {@link BufferedReader} positioned after the header
+	 * @param header header fields: type, flag, cross product ({@code Y} or {@code N}) and rule count
+	 * @param flags  a {@link FlagParser}
+	 * @param rules  list to which to add rules
+	 * @param line   header line, for error messages
+	 * @throws IOException if the file cannot be read
+	 */
+	private static void readRules(BufferedReader reader, String[] header, FlagParser flags, List<Affix> rules, String line) throws IOException {
+		boolean suffix = header[0].equals("SFX");
+		char flag = flags.parse(field(header, 1, line)).charAt(0);
+		boolean cross = field(header, 2, line).equals("Y");
+		int count;
+		try {
+			count = Integer.parseInt(field(header, 3, line));
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("Malformed affix header: " + line, e);
+		}
+		for (int i = 0; i < count; i++) {
+			String ruleLine = reader.readLine();
+			if (ruleLine == null) {
+				throw new IllegalArgumentException("Missing affix rules for: " + line);
+			}
+			String[] fields = ruleLine.strip().split("\\s+");
+			String add = field(fields, 3, ruleLine);
+			int slash = add.indexOf('/');
+			if (slash != -1) {
+				// Drop continuation flags
+				add = add.substring(0, slash);
+			}
+			String strip = field(fields, 2, ruleLine);
+			String condition = fields.length > 4 ? fields[4] : ".";
+			rules.add(new Affix(suffix, flag, cross, strip.equals("0") ? "" : strip, add.equals("0") ? "" : add,
+					Condition.parse(condition, suffix)));
+		}
+		return;
+	}
+
+	/**
+	 * Returns {@code fields[index]}.
+	 *
+	 * @param fields fields of a line
+	 * @param index  an index
+	 * @param line   the line, for error messages
+	 * @return field at {@code index}
+	 * @throws IllegalArgumentException if there is no such field
+	 */
+	private static String field(String[] fields, int index, String line) {
+		if (index >= fields.length) {
+			throw new IllegalArgumentException("Malformed line: " + line);
+		}
+		return fields[index];
+	}
+
+	/**
+	 * Returns the {@link Charset} named by the {@code SET} directive in {@code aff}, or ISO-8859-1 (Hunspell's default) if there is none.
+	 *
+	 * @param aff path to {@code .aff} file
+	 * @return {@link Charset}
+	 * @throws IOException if {@code aff} cannot be read
+	 */
+	private static Charset charset(Path aff) throws IOException {
+		try (BufferedReader reader = Files.newBufferedReader(aff, StandardCharsets.ISO_8859_1)) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				String[] fields = line.strip().split("\\s+");
+				if (fields[0].equals("SET")) {
+					try {
+						return Charset.forName(field(fields, 1, line));
+					} catch (IllegalCharsetNameException | UnsupportedCharsetException e) {
+						throw new IllegalArgumentException("Unsupported encoding: " + line, e);
+					}
+				}
+			}
+		}
+		return StandardCharsets.ISO_8859_1;
+	}
+
+	/**
+	 * Returns the index of the first whitespace character in {@code s}, or {@code -1} if there is none.
+	 *
+	 * @param s a string
+	 * @return index of whitespace, or {@code -1}
+	 */
+	private static int indexOfWhitespace(String s) {
+		for (int i = 0; i < s.length(); i++) {
+			if (Character.isWhitespace(s.charAt(i))) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Parses flags in any of Hunspell's formats, encoding each as a single {@code char} so that a stem's flags can be held as a
+	 * {@link String}.
+	 */
+	private static final class FlagParser {
+		/**
+		 * Flag type from {@code FLAG} directive ({@code null} for single characters)
+		 */
+		private String type;
+
+		/**
+		 * Encodings of multi-character flags
+		 */
+		private final Map<String, Character> codes = new HashMap<>();
+
+		/**
+		 * Parses {@code flags}.
+		 *
+		 * @param flags flags in the current format
+		 * @return encoded flags
+		 * @throws IllegalArgumentException if {@code flags} is malformed
+		 */
+		private String parse(String flags) {
+			if (type == null || type.equals("UTF-8")) {
+				// Single-character flags (UTF-8 files are already decoded, and flags outside the BMP are not supported)
+				return flags;
+			}
+			StringBuilder sb = new StringBuilder();
+			if (type.equals("long")) {
+				if (flags.length() % 2 != 0) {
+					throw new IllegalArgumentException("Malformed long flags: " + flags);
+				}
+				for (int i = 0; i < flags.length(); i += 2) {
+					sb.append(encode(flags.substring(i, i + 2)));
+				}
+			} else if (type.equals("num")) {
+				for (String flag : flags.split(",")) {
+					sb.append(encode(flag.strip()));
+				}
+			} else {
+				throw new IllegalArgumentException("Unsupported flag type: " + type);
+			}
+			return sb.toString();
+		}
+
+		/**
+		 * Returns the encoding of {@code flag}, assigning one if necessary.
+		 *
+		 * @param flag a multi-character flag
+		 * @return encoded flag
+		 */
+		private char encode(String flag) {
+			return codes.computeIfAbsent(flag, f -> (char) (codes.size() + 1));
+		}
+	}
+
+	/**
+	 * An affix rule.
+	 *
+	 * @param suffix    is this a suffix (rather than a prefix)?
+	 * @param flag      (encoded) flag of rule's class
+	 * @param cross     does the class allow combining with affixes of the other type?
+	 * @param strip     characters stripped from the stem
+	 * @param add       affix added to the stem
+	 * @param condition condition on the stem
+	 */
+	private record Affix(boolean suffix, char flag, boolean cross, String strip, String add, Condition condition) {
+		/**
+		 * Does {@code stem} satisfy {@link #condition}?
+		 *
+		 * @param stem a stem
+		 * @return {@code true} if the condition holds, otherwise {@code false}
+		 */
+		private boolean matches(String stem) {
+			return condition.matches(stem, suffix);
+		}
+	}
+
+	/**
+	 * A condition on the end (for suffixes) or start (for prefixes) of a stem: a sequence of positions, each a character, a bracketed set of
+	 * characters (optionally negated), or {@code .} for any character.
+	 *
+	 * @param sets    characters allowed (or, if negated, forbidden) at each position ({@code null} for any character)
+	 * @param negated is each position's set negated?
+	 */
+	private record Condition(String[] sets, boolean[] negated) {
+		/**
+		 * Parses {@code condition}.
+		 *
+		 * @param condition a condition
+		 * @param suffix    is the condition for a suffix?
+		 * @return parsed condition
+		 * @throws IllegalArgumentException if {@code condition} is malformed
+		 */
+		private static Condition parse(String condition, boolean suffix) {
+			List<String> sets = new ArrayList<>();
+			List<Boolean> negated = new ArrayList<>();
+			for (int i = 0; i < condition.length(); i++) {
+				char c = condition.charAt(i);
+				if (c == '[') {
+					int end = condition.indexOf(']', i);
+					if (end == -1) {
+						throw new IllegalArgumentException("Malformed condition: " + condition);
+					}
+					boolean negate = end > i + 1 && condition.charAt(i + 1) == '^';
+					sets.add(condition.substring(negate ? i + 2 : i + 1, end));
+					negated.add(negate);
+					i = end;
+				} else {
+					sets.add(c == '.' ? null : String.valueOf(c));
+					negated.add(false);
+				}
+			}
+			boolean[] flags = new boolean[negated.size()];
+			for (int i = 0; i < flags.length; i++) {
+				flags[i] = negated.get(i);
+			}
+			return new Condition(sets.toArray(new String[0]), flags);
+		}
+
+		/**
+		 * Does {@code stem} satisfy this condition?
+		 *
+		 * @param stem   a stem
+		 * @param suffix is the condition for a suffix (so applies to the end of {@code stem})?
+		 * @return {@code true} if the condition holds, otherwise {@code false}
+		 */
+		private boolean matches(String stem, boolean suffix) {
+			if (stem.length() < sets.length) {
+				return false;
+			}
+			int offset = suffix ? stem.length() - sets.length : 0;
+			for (int i = 0; i < sets.length; i++) {
+				if (sets[i] != null && (sets[i].indexOf(stem.charAt(offset + i)) == -1) != negated[i]) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+}
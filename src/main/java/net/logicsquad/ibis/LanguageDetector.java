@@ -0,0 +1,174 @@
+package net.logicsquad.ibis;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * <p>
+ * A cheap guess at the language of a short text, such as a paragraph, by counting <em>stopwords</em>: the short, frequent function words
+ * ("the", "und", "les") that make up a large share of any running text, and that rarely occur in other languages. The first
+ * {@value #MAX_WORDS} words of the text are looked up in a single table mapping each stopword to the languages it belongs to, and the
+ * language with the most hits wins. No {@link Dictionary} is consulted, so the cost is a hash lookup per word, whatever the number of
+ * languages.
+ * </p>
+ *
+ * <p>
+ * {@link #builtIn()} recognises English, French and German; {@link #of(Map)} takes stopwords for any set of languages. A text with no
+ * stopwords at all (such as a heading or a list of names) gets no verdict, leaving the caller to decide. {@code LanguageDetector}s are
+ * immutable and thread-safe.
+ * </p>
+ *
+ * @author paulh
+ * @since 1.0
+ */
+public final class LanguageDetector {
+	/**
+	 * Maximum number of words examined
+	 */
+	static final int MAX_WORDS = 200;
+
+	/**
+	 * Maximum number of languages
+	 */
+	private static final int MAX_LANGUAGES = Long.SIZE;
+
+	/**
+	 * Built-in English stopwords
+	 */
+	private static final Set<String> ENGLISH = Set.of("the", "and", "of", "to", "is", "in", "that", "it", "for", "with", "was", "on", "are",
+			"this", "be", "as", "you", "have", "not", "by", "from", "at", "they", "which", "or", "we", "but", "will", "can", "has");
+
+	/**
+	 * Built-in French stopwords
+	 */
+	private static final Set<String> FRENCH = Set.of("le", "la", "les", "et", "des", "un", "une", "du", "est", "que", "qui", "dans", "pour",
+			"pas", "sur", "au", "avec", "ce", "il", "elle", "nous", "vous", "sont", "mais", "par", "plus", "ou", "aux", "cette", "été");
+
+	/**
+	 * Built-in German stopwords
+	 */
+	private static final Set<String> GERMAN = Set.of("der", "die", "das", "und", "ist", "nicht", "ein", "eine", "zu", "den", "von", "mit",
+			"sich", "des", "auf", "für", "im", "dem", "auch", "es", "wir", "sie", "ich", "werden", "wird", "bei", "oder", "aber", "nach",
+			"sind");
+
+	/**
+	 * Built-in detector
+	 */
+	private static final LanguageDetector BUILT_IN = of(Map.of(Locale.ENGLISH, ENGLISH, Locale.FRENCH, FRENCH, Locale.GERMAN, GERMAN));
+
+	/**
+	 * Languages, in order of indexes used in {@link #stopwords}
+	 */
+	private final Locale[] locales;
+
+	/**
+	 * Map from stopword to bit set of indexes into {@link #locales}
+	 */
+	private final Map<String, Long> stopwords;
+
+	/**
+	 * Constructor
+	 *
+	 * @param locales   languages
+	 * @param stopwords map from stopword to bit set of languages
+	 */
+	private LanguageDetector(Locale[] locales, Map<String, Long> stopwords) {
+		this.locales = locales;
+		this.stopwords = stopwords;
+		return;
+	}
+
+	/**
+	 * Returns a {@code LanguageDetector} for English, French and German (as {@link Locale#ENGLISH}, {@link Locale#FRENCH} and
+	 * {@link Locale#GERMAN}).
+	 *
+	 * @return built-in {@code LanguageDetector}
+	 */
+	public static LanguageDetector builtIn() {
+		return BUILT_IN;
+	}
+
+	/**
+	 * Returns a {@code LanguageDetector} for the languages in {@code stopwords}, each mapped to its stopwords. Stopwords are matched
+	 * ignoring case.
+	 *
+	 * @param stopwords map from {@link Locale} to stopwords
+	 * @return new {@code LanguageDetector}
+	 * @throws IllegalArgumentException if {@code stopwords} is empty, or has more than 64 languages
+	 * @throws NullPointerException     if {@code stopwords} (or any key or value in it) is {@code null}
+	 */
+	public static LanguageDetector of(Map<Locale, ? extends Collection<String>> stopwords) {
+		Objects.requireNonNull(stopwords);
+		if (stopwords.isEmpty() || stopwords.size() > MAX_LANGUAGES) {
+			throw new IllegalArgumentException("stopwords must have between 1 and " + MAX_LANGUAGES + " languages.");
+		}
+		List<Locale> locales = new ArrayList<>(stopwords.keySet());
+		// Sort for a stable tie-break, whatever the map's order
+		locales.sort((a, b) -> a.toLanguageTag().compareTo(b.toLanguageTag()));
+		Map<String, Long> table = new HashMap<>();
+		for (int i = 0; i < locales.size(); i++) {
+			long bit = 1L << i;
+			for (String stopword : stopwords.get(locales.get(i))) {
+				table.merge(stopword.toLowerCase(Locale.ROOT), bit, (a, b) -> a | b);
+			}
+		}
+		return new LanguageDetector(locales.toArray(new Locale[0]), Map.copyOf(table));
+	}
+
+	/**
+	 * Returns the languages this {@code LanguageDetector} recognises.
+	 *
+	 * @return list of {@link Locale}s
+	 */
+	public List<Locale> locales() {
+		return List.of(locales);
+	}
+
+	/**
+	 * Returns the most likely language of {@code text}, or {@code null} if it contains no stopwords of any language. Ties go to the
+	 * language whose tag sorts first.
+	 *
+	 * @param text some text
+	 * @return {@link Locale} of {@code text}, or {@code null}
+	 * @throws NullPointerException if {@code text} is {@code null}
+	 */
+	public Locale detect(CharSequence text) {
+		Objects.requireNonNull(text);
+		int[] scores = new int[locales.length];
+		StringBuilder sb = new StringBuilder();
+		int words = 0;
+		for (int i = 0; i <= text.length() && words < MAX_WORDS; i++) {
+			char c = i < text.length() ? text.charAt(i) : ' ';
+			if (Character.isLetter(c)) {
+				sb.append(Character.toLowerCase(c));
+			} else if (sb.length() > 0) {
+				Long languages = stopwords.get(sb.toString());
+				if (languages != null) {
+					for (long bits = languages; bits != 0; bits &= bits - 1) {
+						scores[Long.numberOfTrailingZeros(bits)]++;
+					}
+				}
+				sb.setLength(0);
+				words++;
+			}
+		}
+		int best = -1;
+		for (int i = 0; i < scores.length; i++) {
+			if (scores[i] > 0 && (best == -1 || scores[i] > scores[best])) {
+				best = i;
+			}
+		}
+		return best == -1 ? null : locales[best];
+	}
+
+	@Override
+	public String toString() {
+		return "LanguageDetector [locales=" + locales() + ", stopwords=" + stopwords.size() + "]";
+	}
+}
@@ -0,0 +1,241 @@
+package net.logicsquad.ibis;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.LongFunction;
+
+/**
+ * An open-addressing hash map from primitive {@code long} keys to values, used to hold {@link Dictionary} buckets keyed on packed
+ * {@link PhoneticCode}s without boxing. {@link PhoneticCode#NONE} marks an empty slot and cannot be used as a key. This class is not
+ * thread-safe, but may be shared freely once no further writes will occur.
+ *
+ * @param <V> value type
+ * @author paulh
+ * @since 1.0
+ */
+final class LongMap<V> {
+	/**
+	 * Key marking an empty slot
+	 */
+	private static final long EMPTY = PhoneticCode.NONE;
+
+	/**
+	 * Default initial capacity
+	 */
+	private static final int DEFAULT_CAPACITY = 16;
+
+	/**
+	 * Keys
+	 */
+	private long[] keys;
+
+	/**
+	 * Values, at the same index as their keys
+	 */
+	private Object[] values;
+
+	/**
+	 * Number of mappings
+	 */
+	private int size;
+
+	/**
+	 * Constructor
+	 */
+	LongMap() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param expectedSize number of mappings expected
+	 * @throws IllegalArgumentException if {@code expectedSize} is negative
+	 */
+	LongMap(int expectedSize) {
+		if (expectedSize < 0) {
+			throw new IllegalArgumentException("expectedSize cannot be negative.");
+		}
+		int capacity = DEFAULT_CAPACITY;
+		while (capacity < expectedSize * 2) {
+			capacity <<= 1;
+		}
+		allocate(capacity);
+		return;
+	}
+
+	/**
+	 * Returns value for {@code key}, or {@code null} if there is no mapping.
+	 *
+	 * @param key a key
+	 * @return value for {@code key}, or {@code null}
+	 */
+	@SuppressWarnings("unchecked")
+	V get(long key) {
+		int mask = keys.length - 1;
+		for (int i = slot(key, mask);; i = (i + 1) & mask) {
+			long k = keys[i];
+			if (k == key) {
+				return (V) values[i];
+			} else if (k == EMPTY) {
+				return null;
+			}
+		}
+	}
+
+	/**
+	 * Returns value for {@code key}, first computing it with {@code function} and storing it if there is no mapping.
+	 *
+	 * @param key      a key
+	 * @param function function computing a value
+	 * @return value for {@code key}
+	 * @throws IllegalArgumentException if {@code key} is {@link PhoneticCode#NONE}
+	 * @throws NullPointerException     if {@code function} is {@code null}
+	 */
+	@SuppressWarnings("unchecked")
+	V computeIfAbsent(long key, LongFunction<? extends V> function) {
+		Objects.requireNonNull(function);
+		if (key == EMPTY) {
+			throw new IllegalArgumentException("Reserved key.");
+		}
+		int mask = keys.length - 1;
+		int i = slot(key, mask);
+		for (long k = keys[i]; k != EMPTY; k = keys[i]) {
+			if (k == key) {
+				return (V) values[i];
+			}
+			i = (i + 1) & mask;
+		}
+		V value = function.apply(key);
+		keys[i] = key;
+		values[i] = value;
+		if (++size * 2 > keys.length) {
+			rehash();
+		}
+		return value;
+	}
+
+	/**
+	 * Returns number of mappings.
+	 *
+	 * @return number of mappings
+	 */
+	int size() {
+		return size;
+	}
+
+	/**
+	 * Returns number of slots in the table.
+	 *
+	 * @return capacity
+	 */
+	int capacity() {
+		return keys.length;
+	}
+
+	/**
+	 * Returns an {@link Iterable} over values, in no particular order. Behaviour is undefined if this map is modified during iteration.
+	 *
+	 * @return values
+	 */
+	Iterable<V> values() {
+		return () -> new Iterator<>() {
+			private int index = advance(0);
+
+			@Override
+			public boolean hasNext() {
+				return index < keys.length;
+			}
+
+			@Override
+			@SuppressWarnings("unchecked")
+			public V next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				V value = (V) values[index];
+				index = advance(index + 1);
+				return value;
+			}
+
+			private int advance(int from) {
+				int i = from;
+				while (i < keys.length && keys[i] == EMPTY) {
+					i++;
+				}
+				return i;
+			}
+		};
+	}
+
+	/**
+	 * Returns a new {@code LongMap} with the same keys as this one, each mapped to the result of applying {@code function} to its value
+	 * here. The new map has the same capacity, and copies this one's table layout rather than rehashing.
+	 *
+	 * @param <W>      new value type
+	 * @param function function to apply to each value
+	 * @return new {@code LongMap}
+	 */
+	<W> LongMap<W> mapValues(Function<? super V, ? extends W> function) {
+		LongMap<W> result = new LongMap<>(0);
+		result.keys = keys.clone();
+		result.values = new Object[values.length];
+		result.size = size;
+		for (int i = 0; i < keys.length; i++) {
+			if (keys[i] != EMPTY) {
+				@SuppressWarnings("unchecked")
+				V value = (V) values[i];
+				result.values[i] = function.apply(value);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Doubles capacity and reinserts all mappings.
+	 */
+	private void rehash() {
+		long[] oldKeys = keys;
+		Object[] oldValues = values;
+		allocate(oldKeys.length * 2);
+		int mask = keys.length - 1;
+		for (int j = 0; j < oldKeys.length; j++) {
+			if (oldKeys[j] != EMPTY) {
+				int i = slot(oldKeys[j], mask);
+				while (keys[i] != EMPTY) {
+					i = (i + 1) & mask;
+				}
+				keys[i] = oldKeys[j];
+				values[i] = oldValues[j];
+			}
+		}
+		return;
+	}
+
+	/**
+	 * Allocates empty arrays of {@code capacity}.
+	 *
+	 * @param capacity a power of two
+	 */
+	private void allocate(int capacity) {
+		keys = new long[capacity];
+		Arrays.fill(keys, EMPTY);
+		values = new Object[capacity];
+		return;
+	}
+
+	/**
+	 * Returns home slot for {@code key}. Packed codes are small and dense in their low bits, so they are spread with a Fibonacci multiply.
+	 *
+	 * @param key  a key
+	 * @param mask capacity minus one
+	 * @return home slot
+	 */
+	private static int slot(long key, int mask) {
+		long h = key * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32)) & mask;
+	}
+}
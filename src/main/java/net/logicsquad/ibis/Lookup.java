@@ -0,0 +1,92 @@
+package net.logicsquad.ibis;
+
+import java.util.List;
+
+/**
+ * The result of looking up a {@link Word} in a {@link Dictionary} with {@link Dictionary#lookup(Word)}: a verdict on whether the
+ * {@link Word} is spelled correctly, holding the phonetic bucket resolved in each layer of the {@link Dictionary}, from which
+ * {@link #suggestions()} are derived without encoding or looking up the {@link Word} again. {@code Lookup}s are immutable and
+ * thread-safe.
+ *
+ * @author paulh
+ * @since 1.0
+ */
+public final class Lookup {
+	/**
+	 * {@link Dictionary} that produced this {@code Lookup}
+	 */
+	private final Dictionary dictionary;
+
+	/**
+	 * {@link Word} looked up
+	 */
+	private final Word word;
+
+	/**
+	 * Bucket for {@link #word} in each layer of {@link #dictionary}, from the top ({@code null} where there is none)
+	 */
+	private final Bucket[] buckets;
+
+	/**
+	 * Is {@link #word} spelled correctly?
+	 */
+	private final boolean correct;
+
+	/**
+	 * Constructor
+	 *
+	 * @param dictionary {@link Dictionary} that produced this {@code Lookup}
+	 * @param word       {@link Word} looked up
+	 * @param buckets    bucket for {@code word} in each layer of {@code dictionary}
+	 * @param correct    is {@code word} spelled correctly?
+	 */
+	Lookup(Dictionary dictionary, Word word, Bucket[] buckets, boolean correct) {
+		this.dictionary = dictionary;
+		this.word = word;
+		this.buckets = buckets;
+		this.correct = correct;
+		return;
+	}
+
+	/**
+	 * Returns the {@link Word} looked up.
+	 *
+	 * @return {@link Word}
+	 */
+	public Word word() {
+		return word;
+	}
+
+	/**
+	 * Is the {@link Word} spelled correctly? See {@link Dictionary#isCorrect(Word)}.
+	 *
+	 * @return {@code true} if the {@link Word} is spelled correctly, otherwise {@code false}
+	 */
+	public boolean isCorrect() {
+		return correct;
+	}
+
+	/**
+	 * Returns suggestions for the {@link Word}, exactly as {@link Dictionary#suggestionsFor(Word)} would, or an empty list if it is spelled
+	 * correctly. Suggestions are computed on each call.
+	 *
+	 * @return a list of suggestions
+	 */
+	public List<String> suggestions() {
+		return correct ? List.of() : dictionary.suggestionsFor(word, buckets);
+	}
+
+	/**
+	 * Returns the number of words compared with the {@link Word} to find {@link #suggestions()}.
+	 *
+	 * @return number of candidate suggestions
+	 */
+	int candidates() {
+		return dictionary.candidatesFor(word, buckets);
+	}
+
+	@Override
+	public String toString() {
+		return "Lookup [word=" + word + ", correct=" + correct + "]";
+	}
+}
@@ -0,0 +1,27 @@
+package net.logicsquad.ibis;
+
+/**
+ * Markup languages a {@link Tokenizer} can recognise, so that markup is skipped rather than checked (see
+ * {@link Tokenizer.Builder#markup(Markup)}). Skipping happens in place: {@link Word} offsets always refer to the original text.
+ *
+ * @author paulh
+ * @since 1.0
+ */
+public enum Markup {
+	/**
+	 * Plain text
+	 */
+	NONE,
+
+	/**
+	 * HTML (or XML): tags, comments, entities, and the contents of {@code script}, {@code style}, {@code pre} and {@code code} elements are
+	 * skipped.
+	 */
+	HTML,
+
+	/**
+	 * Markdown: fenced and indented code blocks, code spans, link destinations, reference definitions, and inline HTML (as for
+	 * {@link #HTML}) are skipped.
+	 */
+	MARKDOWN;
+}
@@ -0,0 +1,19 @@
+package net.logicsquad.ibis;
+
+/**
+ * Receives incorrect {@link Word}s from a {@link Checker} as they are found. See
+ * {@link Checker#checkSpelling(Tokenizer, MisspellingListener)}.
+ * 
+ * @author paulh
+ * @since 1.0
+ */
+@FunctionalInterface
+public interface MisspellingListener {
+	/**
+	 * Called with each incorrect {@link Word}, in the order they appear in the text.
+	 * 
+	 * @param word an incorrect {@link Word} with suggestions
+	 * @return {@code true} to continue checking, or {@code false} to stop
+	 */
+	boolean misspelled(Word word);
+}
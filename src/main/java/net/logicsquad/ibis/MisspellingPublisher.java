@@ -0,0 +1,182 @@
+package net.logicsquad.ibis;
+
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A {@link Flow.Publisher} of incorrect {@link Word}s, drawn lazily from an {@link Iterator} (such as one over
+ * {@link Checker#misspellings(Tokenizer)}) only as demand is signalled. Signals to the {@link Flow.Subscriber} are issued serially from
+ * tasks run on an {@link Executor}. Only a single {@link Flow.Subscriber} is accepted. No text is checked beyond outstanding demand, so
+ * completion is signalled only once further demand finds the {@link Iterator} exhausted.
+ *
+ * @author paulh
+ * @since 1.0
+ */
+final class MisspellingPublisher implements Flow.Publisher<Word> {
+	/**
+	 * Source of incorrect {@link Word}s
+	 */
+	private final Iterator<Word> iterator;
+
+	/**
+	 * {@link Executor} for checking text and signalling
+	 */
+	private final Executor executor;
+
+	/**
+	 * Has a {@link Flow.Subscriber} subscribed?
+	 */
+	private final AtomicBoolean subscribed = new AtomicBoolean();
+
+	/**
+	 * Constructor
+	 *
+	 * @param iterator source of incorrect {@link Word}s
+	 * @param executor {@link Executor} for checking text and signalling
+	 */
+	MisspellingPublisher(Iterator<Word> iterator, Executor executor) {
+		this.iterator = iterator;
+		this.executor = executor;
+		return;
+	}
+
+	@Override
+	public void subscribe(Flow.Subscriber<? super Word> subscriber) {
+		Objects.requireNonNull(subscriber);
+		if (subscribed.compareAndSet(false, true)) {
+			subscriber.onSubscribe(new Subscription(subscriber));
+		} else {
+			subscriber.onSubscribe(new Subscription(null));
+			subscriber.onError(new IllegalStateException("This Publisher accepts only a single Subscriber."));
+		}
+		return;
+	}
+
+	/**
+	 * {@link Flow.Subscription} draining {@link MisspellingPublisher#iterator} to a single {@link Flow.Subscriber}.
+	 */
+	private final class Subscription implements Flow.Subscription, Runnable {
+		/**
+		 * Subscriber (or {@code null} for a rejected subscriber)
+		 */
+		private final Flow.Subscriber<? super Word> subscriber;
+
+		/**
+		 * Outstanding demand
+		 */
+		private final AtomicLong requested = new AtomicLong();
+
+		/**
+		 * Count of requests to run, used to ensure only one task drains at a time
+		 */
+		private final AtomicInteger pending = new AtomicInteger();
+
+		/**
+		 * Has this {@code Subscription} been cancelled or terminated?
+		 */
+		private volatile boolean cancelled;
+
+		/**
+		 * Error to signal for a non-positive request
+		 */
+		private volatile IllegalArgumentException error;
+
+		/**
+		 * Constructor
+		 *
+		 * @param subscriber subscriber (or {@code null} for a rejected subscriber)
+		 */
+		private Subscription(Flow.Subscriber<? super Word> subscriber) {
+			this.subscriber = subscriber;
+			this.cancelled = subscriber == null;
+			return;
+		}
+
+		@Override
+		public void request(long n) {
+			if (cancelled) {
+				return;
+			}
+			if (n <= 0) {
+				error = new IllegalArgumentException("Requested " + n + " items, but demand must be positive.");
+			} else {
+				requested.getAndAccumulate(n, (current, more) -> current + more < 0 ? Long.MAX_VALUE : current + more);
+			}
+			if (pending.getAndIncrement() == 0) {
+				try {
+					executor.execute(this);
+				} catch (RejectedExecutionException e) {
+					cancelled = true;
+					subscriber.onError(e);
+				}
+			}
+			return;
+		}
+
+		@Override
+		public void cancel() {
+			cancelled = true;
+			return;
+		}
+
+		@Override
+		public void run() {
+			int missed = 1;
+			while (true) {
+				long r = requested.get();
+				long emitted = 0;
+				while (!cancelled) {
+					if (error != null) {
+						terminate(error);
+						return;
+					}
+					// Check demand first, since hasNext() may check text up to the next incorrect word
+					if (emitted == r) {
+						break;
+					}
+					Word word;
+					try {
+						if (!iterator.hasNext()) {
+							cancelled = true;
+							subscriber.onComplete();
+							return;
+						}
+						word = iterator.next();
+					} catch (RuntimeException e) {
+						terminate(e);
+						return;
+					}
+					subscriber.onNext(word);
+					emitted++;
+				}
+				if (cancelled) {
+					return;
+				}
+				if (r != Long.MAX_VALUE) {
+					requested.addAndGet(-emitted);
+				}
+				missed = pending.addAndGet(-missed);
+				if (missed == 0) {
+					return;
+				}
+			}
+		}
+
+		/**
+		 * Cancels this {@code Subscription} and signals {@code t} to {@link #subscriber}.
+		 *
+		 * @param t cause of termination
+		 */
+		private void terminate(Throwable t) {
+			cancelled = true;
+			subscriber.onError(t);
+			return;
+		}
+	}
+}
@@ -0,0 +1,208 @@
+package net.logicsquad.ibis;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * <p>
+ * A spelling checker for text mixing several languages, with a {@link Dictionary} per language. The text is split into paragraphs at
+ * blank lines, and a {@link LanguageDetector} guesses the language of each; the paragraph is then tokenized with a {@link Tokenizer} for
+ * that {@link Locale}, and checked against that language's {@link Dictionary} alone. Each word is looked up once, in one
+ * {@link Dictionary}, so checking costs no more than for a single language, plus a stopword lookup per word for detection.
+ * </p>
+ *
+ * <p>
+ * Languages are matched by {@link Locale#getLanguage()}, so a {@link Dictionary} added for {@link Locale#FRANCE} serves paragraphs
+ * detected as {@link Locale#FRENCH}. A paragraph with no verdict from the {@link LanguageDetector} (such as a heading), or detected as a
+ * language with no {@link Dictionary}, is checked in the language of the paragraph before it, or the first language added if it is the
+ * first paragraph. {@code MultilingualChecker}s are immutable and thread-safe.
+ * </p>
+ *
+ * <pre>
+ * MultilingualChecker checker = MultilingualChecker.builder(LanguageDetector.builtIn()).add(Locale.ENGLISH, english)
+ * 		.add(Locale.FRENCH, french).add(Locale.GERMAN, german).build();
+ * List&lt;Word&gt; misspelled = checker.checkSpelling(text);
+ * </pre>
+ *
+ * @author paulh
+ * @since 1.0
+ */
+public final class MultilingualChecker {
+	/**
+	 * {@link LanguageDetector}
+	 */
+	private final LanguageDetector detector;
+
+	/**
+	 * Routes by language code
+	 */
+	private final Map<String, Route> routes;
+
+	/**
+	 * Route for first language added
+	 */
+	private final Route first;
+
+	/**
+	 * Constructor
+	 *
+	 * @param builder a {@link Builder}
+	 */
+	private MultilingualChecker(Builder builder) {
+		this.detector = builder.detector;
+		Map<String, Route> routes = new HashMap<>();
+		Route first = null;
+		for (Map.Entry<Locale, Dictionary> entry : builder.dictionaries.entrySet()) {
+			Route route = new Route(entry.getKey(), new Checker(entry.getValue()));
+			routes.put(entry.getKey().getLanguage(), route);
+			if (first == null) {
+				first = route;
+			}
+		}
+		this.routes = Map.copyOf(routes);
+		this.first = first;
+		return;
+	}
+
+	/**
+	 * Returns a new {@link Builder} for a {@code MultilingualChecker} routing paragraphs with {@code detector}.
+	 *
+	 * @param detector a {@link LanguageDetector}
+	 * @return new {@link Builder}
+	 * @throws NullPointerException if {@code detector} is {@code null}
+	 */
+	public static Builder builder(LanguageDetector detector) {
+		Objects.requireNonNull(detector);
+		return new Builder(detector);
+	}
+
+	/**
+	 * Checks spelling of {@code text}, returning a {@link List} of incorrect {@link Word}s, along with suggestions for the correct word. Each
+	 * paragraph is tokenized with default settings (apart from its {@link Locale}) and checked against the {@link Dictionary} for its
+	 * language. {@link Word}s are in order, and their start positions are relative to {@code text}.
+	 *
+	 * @param text some text
+	 * @return list of incorrect {@link Word}s with suggestions
+	 * @throws NullPointerException if {@code text} is {@code null}
+	 */
+	public List<Word> checkSpelling(String text) {
+		Objects.requireNonNull(text);
+		int[] boundaries = TextSplitter.paragraphs(text);
+		List<Word> result = new ArrayList<>();
+		Route route = first;
+		for (int i = 0; i < boundaries.length - 1; i++) {
+			int offset = boundaries[i];
+			String paragraph = text.substring(offset, boundaries[i + 1]);
+			route = route(paragraph, route);
+			for (Word w : route.checker().checkSpelling(Tokenizer.builder(paragraph).locale(route.locale()).build())) {
+				result.add(offset == 0 ? w : w.shift(offset));
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the {@link Locale} (as added to the {@link Builder}) whose {@link Dictionary} would check {@code paragraph}, were it the first
+	 * paragraph of a text.
+	 *
+	 * @param paragraph a paragraph
+	 * @return {@link Locale} for {@code paragraph}
+	 * @throws NullPointerException if {@code paragraph} is {@code null}
+	 */
+	public Locale localeOf(String paragraph) {
+		Objects.requireNonNull(paragraph);
+		return route(paragraph, first).locale();
+	}
+
+	/**
+	 * Returns the {@link Route} for {@code paragraph}, or {@code previous} if its language is not detected or has no {@link Dictionary}.
+	 *
+	 * @param paragraph a paragraph
+	 * @param previous  {@link Route} for previous paragraph
+	 * @return {@link Route}
+	 */
+	private Route route(String paragraph, Route previous) {
+		Locale locale = detector.detect(paragraph);
+		Route route = locale == null ? null : routes.get(locale.getLanguage());
+		return route == null ? previous : route;
+	}
+
+	@Override
+	public String toString() {
+		return "MultilingualChecker [languages=" + routes.keySet() + ", detector=" + detector + "]";
+	}
+
+	/**
+	 * A {@link Locale} and the {@link Checker} for its {@link Dictionary}.
+	 *
+	 * @param locale  a {@link Locale}
+	 * @param checker a {@link Checker}
+	 */
+	private record Route(Locale locale, Checker checker) {
+	}
+
+	/**
+	 * Builder for {@code MultilingualChecker} objects.
+	 */
+	public static class Builder {
+		/**
+		 * {@link LanguageDetector}
+		 */
+		private final LanguageDetector detector;
+
+		/**
+		 * {@link Dictionary} for each {@link Locale}, in the order added
+		 */
+		private final Map<Locale, Dictionary> dictionaries = new LinkedHashMap<>();
+
+		/**
+		 * Constructor
+		 *
+		 * @param detector a {@link LanguageDetector}
+		 */
+		private Builder(LanguageDetector detector) {
+			this.detector = detector;
+			return;
+		}
+
+		/**
+		 * Adds {@code dictionary} for paragraphs in {@code locale}'s language. The first language added is also used for paragraphs whose
+		 * language cannot be determined.
+		 *
+		 * @param locale     a {@link Locale}
+		 * @param dictionary a {@link Dictionary}
+		 * @return this object
+		 * @throws IllegalArgumentException if a {@link Dictionary} has already been added for {@code locale}'s language
+		 * @throws NullPointerException     if either argument is {@code null}
+		 */
+		public Builder add(Locale locale, Dictionary dictionary) {
+			Objects.requireNonNull(locale);
+			Objects.requireNonNull(dictionary);
+			for (Locale added : dictionaries.keySet()) {
+				if (added.getLanguage().equals(locale.getLanguage())) {
+					throw new IllegalArgumentException("A Dictionary has already been added for " + added + ".");
+				}
+			}
+			dictionaries.put(locale, dictionary);
+			return this;
+		}
+
+		/**
+		 * Creates a new {@code MultilingualChecker}.
+		 *
+		 * @return new {@code MultilingualChecker}
+		 * @throws IllegalStateException if no {@link Dictionary} has been added
+		 */
+		public MultilingualChecker build() {
+			if (dictionaries.isEmpty()) {
+				throw new IllegalStateException("No Dictionary has been added.");
+			}
+			return new MultilingualChecker(this);
+		}
+	}
+}
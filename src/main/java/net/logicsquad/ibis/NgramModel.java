@@ -0,0 +1,341 @@
+package net.logicsquad.ibis;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>
+ * A compact model of unigram, bigram and trigram counts, used by {@link ContextChecker} to judge how well a word fits its neighbours.
+ * </p>
+ *
+ * <p>
+ * Each n-gram is stored as a 64-bit hash of its (case-folded) words in an open-addressing table of primitive {@code long}s, alongside its
+ * count quantised to a single byte (the natural logarithm in steps of 1/8). The words themselves are not kept, so each n-gram costs between
+ * 18 and 36 bytes of heap (depending on how full the table is): a model of a million n-grams needs at most 36 MB. Hash collisions are
+ * possible in principle, but with 64-bit hashes are vanishingly rare at these sizes.
+ * </p>
+ *
+ * <p>
+ * Models are loaded from a text file with one n-gram per line: one to three words separated by spaces, then a tab, then a count. Blank
+ * lines and lines starting with {@code #} are ignored. For example:
+ * </p>
+ *
+ * <pre>
+ * the	1200
+ * over there	14
+ * over their heads	3
+ * </pre>
+ *
+ * <p>
+ * An {@code NgramModel} is immutable and thread-safe.
+ * </p>
+ *
+ * @author paulh
+ * @since 1.0
+ */
+public final class NgramModel {
+	/**
+	 * Logger
+	 */
+	private static final Logger LOG = LoggerFactory.getLogger(NgramModel.class);
+
+	/**
+	 * Key marking an empty slot
+	 */
+	private static final long EMPTY = 0L;
+
+	/**
+	 * Quantisation steps per unit of natural logarithm
+	 */
+	private static final double STEPS = 8.0;
+
+	/**
+	 * Seeds distinguishing n-grams of each order
+	 */
+	private static final long[] SEEDS = { 0x243F6A8885A308D3L, 0x13198A2E03707344L, 0xA4093822299F31D0L };
+
+	/**
+	 * Keys (hashes of n-grams)
+	 */
+	private long[] keys;
+
+	/**
+	 * Quantised log counts, at the same index as their keys
+	 */
+	private byte[] counts;
+
+	/**
+	 * Number of n-grams
+	 */
+	private int size;
+
+	/**
+	 * Total of unigram counts
+	 */
+	private long total;
+
+	/**
+	 * Constructor
+	 */
+	private NgramModel() {
+		allocate(1 << 10);
+		return;
+	}
+
+	/**
+	 * Loads a model from file at {@code path}.
+	 *
+	 * @param path a {@link Path}
+	 * @return new model
+	 * @throws IllegalArgumentException if the file cannot be read
+	 * @throws NullPointerException     if {@code path} is {@code null}
+	 */
+	public static NgramModel load(Path path) {
+		Objects.requireNonNull(path);
+		LOG.debug("Loading n-gram model from path '{}'...", path);
+		try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+			return load(reader);
+		} catch (IOException e) {
+			LOG.error("Unable to load n-gram model from {}.", path, e);
+			throw new IllegalArgumentException("Unable to load n-gram model from Path.", e);
+		}
+	}
+
+	/**
+	 * Loads a model from {@code reader}, and closes it.
+	 *
+	 * @param reader a {@link Reader}
+	 * @return new model
+	 * @throws IOException          if {@code reader} cannot be read
+	 * @throws NullPointerException if {@code reader} is {@code null}
+	 */
+	public static NgramModel load(Reader reader) throws IOException {
+		Objects.requireNonNull(reader);
+		NgramModel model = new NgramModel();
+		try (BufferedReader bufferedReader = new BufferedReader(reader)) {
+			String line;
+			while ((line = bufferedReader.readLine()) != null) {
+				if (!line.isBlank() && line.charAt(0) != '#') {
+					model.parse(line);
+				}
+			}
+		}
+		LOG.debug("Loaded {} n-grams.", model.size);
+		return model;
+	}
+
+	/**
+	 * Parses a line of a model file and stores the n-gram it describes.
+	 *
+	 * @param line a line
+	 */
+	private void parse(String line) {
+		int tab = line.lastIndexOf('\t');
+		String[] words = tab == -1 ? new String[0] : line.substring(0, tab).strip().split(" +");
+		long count;
+		try {
+			count = tab == -1 ? 0 : Long.parseLong(line.substring(tab + 1).strip());
+		} catch (NumberFormatException e) {
+			count = 0;
+		}
+		if (words.length < 1 || words.length > 3 || words[0].isEmpty() || count < 1) {
+			LOG.warn("Ignoring malformed n-gram '{}'.", line);
+			return;
+		}
+		long key = SEEDS[words.length - 1];
+		for (String word : words) {
+			key = combine(key, hash(word));
+		}
+		if (words.length == 1) {
+			total += count;
+		}
+		put(key, (byte) Math.min(255, Math.round(Math.log(count) * STEPS)));
+		return;
+	}
+
+	/**
+	 * Returns number of n-grams in this model.
+	 *
+	 * @return number of n-grams
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the total of unigram counts in this model.
+	 *
+	 * @return total of unigram counts
+	 */
+	public long total() {
+		return total;
+	}
+
+	/**
+	 * Returns a hash of {@code word}, ignoring case, for use with {@link #logCount(long)}, {@link #logCount(long, long)} and
+	 * {@link #logCount(long, long, long)}.
+	 *
+	 * @param word a word
+	 * @return hash of {@code word}
+	 */
+	static long hash(CharSequence word) {
+		// FNV-1a
+		long h = 0xCBF29CE484222325L;
+		for (int i = 0; i < word.length(); i++) {
+			h ^= Character.toLowerCase(word.charAt(i));
+			h *= 0x100000001B3L;
+		}
+		return h;
+	}
+
+	/**
+	 * Returns natural logarithm of count of unigram with hash {@code w1}, or {@link Double#NEGATIVE_INFINITY} if it is not in this model.
+	 *
+	 * @param w1 hash of word
+	 * @return log count
+	 */
+	double logCount(long w1) {
+		return get(combine(SEEDS[0], w1));
+	}
+
+	/**
+	 * Returns natural logarithm of count of bigram with hashes {@code w1} and {@code w2}, or {@link Double#NEGATIVE_INFINITY} if it is not
+	 * in this model.
+	 *
+	 * @param w1 hash of first word
+	 * @param w2 hash of second word
+	 * @return log count
+	 */
+	double logCount(long w1, long w2) {
+		return get(combine(combine(SEEDS[1], w1), w2));
+	}
+
+	/**
+	 * Returns natural logarithm of count of trigram with hashes {@code w1}, {@code w2} and {@code w3}, or {@link Double#NEGATIVE_INFINITY}
+	 * if it is not in this model.
+	 *
+	 * @param w1 hash of first word
+	 * @param w2 hash of second word
+	 * @param w3 hash of third word
+	 * @return log count
+	 */
+	double logCount(long w1, long w2, long w3) {
+		return get(combine(combine(combine(SEEDS[2], w1), w2), w3));
+	}
+
+	/**
+	 * Returns an estimate of the heap retained by this model, in bytes.
+	 *
+	 * @return estimated heap bytes
+	 */
+	public long estimatedHeapBytes() {
+		return (long) keys.length * (Long.BYTES + Byte.BYTES);
+	}
+
+	/**
+	 * Returns natural logarithm of count for {@code key}, or {@link Double#NEGATIVE_INFINITY} if there is no mapping.
+	 *
+	 * @param key a key
+	 * @return log count
+	 */
+	private double get(long key) {
+		int mask = keys.length - 1;
+		for (int i = slot(key, mask);; i = (i + 1) & mask) {
+			long k = keys[i];
+			if (k == key) {
+				return (counts[i] & 0xFF) / STEPS;
+			} else if (k == EMPTY) {
+				return Double.NEGATIVE_INFINITY;
+			}
+		}
+	}
+
+	/**
+	 * Stores quantised {@code count} for {@code key}, replacing any existing count.
+	 *
+	 * @param key   a key
+	 * @param count a quantised log count
+	 */
+	private void put(long key, byte count) {
+		int mask = keys.length - 1;
+		int i = slot(key, mask);
+		while (keys[i] != EMPTY && keys[i] != key) {
+			i = (i + 1) & mask;
+		}
+		boolean added = keys[i] == EMPTY;
+		keys[i] = key;
+		counts[i] = count;
+		if (added && ++size * 2 > keys.length) {
+			rehash();
+		}
+		return;
+	}
+
+	/**
+	 * Doubles capacity and reinserts all mappings.
+	 */
+	private void rehash() {
+		long[] oldKeys = keys;
+		byte[] oldCounts = counts;
+		allocate(oldKeys.length * 2);
+		int mask = keys.length - 1;
+		for (int j = 0; j < oldKeys.length; j++) {
+			if (oldKeys[j] != EMPTY) {
+				int i = slot(oldKeys[j], mask);
+				while (keys[i] != EMPTY) {
+					i = (i + 1) & mask;
+				}
+				keys[i] = oldKeys[j];
+				counts[i] = oldCounts[j];
+			}
+		}
+		return;
+	}
+
+	/**
+	 * Allocates empty arrays of {@code capacity}. Since {@link #EMPTY} is zero, new arrays need no filling.
+	 *
+	 * @param capacity a power of two
+	 */
+	private void allocate(int capacity) {
+		keys = new long[capacity];
+		counts = new byte[capacity];
+		return;
+	}
+
+	/**
+	 * Combines {@code hash} with {@code value}, using the finalizer from MurmurHash3. The result is never {@link #EMPTY}.
+	 *
+	 * @param hash  a hash
+	 * @param value a value
+	 * @return combined hash
+	 */
+	private static long combine(long hash, long value) {
+		long h = hash * 0x9E3779B97F4A7C15L + value;
+		h ^= h >>> 33;
+		h *= 0xFF51AFD7ED558CCDL;
+		h ^= h >>> 33;
+		h *= 0xC4CEB9FE1A85EC53L;
+		h ^= h >>> 33;
+		return h == EMPTY ? 1 : h;
+	}
+
+	/**
+	 * Returns home slot for {@code key}, which is already well mixed.
+	 *
+	 * @param key  a key
+	 * @param mask capacity minus one
+	 * @return home slot
+	 */
+	private static int slot(long key, int mask) {
+		return (int) key & mask;
+	}
+}
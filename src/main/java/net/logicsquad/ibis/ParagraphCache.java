@@ -0,0 +1,282 @@
+package net.logicsquad.ibis;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>
+ * A bounded cache of the incorrect {@link Word}s in paragraphs of text, for use with {@link Checker#checkSpelling(String, ParagraphCache)}.
+ * Each entry is keyed by a paragraph's text (found by a 64-bit hash of it), and holds that paragraph's incorrect {@link Word}s (with
+ * suggestions), with start positions relative to the start of the paragraph. When a text is checked again after a small edit, only the
+ * paragraphs that changed are tokenized and checked; the rest are served from the cache. No state is kept per client or per document, so
+ * a single {@code ParagraphCache} can be shared by any number of callers.
+ * </p>
+ *
+ * <p>
+ * Once the cache holds {@code maxParagraphs} entries, the least recently used entry is evicted to make room for each new one. Since
+ * cached results are only valid for the {@link Dictionary} that produced them, entries are also keyed by {@link Dictionary} identity, so
+ * one cache can serve many {@link Dictionary} instances at once (such as per-tenant overlays, or old and new snapshots from a
+ * {@link DictionaryReloader}). Entries for a {@link Dictionary} no longer in use simply age out; the cache does not keep it reachable.
+ * A hit is confirmed by comparing the paragraph's text with the text cached, so paragraphs whose hashes collide (by chance or by design)
+ * never share results. {@code ParagraphCache}s are thread-safe.
+ * </p>
+ *
+ * @author paulh
+ * @since 1.0
+ */
+public final class ParagraphCache {
+	/**
+	 * FNV-1a 64-bit offset basis
+	 */
+	private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+
+	/**
+	 * FNV-1a 64-bit prime
+	 */
+	private static final long FNV_PRIME = 0x100000001b3L;
+
+	/**
+	 * Maximum number of entries
+	 */
+	private final int maxParagraphs;
+
+	/**
+	 * Entries, in access order
+	 */
+	private final Map<DictionaryKey, List<Word>> entries;
+
+	/**
+	 * Number identifying each {@link Dictionary} seen, held weakly
+	 */
+	private final Map<Dictionary, Long> dictionaryIds = new WeakHashMap<>();
+
+	/**
+	 * Number to identify the next {@link Dictionary} seen
+	 */
+	private long nextDictionaryId;
+
+	/**
+	 * Number of lookups that found an entry
+	 */
+	private final LongAdder hits = new LongAdder();
+
+	/**
+	 * Number of lookups that found no entry
+	 */
+	private final LongAdder misses = new LongAdder();
+
+	/**
+	 * Constructor
+	 *
+	 * @param maxParagraphs maximum number of paragraphs to cache
+	 * @throws IllegalArgumentException if {@code maxParagraphs} is not positive
+	 */
+	public ParagraphCache(int maxParagraphs) {
+		if (maxParagraphs <= 0) {
+			throw new IllegalArgumentException("maxParagraphs must be positive.");
+		}
+		this.maxParagraphs = maxParagraphs;
+		this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<DictionaryKey, List<Word>> eldest) {
+				return size() > ParagraphCache.this.maxParagraphs;
+			}
+		};
+		return;
+	}
+
+	/**
+	 * Returns the maximum number of paragraphs this cache holds.
+	 *
+	 * @return maximum number of paragraphs
+	 */
+	public int maxParagraphs() {
+		return maxParagraphs;
+	}
+
+	/**
+	 * Returns the number of paragraphs currently cached.
+	 *
+	 * @return number of paragraphs
+	 */
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	/**
+	 * Returns the number of paragraphs found in this cache since it was created.
+	 *
+	 * @return number of hits
+	 */
+	public long hits() {
+		return hits.sum();
+	}
+
+	/**
+	 * Returns the number of paragraphs not found in this cache (and so checked) since it was created.
+	 *
+	 * @return number of misses
+	 */
+	public long misses() {
+		return misses.sum();
+	}
+
+	/**
+	 * Removes all entries.
+	 */
+	public synchronized void clear() {
+		entries.clear();
+		return;
+	}
+
+	/**
+	 * Returns a key for the paragraph {@code text[from, to)}.
+	 *
+	 * @param text some text
+	 * @param from start of paragraph (inclusive)
+	 * @param to   end of paragraph (exclusive)
+	 * @return key
+	 */
+	static Key key(String text, int from, int to) {
+		long hash = FNV_OFFSET;
+		for (int i = from; i < to; i++) {
+			char c = text.charAt(i);
+			hash = (hash ^ (c & 0xff)) * FNV_PRIME;
+			hash = (hash ^ (c >>> 8)) * FNV_PRIME;
+		}
+		return new Key(text, from, to - from, hash);
+	}
+
+	/**
+	 * Returns the cached incorrect {@link Word}s for the paragraph identified by {@code key}, as produced by {@code dictionary}, or
+	 * {@code null} if there are none.
+	 *
+	 * @param dictionary a {@link Dictionary}
+	 * @param key        a key from {@link #key(String, int, int)}
+	 * @return incorrect {@link Word}s relative to the start of the paragraph, or {@code null}
+	 */
+	synchronized List<Word> get(Dictionary dictionary, Key key) {
+		List<Word> words = entries.get(new DictionaryKey(dictionaryId(dictionary), key));
+		(words == null ? misses : hits).increment();
+		return words;
+	}
+
+	/**
+	 * Caches {@code words} as the incorrect {@link Word}s for the paragraph identified by {@code key}, as produced by {@code dictionary}.
+	 *
+	 * @param dictionary a {@link Dictionary}
+	 * @param key        a key from {@link #key(String, int, int)}
+	 * @param words      incorrect {@link Word}s relative to the start of the paragraph
+	 */
+	synchronized void put(Dictionary dictionary, Key key, List<Word> words) {
+		// Copy the paragraph out of the text, so the entry does not keep the whole text reachable
+		entries.put(new DictionaryKey(dictionaryId(dictionary), key.compact()), List.copyOf(words));
+		return;
+	}
+
+	/**
+	 * Returns the number identifying {@code dictionary} in this cache, assigning one if it has not been seen before.
+	 *
+	 * @param dictionary a {@link Dictionary}
+	 * @return identifying number
+	 */
+	private long dictionaryId(Dictionary dictionary) {
+		Long id = dictionaryIds.get(dictionary);
+		if (id == null) {
+			id = nextDictionaryId++;
+			dictionaryIds.put(dictionary, id);
+		}
+		return id;
+	}
+
+	@Override
+	public String toString() {
+		return "ParagraphCache [maxParagraphs=" + maxParagraphs + ", size=" + size() + ", hits=" + hits() + ", misses=" + misses() + "]";
+	}
+
+	/**
+	 * Identifies a paragraph by its text: a range of some larger text, along with a hash of that range. Two {@code Key}s are equal if
+	 * their ranges hold the same characters.
+	 */
+	static final class Key {
+		/**
+		 * Text containing paragraph
+		 */
+		private final String text;
+
+		/**
+		 * Start of paragraph in {@link #text}
+		 */
+		private final int from;
+
+		/**
+		 * Length of paragraph
+		 */
+		private final int length;
+
+		/**
+		 * 64-bit hash of paragraph
+		 */
+		private final long hash;
+
+		/**
+		 * Constructor
+		 *
+		 * @param text   text containing paragraph
+		 * @param from   start of paragraph in {@code text}
+		 * @param length length of paragraph
+		 * @param hash   64-bit hash of paragraph
+		 */
+		Key(String text, int from, int length, long hash) {
+			this.text = text;
+			this.from = from;
+			this.length = length;
+			this.hash = hash;
+			return;
+		}
+
+		/**
+		 * Returns an equal {@code Key} holding only the paragraph's text.
+		 *
+		 * @return compact {@code Key}
+		 */
+		private Key compact() {
+			return from == 0 && length == text.length() ? this : new Key(text.substring(from, from + length), 0, length, hash);
+		}
+
+		@Override
+		public int hashCode() {
+			return Long.hashCode(hash);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof Key other)) {
+				return false;
+			}
+			return hash == other.hash && length == other.length && text.regionMatches(from, other.text, other.from, length);
+		}
+
+		@Override
+		public String toString() {
+			return "Key [hash=" + hash + ", length=" + length + "]";
+		}
+	}
+
+	/**
+	 * Identifies a paragraph checked against a particular {@link Dictionary}.
+	 *
+	 * @param dictionaryId number identifying {@link Dictionary}
+	 * @param key          {@link Key} for paragraph
+	 */
+	private record DictionaryKey(long dictionaryId, Key key) {
+	}
+}
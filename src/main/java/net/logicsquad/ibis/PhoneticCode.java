@@ -0,0 +1,441 @@
+package net.logicsquad.ibis;
+
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * <p>
+ * Computes <a href="https://en.wikipedia.org/wiki/Metaphone">Metaphone</a> codes, packed into a {@code long}. The codes are identical to
+ * those produced by Commons Codec's {@code Metaphone} (with its default maximum code length of 4), but this implementation reads directly
+ * from a {@link CharSequence} and allocates nothing for ASCII input.
+ * </p>
+ *
+ * <p>
+ * A code of up to four characters is packed five bits per character, first character most significant, so that codes for multi-character
+ * input occupy at most the low 20 bits. Metaphone returns single-character input upper-cased but otherwise untouched; where that result is
+ * not itself a valid code, its {@code char}s are packed sixteen bits apiece under {@link #VERBATIM}. No code is ever equal to
+ * {@link #NONE}.
+ * </p>
+ *
+ * @author paulh
+ * @since 1.0
+ */
+final class PhoneticCode {
+	/**
+	 * A value that is never returned by {@link #encode(CharSequence)}
+	 */
+	static final long NONE = -1L;
+
+	/**
+	 * Flag marking a verbatim (single-character input) code
+	 */
+	static final long VERBATIM = 1L << 62;
+
+	/**
+	 * Maximum number of characters in a code
+	 */
+	private static final int MAX_CODE_LENGTH = 4;
+
+	/**
+	 * Bits used per character in a packed code
+	 */
+	private static final int BITS_PER_CHAR = 5;
+
+	/**
+	 * Mask for a single packed character
+	 */
+	private static final long CHAR_MASK = (1L << BITS_PER_CHAR) - 1;
+
+	/**
+	 * Packed value for {@code '0'}, which Metaphone uses for "TH"
+	 */
+	private static final int THETA = 27;
+
+	/**
+	 * Vowels
+	 */
+	private static final String VOWELS = "AEIOU";
+
+	/**
+	 * Front vowels
+	 */
+	private static final String FRONTV = "EIY";
+
+	/**
+	 * Letters that silence a following 'H'
+	 */
+	private static final String VARSON = "CSPTG";
+
+	/**
+	 * Constructor
+	 */
+	private PhoneticCode() {
+	}
+
+	/**
+	 * Returns the packed Metaphone code for {@code text}.
+	 *
+	 * @param text some text
+	 * @return packed code
+	 * @throws NullPointerException if {@code text} is {@code null}
+	 */
+	static long encode(CharSequence text) {
+		Objects.requireNonNull(text);
+		if (text.length() == 0) {
+			return 0L;
+		}
+		// Non-ASCII input may change length when upper-cased (e.g., 'ß' becomes "SS"), so we take the slow path to stay compatible.
+		CharSequence upper = isAscii(text) ? text : text.toString().toUpperCase(Locale.ENGLISH);
+		if (text.length() == 1) {
+			return verbatim(upper);
+		}
+		int offset = 0;
+		char first = upper(upper.charAt(0));
+		char second = upper(upper.charAt(1));
+		switch (first) {
+		case 'K':
+		case 'G':
+		case 'P':
+			if (second == 'N') {
+				offset = 1;
+				first = second;
+			}
+			break;
+		case 'A':
+			if (second == 'E') {
+				offset = 1;
+				first = second;
+			}
+			break;
+		case 'W':
+			if (second == 'R') {
+				offset = 1;
+				first = second;
+			} else if (second == 'H') {
+				offset = 1;
+			}
+			break;
+		case 'X':
+			first = 'S';
+			break;
+		default:
+			break;
+		}
+		return encode(upper, offset, first);
+	}
+
+	/**
+	 * Returns the packed Metaphone code for {@code upper}, read from {@code offset} with the character at {@code offset} replaced by
+	 * {@code first}. (This is the "local" working string of the reference implementation after fixing up initial characters.)
+	 *
+	 * @param upper  text (upper-cased, unless ASCII)
+	 * @param offset offset of working string in {@code upper}
+	 * @param first  first character of working string
+	 * @return packed code
+	 */
+	private static long encode(CharSequence upper, int offset, char first) {
+		int size = upper.length() - offset;
+		long code = 0L;
+		int count = 0;
+		int n = 0;
+		while (count < MAX_CODE_LENGTH && n < size) {
+			char symb = at(upper, offset, first, n);
+			if (symb == 'C' || !isPreviousChar(upper, offset, first, size, n, symb)) {
+				char c1 = 0;
+				char c2 = 0;
+				switch (symb) {
+				case 'A':
+				case 'E':
+				case 'I':
+				case 'O':
+				case 'U':
+					if (n == 0) {
+						c1 = symb;
+					}
+					break;
+				case 'B':
+					if (!(isPreviousChar(upper, offset, first, size, n, 'M') && n + 1 == size)) {
+						c1 = symb;
+					}
+					break;
+				case 'C':
+					if (isPreviousChar(upper, offset, first, size, n, 'S') && n + 1 != size && FRONTV.indexOf(at(upper, offset, first, n + 1)) >= 0) {
+						break;
+					}
+					if (regionMatches(upper, offset, first, size, n, "CIA")) {
+						c1 = 'X';
+					} else if (n + 1 != size && FRONTV.indexOf(at(upper, offset, first, n + 1)) >= 0) {
+						c1 = 'S';
+					} else if (isPreviousChar(upper, offset, first, size, n, 'S') && isNextChar(upper, offset, first, size, n, 'H')) {
+						c1 = 'K';
+					} else if (!isNextChar(upper, offset, first, size, n, 'H') || (n == 0 && size >= 3 && isVowel(at(upper, offset, first, 2)))) {
+						c1 = 'K';
+					} else {
+						c1 = 'X';
+					}
+					break;
+				case 'D':
+					if (n + 2 != size && isNextChar(upper, offset, first, size, n, 'G') && FRONTV.indexOf(at(upper, offset, first, n + 2)) >= 0) {
+						c1 = 'J';
+						n += 2;
+					} else {
+						c1 = 'T';
+					}
+					break;
+				case 'G':
+					if (n + 2 == size && isNextChar(upper, offset, first, size, n, 'H')) {
+						break;
+					}
+					if (n + 2 != size && isNextChar(upper, offset, first, size, n, 'H') && !isVowel(at(upper, offset, first, n + 2))) {
+						break;
+					}
+					if (n > 0 && regionMatches(upper, offset, first, size, n, "GN")) {
+						break;
+					}
+					boolean hard = isPreviousChar(upper, offset, first, size, n, 'G');
+					if (n + 1 != size && FRONTV.indexOf(at(upper, offset, first, n + 1)) >= 0 && !hard) {
+						c1 = 'J';
+					} else {
+						c1 = 'K';
+					}
+					break;
+				case 'H':
+					if (n + 1 == size) {
+						break;
+					}
+					if (n > 0 && VARSON.indexOf(at(upper, offset, first, n - 1)) >= 0) {
+						break;
+					}
+					if (isVowel(at(upper, offset, first, n + 1))) {
+						c1 = 'H';
+					}
+					break;
+				case 'F':
+				case 'J':
+				case 'L':
+				case 'M':
+				case 'N':
+				case 'R':
+					c1 = symb;
+					break;
+				case 'K':
+					if (n == 0 || !isPreviousChar(upper, offset, first, size, n, 'C')) {
+						c1 = symb;
+					}
+					break;
+				case 'P':
+					c1 = isNextChar(upper, offset, first, size, n, 'H') ? 'F' : symb;
+					break;
+				case 'Q':
+					c1 = 'K';
+					break;
+				case 'S':
+					if (regionMatches(upper, offset, first, size, n, "SH") || regionMatches(upper, offset, first, size, n, "SIO")
+							|| regionMatches(upper, offset, first, size, n, "SIA")) {
+						c1 = 'X';
+					} else {
+						c1 = 'S';
+					}
+					break;
+				case 'T':
+					if (regionMatches(upper, offset, first, size, n, "TIA") || regionMatches(upper, offset, first, size, n, "TIO")) {
+						c1 = 'X';
+					} else if (regionMatches(upper, offset, first, size, n, "TCH")) {
+						// Silent
+					} else if (regionMatches(upper, offset, first, size, n, "TH")) {
+						c1 = '0';
+					} else {
+						c1 = 'T';
+					}
+					break;
+				case 'V':
+					c1 = 'F';
+					break;
+				case 'W':
+				case 'Y':
+					if (n + 1 != size && isVowel(at(upper, offset, first, n + 1))) {
+						c1 = symb;
+					}
+					break;
+				case 'X':
+					c1 = 'K';
+					c2 = 'S';
+					break;
+				case 'Z':
+					c1 = 'S';
+					break;
+				default:
+					break;
+				}
+				if (c1 != 0) {
+					code = (code << BITS_PER_CHAR) | pack(c1);
+					count++;
+				}
+				if (c2 != 0 && count < MAX_CODE_LENGTH) {
+					code = (code << BITS_PER_CHAR) | pack(c2);
+					count++;
+				}
+			}
+			n++;
+		}
+		return code;
+	}
+
+	/**
+	 * Returns the code for single-character input, which Metaphone returns upper-cased but otherwise unchanged.
+	 *
+	 * @param upper text of length 1 (upper-cased, unless ASCII)
+	 * @return packed code
+	 */
+	private static long verbatim(CharSequence upper) {
+		boolean packable = upper.length() <= MAX_CODE_LENGTH;
+		for (int i = 0; i < upper.length() && packable; i++) {
+			char c = upper(upper.charAt(i));
+			packable = (c >= 'A' && c <= 'Z') || c == '0';
+		}
+		long code = 0L;
+		if (packable) {
+			for (int i = 0; i < upper.length(); i++) {
+				code = (code << BITS_PER_CHAR) | pack(upper(upper.charAt(i)));
+			}
+			return code;
+		}
+		// Full upper-casing yields at most three chars from one
+		for (int i = 0; i < upper.length(); i++) {
+			code = (code << Character.SIZE) | upper(upper.charAt(i));
+		}
+		return VERBATIM | code;
+	}
+
+	/**
+	 * Returns {@code code} as a string, in the form produced by Commons Codec's {@code Metaphone}.
+	 *
+	 * @param code a packed code
+	 * @return code as a string
+	 */
+	static String toString(long code) {
+		StringBuilder sb = new StringBuilder();
+		if ((code & VERBATIM) != 0) {
+			for (long c = code & ~VERBATIM; c != 0; c >>>= Character.SIZE) {
+				sb.append((char) (c & 0xFFFF));
+			}
+		} else {
+			for (long c = code; c != 0; c >>>= BITS_PER_CHAR) {
+				int value = (int) (c & CHAR_MASK);
+				sb.append(value == THETA ? '0' : (char) ('A' + value - 1));
+			}
+		}
+		return sb.reverse().toString();
+	}
+
+	/**
+	 * Returns packed value for code character {@code c}.
+	 *
+	 * @param c one of 'A'-'Z' or '0'
+	 * @return packed value
+	 */
+	private static int pack(char c) {
+		return c == '0' ? THETA : c - 'A' + 1;
+	}
+
+	/**
+	 * Returns the character at {@code index} in the working string.
+	 *
+	 * @param upper  text
+	 * @param offset offset of working string in {@code upper}
+	 * @param first  first character of working string
+	 * @param index  index into working string
+	 * @return character at {@code index}
+	 */
+	private static char at(CharSequence upper, int offset, char first, int index) {
+		return index == 0 ? first : upper(upper.charAt(offset + index));
+	}
+
+	/**
+	 * Is the character before {@code index} in the working string equal to {@code c}?
+	 *
+	 * @param upper  text
+	 * @param offset offset of working string in {@code upper}
+	 * @param first  first character of working string
+	 * @param size   length of working string
+	 * @param index  index into working string
+	 * @param c      character to test
+	 * @return {@code true} if previous character is {@code c}, otherwise {@code false}
+	 */
+	private static boolean isPreviousChar(CharSequence upper, int offset, char first, int size, int index, char c) {
+		return index > 0 && index < size && at(upper, offset, first, index - 1) == c;
+	}
+
+	/**
+	 * Is the character after {@code index} in the working string equal to {@code c}?
+	 *
+	 * @param upper  text
+	 * @param offset offset of working string in {@code upper}
+	 * @param first  first character of working string
+	 * @param size   length of working string
+	 * @param index  index into working string
+	 * @param c      character to test
+	 * @return {@code true} if next character is {@code c}, otherwise {@code false}
+	 */
+	private static boolean isNextChar(CharSequence upper, int offset, char first, int size, int index, char c) {
+		return index >= 0 && index < size - 1 && at(upper, offset, first, index + 1) == c;
+	}
+
+	/**
+	 * Does the working string contain {@code test} at {@code index}?
+	 *
+	 * @param upper  text
+	 * @param offset offset of working string in {@code upper}
+	 * @param first  first character of working string
+	 * @param size   length of working string
+	 * @param index  index into working string
+	 * @param test   string to match
+	 * @return {@code true} if {@code test} is found at {@code index}, otherwise {@code false}
+	 */
+	private static boolean regionMatches(CharSequence upper, int offset, char first, int size, int index, String test) {
+		if (index < 0 || index + test.length() > size) {
+			return false;
+		}
+		for (int i = 0; i < test.length(); i++) {
+			if (at(upper, offset, first, index + i) != test.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Is {@code c} a vowel?
+	 *
+	 * @param c a character
+	 * @return {@code true} if {@code c} is an (upper case) vowel, otherwise {@code false}
+	 */
+	private static boolean isVowel(char c) {
+		return VOWELS.indexOf(c) >= 0;
+	}
+
+	/**
+	 * Returns {@code c} upper-cased if it is an ASCII lower case letter, otherwise {@code c} unchanged.
+	 *
+	 * @param c a character
+	 * @return upper-cased {@code c}
+	 */
+	private static char upper(char c) {
+		return c >= 'a' && c <= 'z' ? (char) (c - ('a' - 'A')) : c;
+	}
+
+	/**
+	 * Does {@code text} consist entirely of ASCII characters?
+	 *
+	 * @param text some text
+	 * @return {@code true} if {@code text} is ASCII, otherwise {@code false}
+	 */
+	private static boolean isAscii(CharSequence text) {
+		for (int i = 0; i < text.length(); i++) {
+			if (text.charAt(i) >= 0x80) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
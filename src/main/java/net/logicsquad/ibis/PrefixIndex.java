@@ -0,0 +1,281 @@
+package net.logicsquad.ibis;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.IntPredicate;
+
+/**
+ * An index of the words in a {@link Dictionary}, sorted by {@link String#CASE_INSENSITIVE_ORDER}, supporting incremental prefix search: all
+ * words sharing a (case-insensitive) prefix occupy a contiguous range, which can be narrowed one character at a time by binary search.
+ * Within a range for a prefix of length {@code n}, any words of length exactly {@code n} come first.
+ *
+ * <p>
+ * If built with word frequencies, the index also holds a segment tree over them, from which the words in any range can be visited in
+ * descending order of frequency at a cost of {@code O(log n)} per word visited, without scanning the range.
+ * </p>
+ *
+ * @author paulh
+ * @since 1.0
+ */
+final class PrefixIndex {
+	/**
+	 * Words in case-insensitive order
+	 */
+	private final String[] words;
+
+	/**
+	 * Frequency of each word in {@link #words} ({@code null} if no frequencies are known)
+	 */
+	private final int[] frequencies;
+
+	/**
+	 * Segment tree over {@link #frequencies}: node {@code i} holds the index of the most frequent word under it, with leaves at
+	 * {@code words.length + j} ({@code null} if no frequencies are known)
+	 */
+	private final int[] tree;
+
+	/**
+	 * Constructor
+	 *
+	 * @param buckets phonetic buckets of words
+	 */
+	PrefixIndex(Iterable<? extends List<String>> buckets) {
+		this(buckets, Map.of());
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param buckets     phonetic buckets of words
+	 * @param frequencies map from words to frequencies (words not present have frequency zero)
+	 */
+	PrefixIndex(Iterable<? extends List<String>> buckets, Map<String, Integer> frequencies) {
+		int count = 0;
+		for (List<String> bucket : buckets) {
+			count += bucket.size();
+		}
+		words = new String[count];
+		int i = 0;
+		for (List<String> bucket : buckets) {
+			for (String s : bucket) {
+				words[i++] = s;
+			}
+		}
+		Arrays.sort(words, String.CASE_INSENSITIVE_ORDER);
+		if (frequencies.isEmpty()) {
+			this.frequencies = null;
+			this.tree = null;
+		} else {
+			this.frequencies = new int[count];
+			for (int j = 0; j < count; j++) {
+				this.frequencies[j] = frequencies.getOrDefault(words[j], 0);
+			}
+			this.tree = new int[2 * count];
+			for (int j = 0; j < count; j++) {
+				tree[count + j] = j;
+			}
+			for (int j = count - 1; j > 0; j--) {
+				tree[j] = better(tree[2 * j], tree[2 * j + 1]);
+			}
+		}
+		return;
+	}
+
+	/**
+	 * Returns number of words.
+	 *
+	 * @return number of words
+	 */
+	int size() {
+		return words.length;
+	}
+
+	/**
+	 * Returns word at {@code index}.
+	 *
+	 * @param index an index
+	 * @return word at {@code index}
+	 */
+	String get(int index) {
+		return words[index];
+	}
+
+	/**
+	 * Returns frequency of word at {@code index}.
+	 *
+	 * @param index an index
+	 * @return frequency of word at {@code index} (zero if no frequencies are known)
+	 */
+	int frequency(int index) {
+		return frequencies == null ? 0 : frequencies[index];
+	}
+
+	/**
+	 * Does this index hold word frequencies?
+	 *
+	 * @return {@code true} if frequencies are known, otherwise {@code false}
+	 */
+	boolean hasFrequencies() {
+		return frequencies != null;
+	}
+
+	/**
+	 * Passes the index of each word in {@code [from, to)} to {@code action} in descending order of frequency (and, among words of equal
+	 * frequency, in index order), until {@code action} returns {@code false}.
+	 *
+	 * @param from   start of range (inclusive)
+	 * @param to     end of range (exclusive)
+	 * @param action action to take on each index, returning {@code false} to stop
+	 */
+	void forEachByFrequency(int from, int to, IntPredicate action) {
+		if (tree == null) {
+			for (int i = from; i < to; i++) {
+				if (!action.test(i)) {
+					return;
+				}
+			}
+			return;
+		}
+		// Each element is {from, to, index of most frequent word in [from, to)}
+		PriorityQueue<int[]> ranges = new PriorityQueue<>(Comparator.comparingInt((int[] r) -> -frequencies[r[2]]).thenComparingInt(r -> r[2]));
+		offer(ranges, from, to);
+		while (!ranges.isEmpty()) {
+			int[] range = ranges.poll();
+			if (!action.test(range[2])) {
+				return;
+			}
+			offer(ranges, range[0], range[2]);
+			offer(ranges, range[2] + 1, range[1]);
+		}
+		return;
+	}
+
+	/**
+	 * Adds {@code [from, to)} to {@code ranges}, with the index of its most frequent word, unless it is empty.
+	 *
+	 * @param ranges queue of ranges
+	 * @param from   start of range (inclusive)
+	 * @param to     end of range (exclusive)
+	 */
+	private void offer(PriorityQueue<int[]> ranges, int from, int to) {
+		if (from < to) {
+			ranges.add(new int[] { from, to, mostFrequent(from, to) });
+		}
+		return;
+	}
+
+	/**
+	 * Returns the index of the most frequent word in {@code [from, to)} (the first, if several are equally frequent).
+	 *
+	 * @param from start of range (inclusive)
+	 * @param to   end of range (exclusive, greater than {@code from})
+	 * @return index of most frequent word
+	 */
+	private int mostFrequent(int from, int to) {
+		int result = -1;
+		for (int lo = from + words.length, hi = to + words.length; lo < hi; lo >>>= 1, hi >>>= 1) {
+			if ((lo & 1) == 1) {
+				result = better(result, tree[lo++]);
+			}
+			if ((hi & 1) == 1) {
+				result = better(result, tree[--hi]);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Returns whichever of indexes {@code a} and {@code b} holds the more frequent word, or the lower index if they are equally frequent.
+	 * An index of {@code -1} stands for no word.
+	 *
+	 * @param a an index (or {@code -1})
+	 * @param b an index (or {@code -1})
+	 * @return the better index
+	 */
+	private int better(int a, int b) {
+		if (a == -1) {
+			return b;
+		} else if (b == -1) {
+			return a;
+		} else if (frequencies[a] != frequencies[b]) {
+			return frequencies[a] > frequencies[b] ? a : b;
+		} else {
+			return Math.min(a, b);
+		}
+	}
+
+	/**
+	 * Given that words in {@code [from, to)} share a prefix of length {@code depth}, returns the index of the first of them whose character
+	 * at {@code depth} is not less than {@code c} (case-insensitively).
+	 *
+	 * @param from  start of range (inclusive)
+	 * @param to    end of range (exclusive)
+	 * @param depth length of shared prefix
+	 * @param c     a character
+	 * @return lower bound for {@code c}
+	 */
+	int lowerBound(int from, int to, int depth, char c) {
+		char key = fold(c);
+		int lo = from;
+		int hi = to;
+		while (lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			if (compare(words[mid], depth, key) < 0) {
+				lo = mid + 1;
+			} else {
+				hi = mid;
+			}
+		}
+		return lo;
+	}
+
+	/**
+	 * Given that words in {@code [from, to)} share a prefix of length {@code depth}, returns the index of the first of them whose character
+	 * at {@code depth} is greater than {@code c} (case-insensitively).
+	 *
+	 * @param from  start of range (inclusive)
+	 * @param to    end of range (exclusive)
+	 * @param depth length of shared prefix
+	 * @param c     a character
+	 * @return upper bound for {@code c}
+	 */
+	int upperBound(int from, int to, int depth, char c) {
+		char key = fold(c);
+		int lo = from;
+		int hi = to;
+		while (lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			if (compare(words[mid], depth, key) <= 0) {
+				lo = mid + 1;
+			} else {
+				hi = mid;
+			}
+		}
+		return lo;
+	}
+
+	/**
+	 * Compares the character at {@code depth} in {@code word} with {@code key}, treating a word that ends before {@code depth} as smaller.
+	 *
+	 * @param word  a word
+	 * @param depth an index
+	 * @param key   a folded character
+	 * @return negative, zero or positive as the character is less than, equal to or greater than {@code key}
+	 */
+	private static int compare(String word, int depth, char key) {
+		return depth < word.length() ? fold(word.charAt(depth)) - key : -1;
+	}
+
+	/**
+	 * Folds {@code c} in the same way as {@link String#CASE_INSENSITIVE_ORDER}.
+	 *
+	 * @param c a character
+	 * @return folded character
+	 */
+	static char fold(char c) {
+		return Character.toLowerCase(Character.toUpperCase(c));
+	}
+}
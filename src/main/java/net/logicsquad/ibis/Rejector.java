@@ -57,12 +57,7 @@ public class Rejector {
 	 */
 	static boolean containsDigit(Word word) {
 		Objects.requireNonNull(word);
-		for (int i = 0; i < word.length(); i++) {
-			if (Character.isDigit(word.charAt(i))) {
-				return true;
-			}
-		}
-		return false;
+		return CharClass.containsDigit(word.text());
 	}
 
 	/**
@@ -0,0 +1,700 @@
+package net.logicsquad.ibis;
+
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * Finds spans of text that a {@link Tokenizer} should skip, in a single left-to-right pass: markup (according to a {@link Markup}), and
+ * (optionally) <em>identifiers</em>: URLs, email addresses, file paths and hexadecimal strings. Without this, a
+ * {@link java.text.BreakIterator} splits an identifier into fragments, each of which would be checked (and many reported as incorrect).
+ * Spans are returned as a flat array of {@code [start, end)} pairs, in order and without overlaps.
+ *
+ * @author paulh
+ * @since 1.0
+ */
+final class SpanScanner {
+	/**
+	 * HTML elements whose content is skipped along with their tags
+	 */
+	private static final Set<String> RAW_ELEMENTS = Set.of("script", "style", "pre", "code");
+
+	/**
+	 * Maximum length of an entity reference
+	 */
+	private static final int MAX_ENTITY_LENGTH = 32;
+
+	/**
+	 * Text to scan
+	 */
+	private final String text;
+
+	/**
+	 * {@link Markup} to recognise
+	 */
+	private final Markup markup;
+
+	/**
+	 * Skip identifiers?
+	 */
+	private final boolean identifiers;
+
+	/**
+	 * Spans found, as {@code [start, end)} pairs
+	 */
+	private int[] spans = new int[16];
+
+	/**
+	 * Number of elements used in {@link #spans}
+	 */
+	private int size;
+
+	/**
+	 * Start of the last run of scheme characters scanned by {@link #url(int)}
+	 */
+	private int schemeStart;
+
+	/**
+	 * End of the last run of scheme characters scanned by {@link #url(int)}
+	 */
+	private int schemeEnd;
+
+	/**
+	 * Start of the range whose parentheses have been matched by {@link #matchParentheses(int)}
+	 */
+	private int parenthesesStart;
+
+	/**
+	 * End of the range whose parentheses have been matched by {@link #matchParentheses(int)}
+	 */
+	private int parenthesesEnd;
+
+	/**
+	 * End of the parenthesised span opened at each position from {@link #parenthesesStart}, or {@code -1} if there is none
+	 */
+	private int[] parentheses;
+
+	/**
+	 * Constructor
+	 *
+	 * @param text        text to scan
+	 * @param markup      {@link Markup} to recognise
+	 * @param identifiers skip identifiers?
+	 */
+	private SpanScanner(String text, Markup markup, boolean identifiers) {
+		this.text = text;
+		this.markup = markup;
+		this.identifiers = identifiers;
+		return;
+	}
+
+	/**
+	 * Returns spans of {@code text} to skip.
+	 *
+	 * @param text        text to scan
+	 * @param markup      {@link Markup} to recognise
+	 * @param identifiers skip identifiers (URLs, email addresses, file paths and hexadecimal strings)?
+	 * @return spans as {@code [start, end)} pairs
+	 */
+	static int[] scan(String text, Markup markup, boolean identifiers) {
+		SpanScanner scanner = new SpanScanner(text, markup, identifiers);
+		scanner.scan();
+		return Arrays.copyOf(scanner.spans, scanner.size);
+	}
+
+	/**
+	 * Scans {@link #text}.
+	 */
+	private void scan() {
+		int length = text.length();
+		boolean markdown = markup == Markup.MARKDOWN;
+		boolean html = markup != Markup.NONE;
+		boolean urls = html || identifiers;
+		// Markdown state: was the previous line blank, or part of an indented code block?
+		boolean previousBlank = true;
+		int i = 0;
+		while (i < length) {
+			if (markdown && (i == 0 || text.charAt(i - 1) == '\n')) {
+				int lineEnd = lineEnd(i);
+				boolean blank = isBlank(i, lineEnd);
+				int skip = blank ? -1 : markdownBlock(i, lineEnd, previousBlank);
+				if (skip != -1) {
+					add(i, skip);
+					// A block ends at the end of a line, so treat it like a blank line for what follows
+					previousBlank = true;
+					i = skip;
+					continue;
+				}
+				previousBlank = blank;
+			}
+			char c = text.charAt(i);
+			int end = -1;
+			if (html && c == '<') {
+				end = tag(i);
+			} else if (html && c == '&') {
+				end = entity(i);
+			} else if (markdown && c == '`') {
+				end = codeSpan(i);
+			} else if (markdown && c == ']' && i + 1 < length && text.charAt(i + 1) == '(') {
+				end = linkDestination(i + 1);
+				if (end != -1) {
+					add(i + 1, end);
+					i = end;
+					continue;
+				}
+			} else if (identifiers && (i == 0 || isCandidateEnd(text.charAt(i - 1))) && !isCandidateEnd(c)) {
+				// Candidates run between delimiters, so each character is examined in at most one of them
+				int start = i;
+				while (start < length && isOpening(text.charAt(start))) {
+					start++;
+				}
+				end = start < length ? identifier(start) : -1;
+				if (end != -1) {
+					add(start, end);
+					i = end;
+					continue;
+				}
+			}
+			if (end == -1 && urls && Character.isLetter(c) && (i == 0 || !Character.isLetterOrDigit(text.charAt(i - 1)))) {
+				end = url(i);
+			}
+			if (end == -1) {
+				i++;
+			} else {
+				add(i, end);
+				i = end;
+			}
+		}
+		return;
+	}
+
+	/**
+	 * Returns end of a Markdown block-level span (fenced code block, indented code block or reference definition) starting on the line at
+	 * {@code lineStart}.
+	 *
+	 * @param lineStart     start of line
+	 * @param lineEnd       end of line (excluding any line break)
+	 * @param previousBlank was the previous line blank (or is this the first line)?
+	 * @return end of span, or {@code -1} if there is none
+	 */
+	private int markdownBlock(int lineStart, int lineEnd, boolean previousBlank) {
+		if (previousBlank && (text.startsWith("    ", lineStart) || text.startsWith("\t", lineStart))) {
+			// Indented code block: runs until a non-blank line that is not indented
+			int end = nextLine(lineEnd);
+			while (end < text.length()) {
+				int nextEnd = lineEnd(end);
+				if (!isBlank(end, nextEnd) && !text.startsWith("    ", end) && !text.startsWith("\t", end)) {
+					break;
+				}
+				end = nextLine(nextEnd);
+			}
+			return end;
+		}
+		int i = lineStart;
+		while (i < lineEnd && i - lineStart < 3 && text.charAt(i) == ' ') {
+			i++;
+		}
+		if (i == lineEnd) {
+			return -1;
+		}
+		char c = text.charAt(i);
+		if (c == '`' || c == '~') {
+			int fence = run(i, c);
+			if (fence < 3) {
+				return -1;
+			}
+			// Fenced code block: runs until a line starting with a fence at least as long, or the end of the text
+			int end = nextLine(lineEnd);
+			while (end < text.length()) {
+				int nextEnd = lineEnd(end);
+				int j = end;
+				while (j < nextEnd && j - end < 3 && text.charAt(j) == ' ') {
+					j++;
+				}
+				if (j < nextEnd && text.charAt(j) == c && run(j, c) >= fence) {
+					return nextLine(nextEnd);
+				}
+				end = nextLine(nextEnd);
+			}
+			return end;
+		} else if (c == '[') {
+			// Reference definition: [label]: destination
+			int close = text.indexOf("]:", i, lineEnd);
+			if (close != -1) {
+				int j = close + 2;
+				while (j < lineEnd && Character.isWhitespace(text.charAt(j))) {
+					j++;
+				}
+				while (j < lineEnd && !Character.isWhitespace(text.charAt(j))) {
+					j++;
+				}
+				return j;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns end of an HTML tag, comment or raw element starting at {@code start}.
+	 *
+	 * @param start position of {@code <}
+	 * @return end of span, or {@code -1} if there is none
+	 */
+	private int tag(int start) {
+		int length = text.length();
+		if (start + 1 >= length) {
+			return -1;
+		}
+		if (text.startsWith("<!--", start)) {
+			int close = text.indexOf("-->", start + 4);
+			return close == -1 ? length : close + 3;
+		}
+		char first = text.charAt(start + 1);
+		if (!(Character.isLetter(first) || first == '/' || first == '!' || first == '?')) {
+			return -1;
+		}
+		char quote = 0;
+		for (int i = start + 1; i < length; i++) {
+			char c = text.charAt(i);
+			if (quote != 0) {
+				if (c == quote) {
+					quote = 0;
+				}
+			} else if (c == '"' || c == '\'') {
+				quote = c;
+			} else if (c == '<') {
+				// Not a tag (say, "a<b")
+				return -1;
+			} else if (c == '>') {
+				return rawElementEnd(start, i + 1);
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * If the tag at {@code start} opens a raw element (see {@link #RAW_ELEMENTS}), returns the end of its closing tag (or of the text),
+	 * otherwise returns {@code tagEnd}.
+	 *
+	 * @param start  start of tag
+	 * @param tagEnd end of tag
+	 * @return end of span
+	 */
+	private int rawElementEnd(int start, int tagEnd) {
+		int nameEnd = start + 1;
+		while (nameEnd < tagEnd && Character.isLetterOrDigit(text.charAt(nameEnd))) {
+			nameEnd++;
+		}
+		String name = text.substring(start + 1, nameEnd).toLowerCase();
+		if (!RAW_ELEMENTS.contains(name) || text.charAt(tagEnd - 2) == '/') {
+			return tagEnd;
+		}
+		String closing = "</" + name;
+		for (int i = text.indexOf('<', tagEnd); i != -1; i = text.indexOf('<', i + 1)) {
+			if (text.regionMatches(true, i, closing, 0, closing.length())) {
+				int close = text.indexOf('>', i);
+				return close == -1 ? text.length() : close + 1;
+			}
+		}
+		return text.length();
+	}
+
+	/**
+	 * Returns end of an entity reference (such as {@code &amp;} or {@code &#x2014;}) starting at {@code start}.
+	 *
+	 * @param start position of {@code &}
+	 * @return end of span, or {@code -1} if there is none
+	 */
+	private int entity(int start) {
+		int limit = Math.min(text.length(), start + MAX_ENTITY_LENGTH);
+		int i = start + 1;
+		if (i < limit && text.charAt(i) == '#') {
+			i++;
+		}
+		int nameStart = i;
+		while (i < limit && Character.isLetterOrDigit(text.charAt(i))) {
+			i++;
+		}
+		return i > nameStart && i < limit && text.charAt(i) == ';' ? i + 1 : -1;
+	}
+
+	/**
+	 * Returns end of a Markdown code span starting at {@code start}: a run of backticks, closed by a run of the same length.
+	 *
+	 * @param start position of first backtick
+	 * @return end of span, or {@code -1} if there is none
+	 */
+	private int codeSpan(int start) {
+		int count = run(start, '`');
+		int i = start + count;
+		while (i < text.length()) {
+			int j = text.indexOf('`', i);
+			if (j == -1) {
+				break;
+			}
+			int closing = run(j, '`');
+			if (closing == count) {
+				return j + closing;
+			}
+			i = j + closing;
+		}
+		// An unmatched run is literal
+		return -1;
+	}
+
+	/**
+	 * Returns end of a Markdown link destination (and optional title) in parentheses starting at {@code start}.
+	 *
+	 * @param start position of {@code (}
+	 * @return end of span, or {@code -1} if there is none
+	 */
+	private int linkDestination(int start) {
+		if (start < parenthesesStart || start >= parenthesesEnd) {
+			matchParentheses(start);
+		}
+		return parentheses[start - parenthesesStart];
+	}
+
+	/**
+	 * Matches parentheses from {@code start} to the end of its line, so that each destination on a line is found without rescanning it.
+	 *
+	 * @param start start of range
+	 */
+	private void matchParentheses(int start) {
+		int end = lineEnd(start);
+		parenthesesStart = start;
+		parenthesesEnd = end;
+		parentheses = new int[end - start];
+		Arrays.fill(parentheses, -1);
+		int[] open = new int[end - start];
+		int depth = 0;
+		for (int i = start; i < end; i++) {
+			char c = text.charAt(i);
+			if (c == '(') {
+				open[depth++] = i;
+			} else if (c == ')' && depth > 0) {
+				parentheses[open[--depth] - start] = i + 1;
+			}
+		}
+		return;
+	}
+
+	/**
+	 * Returns end of a URL (a scheme followed by "://", up to whitespace or a delimiter) starting at {@code start}. Trailing punctuation is
+	 * not included.
+	 *
+	 * @param start start of candidate scheme
+	 * @return end of span, or {@code -1} if there is none
+	 */
+	private int url(int start) {
+		int length = text.length();
+		int i = start;
+		if (start >= schemeStart && start < schemeEnd) {
+			// Within a run already scanned, which would otherwise be scanned again from every letter in it
+			i = schemeEnd;
+		} else {
+			while (i < length && isSchemeChar(text.charAt(i))) {
+				i++;
+			}
+			schemeStart = start;
+			schemeEnd = i;
+		}
+		if (!text.startsWith("://", i)) {
+			return -1;
+		}
+		i += 3;
+		while (i < length && !isUrlDelimiter(text.charAt(i))) {
+			i++;
+		}
+		while (i > start && ".,;:!?)]}'\"".indexOf(text.charAt(i - 1)) != -1) {
+			i--;
+		}
+		return i;
+	}
+
+	/**
+	 * Returns end of an identifier (URL, email address, file path or hexadecimal string) starting at {@code start}. The candidate is the
+	 * run of characters up to whitespace or a delimiter (see {@link #isCandidateEnd(char)}), less any trailing punctuation.
+	 *
+	 * @param start start of candidate
+	 * @return end of span, or {@code -1} if there is none
+	 */
+	private int identifier(int start) {
+		int end = start;
+		while (end < text.length() && !isCandidateEnd(text.charAt(end))) {
+			end++;
+		}
+		while (end > start && ".,;:!?)]}'".indexOf(text.charAt(end - 1)) != -1) {
+			end--;
+		}
+		if (end - start < 3) {
+			return -1;
+		}
+		return isUrl(start, end) || isEmail(start, end) || isPath(start, end) || isHex(start, end) ? end : -1;
+	}
+
+	/**
+	 * Is {@code text[start, end)} a URL, with a scheme or starting "www."?
+	 *
+	 * @param start start of candidate
+	 * @param end   end of candidate
+	 * @return {@code true} if candidate is a URL, otherwise {@code false}
+	 */
+	private boolean isUrl(int start, int end) {
+		return url(start) != -1 || text.regionMatches(true, start, "www.", 0, 4);
+	}
+
+	/**
+	 * Is {@code text[start, end)} an email address (optionally preceded by "mailto:")?
+	 *
+	 * @param start start of candidate
+	 * @param end   end of candidate
+	 * @return {@code true} if candidate is an email address, otherwise {@code false}
+	 */
+	private boolean isEmail(int start, int end) {
+		int i = text.regionMatches(true, start, "mailto:", 0, 7) ? start + 7 : start;
+		int localStart = i;
+		while (i < end && (Character.isLetterOrDigit(text.charAt(i)) || "._%+-".indexOf(text.charAt(i)) != -1)) {
+			i++;
+		}
+		if (i == localStart || i == end || text.charAt(i) != '@') {
+			return false;
+		}
+		int domainStart = ++i;
+		int lastDot = -1;
+		while (i < end && (Character.isLetterOrDigit(text.charAt(i)) || text.charAt(i) == '.' || text.charAt(i) == '-')) {
+			if (text.charAt(i) == '.') {
+				lastDot = i;
+			}
+			i++;
+		}
+		if (i != end || lastDot <= domainStart || end - lastDot < 3) {
+			return false;
+		}
+		for (int j = lastDot + 1; j < end; j++) {
+			if (!Character.isLetter(text.charAt(j))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Is {@code text[start, end)} a file path? A path is absolute ("/usr/bin", "C:\Windows"), relative to home or the current directory
+	 * ("~/notes", "./run", "../lib"), uses backslashes, has at least two slashes ("src/main/java"), or is a host name followed by a path
+	 * ("docs.example.com/api"). A single slash between words ("and/or") is not a path, and nor are abbreviations separated by slashes
+	 * ("Mr./Mrs./Ms.", "e.g./i.e.").
+	 *
+	 * @param start start of candidate
+	 * @param end   end of candidate
+	 * @return {@code true} if candidate is a file path, otherwise {@code false}
+	 */
+	private boolean isPath(int start, int end) {
+		char first = text.charAt(start);
+		if (first == '/' || first == '\\' || text.startsWith("~/", start) || text.startsWith("./", start) || text.startsWith("../", start)) {
+			return true;
+		} else if (Character.isLetter(first) && text.charAt(start + 1) == ':' && (text.charAt(start + 2) == '\\' || text.charAt(start + 2) == '/')) {
+			return true;
+		}
+		int slashes = 0;
+		int firstSlash = -1;
+		for (int i = start; i < end; i++) {
+			char c = text.charAt(i);
+			if (c == '\\') {
+				return true;
+			} else if (c == '/') {
+				if (firstSlash == -1) {
+					firstSlash = i;
+				} else if (isAbbreviation(i)) {
+					return false;
+				}
+				slashes++;
+			}
+		}
+		if (firstSlash == -1 || isAbbreviation(firstSlash)) {
+			return false;
+		}
+		return slashes >= 2 || isHostName(start, firstSlash);
+	}
+
+	/**
+	 * Does the path segment ending at the slash at {@code slash} end with a dot, like an abbreviation ("Mr.")? The segments "." and ".."
+	 * do not count.
+	 *
+	 * @param slash position of a slash
+	 * @return {@code true} if segment before {@code slash} looks like an abbreviation, otherwise {@code false}
+	 */
+	private boolean isAbbreviation(int slash) {
+		return slash > 1 && text.charAt(slash - 1) == '.' && Character.isLetter(text.charAt(slash - 2));
+	}
+
+	/**
+	 * Is {@code text[start, end)} a host name: at least two dot-separated labels of letters, digits and hyphens, the last of which is at
+	 * least two letters?
+	 *
+	 * @param start start of candidate
+	 * @param end   end of candidate
+	 * @return {@code true} if candidate is a host name, otherwise {@code false}
+	 */
+	private boolean isHostName(int start, int end) {
+		int labelStart = start;
+		for (int i = start; i < end; i++) {
+			char c = text.charAt(i);
+			if (c == '.') {
+				if (i == labelStart) {
+					return false;
+				}
+				labelStart = i + 1;
+			} else if (!Character.isLetterOrDigit(c) && c != '-') {
+				return false;
+			}
+		}
+		if (labelStart == start || end - labelStart < 2) {
+			return false;
+		}
+		for (int i = labelStart; i < end; i++) {
+			if (!Character.isLetter(text.charAt(i))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Is {@code text[start, end)} a hexadecimal string? It must either start with "0x", or be at least eight hexadecimal digits (optionally
+	 * grouped with hyphens, as in a UUID) including at least one decimal digit, so that words such as "deadbeef" or "effaced" are not
+	 * skipped.
+	 *
+	 * @param start start of candidate
+	 * @param end   end of candidate
+	 * @return {@code true} if candidate is a hexadecimal string, otherwise {@code false}
+	 */
+	private boolean isHex(int start, int end) {
+		boolean prefixed = text.startsWith("0x", start) || text.startsWith("0X", start);
+		int digits = 0;
+		boolean decimal = false;
+		for (int i = prefixed ? start + 2 : start; i < end; i++) {
+			char c = text.charAt(i);
+			if (c >= '0' && c <= '9') {
+				decimal = true;
+				digits++;
+			} else if ((c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F')) {
+				digits++;
+			} else if (c != '-' || prefixed) {
+				return false;
+			}
+		}
+		return prefixed ? digits > 0 : digits >= 8 && decimal;
+	}
+
+	/**
+	 * Does {@code c} end a candidate identifier? A candidate can start only after such a character, and square brackets are among them
+	 * because they are not allowed unencoded in URLs (except around IPv6 addresses).
+	 *
+	 * @param c a character
+	 * @return {@code true} if {@code c} ends a candidate, otherwise {@code false}
+	 */
+	private static boolean isCandidateEnd(char c) {
+		return isUrlDelimiter(c) || c == '[' || c == ']';
+	}
+
+	/**
+	 * Is {@code c} an opening bracket or quote, which is not part of an identifier it precedes?
+	 *
+	 * @param c a character
+	 * @return {@code true} if {@code c} is an opening bracket or quote, otherwise {@code false}
+	 */
+	private static boolean isOpening(char c) {
+		return c == '(' || c == '{' || c == '\'';
+	}
+
+	/**
+	 * Can {@code c} appear in a URL scheme?
+	 *
+	 * @param c a character
+	 * @return {@code true} if {@code c} can appear in a scheme, otherwise {@code false}
+	 */
+	private static boolean isSchemeChar(char c) {
+		return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '+' || c == '.' || c == '-';
+	}
+
+	/**
+	 * Does {@code c} end a URL?
+	 *
+	 * @param c a character
+	 * @return {@code true} if {@code c} ends a URL, otherwise {@code false}
+	 */
+	private static boolean isUrlDelimiter(char c) {
+		return Character.isWhitespace(c) || c == '<' || c == '>' || c == '"' || c == '`';
+	}
+
+	/**
+	 * Returns length of run of {@code c} starting at {@code start}.
+	 *
+	 * @param start start of run
+	 * @param c     a character
+	 * @return length of run
+	 */
+	private int run(int start, char c) {
+		int i = start;
+		while (i < text.length() && text.charAt(i) == c) {
+			i++;
+		}
+		return i - start;
+	}
+
+	/**
+	 * Is {@code text[from, to)} blank?
+	 *
+	 * @param from start of range
+	 * @param to   end of range
+	 * @return {@code true} if range contains only whitespace, otherwise {@code false}
+	 */
+	private boolean isBlank(int from, int to) {
+		for (int i = from; i < to; i++) {
+			if (!Character.isWhitespace(text.charAt(i))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns end of line containing {@code i}, excluding any line break.
+	 *
+	 * @param i a position
+	 * @return end of line
+	 */
+	private int lineEnd(int i) {
+		int end = text.indexOf('\n', i);
+		return end == -1 ? text.length() : end;
+	}
+
+	/**
+	 * Returns start of line following the line ending at {@code lineEnd}.
+	 *
+	 * @param lineEnd end of a line
+	 * @return start of next line (or end of text)
+	 */
+	private int nextLine(int lineEnd) {
+		return Math.min(lineEnd + 1, text.length());
+	}
+
+	/**
+	 * Adds span {@code [start, end)}, merging it with the previous span if they overlap or touch.
+	 *
+	 * @param start start of span
+	 * @param end   end of span
+	 */
+	private void add(int start, int end) {
+		if (size > 0 && start <= spans[size - 1]) {
+			spans[size - 1] = Math.max(spans[size - 1], end);
+			return;
+		}
+		if (size == spans.length) {
+			spans = Arrays.copyOf(spans, size * 2);
+		}
+		spans[size++] = start;
+		spans[size++] = end;
+		return;
+	}
+}
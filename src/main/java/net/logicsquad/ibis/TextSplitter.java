@@ -0,0 +1,146 @@
+package net.logicsquad.ibis;
+
+import java.text.BreakIterator;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Splits text into chunks that can be tokenized independently. Chunks end only after whitespace, so no {@link Word} (nor the context a
+ * {@link Handler} inspects after one) can span two chunks. Where possible, chunks end at a paragraph break (a blank line), failing that at
+ * a sentence break, and failing that at any whitespace.
+ * 
+ * @author paulh
+ * @since 1.0
+ */
+final class TextSplitter {
+	/**
+	 * Constructor
+	 */
+	private TextSplitter() {
+	}
+
+	/**
+	 * Returns the boundaries of chunks of roughly {@code targetSize} characters in {@code text}. The result starts with {@code 0} and ends
+	 * with {@code text.length()}, and chunk {@code i} spans from element {@code i} (inclusive) to element {@code i + 1} (exclusive). Chunks
+	 * are at least {@code targetSize} long (except for the last), and are longer only as far as necessary to reach a boundary.
+	 * 
+	 * @param text       some text
+	 * @param targetSize target chunk size
+	 * @return chunk boundaries
+	 * @throws NullPointerException     if {@code text} is {@code null}
+	 * @throws IllegalArgumentException if {@code targetSize} is not positive
+	 */
+	static int[] split(String text, int targetSize) {
+		Objects.requireNonNull(text);
+		if (targetSize <= 0) {
+			throw new IllegalArgumentException("targetSize must be positive.");
+		}
+		int[] boundaries = new int[text.length() / targetSize + 2];
+		int count = 0;
+		boundaries[count++] = 0;
+		BreakIterator sentences = null;
+		int start = 0;
+		while (text.length() - start > targetSize) {
+			int from = start + targetSize;
+			int limit = Math.min(text.length(), from + targetSize);
+			int end = paragraphBreak(text, from, limit);
+			if (end == -1) {
+				if (sentences == null) {
+					sentences = BreakIterator.getSentenceInstance();
+					sentences.setText(text);
+				}
+				int candidate = sentences.following(from);
+				if (candidate != BreakIterator.DONE && candidate < limit && Character.isWhitespace(text.charAt(candidate - 1))) {
+					end = candidate;
+				}
+			}
+			if (end == -1) {
+				end = whitespaceBreak(text, from);
+			}
+			if (end == -1 || end == text.length()) {
+				break;
+			}
+			boundaries[count++] = end;
+			start = end;
+		}
+		boundaries[count++] = text.length();
+		return Arrays.copyOf(boundaries, count);
+	}
+
+	/**
+	 * Returns the boundaries of paragraphs in {@code text}, splitting at every paragraph break (a blank line). As for
+	 * {@link #split(String, int)}, the result starts with {@code 0} and ends with {@code text.length()}, and each paragraph includes the
+	 * whitespace that follows it.
+	 *
+	 * @param text some text
+	 * @return paragraph boundaries
+	 * @throws NullPointerException if {@code text} is {@code null}
+	 */
+	static int[] paragraphs(String text) {
+		Objects.requireNonNull(text);
+		int[] boundaries = new int[8];
+		int count = 0;
+		boundaries[count++] = 0;
+		int end = 0;
+		while ((end = paragraphBreak(text, end, text.length())) != -1 && end != text.length()) {
+			if (count == boundaries.length - 1) {
+				boundaries = Arrays.copyOf(boundaries, boundaries.length * 2);
+			}
+			boundaries[count++] = end;
+		}
+		boundaries[count++] = text.length();
+		return Arrays.copyOf(boundaries, count);
+	}
+
+	/**
+	 * Returns the index following the first blank line at or after {@code from} (and before {@code limit}), or {@code -1} if there is none.
+	 * 
+	 * @param text  some text
+	 * @param from  index to search from
+	 * @param limit index to search to
+	 * @return index following a blank line, or {@code -1}
+	 */
+	private static int paragraphBreak(String text, int from, int limit) {
+		for (int i = text.indexOf('\n', from); i != -1 && i < limit; i = text.indexOf('\n', i + 1)) {
+			int j = i + 1;
+			while (j < text.length() && text.charAt(j) != '\n' && Character.isWhitespace(text.charAt(j))) {
+				j++;
+			}
+			if (j < text.length() && text.charAt(j) == '\n') {
+				return skipWhitespace(text, j);
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns the index following the first run of whitespace at or after {@code from}, or {@code -1} if there is none.
+	 * 
+	 * @param text some text
+	 * @param from index to search from
+	 * @return index following whitespace, or {@code -1}
+	 */
+	private static int whitespaceBreak(String text, int from) {
+		for (int i = from; i < text.length(); i++) {
+			if (Character.isWhitespace(text.charAt(i))) {
+				return skipWhitespace(text, i);
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns the index of the first non-whitespace character at or after {@code from}, or the length of {@code text} if there is none.
+	 * 
+	 * @param text some text
+	 * @param from index to search from
+	 * @return index of non-whitespace character
+	 */
+	private static int skipWhitespace(String text, int from) {
+		int i = from;
+		while (i < text.length() && Character.isWhitespace(text.charAt(i))) {
+			i++;
+		}
+		return i;
+	}
+}
@@ -1,8 +1,10 @@
 package net.logicsquad.ibis;
 
 import java.text.BreakIterator;
+import java.text.Normalizer;
 import java.util.Deque;
 import java.util.LinkedList;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 
@@ -13,10 +15,27 @@ import java.util.Objects;
  * 
  * <ul>
  * <li>replaces problematic in-word characters;</li>
+ * <li>normalises each {@link Word} to a Unicode normalisation form (by default, {@link Normalizer.Form#NFC NFC});</li>
  * <li>drops {@link Word}s rejected by its {@link Rejector}; and</li>
  * <li>potentially splits words returned by the {@link BreakIterator} into more than one {@link Word} using a {@link Handler}.</li>
  * </ul>
  * 
+ * <p>
+ * Before tokenization, a {@code Tokenizer} finds <em>identifiers</em> (URLs, email addresses, file paths and hexadecimal strings) and
+ * skips each one whole, rather than letting the {@link BreakIterator} split it into fragments to be checked. A {@code Tokenizer} created
+ * with {@link #builder(String)} can also skip markup, such as HTML tags or Markdown code spans (see
+ * {@link Markup}). Markup is found in a single pass over the original text before tokenization, and skipped in place, so there is no
+ * need to strip it first: {@link Word#start()} is always an offset into the original text.
+ * </p>
+ * 
+ * <p>
+ * Normalisation is applied to each {@link Word} after tokenization, so a {@link Word}'s {@link Word#start()} and {@link Word#end()} still
+ * delimit its original characters in {@link #rawText()}, even if normalisation changed its length (say, by composing "e" and a combining
+ * acute accent into "é"). It is skipped entirely if the text is pure ASCII, and for each {@link Word} that is ASCII or already normalised.
+ * Word lists added to a {@link Dictionary.Builder} are normalised to {@link Normalizer.Form#NFC NFC} too (see
+ * {@link Dictionary.Builder#normalization(Normalizer.Form)}).
+ * </p>
+ * 
  * @author paulh
  * @since 1.0
  */
@@ -30,7 +49,7 @@ public class Tokenizer {
 	/**
 	 * A {@link BreakIterator} to perform initial tokenization
 	 */
-	private final BreakIterator breakIterator = BreakIterator.getWordInstance();
+	private final BreakIterator breakIterator;
 
 	/**
 	 * Text to tokenize
@@ -60,33 +79,64 @@ public class Tokenizer {
 	/**
 	 * {@link Handler} for special cases
 	 */
-	private final Handler handler = new Handler();
+	private final Handler handler;
 
 	/**
 	 * {@link Rejector} to indicate {@link Word}s to omit
 	 */
 	private final Rejector rejector = new Rejector();
 
+	/**
+	 * Spans of text to skip, as {@code [start, end)} pairs
+	 */
+	private final int[] skips;
+
+	/**
+	 * Index in {@link #skips} of first span not yet passed
+	 */
+	private int skipIndex;
+
+	/**
+	 * Normalisation form for {@link Word}s, or {@code null} to skip normalisation
+	 */
+	private final Normalizer.Form normalization;
+
 	/**
 	 * Next {@link Word} to return
 	 */
 	private Word next = null;
 
 	/**
-	 * Constructor
+	 * Constructor, with default settings (see {@link Builder}). Note that identifiers (URLs, email addresses, file paths and hexadecimal
+	 * strings) are skipped by default, so words in them are no longer returned; use {@code builder(text).skipIdentifiers(false).build()}
+	 * to return them.
 	 * 
 	 * @param text a string
 	 * @throws NullPointerException if {@code text} is {@code null}
 	 */
 	public Tokenizer(String text) {
-		Objects.requireNonNull(text);
-		if (containsReplacement(text)) {
+		this(builder(text));
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param builder a {@link Builder}
+	 */
+	private Tokenizer(Builder builder) {
+		String text = builder.text;
+		this.breakIterator = BreakIterator.getWordInstance(builder.locale);
+		this.handler = new Handler(builder.locale);
+		this.skips = builder.markup == Markup.NONE && !builder.skipIdentifiers ? new int[0] : SpanScanner.scan(text, builder.markup, builder.skipIdentifiers);
+		int firstNonAscii = CharClass.indexOfNonAscii(text);
+		if (firstNonAscii != -1 && containsReplacement(text, firstNonAscii)) {
 			this.text = cleanupText(text);
 			this.rawText = text;
 		} else {
 			this.text = text;
 			this.rawText = null;
 		}
+		this.normalization = firstNonAscii == -1 ? null : builder.normalization;
 		breakIterator.setText(this.text);
 		start = breakIterator.first();
 		end = breakIterator.next();
@@ -95,16 +145,31 @@ public class Tokenizer {
 	}
 
 	/**
-	 * Does {@code text} contain any characters in the replacements list?
+	 * Returns a new {@code Builder} for a {@code Tokenizer} over {@code text}.
+	 * 
+	 * @param text a string
+	 * @return a new {@code Builder}
+	 * @throws NullPointerException if {@code text} is {@code null}
+	 */
+	public static Builder builder(String text) {
+		Objects.requireNonNull(text);
+		return new Builder(text);
+	}
+
+	/**
+	 * Does {@code text} contain any characters in the replacements list? All replacements are non-ASCII, so the search starts at
+	 * {@code from}, the first non-ASCII character.
 	 * 
 	 * @param text some text
+	 * @param from index of first non-ASCII character in {@code text}
 	 * @return {@code true} if {@code text} contains any characters in the replacements list, otherwise {@code false}
 	 * @throws NullPointerException if {@code text} is {@code null}
 	 */
-	private static boolean containsReplacement(String text) {
+	private static boolean containsReplacement(String text, int from) {
 		Objects.requireNonNull(text);
-		for (Character c : REPLACEMENTS.keySet()) {
-			if (text.indexOf(c) != -1) {
+		for (int i = from; i < text.length(); i++) {
+			char c = text.charAt(i);
+			if (c >= 0x80 && REPLACEMENTS.containsKey(c)) {
 				return true;
 			}
 		}
@@ -159,7 +224,7 @@ public class Tokenizer {
 	 */
 	private void primeNext() {
 		if (!queue.isEmpty()) {
-			next = queue.removeFirst();
+			next = normalize(queue.removeFirst());
 			return;
 		}
 		Word candidate = candidateNext();
@@ -174,25 +239,47 @@ public class Tokenizer {
 				word = queue.removeFirst();
 			}
 		}
-		next = word;
+		next = word == null ? null : normalize(word);
 		return;
 	}
 
 	/**
-	 * Returns the next {@link Word} from the {@link BreakIterator}. This is a "candidate" because it might be rejected (and it might be
-	 * {@code null}).
+	 * Returns {@code word} normalised to {@link #normalization}.
+	 * 
+	 * @param word a {@link Word}
+	 * @return normalised {@link Word}
+	 */
+	private Word normalize(Word word) {
+		if (normalization == null) {
+			return word;
+		}
+		String normalized = CharClass.normalize(word.text(), normalization);
+		return normalized == word.text() ? word : word.withNormalizedText(normalized);
+	}
+
+	/**
+	 * Returns the next {@link Word} from the {@link BreakIterator}, skipping any that overlap a span in {@link #skips}. This is a
+	 * "candidate" because it might be rejected (and it might be {@code null}).
 	 * 
 	 * @return candidate next {@link Word}
 	 */
 	private Word candidateNext() {
-		if (end == BreakIterator.DONE) {
-			return null;
-		} else {
+		while (end != BreakIterator.DONE) {
+			while (skipIndex < skips.length && skips[skipIndex + 1] <= start) {
+				skipIndex += 2;
+			}
+			if (skipIndex < skips.length && skips[skipIndex] < end) {
+				// Resume at the first boundary at or after the end of the span
+				start = breakIterator.following(skips[skipIndex + 1] - 1);
+				end = start == BreakIterator.DONE ? BreakIterator.DONE : breakIterator.next();
+				continue;
+			}
 			Word word = Word.of(text.substring(start, end), start);
 			start = end;
 			end = breakIterator.next();
 			return word;
 		}
+		return null;
 	}
 
 	/**
@@ -205,4 +292,106 @@ public class Tokenizer {
 		primeNext();
 		return word;
 	}
+
+	/**
+	 * Builder for {@code Tokenizer} objects.
+	 */
+	public static class Builder {
+		/**
+		 * Text to tokenize
+		 */
+		private final String text;
+
+		/**
+		 * {@link Markup} to skip
+		 */
+		private Markup markup = Markup.NONE;
+
+		/**
+		 * Skip identifiers?
+		 */
+		private boolean skipIdentifiers = true;
+
+		/**
+		 * Normalisation form, or {@code null} for none
+		 */
+		private Normalizer.Form normalization = Normalizer.Form.NFC;
+
+		/**
+		 * {@link Locale} of text
+		 */
+		private Locale locale = Locale.getDefault();
+
+		/**
+		 * Constructor
+		 * 
+		 * @param text text to tokenize
+		 */
+		private Builder(String text) {
+			this.text = text;
+			return;
+		}
+
+		/**
+		 * Sets {@link Markup} to skip. The default is {@link Markup#NONE}.
+		 * 
+		 * @param markup a {@link Markup}
+		 * @return this object
+		 * @throws NullPointerException if {@code markup} is {@code null}
+		 */
+		public Builder markup(Markup markup) {
+			Objects.requireNonNull(markup);
+			this.markup = markup;
+			return this;
+		}
+
+		/**
+		 * Sets whether to skip identifiers: URLs, email addresses, file paths (such as "/usr/local/bin" or "src/main/java") and hexadecimal
+		 * strings (such as "0x1F" or "3f2a9c1e"). The default is {@code true}.
+		 * 
+		 * @param skipIdentifiers skip identifiers?
+		 * @return this object
+		 */
+		public Builder skipIdentifiers(boolean skipIdentifiers) {
+			this.skipIdentifiers = skipIdentifiers;
+			return this;
+		}
+
+		/**
+		 * Sets the Unicode normalisation form for {@link Word}s, or {@code null} to leave them as they appear in the text. The default is
+		 * {@link Normalizer.Form#NFC NFC}, which composes decomposed accents. {@link Normalizer.Form#NFKC NFKC} also folds compatibility
+		 * characters such as ligatures ("ﬁ") and full-width letters, and should be paired with a {@link Dictionary} built with the same
+		 * form.
+		 * 
+		 * @param normalization a {@link Normalizer.Form}, or {@code null}
+		 * @return this object
+		 */
+		public Builder normalization(Normalizer.Form normalization) {
+			this.normalization = normalization;
+			return this;
+		}
+
+		/**
+		 * Sets the {@link Locale} of the text, which selects the {@link BreakIterator} and any language-specific rules in the
+		 * {@link Handler} (such as removing French elisions). The default is {@link Locale#getDefault()}.
+		 * 
+		 * @param locale a {@link Locale}
+		 * @return this object
+		 * @throws NullPointerException if {@code locale} is {@code null}
+		 */
+		public Builder locale(Locale locale) {
+			Objects.requireNonNull(locale);
+			this.locale = locale;
+			return this;
+		}
+
+		/**
+		 * Creates and returns a new {@code Tokenizer} from this {@code Builder}.
+		 * 
+		 * @return new {@code Tokenizer}
+		 */
+		public Tokenizer build() {
+			return new Tokenizer(this);
+		}
+	}
 }
@@ -28,6 +28,11 @@ public class Word {
 	 */
 	private final List<String> suggestions;
 
+	/**
+	 * Length of this word in containing text, which differs from length of {@link #text} if {@link #text} was normalised
+	 */
+	private final int rawLength;
+
 	/**
 	 * Constructor
 	 * 
@@ -50,6 +55,20 @@ public class Word {
 	 * @throws IllegalArgumentException if {@code start} is negative
 	 */
 	private Word(String text, int start, List<String> suggestions) {
+		this(text, start, suggestions, text.length());
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param text        text content
+	 * @param start       start position in containing text
+	 * @param suggestions optional list of suggestions
+	 * @param rawLength   length in containing text
+	 * @throws NullPointerException     if {@code text} is {@code null}
+	 * @throws IllegalArgumentException if {@code start} is negative
+	 */
+	private Word(String text, int start, List<String> suggestions, int rawLength) {
 		Objects.requireNonNull(text);
 		if (start < 0) {
 			throw new IllegalArgumentException("start cannot be negative.");
@@ -57,6 +76,7 @@ public class Word {
 		this.text = text;
 		this.start = start;
 		this.suggestions = suggestions;
+		this.rawLength = rawLength;
 		return;
 	}
 
@@ -79,12 +99,14 @@ public class Word {
 	}
 
 	/**
-	 * Returns index <em>after</em> final character of this {@code Word} in containing text.
+	 * Returns index <em>after</em> final character of this {@code Word} in containing text. If {@link #text()} was normalised by a
+	 * {@link Tokenizer}, this is the end of the original (unnormalised) characters, so {@code end() - start()} may differ from
+	 * {@link #length()}.
 	 * 
 	 * @return index <em>after</em> final character
 	 */
 	public int end() {
-		return start + text.length();
+		return start + rawLength;
 	}
 
 	/**
@@ -182,7 +204,30 @@ public class Word {
 	 * @return new object
 	 */
 	public Word withSuggestions(List<String> suggestions) {
-		return new Word(text, start, suggestions);
+		return new Word(text, start, suggestions, rawLength);
+	}
+
+	/**
+	 * Returns a copy of this {@code Word} with start position moved by {@code offset}, for use when the containing text was part of some
+	 * larger text.
+	 * 
+	 * @param offset offset to add to start position
+	 * @return new object
+	 * @throws IllegalArgumentException if the new start position is negative
+	 */
+	Word shift(int offset) {
+		return new Word(text, start + offset, suggestions, rawLength);
+	}
+
+	/**
+	 * Returns a copy of this {@code Word} with text content replaced by {@code text}, a normalised form of the original, but still
+	 * occupying the same characters in containing text.
+	 * 
+	 * @param text normalised text content
+	 * @return new object
+	 */
+	Word withNormalizedText(String text) {
+		return new Word(text, start, suggestions, rawLength);
 	}
 
 	/**
@@ -191,7 +236,7 @@ public class Word {
 	 * @return {@link #text} as lower case
 	 */
 	String toLowerCase() {
-		return text.toLowerCase();
+		return CharClass.toLowerCase(text);
 	}
 
 	/**
@@ -0,0 +1,336 @@
+package net.logicsquad.ibis;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>
+ * A durable record of words added to (or removed from) a base {@link Dictionary} at runtime, such as when a user chooses "add to
+ * dictionary". Each change is appended to a journal file as a single line ({@code +word} or {@code -word}) and forced to storage before the
+ * method returns. {@link #compact()} merges the journal into a snapshot file holding only the net changes, and empties the journal.
+ * </p>
+ *
+ * <p>
+ * On {@link #open(Path, Dictionary)}, the snapshot and then the journal are replayed to reconstruct the net changes, which are applied as
+ * a {@link Dictionary} layered over the base. Recovery cost is therefore proportional to the number of changes, not the size of the base.
+ * A partially written final line (say, after a crash) is discarded.
+ * </p>
+ *
+ * <p>
+ * Each later change is applied by layering a one-word {@link Dictionary} over the current one. Since a lookup visits each layer, once
+ * {@value #MAX_LAYERS} such layers have accumulated, the next change instead rebuilds a single layer holding the net changes over the
+ * base, as {@link #compact()} does. A change therefore costs at most a rebuild of the net changes, and a lookup visits at most
+ * {@value #MAX_LAYERS} layers more than the base has. A {@code WordJournal} is a {@link Supplier} of the current layered
+ * {@link Dictionary}, so it can be passed directly to {@link Checker#Checker(Supplier)}. This class is thread-safe.
+ * </p>
+ *
+ * @author paulh
+ * @since 1.0
+ */
+public class WordJournal implements Supplier<Dictionary>, Closeable {
+	/**
+	 * Logger
+	 */
+	private static final Logger LOG = LoggerFactory.getLogger(WordJournal.class);
+
+	/**
+	 * Prefix for an added word
+	 */
+	private static final char ADD = '+';
+
+	/**
+	 * Prefix for a removed word
+	 */
+	private static final char REMOVE = '-';
+
+	/**
+	 * Suffix for snapshot file name
+	 */
+	private static final String SNAPSHOT_SUFFIX = ".snapshot";
+
+	/**
+	 * Suffix for temporary file name used during compaction
+	 */
+	private static final String TEMPORARY_SUFFIX = ".tmp";
+
+	/**
+	 * Maximum number of one-change layers over the net changes before they are rebuilt
+	 */
+	static final int MAX_LAYERS = 8;
+
+	/**
+	 * Base {@link Dictionary}
+	 */
+	private final Dictionary base;
+
+	/**
+	 * Journal file
+	 */
+	private final Path path;
+
+	/**
+	 * Snapshot file
+	 */
+	private final Path snapshotPath;
+
+	/**
+	 * Channel for appending to journal
+	 */
+	private final FileChannel channel;
+
+	/**
+	 * Words added (net of removals)
+	 */
+	private final Set<String> added = new LinkedHashSet<>();
+
+	/**
+	 * Words removed (net of additions)
+	 */
+	private final Set<String> removed = new LinkedHashSet<>();
+
+	/**
+	 * Current layered {@link Dictionary}: a single layer over {@link #base} holding net changes as of the last rebuild, with a layer for
+	 * each change since
+	 */
+	private volatile Dictionary dictionary;
+
+	/**
+	 * Number of changes layered over the last rebuild
+	 */
+	private int layers;
+
+	/**
+	 * Constructor
+	 *
+	 * @param path journal file
+	 * @param base base {@link Dictionary}
+	 * @throws IOException if the journal or snapshot cannot be read, or the journal cannot be opened for writing
+	 */
+	private WordJournal(Path path, Dictionary base) throws IOException {
+		this.base = base;
+		this.path = path;
+		this.snapshotPath = path.resolveSibling(path.getFileName() + SNAPSHOT_SUFFIX);
+		replay(snapshotPath);
+		long length = replay(path);
+		this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+		if (channel.size() > length) {
+			LOG.warn("Discarding incomplete final entry in {}.", path);
+			channel.truncate(length);
+		}
+		channel.position(length);
+		rebuild();
+		return;
+	}
+
+	/**
+	 * Opens (or creates) the journal at {@code path}, replaying any existing snapshot and journal over {@code base}. The snapshot is kept
+	 * alongside the journal, with ".snapshot" appended to its file name.
+	 *
+	 * @param path journal file
+	 * @param base base {@link Dictionary}
+	 * @return new object
+	 * @throws IOException          if the journal or snapshot cannot be read, or the journal cannot be opened for writing
+	 * @throws NullPointerException if either argument is {@code null}
+	 */
+	public static WordJournal open(Path path, Dictionary base) throws IOException {
+		Objects.requireNonNull(path);
+		Objects.requireNonNull(base);
+		return new WordJournal(path, base);
+	}
+
+	/**
+	 * Returns the base {@link Dictionary} with all recorded changes applied.
+	 *
+	 * @return current {@link Dictionary}
+	 */
+	@Override
+	public Dictionary get() {
+		return dictionary;
+	}
+
+	/**
+	 * Records {@code word} as added.
+	 *
+	 * @param word a word
+	 * @throws IOException              if the change cannot be written
+	 * @throws IllegalArgumentException if {@code word} is blank or contains a line break
+	 * @throws NullPointerException     if {@code word} is {@code null}
+	 */
+	public synchronized void add(String word) throws IOException {
+		String cookedWord = cook(word);
+		append(ADD, cookedWord);
+		apply(ADD, cookedWord);
+		if (layers < MAX_LAYERS) {
+			dictionary = Dictionary.builder(dictionary).addWord(cookedWord).build();
+			layers++;
+		} else {
+			rebuild();
+		}
+		return;
+	}
+
+	/**
+	 * Records {@code word} as removed. See {@link Dictionary.Builder#removeWord(String)}.
+	 *
+	 * @param word a word
+	 * @throws IOException              if the change cannot be written
+	 * @throws IllegalArgumentException if {@code word} is blank or contains a line break
+	 * @throws NullPointerException     if {@code word} is {@code null}
+	 */
+	public synchronized void remove(String word) throws IOException {
+		String cookedWord = cook(word);
+		append(REMOVE, cookedWord);
+		apply(REMOVE, cookedWord);
+		if (layers < MAX_LAYERS) {
+			dictionary = Dictionary.builder(dictionary).removeWord(cookedWord).build();
+			layers++;
+		} else {
+			rebuild();
+		}
+		return;
+	}
+
+	/**
+	 * Writes the net changes to the snapshot file (atomically replacing any existing snapshot), and then empties the journal. The current
+	 * {@link Dictionary} is rebuilt as a single layer over the base.
+	 *
+	 * @throws IOException if the snapshot cannot be written or the journal cannot be truncated
+	 */
+	public synchronized void compact() throws IOException {
+		Path temporaryPath = snapshotPath.resolveSibling(snapshotPath.getFileName() + TEMPORARY_SUFFIX);
+		StringBuilder sb = new StringBuilder();
+		for (String word : added) {
+			sb.append(ADD).append(word).append('\n');
+		}
+		for (String word : removed) {
+			sb.append(REMOVE).append(word).append('\n');
+		}
+		try (FileChannel out = FileChannel.open(temporaryPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			ByteBuffer buffer = StandardCharsets.UTF_8.encode(sb.toString());
+			while (buffer.hasRemaining()) {
+				out.write(buffer);
+			}
+			out.force(true);
+		}
+		Files.move(temporaryPath, snapshotPath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		// Replaying the journal over the new snapshot is harmless, so a crash here loses nothing.
+		channel.truncate(0);
+		channel.force(true);
+		rebuild();
+		LOG.debug("Compacted {} into {} ({} added, {} removed).", path, snapshotPath, added.size(), removed.size());
+		return;
+	}
+
+	/**
+	 * Closes the journal. The current {@link Dictionary} remains available from {@link #get()}.
+	 *
+	 * @throws IOException if the journal cannot be closed
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		channel.close();
+		return;
+	}
+
+	/**
+	 * Appends an entry to the journal and forces it to storage.
+	 *
+	 * @param operation {@link #ADD} or {@link #REMOVE}
+	 * @param word      a word
+	 * @throws IOException if the entry cannot be written
+	 */
+	private void append(char operation, String word) throws IOException {
+		ByteBuffer buffer = StandardCharsets.UTF_8.encode(operation + word + '\n');
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+		channel.force(false);
+		return;
+	}
+
+	/**
+	 * Applies an entry to {@link #added} and {@link #removed}.
+	 *
+	 * @param operation {@link #ADD} or {@link #REMOVE}
+	 * @param word      a word
+	 */
+	private void apply(char operation, String word) {
+		if (operation == ADD) {
+			removed.remove(word);
+			added.add(word);
+		} else {
+			added.remove(word);
+			removed.add(word);
+		}
+		return;
+	}
+
+	/**
+	 * Replays complete entries from {@code file}, if it exists.
+	 *
+	 * @param file a journal or snapshot file
+	 * @return length in bytes of complete entries in {@code file}
+	 * @throws IOException if {@code file} cannot be read
+	 */
+	private long replay(Path file) throws IOException {
+		if (!Files.exists(file)) {
+			return 0;
+		}
+		byte[] bytes = Files.readAllBytes(file);
+		int start = 0;
+		for (int i = 0; i < bytes.length; i++) {
+			if (bytes[i] == '\n') {
+				String line = new String(bytes, start, i - start, StandardCharsets.UTF_8);
+				if (line.length() > 1 && (line.charAt(0) == ADD || line.charAt(0) == REMOVE)) {
+					apply(line.charAt(0), line.substring(1));
+				} else {
+					LOG.warn("Ignoring malformed entry '{}' in {}.", line, file);
+				}
+				start = i + 1;
+			}
+		}
+		return start;
+	}
+
+	/**
+	 * Rebuilds {@link #dictionary} as a single layer over {@link #base} from {@link #added} and {@link #removed}.
+	 */
+	private void rebuild() {
+		Dictionary.Builder builder = Dictionary.builder(base).addWords(added);
+		removed.forEach(builder::removeWord);
+		dictionary = builder.build();
+		layers = 0;
+		return;
+	}
+
+	/**
+	 * Returns {@code word} stripped of surrounding whitespace, after checking that it can be recorded.
+	 *
+	 * @param word a word
+	 * @return stripped word
+	 * @throws IllegalArgumentException if {@code word} is blank or contains a line break
+	 * @throws NullPointerException     if {@code word} is {@code null}
+	 */
+	private static String cook(String word) {
+		Objects.requireNonNull(word);
+		String cookedWord = word.strip();
+		if (cookedWord.isEmpty() || cookedWord.indexOf('\n') != -1 || cookedWord.indexOf('\r') != -1) {
+			throw new IllegalArgumentException("word must be non-blank and on a single line.");
+		}
+		return cookedWord;
+	}
+}
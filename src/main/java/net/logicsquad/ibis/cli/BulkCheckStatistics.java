@@ -0,0 +1,137 @@
+package net.logicsquad.ibis.cli;
+
+import java.time.Duration;
+
+/**
+ * Counters for a single run of {@link BulkChecker#check(java.util.List, java.io.Writer)}: files checked, bytes read, incorrect words
+ * reported and files that could not be read or checked, along with the elapsed time (including walking directories) and the throughput
+ * it implies.
+ * {@code BulkCheckStatistics} objects are immutable and thread-safe.
+ *
+ * @author paulh
+ * @since 1.0
+ */
+public class BulkCheckStatistics {
+	/**
+	 * Number of files checked
+	 */
+	private final int files;
+
+	/**
+	 * Number of files that could not be read or checked
+	 */
+	private final int failures;
+
+	/**
+	 * Number of bytes read
+	 */
+	private final long bytes;
+
+	/**
+	 * Number of incorrect words reported
+	 */
+	private final long misspellings;
+
+	/**
+	 * Time taken
+	 */
+	private final Duration elapsed;
+
+	/**
+	 * Constructor
+	 *
+	 * @param files        number of files checked
+	 * @param failures     number of files that could not be read or checked
+	 * @param bytes        number of bytes read
+	 * @param misspellings number of incorrect words reported
+	 * @param elapsed      time taken
+	 */
+	BulkCheckStatistics(int files, int failures, long bytes, long misspellings, Duration elapsed) {
+		this.files = files;
+		this.failures = failures;
+		this.bytes = bytes;
+		this.misspellings = misspellings;
+		this.elapsed = elapsed;
+		return;
+	}
+
+	/**
+	 * Returns number of files checked (not including failures).
+	 *
+	 * @return number of files
+	 */
+	public int files() {
+		return files;
+	}
+
+	/**
+	 * Returns number of files that could not be read or checked.
+	 *
+	 * @return number of failures
+	 */
+	public int failures() {
+		return failures;
+	}
+
+	/**
+	 * Returns number of bytes read.
+	 *
+	 * @return number of bytes
+	 */
+	public long bytes() {
+		return bytes;
+	}
+
+	/**
+	 * Returns number of incorrect words reported.
+	 *
+	 * @return number of misspellings
+	 */
+	public long misspellings() {
+		return misspellings;
+	}
+
+	/**
+	 * Returns time taken.
+	 *
+	 * @return elapsed time
+	 */
+	public Duration elapsed() {
+		return elapsed;
+	}
+
+	/**
+	 * Returns mean number of files checked per second.
+	 *
+	 * @return files per second
+	 */
+	public double filesPerSecond() {
+		return perSecond(files);
+	}
+
+	/**
+	 * Returns mean number of bytes read per second.
+	 *
+	 * @return bytes per second
+	 */
+	public double bytesPerSecond() {
+		return perSecond(bytes);
+	}
+
+	/**
+	 * Returns {@code count} divided by {@link #elapsed} in seconds.
+	 *
+	 * @param count a count
+	 * @return count per second
+	 */
+	private double perSecond(long count) {
+		long nanos = elapsed.toNanos();
+		return nanos == 0 ? 0 : count * 1e9 / nanos;
+	}
+
+	@Override
+	public String toString() {
+		return "BulkCheckStatistics [files=" + files + ", failures=" + failures + ", bytes=" + bytes + ", misspellings=" + misspellings
+				+ ", elapsed=" + elapsed + "]";
+	}
+}
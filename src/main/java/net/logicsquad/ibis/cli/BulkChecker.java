@@ -0,0 +1,468 @@
+package net.logicsquad.ibis.cli;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import net.logicsquad.ibis.Checker;
+import net.logicsquad.ibis.Dictionary;
+import net.logicsquad.ibis.Markup;
+import net.logicsquad.ibis.Tokenizer;
+import net.logicsquad.ibis.Word;
+import net.logicsquad.ibis.server.Json;
+
+/**
+ * <p>
+ * Checks spelling in every matching file under one or more directory trees, with a single {@link Dictionary} built once for the whole
+ * run. Files are found with {@link Files#walk(Path, java.nio.file.FileVisitOption...)}, in sorted order, and checked concurrently on a
+ * work-stealing {@link ForkJoinPool}; large plain-text files are further split into chunks with
+ * {@link Checker#checkSpellingInParallel(String, ForkJoinPool)}, so that idle workers can steal from them. Markdown and HTML files are
+ * tokenized with the matching {@link Markup}, so that markup is not checked.
+ * </p>
+ *
+ * <p>
+ * Small files are read in one go; files of {@value #MAP_THRESHOLD} bytes or more are memory-mapped and decoded straight from the mapping.
+ * Malformed input is replaced rather than rejected, so a stray byte in one file does not stop the run. The report is written as JSON
+ * lines, one per incorrect word, in file order:
+ * </p>
+ *
+ * <pre>
+ * {"file": "docs/intro.md", "offset": 16, "word": "forr", "suggestions": ["fair", ...]}
+ * </pre>
+ *
+ * <p>
+ * where {@code offset} counts {@code char}s from the start of the file. A file that cannot be read (or checked) is reported as
+ * <code>{"file": "...", "error": "..."}</code>, and the run continues. From the command line:
+ * </p>
+ *
+ * <pre>
+ * java -jar ibis.jar [--words=PATH]... [--glob=GLOB] [--threads=N] [--charset=NAME] [--output=PATH] PATH...
+ * </pre>
+ *
+ * <p>
+ * checks the trees (or files) given, using the built-in word lists and any extra word lists given with {@code --words}, and prints
+ * throughput statistics to standard error once done.
+ * </p>
+ *
+ * @author paulh
+ * @since 1.0
+ */
+public final class BulkChecker {
+	/**
+	 * Logger
+	 */
+	private static final Logger LOG = LoggerFactory.getLogger(BulkChecker.class);
+
+	/**
+	 * Default glob for file names to check
+	 */
+	public static final String DEFAULT_GLOB = "*.{txt,md,markdown,htm,html,xml}";
+
+	/**
+	 * Size in bytes from which files are memory-mapped rather than read
+	 */
+	static final long MAP_THRESHOLD = 1 << 20;
+
+	/**
+	 * Exit status for {@link #main(String[])} if there are misspellings or failures
+	 */
+	private static final int EXIT_FOUND = 1;
+
+	/**
+	 * Exit status for {@link #main(String[])} if arguments are invalid
+	 */
+	private static final int EXIT_USAGE = 2;
+
+	/**
+	 * Checker
+	 */
+	private final Checker checker;
+
+	/**
+	 * Matcher for file names to check when walking directories
+	 */
+	private final PathMatcher matcher;
+
+	/**
+	 * Number of worker threads
+	 */
+	private final int threads;
+
+	/**
+	 * Character set of files
+	 */
+	private final Charset charset;
+
+	/**
+	 * Constructor
+	 *
+	 * @param builder a {@link Builder}
+	 */
+	private BulkChecker(Builder builder) {
+		this.checker = new Checker(builder.dictionary);
+		this.matcher = FileSystems.getDefault().getPathMatcher("glob:" + builder.glob);
+		this.threads = builder.threads;
+		this.charset = builder.charset;
+		return;
+	}
+
+	/**
+	 * Returns a new {@link Builder} for a {@code BulkChecker} using {@code dictionary}.
+	 *
+	 * @param dictionary a {@link Dictionary}
+	 * @return new {@link Builder}
+	 * @throws NullPointerException if {@code dictionary} is {@code null}
+	 */
+	public static Builder builder(Dictionary dictionary) {
+		Objects.requireNonNull(dictionary);
+		return new Builder(dictionary);
+	}
+
+	/**
+	 * Checks every file under {@code roots} whose name matches the glob, and every file given directly in {@code roots}, writing a JSON
+	 * line to {@code output} for each incorrect word (or file that could not be read or checked). Lines are written in file order, each
+	 * file's lines in offset order.
+	 *
+	 * @param roots  directories (or files) to check
+	 * @param output destination for report
+	 * @return statistics for the run
+	 * @throws IOException          if a directory cannot be walked, or {@code output} cannot be written
+	 * @throws NullPointerException if either argument is {@code null}
+	 */
+	public BulkCheckStatistics check(List<Path> roots, Writer output) throws IOException {
+		Objects.requireNonNull(roots);
+		Objects.requireNonNull(output);
+		long start = System.nanoTime();
+		List<Path> files = files(roots);
+		ForkJoinPool pool = new ForkJoinPool(threads);
+		int checked = 0;
+		int failures = 0;
+		long bytes = 0;
+		long misspellings = 0;
+		try {
+			List<ForkJoinTask<FileReport>> tasks = new ArrayList<>(files.size());
+			for (Path file : files) {
+				tasks.add(pool.submit(() -> checkFile(file, pool)));
+			}
+			for (ForkJoinTask<FileReport> task : tasks) {
+				FileReport report = task.join();
+				output.write(report.lines());
+				if (report.failed()) {
+					failures++;
+				} else {
+					checked++;
+					bytes += report.bytes();
+					misspellings += report.misspellings();
+				}
+			}
+		} finally {
+			pool.shutdownNow();
+		}
+		output.flush();
+		return new BulkCheckStatistics(checked, failures, bytes, misspellings, Duration.ofNanos(System.nanoTime() - start));
+	}
+
+	/**
+	 * Returns files to check: those given in {@code roots}, and those under directories in {@code roots} whose names match
+	 * {@link #matcher}, each directory's in sorted order.
+	 *
+	 * @param roots directories (or files)
+	 * @return files to check
+	 * @throws IOException if a directory cannot be walked
+	 */
+	private List<Path> files(List<Path> roots) throws IOException {
+		List<Path> result = new ArrayList<>();
+		for (Path root : roots) {
+			if (!Files.isDirectory(root)) {
+				result.add(root);
+				continue;
+			}
+			try (Stream<Path> paths = Files.walk(root)) {
+				paths.filter(p -> matcher.matches(p.getFileName()) && Files.isRegularFile(p)).sorted().forEach(result::add);
+			} catch (UncheckedIOException e) {
+				throw e.getCause();
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Reads and checks {@code file}, returning its lines of the report (or a line reporting an error, if it cannot be read or checked).
+	 *
+	 * @param file a file
+	 * @param pool {@link ForkJoinPool} running this task
+	 * @return report on {@code file}
+	 */
+	private FileReport checkFile(Path file, ForkJoinPool pool) {
+		StringBuilder sb = new StringBuilder();
+		Map<String, Object> line = new LinkedHashMap<>();
+		long bytes;
+		List<Word> words;
+		try {
+			bytes = Files.size(file);
+			String text = read(file, charset);
+			Markup markup = markup(file);
+			words = markup == Markup.NONE ? checker.checkSpellingInParallel(text, pool)
+					: checker.checkSpelling(Tokenizer.builder(text).markup(markup).build());
+		} catch (IOException | RuntimeException e) {
+			// One bad file should not end the run
+			LOG.warn("Unable to check {}.", file, e);
+			line.put("file", file.toString());
+			line.put("error", String.valueOf(e.getMessage()));
+			Json.write(line, sb);
+			sb.append('\n');
+			return new FileReport(sb.toString(), 0, 0, true);
+		}
+		for (Word word : words) {
+			line.clear();
+			line.put("file", file.toString());
+			line.put("offset", word.start());
+			line.put("word", word.text());
+			line.put("suggestions", word.suggestions() == null ? List.of() : word.suggestions());
+			Json.write(line, sb);
+			sb.append('\n');
+		}
+		return new FileReport(sb.toString(), bytes, words.size(), false);
+	}
+
+	/**
+	 * Returns the contents of {@code file}, decoded with {@code charset}, replacing malformed input. Files of {@link #MAP_THRESHOLD} bytes
+	 * or more are memory-mapped rather than copied into the heap before decoding.
+	 *
+	 * @param file    a file
+	 * @param charset a {@link Charset}
+	 * @return contents of {@code file}
+	 * @throws IOException if {@code file} cannot be read, or is too large to hold in a {@link String}
+	 */
+	static String read(Path file, Charset charset) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			long size = channel.size();
+			if (size > Integer.MAX_VALUE) {
+				throw new IOException("File too large: " + file);
+			}
+			ByteBuffer buffer;
+			if (size >= MAP_THRESHOLD) {
+				buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+			} else {
+				buffer = ByteBuffer.allocate((int) size);
+				while (buffer.hasRemaining() && channel.read(buffer) != -1) {
+					// Keep reading
+				}
+				buffer.flip();
+			}
+			return charset.newDecoder().onMalformedInput(CodingErrorAction.REPLACE).onUnmappableCharacter(CodingErrorAction.REPLACE)
+					.decode(buffer).toString();
+		}
+	}
+
+	/**
+	 * Returns the {@link Markup} for {@code file}, from its extension.
+	 *
+	 * @param file a file
+	 * @return {@link Markup}
+	 */
+	static Markup markup(Path file) {
+		String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+		if (name.endsWith(".md") || name.endsWith(".markdown")) {
+			return Markup.MARKDOWN;
+		} else if (name.endsWith(".htm") || name.endsWith(".html") || name.endsWith(".xml")) {
+			return Markup.HTML;
+		} else {
+			return Markup.NONE;
+		}
+	}
+
+	/**
+	 * Checks the files given as arguments, using the built-in word lists. See class documentation for options. Exits with status 1 if any
+	 * incorrect words were found (or files could not be read or checked), or 2 if the arguments are invalid.
+	 *
+	 * @param args command-line arguments
+	 * @throws IOException if a directory cannot be walked, or the report cannot be written
+	 */
+	public static void main(String[] args) throws IOException {
+		Dictionary.Builder dictionaryBuilder = Dictionary.builder().addWords();
+		String glob = DEFAULT_GLOB;
+		int threads = Runtime.getRuntime().availableProcessors();
+		Charset charset = StandardCharsets.UTF_8;
+		Path output = null;
+		List<Path> roots = new ArrayList<>();
+		try {
+			for (String arg : args) {
+				if (arg.startsWith("--words=")) {
+					dictionaryBuilder.addWords(Path.of(arg.substring("--words=".length())));
+				} else if (arg.startsWith("--glob=")) {
+					glob = arg.substring("--glob=".length());
+				} else if (arg.startsWith("--threads=")) {
+					threads = Integer.parseInt(arg.substring("--threads=".length()));
+				} else if (arg.startsWith("--charset=")) {
+					charset = Charset.forName(arg.substring("--charset=".length()));
+				} else if (arg.startsWith("--output=")) {
+					output = Path.of(arg.substring("--output=".length()));
+				} else if (arg.startsWith("--")) {
+					throw new IllegalArgumentException("Unrecognised argument: " + arg);
+				} else {
+					roots.add(Path.of(arg));
+				}
+			}
+			if (roots.isEmpty()) {
+				throw new IllegalArgumentException("No paths to check.");
+			}
+		} catch (IllegalArgumentException e) {
+			System.err.println(e.getMessage());
+			System.err.println(
+					"Usage: BulkChecker [--words=PATH]... [--glob=GLOB] [--threads=N] [--charset=NAME] [--output=PATH] PATH...");
+			System.exit(EXIT_USAGE);
+			return;
+		}
+		BulkChecker checker = builder(dictionaryBuilder.build()).glob(glob).threads(threads).charset(charset).build();
+		BulkCheckStatistics statistics;
+		try (Writer writer = output == null ? new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8))
+				: Files.newBufferedWriter(output, StandardCharsets.UTF_8)) {
+			statistics = checker.check(roots, writer);
+		}
+		printStatistics(statistics, System.err);
+		if (statistics.misspellings() > 0 || statistics.failures() > 0) {
+			System.exit(EXIT_FOUND);
+		}
+		return;
+	}
+
+	/**
+	 * Prints a summary of {@code statistics} to {@code out}.
+	 *
+	 * @param statistics {@link BulkCheckStatistics}
+	 * @param out        a {@link PrintStream}
+	 */
+	private static void printStatistics(BulkCheckStatistics statistics, PrintStream out) {
+		double seconds = statistics.elapsed().toNanos() / 1e9;
+		out.printf(Locale.ROOT, "Checked %d files (%d failed), %.1f MB in %.2f s: %.1f files/s, %.1f MB/s, %d misspellings%n",
+				statistics.files(), statistics.failures(), statistics.bytes() / 1e6, seconds, statistics.filesPerSecond(),
+				statistics.bytesPerSecond() / 1e6, statistics.misspellings());
+		return;
+	}
+
+	/**
+	 * Report on a single file.
+	 *
+	 * @param lines        JSON lines for file
+	 * @param bytes        size of file in bytes
+	 * @param misspellings number of incorrect words
+	 * @param failed       could the file not be read or checked?
+	 */
+	private record FileReport(String lines, long bytes, int misspellings, boolean failed) {
+	}
+
+	/**
+	 * Builder for {@code BulkChecker} objects.
+	 */
+	public static class Builder {
+		/**
+		 * {@link Dictionary} providing correct spellings
+		 */
+		private final Dictionary dictionary;
+
+		/**
+		 * Glob for file names to check
+		 */
+		private String glob = DEFAULT_GLOB;
+
+		/**
+		 * Number of worker threads
+		 */
+		private int threads = Runtime.getRuntime().availableProcessors();
+
+		/**
+		 * Character set of files
+		 */
+		private Charset charset = StandardCharsets.UTF_8;
+
+		/**
+		 * Constructor
+		 *
+		 * @param dictionary a {@link Dictionary}
+		 */
+		private Builder(Dictionary dictionary) {
+			this.dictionary = dictionary;
+			return;
+		}
+
+		/**
+		 * Sets glob matched against the names of files found when walking directories (see
+		 * {@link java.nio.file.FileSystem#getPathMatcher(String)}). Files given directly are always checked. The default is
+		 * {@value BulkChecker#DEFAULT_GLOB}.
+		 *
+		 * @param glob a glob
+		 * @return this object
+		 * @throws NullPointerException if {@code glob} is {@code null}
+		 */
+		public Builder glob(String glob) {
+			Objects.requireNonNull(glob);
+			this.glob = glob;
+			return this;
+		}
+
+		/**
+		 * Sets number of worker threads. The default is the number of available processors.
+		 *
+		 * @param threads number of threads
+		 * @return this object
+		 * @throws IllegalArgumentException if {@code threads} is not positive
+		 */
+		public Builder threads(int threads) {
+			if (threads < 1) {
+				throw new IllegalArgumentException("threads must be positive.");
+			}
+			this.threads = threads;
+			return this;
+		}
+
+		/**
+		 * Sets character set of files. The default is UTF-8.
+		 *
+		 * @param charset a {@link Charset}
+		 * @return this object
+		 * @throws NullPointerException if {@code charset} is {@code null}
+		 */
+		public Builder charset(Charset charset) {
+			Objects.requireNonNull(charset);
+			this.charset = charset;
+			return this;
+		}
+
+		/**
+		 * Creates a new {@code BulkChecker}.
+		 *
+		 * @return new {@code BulkChecker}
+		 * @throws IllegalArgumentException if the glob is malformed
+		 */
+		public BulkChecker build() {
+			return new BulkChecker(this);
+		}
+	}
+}
@@ -0,0 +1,4 @@
+/**
+ * A command-line checker for spelling in directory trees, with a shared {@link net.logicsquad.ibis.Dictionary}.
+ */
+package net.logicsquad.ibis.cli;
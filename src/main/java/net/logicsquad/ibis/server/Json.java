@@ -0,0 +1,439 @@
+package net.logicsquad.ibis.server;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * <p>
+ * A minimal <a href="https://www.rfc-editor.org/rfc/rfc8259">JSON</a> reader and writer, sufficient for the request and response bodies
+ * handled by {@link SpellCheckServer}, without adding a dependency.
+ * </p>
+ *
+ * <p>
+ * JSON values map to Java objects as follows: objects to {@link Map}{@code <String, Object>} (preserving member order), arrays to
+ * {@link List}, strings to {@link String}, numbers to {@link Long} (if integral and in range) or {@link Double}, {@code true} and
+ * {@code false} to {@link Boolean}, and {@code null} to {@code null}. {@link #write(Object, StringBuilder)} also accepts any other
+ * {@link Number}.
+ * </p>
+ *
+ * @author paulh
+ * @since 1.0
+ */
+public final class Json {
+	/**
+	 * Maximum depth of nested arrays and objects
+	 */
+	static final int MAX_DEPTH = 256;
+
+	/**
+	 * Text being parsed
+	 */
+	private final String text;
+
+	/**
+	 * Position in {@link #text}
+	 */
+	private int position;
+
+	/**
+	 * Depth of arrays and objects at {@link #position}
+	 */
+	private int depth;
+
+	/**
+	 * Constructor
+	 *
+	 * @param text text to parse
+	 */
+	private Json(String text) {
+		this.text = text;
+		return;
+	}
+
+	/**
+	 * Parses {@code text} as a single JSON value. Arrays and objects may be nested at most {@value #MAX_DEPTH} deep.
+	 *
+	 * @param text JSON text
+	 * @return parsed value
+	 * @throws IllegalArgumentException if {@code text} is not valid JSON, or is nested too deeply
+	 * @throws NullPointerException     if {@code text} is {@code null}
+	 */
+	public static Object parse(String text) {
+		Objects.requireNonNull(text);
+		Json json = new Json(text);
+		Object value = json.readValue();
+		json.skipWhitespace();
+		if (json.position != text.length()) {
+			throw json.error("Unexpected trailing content");
+		}
+		return value;
+	}
+
+	/**
+	 * Returns {@code value} as JSON text.
+	 *
+	 * @param value a value
+	 * @return JSON text
+	 * @throws IllegalArgumentException if {@code value} (or anything it contains) cannot be represented in JSON
+	 */
+	public static String toString(Object value) {
+		StringBuilder sb = new StringBuilder();
+		write(value, sb);
+		return sb.toString();
+	}
+
+	/**
+	 * Appends {@code value} as JSON text to {@code sb}.
+	 *
+	 * @param value a value
+	 * @param sb    a {@link StringBuilder}
+	 * @throws IllegalArgumentException if {@code value} (or anything it contains) cannot be represented in JSON
+	 * @throws NullPointerException     if {@code sb} is {@code null}
+	 */
+	public static void write(Object value, StringBuilder sb) {
+		Objects.requireNonNull(sb);
+		if (value == null) {
+			sb.append("null");
+		} else if (value instanceof String s) {
+			writeString(s, sb);
+		} else if (value instanceof Boolean b) {
+			sb.append(b.booleanValue());
+		} else if (value instanceof Double || value instanceof Float) {
+			double d = ((Number) value).doubleValue();
+			if (Double.isNaN(d) || Double.isInfinite(d)) {
+				throw new IllegalArgumentException("JSON cannot represent " + d + ".");
+			}
+			sb.append(d);
+		} else if (value instanceof Number n) {
+			sb.append(n);
+		} else if (value instanceof Map<?, ?> map) {
+			sb.append('{');
+			boolean first = true;
+			for (Map.Entry<?, ?> entry : map.entrySet()) {
+				if (!first) {
+					sb.append(',');
+				}
+				first = false;
+				writeString(String.valueOf(entry.getKey()), sb);
+				sb.append(':');
+				write(entry.getValue(), sb);
+			}
+			sb.append('}');
+		} else if (value instanceof Iterable<?> iterable) {
+			sb.append('[');
+			boolean first = true;
+			for (Object element : iterable) {
+				if (!first) {
+					sb.append(',');
+				}
+				first = false;
+				write(element, sb);
+			}
+			sb.append(']');
+		} else {
+			throw new IllegalArgumentException("JSON cannot represent " + value.getClass().getName() + ".");
+		}
+		return;
+	}
+
+	/**
+	 * Appends {@code s} as a JSON string to {@code sb}.
+	 *
+	 * @param s  a string
+	 * @param sb a {@link StringBuilder}
+	 */
+	private static void writeString(String s, StringBuilder sb) {
+		sb.append('"');
+		for (int i = 0; i < s.length(); i++) {
+			char c = s.charAt(i);
+			switch (c) {
+			case '"' -> sb.append("\\\"");
+			case '\\' -> sb.append("\\\\");
+			case '\n' -> sb.append("\\n");
+			case '\r' -> sb.append("\\r");
+			case '\t' -> sb.append("\\t");
+			case '\b' -> sb.append("\\b");
+			case '\f' -> sb.append("\\f");
+			default -> {
+				if (c < 0x20) {
+					sb.append(String.format("\\u%04x", (int) c));
+				} else {
+					sb.append(c);
+				}
+			}
+			}
+		}
+		sb.append('"');
+		return;
+	}
+
+	/**
+	 * Reads a value at {@link #position}.
+	 *
+	 * @return value
+	 */
+	private Object readValue() {
+		skipWhitespace();
+		if (position == text.length()) {
+			throw error("Unexpected end of input");
+		}
+		char c = text.charAt(position);
+		return switch (c) {
+		case '{', '[' -> readNested(c);
+		case '"' -> readString();
+		case 't' -> readLiteral("true", Boolean.TRUE);
+		case 'f' -> readLiteral("false", Boolean.FALSE);
+		case 'n' -> readLiteral("null", null);
+		default -> {
+			if (c == '-' || (c >= '0' && c <= '9')) {
+				yield readNumber();
+			}
+			throw error("Unexpected character '" + c + "'");
+		}
+		};
+	}
+
+	/**
+	 * Reads an object or array at {@link #position}, one level deeper than the current {@link #depth}.
+	 *
+	 * @param c opening character
+	 * @return object or array
+	 */
+	private Object readNested(char c) {
+		// Fail cleanly here, rather than with a StackOverflowError
+		if (depth == MAX_DEPTH) {
+			throw error("Nesting deeper than " + MAX_DEPTH);
+		}
+		depth++;
+		Object value = c == '{' ? readObject() : readArray();
+		depth--;
+		return value;
+	}
+
+	/**
+	 * Reads an object at {@link #position}.
+	 *
+	 * @return object
+	 */
+	private Map<String, Object> readObject() {
+		Map<String, Object> result = new LinkedHashMap<>();
+		position++;
+		skipWhitespace();
+		if (peek() == '}') {
+			position++;
+			return result;
+		}
+		while (true) {
+			skipWhitespace();
+			if (peek() != '"') {
+				throw error("Expected string");
+			}
+			String key = readString();
+			skipWhitespace();
+			expect(':');
+			result.put(key, readValue());
+			skipWhitespace();
+			if (peek() == ',') {
+				position++;
+			} else {
+				expect('}');
+				return result;
+			}
+		}
+	}
+
+	/**
+	 * Reads an array at {@link #position}.
+	 *
+	 * @return array
+	 */
+	private List<Object> readArray() {
+		List<Object> result = new ArrayList<>();
+		position++;
+		skipWhitespace();
+		if (peek() == ']') {
+			position++;
+			return result;
+		}
+		while (true) {
+			result.add(readValue());
+			skipWhitespace();
+			if (peek() == ',') {
+				position++;
+			} else {
+				expect(']');
+				return result;
+			}
+		}
+	}
+
+	/**
+	 * Reads a string at {@link #position}.
+	 *
+	 * @return string
+	 */
+	private String readString() {
+		position++;
+		StringBuilder sb = new StringBuilder();
+		while (true) {
+			if (position == text.length()) {
+				throw error("Unterminated string");
+			}
+			char c = text.charAt(position++);
+			if (c == '"') {
+				return sb.toString();
+			} else if (c == '\\') {
+				if (position == text.length()) {
+					throw error("Unterminated string");
+				}
+				char e = text.charAt(position++);
+				switch (e) {
+				case '"', '\\', '/' -> sb.append(e);
+				case 'n' -> sb.append('\n');
+				case 'r' -> sb.append('\r');
+				case 't' -> sb.append('\t');
+				case 'b' -> sb.append('\b');
+				case 'f' -> sb.append('\f');
+				case 'u' -> {
+					if (position + 4 > text.length()) {
+						throw error("Truncated escape");
+					}
+					try {
+						sb.append((char) Integer.parseInt(text, position, position + 4, 16));
+					} catch (NumberFormatException ex) {
+						throw error("Invalid escape");
+					}
+					position += 4;
+				}
+				default -> throw error("Invalid escape");
+				}
+			} else if (c < 0x20) {
+				throw error("Control character in string");
+			} else {
+				sb.append(c);
+			}
+		}
+	}
+
+	/**
+	 * Reads a number at {@link #position}: an optional minus sign, an integer part with no leading zeros, an optional fraction and an
+	 * optional exponent, each with at least one digit.
+	 *
+	 * @return number
+	 */
+	private Number readNumber() {
+		int start = position;
+		if (peek() == '-') {
+			position++;
+		}
+		if (peek() == '0') {
+			position++;
+		} else if (digits() == 0) {
+			throw error("Invalid number");
+		}
+		boolean integral = true;
+		if (peek() == '.') {
+			integral = false;
+			position++;
+			if (digits() == 0) {
+				throw error("Invalid number");
+			}
+		}
+		if (peek() == 'e' || peek() == 'E') {
+			integral = false;
+			position++;
+			if (peek() == '+' || peek() == '-') {
+				position++;
+			}
+			if (digits() == 0) {
+				throw error("Invalid number");
+			}
+		}
+		String s = text.substring(start, position);
+		if (integral) {
+			try {
+				return Long.parseLong(s);
+			} catch (NumberFormatException e) {
+				// Out of range for long
+			}
+		}
+		return Double.parseDouble(s);
+	}
+
+	/**
+	 * Consumes digits at {@link #position}.
+	 *
+	 * @return number of digits consumed
+	 */
+	private int digits() {
+		int start = position;
+		while (position < text.length() && text.charAt(position) >= '0' && text.charAt(position) <= '9') {
+			position++;
+		}
+		return position - start;
+	}
+
+	/**
+	 * Reads {@code literal} at {@link #position}.
+	 *
+	 * @param literal literal text
+	 * @param value   value of literal
+	 * @return {@code value}
+	 */
+	private Object readLiteral(String literal, Object value) {
+		if (!text.startsWith(literal, position)) {
+			throw error("Invalid literal");
+		}
+		position += literal.length();
+		return value;
+	}
+
+	/**
+	 * Consumes {@code c} at {@link #position}.
+	 *
+	 * @param c expected character
+	 */
+	private void expect(char c) {
+		if (peek() != c) {
+			throw error("Expected '" + c + "'");
+		}
+		position++;
+		return;
+	}
+
+	/**
+	 * Returns character at {@link #position}, or {@code 0} at end of input.
+	 *
+	 * @return character
+	 */
+	private char peek() {
+		return position < text.length() ? text.charAt(position) : 0;
+	}
+
+	/**
+	 * Advances {@link #position} past any whitespace.
+	 */
+	private void skipWhitespace() {
+		while (position < text.length()) {
+			char c = text.charAt(position);
+			if (c != ' ' && c != '\t' && c != '\n' && c != '\r') {
+				return;
+			}
+			position++;
+		}
+		return;
+	}
+
+	/**
+	 * Returns an exception describing a syntax error at {@link #position}.
+	 *
+	 * @param message description of error
+	 * @return new exception
+	 */
+	private IllegalArgumentException error(String message) {
+		return new IllegalArgumentException(message + " at position " + position + ".");
+	}
+}
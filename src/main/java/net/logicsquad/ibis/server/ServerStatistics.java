@@ -0,0 +1,264 @@
+package net.logicsquad.ibis.server;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A snapshot of throughput and latency counters for a {@link SpellCheckServer}, from {@link SpellCheckServer#statistics()}. Latency is
+ * measured from receipt of a request to the end of its response, for check requests only. Percentiles are estimated from a histogram with
+ * power-of-two buckets, so are accurate to within a factor of two. {@code ServerStatistics} objects are immutable and thread-safe.
+ *
+ * @author paulh
+ * @since 1.0
+ */
+public class ServerStatistics {
+	/**
+	 * Number of latency buckets: bucket {@code i} counts latencies under 2<sup>i</sup> microseconds
+	 */
+	private static final int BUCKETS = 40;
+
+	/**
+	 * Time since server started
+	 */
+	private final Duration uptime;
+
+	/**
+	 * Number of check requests
+	 */
+	private final long requests;
+
+	/**
+	 * Number of texts checked
+	 */
+	private final long texts;
+
+	/**
+	 * Number of incorrect words reported
+	 */
+	private final long misspellings;
+
+	/**
+	 * Number of requests rejected
+	 */
+	private final long errors;
+
+	/**
+	 * Total latency, in nanoseconds
+	 */
+	private final long totalNanos;
+
+	/**
+	 * Maximum latency, in nanoseconds
+	 */
+	private final long maxNanos;
+
+	/**
+	 * Latency histogram
+	 */
+	private final long[] histogram;
+
+	/**
+	 * Constructor
+	 *
+	 * @param counters {@link Counters} to copy
+	 */
+	private ServerStatistics(Counters counters) {
+		this.uptime = Duration.ofNanos(System.nanoTime() - counters.startNanos);
+		this.requests = counters.requests.sum();
+		this.texts = counters.texts.sum();
+		this.misspellings = counters.misspellings.sum();
+		this.errors = counters.errors.sum();
+		this.totalNanos = counters.totalNanos.sum();
+		this.maxNanos = counters.maxNanos.get();
+		this.histogram = new long[BUCKETS];
+		for (int i = 0; i < BUCKETS; i++) {
+			histogram[i] = counters.histogram.get(i);
+		}
+		return;
+	}
+
+	/**
+	 * Returns time since the server started.
+	 *
+	 * @return uptime
+	 */
+	public Duration uptime() {
+		return uptime;
+	}
+
+	/**
+	 * Returns number of check requests completed (single or batch).
+	 *
+	 * @return number of check requests
+	 */
+	public long requests() {
+		return requests;
+	}
+
+	/**
+	 * Returns number of texts checked.
+	 *
+	 * @return number of texts
+	 */
+	public long texts() {
+		return texts;
+	}
+
+	/**
+	 * Returns number of incorrect words reported.
+	 *
+	 * @return number of incorrect words
+	 */
+	public long misspellings() {
+		return misspellings;
+	}
+
+	/**
+	 * Returns number of requests rejected as invalid.
+	 *
+	 * @return number of errors
+	 */
+	public long errors() {
+		return errors;
+	}
+
+	/**
+	 * Returns mean number of texts checked per second since the server started.
+	 *
+	 * @return texts per second
+	 */
+	public double textsPerSecond() {
+		long nanos = uptime.toNanos();
+		return nanos == 0 ? 0 : texts * 1e9 / nanos;
+	}
+
+	/**
+	 * Returns mean latency of check requests.
+	 *
+	 * @return mean latency
+	 */
+	public Duration meanLatency() {
+		return requests == 0 ? Duration.ZERO : Duration.ofNanos(totalNanos / requests);
+	}
+
+	/**
+	 * Returns maximum latency of check requests.
+	 *
+	 * @return maximum latency
+	 */
+	public Duration maxLatency() {
+		return Duration.ofNanos(maxNanos);
+	}
+
+	/**
+	 * Returns an upper bound on the latency of the given fraction of check requests, such as 0.99 for the 99th percentile.
+	 *
+	 * @param fraction a fraction in {@code (0, 1]}
+	 * @return latency percentile
+	 * @throws IllegalArgumentException if {@code fraction} is out of range
+	 */
+	public Duration latencyPercentile(double fraction) {
+		if (!(fraction > 0 && fraction <= 1)) {
+			throw new IllegalArgumentException("fraction must be in (0, 1].");
+		}
+		long target = (long) Math.ceil(requests * fraction);
+		long seen = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			seen += histogram[i];
+			if (seen >= target) {
+				return Duration.ofNanos(Math.min(TimeUnit.MICROSECONDS.toNanos(1L << i), maxNanos));
+			}
+		}
+		return maxLatency();
+	}
+
+	@Override
+	public String toString() {
+		return "ServerStatistics [uptime=" + uptime + ", requests=" + requests + ", texts=" + texts + ", misspellings=" + misspellings
+				+ ", errors=" + errors + ", meanLatency=" + meanLatency() + ", maxLatency=" + maxLatency() + "]";
+	}
+
+	/**
+	 * Live counters updated by a {@link SpellCheckServer}.
+	 */
+	static final class Counters {
+		/**
+		 * Time counting started, from {@link System#nanoTime()}
+		 */
+		private final long startNanos = System.nanoTime();
+
+		/**
+		 * Number of check requests
+		 */
+		private final LongAdder requests = new LongAdder();
+
+		/**
+		 * Number of texts checked
+		 */
+		private final LongAdder texts = new LongAdder();
+
+		/**
+		 * Number of incorrect words reported
+		 */
+		private final LongAdder misspellings = new LongAdder();
+
+		/**
+		 * Number of requests rejected
+		 */
+		private final LongAdder errors = new LongAdder();
+
+		/**
+		 * Total latency, in nanoseconds
+		 */
+		private final LongAdder totalNanos = new LongAdder();
+
+		/**
+		 * Maximum latency, in nanoseconds
+		 */
+		private final AtomicLong maxNanos = new AtomicLong();
+
+		/**
+		 * Latency histogram
+		 */
+		private final AtomicLongArray histogram = new AtomicLongArray(BUCKETS);
+
+		/**
+		 * Records a completed check request.
+		 *
+		 * @param startNanos   time request was received, from {@link System#nanoTime()}
+		 * @param texts        number of texts checked
+		 * @param misspellings number of incorrect words reported
+		 */
+		void recordRequest(long startNanos, int texts, long misspellings) {
+			long nanos = System.nanoTime() - startNanos;
+			requests.increment();
+			this.texts.add(texts);
+			this.misspellings.add(misspellings);
+			totalNanos.add(nanos);
+			maxNanos.accumulateAndGet(nanos, Math::max);
+			long micros = TimeUnit.NANOSECONDS.toMicros(nanos);
+			histogram.incrementAndGet(Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros)));
+			return;
+		}
+
+		/**
+		 * Records a rejected request.
+		 */
+		void recordError() {
+			errors.increment();
+			return;
+		}
+
+		/**
+		 * Returns a snapshot of these counters.
+		 *
+		 * @return new {@link ServerStatistics}
+		 */
+		ServerStatistics snapshot() {
+			return new ServerStatistics(this);
+		}
+	}
+}
@@ -0,0 +1,654 @@
+package net.logicsquad.ibis.server;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import net.logicsquad.ibis.Checker;
+import net.logicsquad.ibis.Dictionary;
+import net.logicsquad.ibis.ParagraphCache;
+import net.logicsquad.ibis.Tokenizer;
+import net.logicsquad.ibis.Word;
+
+/**
+ * <p>
+ * An embedded HTTP service for checking spelling, built on the JDK's {@link HttpServer}. Every request is handled on its own virtual
+ * thread, and all requests share a single {@link Dictionary} (or a {@link Supplier} of them, such as a
+ * {@link net.logicsquad.ibis.DictionaryReloader}). The service offers three endpoints:
+ * </p>
+ *
+ * <dl>
+ * <dt>{@code POST /check}</dt>
+ * <dd>Checks a single text, given as <code>{"text": "..."}</code>. The response is a stream of JSON lines
+ * ({@code application/x-ndjson}), one per incorrect word as it is found:
+ * <code>{"start": 16, "text": "forr", "suggestions": ["fair", ...]}</code>.</dd>
+ * <dt>{@code POST /check/batch}</dt>
+ * <dd>Checks several texts concurrently, given as <code>{"texts": ["...", ...]}</code>. The response is a stream of JSON lines, one per
+ * text as soon as it has been checked (so not necessarily in order): <code>{"index": 0, "misspellings": [...]}</code>. A text that
+ * could not be checked gets a line of <code>{"index": 0, "error": "..."}</code> instead, so every text in the batch is accounted for.</dd>
+ * <dt>{@code GET /stats}</dt>
+ * <dd>Returns throughput and latency counters as a JSON object (see {@link ServerStatistics}). A check whose client goes away before its
+ * response has been written is not counted.</dd>
+ * </dl>
+ *
+ * <p>
+ * Malformed requests are answered with status 400 (or 413 if too large) and a body of <code>{"error": "..."}</code>.
+ * </p>
+ *
+ * <p>
+ * If built with a {@link Builder#paragraphCacheSize(int) paragraph cache}, the server remembers the incorrect words in recently checked
+ * paragraphs, so that a client re-sending a text after a small edit pays only for the paragraphs that changed. Results are the same
+ * either way, though with a cache, {@code POST /check} responds only once the whole text has been checked.
+ * </p>
+ *
+ * <pre>
+ * SpellCheckServer server = SpellCheckServer.builder(Dictionary.builder().addWords().build()).port(8080).start();
+ * </pre>
+ *
+ * @author paulh
+ * @since 1.0
+ */
+public class SpellCheckServer implements Closeable {
+	/**
+	 * Logger
+	 */
+	private static final Logger LOG = LoggerFactory.getLogger(SpellCheckServer.class);
+
+	/**
+	 * Default port for {@link #main(String[])}
+	 */
+	private static final int DEFAULT_PORT = 8080;
+
+	/**
+	 * Content type for JSON
+	 */
+	private static final String JSON = "application/json";
+
+	/**
+	 * Content type for JSON lines
+	 */
+	private static final String JSON_LINES = "application/x-ndjson";
+
+	/**
+	 * Underlying {@link HttpServer}
+	 */
+	private final HttpServer server;
+
+	/**
+	 * Virtual-thread {@link ExecutorService} for requests and batched texts
+	 */
+	private final ExecutorService executor;
+
+	/**
+	 * {@link Checker} shared by all requests
+	 */
+	private final Checker checker;
+
+	/**
+	 * Maximum request body size, in bytes
+	 */
+	private final int maxRequestBytes;
+
+	/**
+	 * Maximum number of texts in a batch
+	 */
+	private final int maxBatchSize;
+
+	/**
+	 * {@link ParagraphCache} shared by all requests ({@code null} if none)
+	 */
+	private final ParagraphCache cache;
+
+	/**
+	 * Live counters
+	 */
+	private final ServerStatistics.Counters counters = new ServerStatistics.Counters();
+
+	/**
+	 * Constructor
+	 *
+	 * @param builder a {@link Builder}
+	 * @throws IOException if the server cannot be bound to its address
+	 */
+	private SpellCheckServer(Builder builder) throws IOException {
+		this.checker = new Checker(builder.dictionarySupplier);
+		this.maxRequestBytes = builder.maxRequestBytes;
+		this.maxBatchSize = builder.maxBatchSize;
+		this.cache = builder.paragraphCacheSize == 0 ? null : new ParagraphCache(builder.paragraphCacheSize);
+		this.executor = Executors.newVirtualThreadPerTaskExecutor();
+		this.server = HttpServer.create(builder.address, builder.backlog);
+		server.setExecutor(executor);
+		server.createContext("/check", this::handleCheck);
+		server.createContext("/check/batch", this::handleBatch);
+		server.createContext("/stats", this::handleStats);
+		server.start();
+		LOG.info("Listening on {}.", address());
+		return;
+	}
+
+	/**
+	 * Returns a new {@code Builder} for a server sharing {@code dictionary}.
+	 *
+	 * @param dictionary a {@link Dictionary}
+	 * @return new {@code Builder}
+	 * @throws NullPointerException if {@code dictionary} is {@code null}
+	 */
+	public static Builder builder(Dictionary dictionary) {
+		Objects.requireNonNull(dictionary);
+		return new Builder(() -> dictionary);
+	}
+
+	/**
+	 * Returns a new {@code Builder} for a server using the {@link Dictionary} current in {@code dictionarySupplier} for each text.
+	 *
+	 * @param dictionarySupplier a {@link Supplier} of {@link Dictionary} objects
+	 * @return new {@code Builder}
+	 * @throws NullPointerException if {@code dictionarySupplier} is {@code null}
+	 */
+	public static Builder builder(Supplier<Dictionary> dictionarySupplier) {
+		Objects.requireNonNull(dictionarySupplier);
+		return new Builder(dictionarySupplier);
+	}
+
+	/**
+	 * Returns the address the server is listening on (useful when it was started on an ephemeral port).
+	 *
+	 * @return address
+	 */
+	public InetSocketAddress address() {
+		return server.getAddress();
+	}
+
+	/**
+	 * Returns a snapshot of throughput and latency counters.
+	 *
+	 * @return statistics
+	 */
+	public ServerStatistics statistics() {
+		return counters.snapshot();
+	}
+
+	/**
+	 * Stops the server, closing open connections immediately.
+	 */
+	@Override
+	public void close() {
+		server.stop(0);
+		executor.shutdownNow();
+		LOG.info("Stopped listening.");
+		return;
+	}
+
+	/**
+	 * Handles {@code POST /check}.
+	 *
+	 * @param exchange an {@link HttpExchange}
+	 * @throws IOException if the exchange fails
+	 */
+	private void handleCheck(HttpExchange exchange) throws IOException {
+		long start = System.nanoTime();
+		try (exchange) {
+			if (!accept(exchange, "/check", "POST")) {
+				return;
+			}
+			Map<?, ?> request = readRequest(exchange);
+			if (request == null) {
+				return;
+			}
+			if (!(request.get("text") instanceof String text)) {
+				sendError(exchange, 400, "Request must have a string member 'text'.");
+				return;
+			}
+			exchange.getResponseHeaders().set("Content-Type", JSON_LINES);
+			exchange.sendResponseHeaders(200, 0);
+			OutputStream os = exchange.getResponseBody();
+			long[] count = new long[1];
+			boolean[] open = { true };
+			if (cache == null) {
+				checker.checkSpelling(new Tokenizer(text), w -> {
+					count[0]++;
+					open[0] = writeLine(os, toMap(w));
+					return open[0];
+				});
+			} else {
+				for (Word w : checker.checkSpelling(text, cache)) {
+					count[0]++;
+					open[0] = writeLine(os, toMap(w));
+					if (!open[0]) {
+						break;
+					}
+				}
+			}
+			if (open[0]) {
+				counters.recordRequest(start, 1, count[0]);
+			}
+		}
+		return;
+	}
+
+	/**
+	 * Handles {@code POST /check/batch}.
+	 *
+	 * @param exchange an {@link HttpExchange}
+	 * @throws IOException if the exchange fails
+	 */
+	private void handleBatch(HttpExchange exchange) throws IOException {
+		long start = System.nanoTime();
+		try (exchange) {
+			if (!accept(exchange, "/check/batch", "POST")) {
+				return;
+			}
+			Map<?, ?> request = readRequest(exchange);
+			if (request == null) {
+				return;
+			}
+			if (!(request.get("texts") instanceof List<?> texts) || !texts.stream().allMatch(String.class::isInstance)) {
+				sendError(exchange, 400, "Request must have an array member 'texts' containing only strings.");
+				return;
+			}
+			if (texts.size() > maxBatchSize) {
+				sendError(exchange, 413, "Batch cannot contain more than " + maxBatchSize + " texts.");
+				return;
+			}
+			exchange.getResponseHeaders().set("Content-Type", JSON_LINES);
+			exchange.sendResponseHeaders(200, 0);
+			OutputStream os = exchange.getResponseBody();
+			ExecutorCompletionService<Map<String, Object>> completionService = new ExecutorCompletionService<>(executor);
+			List<Future<Map<String, Object>>> futures = new ArrayList<>();
+			for (int i = 0; i < texts.size(); i++) {
+				int index = i;
+				String text = (String) texts.get(i);
+				futures.add(completionService.submit(() -> checkIndexedOrFail(index, text)));
+			}
+			long count = 0;
+			boolean open = true;
+			try {
+				for (int i = 0; i < texts.size() && open; i++) {
+					Map<String, Object> result = completionService.take().get();
+					if (result.get("misspellings") instanceof List<?> misspellings) {
+						count += misspellings.size();
+					}
+					open = writeLine(os, result);
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				open = false;
+			} catch (ExecutionException e) {
+				// Only an Error gets here, and the text's index is unknown, so end the stream with a line that can't be taken for a result
+				LOG.error("Unable to check text.", e.getCause());
+				writeLine(os, Map.of("error", "Unable to check text."));
+				open = false;
+			} finally {
+				futures.forEach(f -> f.cancel(true));
+			}
+			if (open) {
+				counters.recordRequest(start, texts.size(), count);
+			}
+		}
+		return;
+	}
+
+	/**
+	 * Checks {@code text} as {@link #checkIndexed(int, String)} does, or if that fails, returns a JSON-ready {@link Map} holding its index and
+	 * an error message.
+	 *
+	 * @param index index of {@code text} in batch
+	 * @param text  a text
+	 * @return result or error for {@code text}
+	 */
+	private Map<String, Object> checkIndexedOrFail(int index, String text) {
+		try {
+			return checkIndexed(index, text);
+		} catch (RuntimeException e) {
+			LOG.error("Unable to check text {} in batch.", index, e);
+			Map<String, Object> result = new LinkedHashMap<>();
+			result.put("index", index);
+			result.put("error", "Unable to check text.");
+			return result;
+		}
+	}
+
+	/**
+	 * Checks {@code text}, returning a JSON-ready {@link Map} holding its index and incorrect {@link Word}s.
+	 *
+	 * @param index index of {@code text} in batch
+	 * @param text  a text
+	 * @return result for {@code text}
+	 */
+	private Map<String, Object> checkIndexed(int index, String text) {
+		List<Map<String, Object>> misspellings = new ArrayList<>();
+		for (Word w : cache == null ? checker.checkSpelling(new Tokenizer(text)) : checker.checkSpelling(text, cache)) {
+			misspellings.add(toMap(w));
+		}
+		Map<String, Object> result = new LinkedHashMap<>();
+		result.put("index", index);
+		result.put("misspellings", misspellings);
+		return result;
+	}
+
+	/**
+	 * Handles {@code GET /stats}.
+	 *
+	 * @param exchange an {@link HttpExchange}
+	 * @throws IOException if the exchange fails
+	 */
+	private void handleStats(HttpExchange exchange) throws IOException {
+		try (exchange) {
+			if (!accept(exchange, "/stats", "GET")) {
+				return;
+			}
+			ServerStatistics statistics = statistics();
+			Map<String, Object> result = new LinkedHashMap<>();
+			result.put("uptimeMillis", statistics.uptime().toMillis());
+			result.put("requests", statistics.requests());
+			result.put("texts", statistics.texts());
+			result.put("misspellings", statistics.misspellings());
+			result.put("errors", statistics.errors());
+			result.put("textsPerSecond", statistics.textsPerSecond());
+			result.put("meanLatencyMicros", statistics.meanLatency().toNanos() / 1000);
+			result.put("p50LatencyMicros", statistics.latencyPercentile(0.5).toNanos() / 1000);
+			result.put("p99LatencyMicros", statistics.latencyPercentile(0.99).toNanos() / 1000);
+			result.put("maxLatencyMicros", statistics.maxLatency().toNanos() / 1000);
+			send(exchange, 200, JSON, Json.toString(result));
+		}
+		return;
+	}
+
+	/**
+	 * Checks that {@code exchange} is for exactly {@code path} using {@code method}, sending an error response if not.
+	 *
+	 * @param exchange an {@link HttpExchange}
+	 * @param path     expected path
+	 * @param method   expected method
+	 * @return {@code true} if the request can be handled, otherwise {@code false}
+	 * @throws IOException if the exchange fails
+	 */
+	private boolean accept(HttpExchange exchange, String path, String method) throws IOException {
+		if (!path.equals(exchange.getRequestURI().getPath())) {
+			sendError(exchange, 404, "Not found.");
+			return false;
+		} else if (!method.equals(exchange.getRequestMethod())) {
+			exchange.getResponseHeaders().set("Allow", method);
+			sendError(exchange, 405, "Method must be " + method + ".");
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Reads the body of {@code exchange} as a JSON object, sending an error response if it is too large or invalid.
+	 *
+	 * @param exchange an {@link HttpExchange}
+	 * @return JSON object, or {@code null} if an error response was sent
+	 * @throws IOException if the exchange fails
+	 */
+	private Map<?, ?> readRequest(HttpExchange exchange) throws IOException {
+		byte[] body;
+		try (InputStream is = exchange.getRequestBody()) {
+			body = is.readNBytes(maxRequestBytes + 1);
+		}
+		if (body.length > maxRequestBytes) {
+			sendError(exchange, 413, "Request cannot be larger than " + maxRequestBytes + " bytes.");
+			return null;
+		}
+		try {
+			if (Json.parse(new String(body, StandardCharsets.UTF_8)) instanceof Map<?, ?> map) {
+				return map;
+			}
+			sendError(exchange, 400, "Request must be a JSON object.");
+		} catch (IllegalArgumentException e) {
+			sendError(exchange, 400, "Invalid JSON: " + e.getMessage());
+		}
+		return null;
+	}
+
+	/**
+	 * Sends an error response, and counts it.
+	 *
+	 * @param exchange an {@link HttpExchange}
+	 * @param status   HTTP status code
+	 * @param message  error message
+	 * @throws IOException if the exchange fails
+	 */
+	private void sendError(HttpExchange exchange, int status, String message) throws IOException {
+		counters.recordError();
+		send(exchange, status, JSON, Json.toString(Map.of("error", message)));
+		return;
+	}
+
+	/**
+	 * Sends a complete response.
+	 *
+	 * @param exchange    an {@link HttpExchange}
+	 * @param status      HTTP status code
+	 * @param contentType content type
+	 * @param body        response body
+	 * @throws IOException if the exchange fails
+	 */
+	private static void send(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+		byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().set("Content-Type", contentType);
+		exchange.sendResponseHeaders(status, bytes.length);
+		try (OutputStream os = exchange.getResponseBody()) {
+			os.write(bytes);
+		}
+		return;
+	}
+
+	/**
+	 * Writes {@code value} as a line of JSON to {@code os}, and flushes it so the client receives it immediately.
+	 *
+	 * @param os    response body
+	 * @param value a value
+	 * @return {@code true} if the line was written, or {@code false} if the client has gone away
+	 */
+	private static boolean writeLine(OutputStream os, Object value) {
+		StringBuilder sb = new StringBuilder();
+		Json.write(value, sb);
+		sb.append('\n');
+		try {
+			os.write(sb.toString().getBytes(StandardCharsets.UTF_8));
+			os.flush();
+			return true;
+		} catch (IOException e) {
+			LOG.debug("Client went away.", e);
+			return false;
+		}
+	}
+
+	/**
+	 * Returns a JSON-ready {@link Map} representing {@code word}.
+	 *
+	 * @param word a {@link Word}
+	 * @return {@link Map} representing {@code word}
+	 */
+	private static Map<String, Object> toMap(Word word) {
+		Map<String, Object> result = new LinkedHashMap<>();
+		result.put("start", word.start());
+		result.put("text", word.text());
+		result.put("suggestions", word.suggestions() == null ? List.of() : word.suggestions());
+		return result;
+	}
+
+	/**
+	 * Starts a server on the port given as the only argument (or 8080), using the built-in word lists.
+	 *
+	 * @param args command-line arguments
+	 * @throws IOException if the server cannot be started
+	 */
+	public static void main(String[] args) throws IOException {
+		int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+		builder(Dictionary.builder().addWords().build()).address(new InetSocketAddress(port)).start();
+		return;
+	}
+
+	/**
+	 * Builder for {@code SpellCheckServer} objects.
+	 */
+	public static class Builder {
+		/**
+		 * Default maximum request body size, in bytes
+		 */
+		private static final int DEFAULT_MAX_REQUEST_BYTES = 1 << 20;
+
+		/**
+		 * Default maximum number of texts in a batch
+		 */
+		private static final int DEFAULT_MAX_BATCH_SIZE = 1000;
+
+		/**
+		 * Supplier of {@link Dictionary} objects
+		 */
+		private final Supplier<Dictionary> dictionarySupplier;
+
+		/**
+		 * Address to listen on
+		 */
+		private InetSocketAddress address = new InetSocketAddress(InetAddress.getLoopbackAddress(), 0);
+
+		/**
+		 * Socket backlog (0 for system default)
+		 */
+		private int backlog;
+
+		/**
+		 * Maximum request body size, in bytes
+		 */
+		private int maxRequestBytes = DEFAULT_MAX_REQUEST_BYTES;
+
+		/**
+		 * Maximum number of texts in a batch
+		 */
+		private int maxBatchSize = DEFAULT_MAX_BATCH_SIZE;
+
+		/**
+		 * Maximum number of paragraphs to cache (0 for no cache)
+		 */
+		private int paragraphCacheSize;
+
+		/**
+		 * Constructor
+		 *
+		 * @param dictionarySupplier supplier of {@link Dictionary} objects
+		 */
+		private Builder(Supplier<Dictionary> dictionarySupplier) {
+			this.dictionarySupplier = dictionarySupplier;
+			return;
+		}
+
+		/**
+		 * Sets address to listen on. The default is an ephemeral port on the loopback address.
+		 *
+		 * @param address an address
+		 * @return this object
+		 * @throws NullPointerException if {@code address} is {@code null}
+		 */
+		public Builder address(InetSocketAddress address) {
+			Objects.requireNonNull(address);
+			this.address = address;
+			return this;
+		}
+
+		/**
+		 * Sets port to listen on, on the loopback address.
+		 *
+		 * @param port a port (or 0 for an ephemeral port)
+		 * @return this object
+		 * @throws IllegalArgumentException if {@code port} is out of range
+		 */
+		public Builder port(int port) {
+			return address(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+		}
+
+		/**
+		 * Sets socket backlog. The default is the system default.
+		 *
+		 * @param backlog maximum number of queued connections (or 0 for system default)
+		 * @return this object
+		 * @throws IllegalArgumentException if {@code backlog} is negative
+		 */
+		public Builder backlog(int backlog) {
+			if (backlog < 0) {
+				throw new IllegalArgumentException("backlog cannot be negative.");
+			}
+			this.backlog = backlog;
+			return this;
+		}
+
+		/**
+		 * Sets maximum request body size. The default is 1 MiB.
+		 *
+		 * @param maxRequestBytes maximum size in bytes
+		 * @return this object
+		 * @throws IllegalArgumentException if {@code maxRequestBytes} is not positive, or is {@link Integer#MAX_VALUE}
+		 */
+		public Builder maxRequestBytes(int maxRequestBytes) {
+			if (maxRequestBytes < 1 || maxRequestBytes == Integer.MAX_VALUE) {
+				throw new IllegalArgumentException("maxRequestBytes must be positive and less than Integer.MAX_VALUE.");
+			}
+			this.maxRequestBytes = maxRequestBytes;
+			return this;
+		}
+
+		/**
+		 * Sets maximum number of texts in a batch. The default is 1000.
+		 *
+		 * @param maxBatchSize maximum number of texts
+		 * @return this object
+		 * @throws IllegalArgumentException if {@code maxBatchSize} is not positive
+		 */
+		public Builder maxBatchSize(int maxBatchSize) {
+			if (maxBatchSize < 1) {
+				throw new IllegalArgumentException("maxBatchSize must be positive.");
+			}
+			this.maxBatchSize = maxBatchSize;
+			return this;
+		}
+
+		/**
+		 * Sets maximum number of paragraphs to keep in a {@link ParagraphCache} shared by all requests. The default is 0 (no cache).
+		 *
+		 * @param paragraphCacheSize maximum number of paragraphs (or 0 for no cache)
+		 * @return this object
+		 * @throws IllegalArgumentException if {@code paragraphCacheSize} is negative
+		 */
+		public Builder paragraphCacheSize(int paragraphCacheSize) {
+			if (paragraphCacheSize < 0) {
+				throw new IllegalArgumentException("paragraphCacheSize cannot be negative.");
+			}
+			this.paragraphCacheSize = paragraphCacheSize;
+			return this;
+		}
+
+		/**
+		 * Creates and starts a new {@code SpellCheckServer}.
+		 *
+		 * @return new {@code SpellCheckServer}
+		 * @throws IOException if the server cannot be bound to its address
+		 */
+		public SpellCheckServer start() throws IOException {
+			return new SpellCheckServer(this);
+		}
+	}
+}
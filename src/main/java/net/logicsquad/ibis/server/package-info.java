@@ -0,0 +1,4 @@
+/**
+ * An embedded HTTP service for checking spelling with a shared {@link net.logicsquad.ibis.Dictionary}.
+ */
+package net.logicsquad.ibis.server;
@@ -0,0 +1,76 @@
+package net.logicsquad.ibis;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests on {@link BloomFilter}.
+ * 
+ * @author paulh
+ */
+public class BloomFilterTest {
+	private static final int COUNT = 20_000;
+
+	private static final int PROBES = 200_000;
+
+	@Test
+	public void filterHasNoFalseNegatives() {
+		BloomFilter filter = new BloomFilter(COUNT, 0.01);
+		for (int i = 0; i < COUNT; i++) {
+			filter.add("word" + i);
+		}
+		for (int i = 0; i < COUNT; i++) {
+			assertTrue(filter.mightContain("word" + i));
+		}
+		assertEquals(COUNT, filter.count());
+		return;
+	}
+
+	@Test
+	public void falsePositiveRateIsNearTarget() {
+		for (double rate : new double[] { 0.01, 0.001 }) {
+			BloomFilter filter = new BloomFilter(COUNT, rate);
+			for (int i = 0; i < COUNT; i++) {
+				filter.add("word" + i);
+			}
+			int positives = 0;
+			for (int i = 0; i < PROBES; i++) {
+				if (filter.mightContain("other" + i)) {
+					positives++;
+				}
+			}
+			assertTrue(positives < PROBES * rate * 2, "rate " + rate + ": " + positives);
+		}
+		return;
+	}
+
+	@Test
+	public void emptyFilterContainsNothing() {
+		BloomFilter filter = new BloomFilter(0, 0.01);
+		assertFalse(filter.mightContain("alpha"));
+		assertEquals(0, filter.count());
+		return;
+	}
+
+	@Test
+	public void lowerRateTakesMoreSpace() {
+		BloomFilter coarse = new BloomFilter(COUNT, 0.1);
+		BloomFilter fine = new BloomFilter(COUNT, 0.0001);
+		assertTrue(fine.sizeInBytes() > coarse.sizeInBytes());
+		assertTrue(fine.hashes() > coarse.hashes());
+		return;
+	}
+
+	@Test
+	public void constructorRejectsBadArguments() {
+		assertThrows(IllegalArgumentException.class, () -> new BloomFilter(-1, 0.01));
+		assertThrows(IllegalArgumentException.class, () -> new BloomFilter(COUNT, 0));
+		assertThrows(IllegalArgumentException.class, () -> new BloomFilter(COUNT, 1));
+		assertThrows(IllegalArgumentException.class, () -> new BloomFilter(COUNT, Double.NaN));
+		return;
+	}
+}
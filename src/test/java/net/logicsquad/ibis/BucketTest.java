@@ -0,0 +1,60 @@
+package net.logicsquad.ibis;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests on {@link Bucket}.
+ * 
+ * @author paulh
+ */
+public class BucketTest {
+	private static final List<String> WORDS = List.of("candor", "can", "candid", "cannot", "ca", "candidate", "cane", "candidly");
+
+	@Test
+	public void bucketKeepsInsertionOrder() {
+		assertEquals(WORDS, new Bucket(WORDS));
+		return;
+	}
+
+	@Test
+	public void containsComparesOnlyWordsOfSameLength() {
+		Bucket bucket = new Bucket(WORDS);
+		for (String s : WORDS) {
+			assertTrue(bucket.contains(s));
+		}
+		assertFalse(bucket.contains("candle"));
+		assertFalse(bucket.contains("c"));
+		assertFalse(bucket.contains("candidates"));
+		assertFalse(bucket.contains(42));
+		return;
+	}
+
+	@Test
+	public void withinReturnsLengthBandInInsertionOrder() {
+		Bucket bucket = new Bucket(WORDS);
+		assertArrayEquals(new int[] { 0, 2, 3, 6 }, bucket.within(5, 1));
+		assertArrayEquals(new int[] { 1, 4, 6 }, bucket.within(2, 2));
+		assertArrayEquals(new int[] { 5, 7 }, bucket.within(9, 1));
+		assertArrayEquals(new int[0], bucket.within(20, 3));
+		return;
+	}
+
+	@Test
+	public void singleAndEmptyBucketsAreSupported() {
+		Bucket single = new Bucket(List.of("alpha"));
+		assertTrue(single.contains("alpha"));
+		assertArrayEquals(new int[] { 0 }, single.within(6, 1));
+		assertArrayEquals(new int[0], single.within(7, 1));
+		Bucket empty = new Bucket(List.of());
+		assertFalse(empty.contains("alpha"));
+		assertArrayEquals(new int[0], empty.within(5, 3));
+		return;
+	}
+}
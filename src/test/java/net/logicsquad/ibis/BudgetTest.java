@@ -0,0 +1,37 @@
+package net.logicsquad.ibis;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests on {@link Budget}.
+ * 
+ * @author paulh
+ */
+public class BudgetTest {
+	@Test
+	public void unlimitedBudgetNeverExpires() {
+		assertFalse(Budget.unlimited().hasExpired(System.nanoTime() - Duration.ofDays(365).toNanos()));
+		assertFalse(Budget.builder().timeout(Duration.ofSeconds(Long.MAX_VALUE)).build().hasExpired(Long.MIN_VALUE));
+		return;
+	}
+
+	@Test
+	public void zeroTimeoutExpiresImmediately() {
+		assertTrue(Budget.builder().timeout(Duration.ZERO).build().hasExpired(System.nanoTime()));
+		return;
+	}
+
+	@Test
+	public void builderRejectsNegativeLimits() {
+		assertThrows(IllegalArgumentException.class, () -> Budget.builder().timeout(Duration.ofMillis(-1)));
+		assertThrows(IllegalArgumentException.class, () -> Budget.builder().maxTokens(-1));
+		assertThrows(IllegalArgumentException.class, () -> Budget.builder().maxSuggestions(-1));
+		return;
+	}
+}
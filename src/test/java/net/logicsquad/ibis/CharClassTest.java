@@ -0,0 +1,96 @@
+package net.logicsquad.ibis;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.text.Normalizer;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests on {@link CharClass}.
+ * 
+ * @author paulh
+ */
+public class CharClassTest {
+	private static final String ALPHABET = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ ,.'-";
+
+	private static final String DIGITS = "0123456789٣४";
+
+	private static final String NON_ASCII = "éÉ’İＡ\ud83d";
+
+	@Test
+	public void scalarMethodsClassifyStrings() {
+		assertEquals(-1, CharClass.indexOfNonAscii("plain text"));
+		assertEquals(3, CharClass.indexOfNonAscii("café é"));
+		assertTrue(CharClass.containsDigit("abc1"));
+		assertTrue(CharClass.containsDigit("abc٣"));
+		assertFalse(CharClass.containsDigit("abcdef"));
+		return;
+	}
+
+	@Test
+	public void toLowerCaseMatchesString() {
+		String lower = "already lower";
+		assertSame(lower, CharClass.toLowerCase(lower));
+		assertEquals("mixed case", CharClass.toLowerCase("MiXeD CaSe"));
+		assertEquals("été", CharClass.toLowerCase("ÉTÉ"));
+		String longText = "The Quick Brown Fox ".repeat(10);
+		assertEquals(longText.toLowerCase(), CharClass.toLowerCase(longText));
+		return;
+	}
+
+	@Test
+	public void methodsMatchJdkOnRandomText() {
+		Random random = new Random(39);
+		for (int n = 0; n < 2000; n++) {
+			String text = new String(randomChars(random, random.nextInt(200)));
+			int nonAscii = -1;
+			for (int i = 0; i < text.length() && nonAscii == -1; i++) {
+				nonAscii = text.charAt(i) >= 0x80 ? i : -1;
+			}
+			assertEquals(nonAscii, CharClass.indexOfNonAscii(text));
+			assertEquals(text.chars().anyMatch(c -> Character.isDigit((char) c)), CharClass.containsDigit(text));
+			assertEquals(text.toLowerCase(), CharClass.toLowerCase(text));
+		}
+		return;
+	}
+
+	/**
+	 * Returns {@code length} random characters, mostly ASCII letters, with occasional digits and (in about half of all arrays) non-ASCII
+	 * characters.
+	 */
+	private static char[] randomChars(Random random, int length) {
+		boolean ascii = random.nextBoolean();
+		char[] chars = new char[length];
+		for (int i = 0; i < length; i++) {
+			int r = random.nextInt(100);
+			if (r == 0) {
+				chars[i] = DIGITS.charAt(random.nextInt(DIGITS.length()));
+			} else if (r == 1 && !ascii) {
+				chars[i] = NON_ASCII.charAt(random.nextInt(NON_ASCII.length()));
+			} else {
+				chars[i] = ALPHABET.charAt(random.nextInt(ALPHABET.length()));
+			}
+		}
+		return chars;
+	}
+
+	@Test
+	public void charactersBelowLimitAreNormalized() {
+		for (Normalizer.Form form : Normalizer.Form.values()) {
+			for (char c = 0; c < CharClass.normalizedBelow(form); c++) {
+				assertTrue(Normalizer.isNormalized(String.valueOf(c), form), form + " " + (int) c);
+			}
+			assertFalse(Normalizer.isNormalized("a" + CharClass.normalizedBelow(form), form));
+		}
+		String composed = "crème";
+		assertSame(composed, CharClass.normalize(composed, Normalizer.Form.NFC));
+		assertEquals(composed, CharClass.normalize("cre\u0300me", Normalizer.Form.NFC));
+		assertEquals("fine", CharClass.normalize("ﬁne", Normalizer.Form.NFKC));
+		return;
+	}
+}
@@ -2,7 +2,15 @@ package net.logicsquad.ibis;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
@@ -24,6 +32,10 @@ public class CheckerTest extends AbstractTest {
 	// The expectation here is that this is split into 'A' and 'D' and then both should be dropped as single-char words
 	private static final String CHAR_RANGE = "A-D";
 
+	private static final String MANY_INCORRECT = "alpha zeta beta eta gamma theta delta iota";
+
+	private static final List<String> MANY_INCORRECT_WORDS = List.of("zeta", "eta", "theta", "iota");
+
 	private static Dictionary dictionary;
 
 	@BeforeAll
@@ -74,4 +86,253 @@ public class CheckerTest extends AbstractTest {
 		assertEquals(5, checker.checkSpelling(new Tokenizer(text)).size());
 		return;
 	}
+
+	@Test
+	public void listenerReceivesIncorrectWordsInOrder() {
+		Checker checker = new Checker(dictionary);
+		List<Word> result = new ArrayList<>();
+		assertTrue(checker.checkSpelling(new Tokenizer(MANY_INCORRECT), result::add));
+		assertEquals(MANY_INCORRECT_WORDS, result.stream().map(Word::text).toList());
+		return;
+	}
+
+	@Test
+	public void listenerCanStopCheckingEarly() {
+		Checker checker = new Checker(dictionary);
+		Tokenizer tokenizer = new Tokenizer(MANY_INCORRECT);
+		List<Word> result = new ArrayList<>();
+		assertFalse(checker.checkSpelling(tokenizer, w -> result.add(w) && result.size() < 2));
+		assertEquals(2, result.size());
+		assertTrue(tokenizer.hasNext());
+		return;
+	}
+
+	@Test
+	public void misspellingsIsLazy() {
+		Checker checker = new Checker(dictionary);
+		Tokenizer tokenizer = new Tokenizer(MANY_INCORRECT);
+		assertEquals("zeta", checker.misspellings(tokenizer).findFirst().get().text());
+		assertTrue(tokenizer.hasNext());
+		assertEquals(checker.checkSpelling(new Tokenizer(MANY_INCORRECT)), checker.misspellings(new Tokenizer(MANY_INCORRECT)).toList());
+		return;
+	}
+
+	@Test
+	public void publisherHonoursDemand() throws InterruptedException, ExecutionException, TimeoutException {
+		Checker checker = new Checker(dictionary);
+		CollectingSubscriber subscriber = new CollectingSubscriber(1);
+		checker.publisher(new Tokenizer(MANY_INCORRECT)).subscribe(subscriber);
+		assertEquals(MANY_INCORRECT_WORDS, subscriber.result.get(10, TimeUnit.SECONDS).stream().map(Word::text).toList());
+		return;
+	}
+
+	@Test
+	public void publisherDrawsNoMoreThanDemanded() {
+		List<String> calls = new ArrayList<>();
+		Iterator<Word> iterator = new Iterator<>() {
+			private int next;
+
+			@Override
+			public boolean hasNext() {
+				calls.add("hasNext");
+				return next < 3;
+			}
+
+			@Override
+			public Word next() {
+				calls.add("next");
+				return Word.of("word" + next, next++);
+			}
+		};
+		List<Word> words = new ArrayList<>();
+		Flow.Subscriber<Word> subscriber = new Flow.Subscriber<>() {
+			@Override
+			public void onSubscribe(Flow.Subscription subscription) {
+				subscription.request(2);
+				return;
+			}
+
+			@Override
+			public void onNext(Word item) {
+				words.add(item);
+				return;
+			}
+
+			@Override
+			public void onError(Throwable throwable) {
+				return;
+			}
+
+			@Override
+			public void onComplete() {
+				return;
+			}
+		};
+		new MisspellingPublisher(iterator, Runnable::run).subscribe(subscriber);
+		assertEquals(2, words.size());
+		assertEquals(List.of("hasNext", "next", "hasNext", "next"), calls);
+		return;
+	}
+
+	@Test
+	public void publisherSignalsErrorForNonPositiveDemand() throws InterruptedException, TimeoutException {
+		Checker checker = new Checker(dictionary);
+		CollectingSubscriber subscriber = new CollectingSubscriber(0);
+		checker.publisher(new Tokenizer(MANY_INCORRECT)).subscribe(subscriber);
+		ExecutionException e = assertThrows(ExecutionException.class, () -> subscriber.result.get(10, TimeUnit.SECONDS));
+		assertInstanceOf(IllegalArgumentException.class, e.getCause());
+		return;
+	}
+
+	@Test
+	public void publisherRejectsSecondSubscriber() {
+		Checker checker = new Checker(dictionary);
+		Flow.Publisher<Word> publisher = checker.publisher(new Tokenizer(MANY_INCORRECT));
+		publisher.subscribe(new CollectingSubscriber(1));
+		CollectingSubscriber second = new CollectingSubscriber(1);
+		publisher.subscribe(second);
+		assertTrue(second.result.isCompletedExceptionally());
+		return;
+	}
+
+	@Test
+	public void unlimitedBudgetReturnsCompleteResult() {
+		Checker checker = new Checker(dictionary);
+		CheckResult result = checker.checkSpelling(new Tokenizer(MANY_INCORRECT), Budget.unlimited());
+		assertFalse(result.isPartial());
+		assertEquals(checker.checkSpelling(new Tokenizer(MANY_INCORRECT)), result.words());
+		assertTrue(result.words().stream().allMatch(w -> w.suggestions() != null));
+		return;
+	}
+
+	@Test
+	public void tokenLimitStopsChecking() {
+		Checker checker = new Checker(dictionary);
+		CheckResult result = checker.checkSpelling(new Tokenizer(MANY_INCORRECT), Budget.builder().maxTokens(4).build());
+		assertTrue(result.isPartial());
+		assertEquals(List.of("zeta", "eta"), result.words().stream().map(Word::text).toList());
+		return;
+	}
+
+	@Test
+	public void suggestionLimitDropsSuggestions() {
+		Checker checker = new Checker(dictionary);
+		CheckResult result = checker.checkSpelling(new Tokenizer(MANY_INCORRECT), Budget.builder().maxSuggestions(1).build());
+		assertTrue(result.isPartial());
+		assertEquals(MANY_INCORRECT_WORDS, result.words().stream().map(Word::text).toList());
+		assertNotNull(result.words().get(0).suggestions());
+		assertNull(result.words().get(1).suggestions());
+		return;
+	}
+
+	@Test
+	public void expiredTimeoutDropsSuggestions() {
+		Checker checker = new Checker(dictionary);
+		CheckResult result = checker.checkSpelling(new Tokenizer(MANY_INCORRECT), Budget.builder().timeout(Duration.ZERO).build());
+		assertTrue(result.isPartial());
+		assertEquals(MANY_INCORRECT_WORDS, result.words().stream().map(Word::text).toList());
+		assertTrue(result.words().stream().allMatch(w -> w.suggestions() == null));
+		return;
+	}
+
+	@Test
+	public void checkSpellingInParallelMatchesSequentialResult() {
+		Dictionary builtIn = Dictionary.builder().addWords().build();
+		Checker checker = new Checker(builtIn);
+		String paragraphs = (stringFromResource(INCORRECT_TXT) + "\n\n").repeat(500);
+		String sentences = stringFromResource(INCORRECT_TXT).replace('\n', ' ').repeat(500);
+		for (String text : List.of(paragraphs, sentences)) {
+			List<Word> expected = checker.checkSpelling(new Tokenizer(text));
+			List<Word> actual = checker.checkSpellingInParallel(text);
+			assertEquals(2500, actual.size());
+			assertEquals(expected, actual);
+			for (int i = 0; i < expected.size(); i++) {
+				assertEquals(expected.get(i).suggestions(), actual.get(i).suggestions());
+			}
+		}
+		return;
+	}
+
+	@Test
+	public void cachedCheckMatchesSequentialResult() {
+		Checker checker = new Checker(dictionary);
+		ParagraphCache cache = new ParagraphCache(100);
+		String text = INCORRECT + "\n\n" + MANY_INCORRECT + "\n \n" + CORRECT + "\n\n" + INCORRECT;
+		List<Word> expected = checker.checkSpelling(new Tokenizer(text));
+		assertEquals(expected, checker.checkSpelling(text, cache));
+		assertEquals(0, cache.hits());
+		assertEquals(4, cache.misses());
+		assertEquals(4, cache.size());
+		List<Word> actual = checker.checkSpelling(text, cache);
+		assertEquals(expected, actual);
+		for (int i = 0; i < expected.size(); i++) {
+			assertEquals(expected.get(i).suggestions(), actual.get(i).suggestions());
+		}
+		assertEquals(4, cache.hits());
+		return;
+	}
+
+	@Test
+	public void cachedCheckRechecksOnlyChangedParagraphs() {
+		Checker checker = new Checker(dictionary);
+		ParagraphCache cache = new ParagraphCache(100);
+		checker.checkSpelling(INCORRECT + "\n\n" + MANY_INCORRECT + "\n\n" + CORRECT, cache);
+		String edited = INCORRECT + "\n\n" + MANY_INCORRECT + " kappa\n\n" + CORRECT;
+		List<Word> actual = checker.checkSpelling(edited, cache);
+		assertEquals(checker.checkSpelling(new Tokenizer(edited)), actual);
+		assertEquals(2, cache.hits());
+		assertEquals(4, cache.misses());
+		return;
+	}
+
+	// Requests a fixed number of items at a time, and collects them
+	private static class CollectingSubscriber implements Flow.Subscriber<Word> {
+		private final long batch;
+
+		private final List<Word> words = new ArrayList<>();
+
+		private final CompletableFuture<List<Word>> result = new CompletableFuture<>();
+
+		private Flow.Subscription subscription;
+
+		private int outstanding;
+
+		private CollectingSubscriber(long batch) {
+			this.batch = batch;
+			return;
+		}
+
+		@Override
+		public void onSubscribe(Flow.Subscription subscription) {
+			this.subscription = subscription;
+			outstanding = (int) batch;
+			subscription.request(batch);
+			return;
+		}
+
+		@Override
+		public void onNext(Word item) {
+			if (--outstanding < 0) {
+				result.completeExceptionally(new IllegalStateException("Demand exceeded."));
+			}
+			words.add(item);
+			if (outstanding == 0) {
+				outstanding = (int) batch;
+				subscription.request(batch);
+			}
+			return;
+		}
+
+		@Override
+		public void onError(Throwable throwable) {
+			result.completeExceptionally(throwable);
+			return;
+		}
+
+		@Override
+		public void onComplete() {
+			result.complete(words);
+			return;
+		}
+	}
 }
@@ -0,0 +1,66 @@
+package net.logicsquad.ibis;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests on {@link ContextChecker}.
+ * 
+ * @author paulh
+ */
+public class ContextCheckerTest {
+	private static NgramModel model;
+
+	@BeforeAll
+	public static void setup() throws IOException {
+		model = NgramModel.load(new InputStreamReader(ContextCheckerTest.class.getResourceAsStream("/ngrams.txt"), StandardCharsets.UTF_8));
+		return;
+	}
+
+	@Test
+	public void checkFindsConfusedWords() {
+		ContextChecker contextChecker = new ContextChecker(model);
+		List<Word> result = contextChecker.check(new Tokenizer("I put it over their."));
+		assertEquals(List.of(Word.of("their", 14)), result);
+		assertEquals(List.of("there"), result.getFirst().suggestions());
+		result = contextChecker.check(new Tokenizer("A letter form my mother."));
+		assertEquals(List.of(Word.of("form", 9)), result);
+		assertEquals(List.of("from"), result.getFirst().suggestions());
+		return;
+	}
+
+	@Test
+	public void checkAcceptsWordsThatFitContext() {
+		ContextChecker contextChecker = new ContextChecker(model);
+		assertTrue(contextChecker.check(new Tokenizer("They ducked over their heads.")).isEmpty());
+		assertTrue(contextChecker.check(new Tokenizer("A letter from my mother.")).isEmpty());
+		assertTrue(contextChecker.check(new Tokenizer("")).isEmpty());
+		return;
+	}
+
+	@Test
+	public void checkPreservesInitialCap() {
+		ContextChecker contextChecker = new ContextChecker(model, List.of(Set.of("form", "from")), 0);
+		List<Word> result = contextChecker.check(new Tokenizer("Form my mother."));
+		assertEquals(List.of(Word.of("Form", 0)), result);
+		assertEquals(List.of("From"), result.getFirst().suggestions());
+		return;
+	}
+
+	@Test
+	public void constructorRejectsOverlappingSets() {
+		assertThrows(IllegalArgumentException.class, () -> new ContextChecker(model, List.of(Set.of("to", "too"), Set.of("too", "two")), 1));
+		assertThrows(IllegalArgumentException.class, () -> new ContextChecker(model, List.of(Set.of("to", "too")), -1));
+		return;
+	}
+}
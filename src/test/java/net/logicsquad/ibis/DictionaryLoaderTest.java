@@ -0,0 +1,128 @@
+package net.logicsquad.ibis;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Unit tests on {@link DictionaryLoader}.
+ * 
+ * @author paulh
+ */
+public class DictionaryLoaderTest {
+	private static final long TIMEOUT = 10;
+
+	@TempDir
+	private Path directory;
+
+	@Test
+	public void loadsSameWordsAsBuilder() throws Exception {
+		DictionaryLoader loader = DictionaryLoader.start(Dictionary::builder, Runnable::run);
+		Dictionary dictionary = loader.ready().get(TIMEOUT, TimeUnit.SECONDS);
+		assertTrue(loader.isReady());
+		assertSame(dictionary, loader.get());
+		DictionaryStatistics expected = Dictionary.builder().addWords().build().statistics();
+		DictionaryStatistics actual = dictionary.statistics();
+		assertEquals(expected.wordCount(), actual.wordCount());
+		assertEquals(expected.bucketCount(), actual.bucketCount());
+		assertEquals(Dictionary.Builder.BUILT_IN, actual.sources().stream().map(DictionaryStatistics.Source::name).toList());
+		assertTrue(dictionary.isCorrect(Word.of("aardvark", 0)));
+		assertEquals(Dictionary.builder().addWords().build().suggestionsFor(Word.of("ardvark", 0)), dictionary.suggestionsFor(Word.of("ardvark", 0)));
+		return;
+	}
+
+	@Test
+	public void snapshotsGrowAsSegmentsLoad() throws Exception {
+		List<Runnable> tasks = new ArrayList<>();
+		Executor executor = tasks::add;
+		DictionaryLoader loader = DictionaryLoader.start(Dictionary::builder, executor);
+		assertFalse(loader.isReady());
+		assertFalse(loader.get().isCorrect(Word.of("aardvark", 0)));
+		// One reading task per word list, each queueing its segments
+		assertEquals(Dictionary.Builder.BUILT_IN.size(), tasks.size());
+		for (int i = 0; i < Dictionary.Builder.BUILT_IN.size(); i++) {
+			runNext(tasks);
+		}
+		assertTrue(tasks.size() > Dictionary.Builder.BUILT_IN.size());
+		assertFalse(loader.get().isCorrect(Word.of("aardvark", 0)));
+		// First segment of first word list
+		runNext(tasks);
+		assertTrue(loader.get().isCorrect(Word.of("aardvark", 0)));
+		assertFalse(loader.get().isCorrect(Word.of("zebra", 0)));
+		while (!tasks.isEmpty()) {
+			runNext(tasks);
+		}
+		assertTrue(loader.isReady());
+		assertTrue(loader.get().isCorrect(Word.of("zebra", 0)));
+		return;
+	}
+
+	@Test
+	public void segmentsArePublishedBeforeLaterWordListsAreRead() throws Exception {
+		StringBuilder words = new StringBuilder();
+		for (int i = 0; i < DictionaryLoader.SEGMENT_SIZE; i++) {
+			words.append("word").append(i).append('\n');
+		}
+		words.append("last\n");
+		Path first = Files.writeString(directory.resolve("first.txt"), words);
+		Path second = Files.writeString(directory.resolve("second.txt"), "book\n");
+		List<Runnable> tasks = new ArrayList<>();
+		DictionaryLoader loader = DictionaryLoader.start(Dictionary::builder, List.of(first, second), tasks::add);
+		// Read first word list, then encode its first segment before reading second word list
+		runNext(tasks);
+		assertEquals(3, tasks.size());
+		tasks.remove(1).run();
+		assertTrue(loader.get().isCorrect(Word.of("word0", 0)));
+		assertFalse(loader.get().isCorrect(Word.of("last", 0)));
+		assertFalse(loader.get().isCorrect(Word.of("book", 0)));
+		while (!tasks.isEmpty()) {
+			runNext(tasks);
+		}
+		Dictionary dictionary = loader.ready().get(TIMEOUT, TimeUnit.SECONDS);
+		assertTrue(dictionary.isCorrect(Word.of("last", 0)));
+		assertTrue(dictionary.isCorrect(Word.of("book", 0)));
+		assertEquals(DictionaryLoader.SEGMENT_SIZE + 2, dictionary.statistics().wordCount());
+		return;
+	}
+
+	@Test
+	public void builderSupplierConfiguresDictionary() throws Exception {
+		Path path = Files.writeString(directory.resolve("words.txt"), "book\nshelf\n");
+		Dictionary base = Dictionary.builder().addWord("alpha").build();
+		DictionaryLoader loader = DictionaryLoader.start(() -> Dictionary.builder(base).allowCompounds(3), List.of(path), Runnable::run);
+		Dictionary dictionary = loader.ready().get(TIMEOUT, TimeUnit.SECONDS);
+		assertTrue(dictionary.isCorrect(Word.of("alpha", 0)));
+		assertTrue(dictionary.isCorrect(Word.of("bookshelf", 0)));
+		return;
+	}
+
+	@Test
+	public void missingPathCompletesExceptionally() {
+		DictionaryLoader loader = DictionaryLoader.start(Dictionary::builder, List.of(directory.resolve("missing.txt")), Runnable::run);
+		ExecutionException e = assertThrows(ExecutionException.class, () -> loader.ready().get(TIMEOUT, TimeUnit.SECONDS));
+		assertInstanceOf(IllegalArgumentException.class, e.getCause());
+		assertFalse(loader.isReady());
+		assertFalse(loader.get().isCorrect(Word.of("book", 0)));
+		return;
+	}
+
+	private static void runNext(List<Runnable> tasks) throws IOException {
+		tasks.remove(0).run();
+		return;
+	}
+}
@@ -0,0 +1,128 @@
+package net.logicsquad.ibis;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Unit tests on {@link DictionaryReloader}.
+ * 
+ * @author paulh
+ */
+public class DictionaryReloaderTest {
+	private static final long TIMEOUT = 10_000;
+
+	private static Dictionary base;
+
+	@TempDir
+	private Path directory;
+
+	@BeforeAll
+	public static void init() {
+		base = Dictionary.builder().addWord("alpha").addWord("beta").build();
+		return;
+	}
+
+	@Test
+	public void watchBuildsInitialDictionary() throws IOException {
+		Path path = Files.writeString(directory.resolve("words.txt"), "gamma\n");
+		try (DictionaryReloader reloader = DictionaryReloader.watch(() -> Dictionary.builder(base), List.of(path))) {
+			assertTrue(reloader.get().isCorrect(Word.of("alpha", 0)));
+			assertTrue(reloader.get().isCorrect(Word.of("gamma", 0)));
+			assertFalse(reloader.get().isCorrect(Word.of("delta", 0)));
+		}
+		return;
+	}
+
+	@Test
+	public void watchThrowsIfPathMissing() {
+		assertThrows(IllegalArgumentException.class, () -> DictionaryReloader.watch(() -> Dictionary.builder(base), List.of(directory.resolve("missing.txt"))));
+		return;
+	}
+
+	@Test
+	public void changedFileIsReloaded() throws IOException, InterruptedException {
+		Path path = Files.writeString(directory.resolve("words.txt"), "gamma\n");
+		try (DictionaryReloader reloader = DictionaryReloader.watch(() -> Dictionary.builder(base), List.of(path))) {
+			Checker checker = new Checker(reloader);
+			assertEquals(1, checker.checkSpelling(new Tokenizer("gamma delta")).size());
+			Files.writeString(path, "gamma\ndelta\n");
+			assertTrue(eventually(() -> reloader.get().isCorrect(Word.of("delta", 0))));
+			assertTrue(checker.checkSpelling(new Tokenizer("gamma delta")).isEmpty());
+		}
+		return;
+	}
+
+	@Test
+	public void failedReloadRetainsPreviousDictionary() throws IOException {
+		Path path = Files.writeString(directory.resolve("words.txt"), "gamma\n");
+		try (DictionaryReloader reloader = DictionaryReloader.watch(() -> Dictionary.builder(base), List.of(path))) {
+			Dictionary before = reloader.get();
+			Files.delete(path);
+			assertThrows(IllegalArgumentException.class, () -> reloader.reload());
+			assertSame(before, reloader.get());
+		}
+		return;
+	}
+
+	@Test
+	public void invalidFileDoesNotStopWatching() throws IOException, InterruptedException {
+		Path path = Files.writeString(directory.resolve("words.txt"), "gamma\n");
+		try (DictionaryReloader reloader = DictionaryReloader.watch(() -> Dictionary.builder(base), List.of(path))) {
+			Dictionary before = reloader.get();
+			// Not valid UTF-8, as if half written
+			Files.write(path, new byte[] { 'd', 'e', (byte) 0xc3 });
+			assertThrows(IllegalArgumentException.class, () -> reloader.reload());
+			assertSame(before, reloader.get());
+			Thread.sleep(500);
+			assertSame(before, reloader.get());
+			Files.writeString(path, "gamma\ndelta\n");
+			assertTrue(eventually(() -> reloader.get().isCorrect(Word.of("delta", 0))));
+		}
+		return;
+	}
+
+	@Test
+	public void failingBuilderDoesNotStopWatching() throws IOException, InterruptedException {
+		Path path = Files.writeString(directory.resolve("words.txt"), "gamma\n");
+		int[] calls = new int[1];
+		Supplier<Dictionary.Builder> supplier = () -> {
+			if (calls[0]++ == 1) {
+				throw new IllegalStateException("Builder unavailable.");
+			}
+			return Dictionary.builder(base);
+		};
+		try (DictionaryReloader reloader = DictionaryReloader.watch(supplier, List.of(path))) {
+			Files.writeString(path, "gamma\nepsilon\n");
+			assertTrue(eventually(() -> calls[0] >= 2));
+			Thread.sleep(500);
+			Files.writeString(path, "gamma\ndelta\n");
+			assertTrue(eventually(() -> reloader.get().isCorrect(Word.of("delta", 0))));
+		}
+		return;
+	}
+
+	private static boolean eventually(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + TIMEOUT;
+		while (!condition.getAsBoolean()) {
+			if (System.currentTimeMillis() > deadline) {
+				return false;
+			}
+			Thread.sleep(50);
+		}
+		return true;
+	}
+}
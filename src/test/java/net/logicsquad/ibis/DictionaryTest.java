@@ -2,6 +2,12 @@ package net.logicsquad.ibis;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.io.StringReader;
+import java.nio.file.Path;
+import java.text.Normalizer;
+import java.util.List;
+import java.util.Map;
+
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
@@ -41,4 +47,250 @@ public class DictionaryTest {
 		assertTrue(d.isCorrect(Word.of("AUSTRALIAN", 0)));
 		return;
 	}
+
+	@Test
+	public void overlayConsultsBase() {
+		Dictionary overlay = Dictionary.builder(dictionary).addWord("gamma").build();
+		assertTrue(overlay.isCorrect(Word.of("alpha", 0)));
+		assertTrue(overlay.isCorrect(Word.of("gamma", 0)));
+		assertFalse(overlay.isCorrect(Word.of("delta", 0)));
+		return;
+	}
+
+	@Test
+	public void overlayDoesNotModifyBase() {
+		Dictionary overlay = Dictionary.builder(dictionary).addWord("gamma").build();
+		assertFalse(dictionary.isCorrect(Word.of("gamma", 0)));
+		assertEquals(1, overlay.size());
+		return;
+	}
+
+	@Test
+	public void overlaysCanBeStacked() {
+		Dictionary tenant = Dictionary.builder(dictionary).addWord("gamma").build();
+		Dictionary request = tenant.withWords(List.of("delta"));
+		assertTrue(request.isCorrect(Word.of("alpha", 0)));
+		assertTrue(request.isCorrect(Word.of("gamma", 0)));
+		assertTrue(request.isCorrect(Word.of("delta", 0)));
+		assertFalse(tenant.isCorrect(Word.of("delta", 0)));
+		return;
+	}
+
+	@Test
+	public void suggestionsForMergesLayersWithoutDuplicates() {
+		Dictionary base = Dictionary.builder().addWord("there").addWord("their").build();
+		Dictionary overlay = Dictionary.builder(base).addWord("thear").addWord("there").build();
+		assertEquals(List.of("thear", "there", "their"), overlay.suggestionsFor(Word.of("thier", 0)));
+		return;
+	}
+
+	@Test
+	public void lookupAgreesWithIsCorrectAndSuggestionsFor() {
+		Dictionary base = Dictionary.builder().addWord("there").addWord("their").addWord("Australian").build();
+		Dictionary overlay = Dictionary.builder(base).addWord("thear").removeWord("their").build();
+		for (String s : List.of("there", "their", "thear", "thier", "AUSTRALIAN", "australian", "gamma")) {
+			Word w = Word.of(s, 0);
+			Lookup lookup = overlay.lookup(w);
+			assertSame(w, lookup.word());
+			assertEquals(overlay.isCorrect(w), lookup.isCorrect());
+			assertEquals(lookup.isCorrect() ? List.of() : overlay.suggestionsFor(w), lookup.suggestions());
+		}
+		assertEquals(List.of("thear", "there"), overlay.lookup(Word.of("thier", 0)).suggestions());
+		return;
+	}
+
+	@Test
+	public void completionsForRanksByFrequencyThenAlphabetically() {
+		Dictionary d = Dictionary.builder().addWord("there").addWord("these", 40).addWord("their", 90).addWord("thesis").addWord("Theresa")
+				.addWord("other").build();
+		assertEquals(List.of("their", "these", "there", "Theresa", "thesis"), d.completionsFor("the", 10));
+		assertEquals(List.of("their", "these"), d.completionsFor("THE", 2));
+		assertEquals(List.of("there", "Theresa"), d.completionsFor("there", 5));
+		assertEquals(List.of(), d.completionsFor("xyz", 5));
+		assertThrows(IllegalArgumentException.class, () -> d.completionsFor("the", 0));
+		return;
+	}
+
+	@Test
+	public void completionsForMergesLayers() {
+		Dictionary base = Dictionary.builder().addWord("there", 10).addWord("their", 90).addWord("these", 40).build();
+		Dictionary overlay = Dictionary.builder(base).addWord("thesaurus", 50).removeWord("their").build();
+		assertEquals(List.of("thesaurus", "these", "there"), overlay.completionsFor("the", 5));
+		assertEquals(List.of("thesaurus"), overlay.completionsFor("the", 1));
+		return;
+	}
+
+	@Test
+	public void statisticsCountWordsAndBuckets() {
+		Dictionary d = Dictionary.builder().addWord("there").addWord("their").addWord("alpha").addWord("there").build();
+		DictionaryStatistics statistics = d.statistics();
+		assertEquals(3, statistics.wordCount());
+		assertEquals(2, statistics.bucketCount());
+		assertEquals(2, statistics.maxBucketSize());
+		assertEquals(Map.of(1, 1, 2, 1), statistics.bucketSizeHistogram());
+		assertTrue(statistics.estimatedHeapBytes() > 0);
+		assertTrue(statistics.sources().isEmpty());
+		return;
+	}
+
+	@Test
+	public void statisticsRecordSources() {
+		Dictionary d = Dictionary.builder().addWords().addWords(new StringReader("alpha\nbeta\nzzyzx\n")).build();
+		List<DictionaryStatistics.Source> sources = d.statistics().sources();
+		assertEquals(List.of("/words-1.txt.gz", "/words-2.txt", "/names-1.txt.gz", "/names-2.txt", "/acronyms.txt", "Reader"),
+				sources.stream().map(DictionaryStatistics.Source::name).toList());
+		assertEquals(1, sources.getLast().wordCount());
+		assertEquals(d.statistics().wordCount(), sources.stream().mapToInt(DictionaryStatistics.Source::wordCount).sum());
+		return;
+	}
+
+	@Test
+	public void statisticsCoverOnlyOwnLayer() {
+		Dictionary overlay = Dictionary.builder(dictionary).addWord("gamma").build();
+		assertEquals(1, overlay.statistics().wordCount());
+		assertTrue(overlay.statistics().estimatedHeapBytes() < dictionary.statistics().estimatedHeapBytes());
+		return;
+	}
+
+	@Test
+	public void removeWordHidesWordInBase() {
+		Dictionary base = Dictionary.builder().addWord("there").addWord("their").addWord("Australian").build();
+		Dictionary overlay = Dictionary.builder(base).removeWord("their").removeWord("Australian").build();
+		assertFalse(overlay.isCorrect(Word.of("their", 0)));
+		assertFalse(overlay.isCorrect(Word.of("THEIR", 0)));
+		assertFalse(overlay.isCorrect(Word.of("Australian", 0)));
+		assertTrue(overlay.isCorrect(Word.of("there", 0)));
+		assertEquals(List.of("there"), overlay.suggestionsFor(Word.of("thier", 0)));
+		assertTrue(base.isCorrect(Word.of("their", 0)));
+		return;
+	}
+
+	@Test
+	public void addWordUndoesRemoveWord() {
+		Dictionary overlay = Dictionary.builder(dictionary).removeWord("alpha").addWord("alpha").build();
+		assertTrue(overlay.isCorrect(Word.of("alpha", 0)));
+		Dictionary d = Dictionary.builder().addWord("alpha").addWord("beta").removeWord("beta").build();
+		assertFalse(d.isCorrect(Word.of("beta", 0)));
+		assertEquals(1, d.statistics().wordCount());
+		assertEquals(1, d.statistics().bucketCount());
+		return;
+	}
+
+	@Test
+	public void compoundModeAcceptsSegmentableWords() {
+		Dictionary d = Dictionary.builder().addWords(List.of("book", "shelf", "spell", "checker", "Bill", "board")).allowCompounds(3).build();
+		assertTrue(d.isCorrect(Word.of("bookshelf", 0)));
+		assertTrue(d.isCorrect(Word.of("Spellchecker", 0)));
+		assertTrue(d.isCorrect(Word.of("billboard", 0)));
+		assertTrue(d.isCorrect(Word.of("bookbookshelf", 0)));
+		assertFalse(d.isCorrect(Word.of("bookshel", 0)));
+		assertFalse(d.isCorrect(Word.of("shelfbok", 0)));
+		return;
+	}
+
+	@Test
+	public void compoundModeIsOffByDefault() {
+		Dictionary d = Dictionary.builder().addWords(List.of("book", "shelf")).build();
+		assertFalse(d.isCorrect(Word.of("bookshelf", 0)));
+		return;
+	}
+
+	@Test
+	public void compoundModeRespectsMinimumPartLength() {
+		Dictionary d = Dictionary.builder().addWords(List.of("a", "lot", "to", "day")).allowCompounds(3).build();
+		assertFalse(d.isCorrect(Word.of("alot", 0)));
+		assertFalse(d.isCorrect(Word.of("today", 0)));
+		assertEquals(List.of("a lot"), d.suggestionsFor(Word.of("alot", 0)));
+		assertEquals(List.of("to day"), d.suggestionsFor(Word.of("today", 0)));
+		return;
+	}
+
+	@Test
+	public void compoundModeUsesPartsFromAllLayers() {
+		Dictionary base = Dictionary.builder().addWord("book").addWord("case").allowCompounds(3).build();
+		Dictionary overlay = Dictionary.builder(base).addWord("shelf").removeWord("case").build();
+		assertTrue(overlay.isCorrect(Word.of("bookshelf", 0)));
+		assertFalse(overlay.isCorrect(Word.of("bookcase", 0)));
+		assertTrue(base.isCorrect(Word.of("bookcase", 0)));
+		return;
+	}
+
+	@Test
+	public void allowCompoundsRejectsNonPositiveLength() {
+		assertThrows(IllegalArgumentException.class, () -> Dictionary.builder().allowCompounds(0));
+		return;
+	}
+
+	@Test
+	public void wordsAreNormalizedLikeTokenizer() {
+		Dictionary d = Dictionary.builder().addWord("cafe\u0301").build();
+		Tokenizer tokenizer = new Tokenizer("cafe\u0301");
+		assertTrue(d.isCorrect(tokenizer.next()));
+		assertTrue(d.isCorrect(Word.of("café", 0)));
+		Dictionary nfkc = Dictionary.builder().normalization(Normalizer.Form.NFKC).addWord("ﬁne").build();
+		assertTrue(nfkc.isCorrect(Tokenizer.builder("ﬁne").normalization(Normalizer.Form.NFKC).build().next()));
+		Dictionary raw = Dictionary.builder().normalization(null).addWord("cafe\u0301").build();
+		assertFalse(raw.isCorrect(Word.of("café", 0)));
+		return;
+	}
+
+	@Test
+	public void hunspellInflectedFormsAreCorrect() throws Exception {
+		Dictionary d = Dictionary.builder().addHunspell(HunspellTest.resource("test.dic"), HunspellTest.resource("test.aff")).build();
+		for (String s : List.of("walk", "walked", "Walking", "WALKS", "unloved", "replayed", "aards")) {
+			assertTrue(d.isCorrect(Word.of(s, 0)), s);
+		}
+		for (String s : List.of("walkd", "aard", "teh", "unwalked")) {
+			assertFalse(d.isCorrect(Word.of(s, 0)), s);
+		}
+		assertTrue(d.suggestionsFor(Word.of("wallk", 0)).contains("walk"));
+		Dictionary overlay = Dictionary.builder(d).removeWord("walked").build();
+		assertFalse(overlay.isCorrect(Word.of("walked", 0)));
+		assertTrue(overlay.isCorrect(Word.of("walks", 0)));
+		return;
+	}
+
+	@Test
+	public void addHunspellRejectsMissingFiles() {
+		assertThrows(IllegalArgumentException.class, () -> Dictionary.builder().addHunspell(Path.of("missing.dic"), Path.of("missing.aff")));
+		return;
+	}
+
+	@Test
+	public void checkOnlyDictionaryChecksWithoutSuggestions() {
+		Dictionary d = Dictionary.builder().addWords(List.of("alpha", "beta", "Paris")).buildCheckOnly(0.001);
+		assertTrue(d.isCheckOnly());
+		assertFalse(dictionary.isCheckOnly());
+		for (String s : List.of("alpha", "Alpha", "BETA", "Paris", "paris")) {
+			assertTrue(d.isCorrect(Word.of(s, 0)), s);
+		}
+		assertFalse(d.isCorrect(Word.of("gamma", 0)));
+		assertFalse(d.lookup(Word.of("alpah", 0)).isCorrect());
+		assertEquals(List.of(), d.suggestionsFor(Word.of("alpah", 0)));
+		assertEquals(List.of(), d.completionsFor("al", 5));
+		assertEquals(3, d.statistics().wordCount());
+		return;
+	}
+
+	@Test
+	public void overlayOnCheckOnlyDictionaryAddsAndRemovesWords() {
+		Dictionary base = Dictionary.builder().addWords(List.of("alpha", "beta")).buildCheckOnly(0.001);
+		Dictionary overlay = Dictionary.builder(base).addWord("gamma").removeWord("beta").build();
+		assertTrue(overlay.isCorrect(Word.of("alpha", 0)));
+		assertTrue(overlay.isCorrect(Word.of("gamma", 0)));
+		assertFalse(overlay.isCorrect(Word.of("beta", 0)));
+		assertTrue(base.isCorrect(Word.of("beta", 0)));
+		assertEquals(List.of("gamma"), overlay.suggestionsFor(Word.of("gama", 0)));
+		return;
+	}
+
+	@Test
+	public void buildCheckOnlyRejectsBadRateAndCompoundMode() {
+		assertThrows(IllegalArgumentException.class, () -> Dictionary.builder().addWord("alpha").buildCheckOnly(0));
+		assertThrows(IllegalArgumentException.class, () -> Dictionary.builder().addWord("alpha").buildCheckOnly(1));
+		assertThrows(IllegalArgumentException.class, () -> Dictionary.builder().addWord("alpha").buildCheckOnly(Double.NaN));
+		assertThrows(IllegalArgumentException.class, () -> Dictionary.builder().addWord("alpha").allowCompounds(3).buildCheckOnly(0));
+		assertThrows(IllegalStateException.class, () -> Dictionary.builder().addWord("alpha").allowCompounds(3).buildCheckOnly(0.01));
+		return;
+	}
 }
@@ -6,6 +6,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.Deque;
 import java.util.LinkedList;
+import java.util.Locale;
 
 import org.junit.jupiter.api.Test;
 
@@ -121,4 +122,25 @@ public class HandlerTest {
 		assertEquals(EXPECTED_7, result2);
 		return;
 	}
+
+	@Test
+	public void handleLeavesWordOfOnlyDashes() {
+		Handler handler = new Handler();
+		Deque<Word> queue = new LinkedList<>();
+		Word dashes = Word.of("--", 4);
+		assertEquals(dashes, handler.handle(dashes, "see -- also", queue));
+		assertTrue(queue.isEmpty());
+		return;
+	}
+
+	@Test
+	public void frenchHandlerRemovesElisions() {
+		Handler handler = new Handler(Locale.FRENCH);
+		String text = "l'homme qu'il aujourd'hui";
+		assertEquals(Word.of("homme", 2), handler.handle(Word.of("l'homme", 0), text, new LinkedList<>()));
+		assertEquals(Word.of("il", 11), handler.handle(Word.of("qu'il", 8), text, new LinkedList<>()));
+		assertEquals(Word.of("aujourd'hui", 14), handler.handle(Word.of("aujourd'hui", 14), text, new LinkedList<>()));
+		assertEquals(Word.of("l'homme", 0), new Handler().handle(Word.of("l'homme", 0), text, new LinkedList<>()));
+		return;
+	}
 }
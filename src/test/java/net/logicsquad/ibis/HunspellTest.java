@@ -0,0 +1,109 @@
+package net.logicsquad.ibis;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.UnaryOperator;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Unit tests on {@link Hunspell}.
+ * 
+ * @author paulh
+ */
+public class HunspellTest {
+	@TempDir
+	private Path directory;
+
+	static Path resource(String name) throws URISyntaxException {
+		return Path.of(HunspellTest.class.getResource("/hunspell/" + name).toURI());
+	}
+
+	private static Hunspell testHunspell() throws IOException, URISyntaxException {
+		return Hunspell.read(resource("test.dic"), resource("test.aff"), UnaryOperator.identity());
+	}
+
+	@Test
+	public void wordsExcludeForbiddenAndNeedAffixStems() throws Exception {
+		Set<String> expected = Set.of("walk", "love", "carry", "box", "play", "café");
+		assertEquals(expected, new HashSet<>(testHunspell().words()));
+		return;
+	}
+
+	@Test
+	public void derivesSuffixedForms() throws Exception {
+		Hunspell hunspell = testHunspell();
+		for (String s : List.of("walked", "walking", "walks", "loved", "loving", "loves", "carried", "carries", "carrying", "boxes",
+				"played", "plays", "aards", "cafés")) {
+			assertTrue(hunspell.derives(s), s);
+		}
+		// Wrong condition, missing flag, or not an affix
+		for (String s : List.of("walkes", "walkd", "carryed", "carrys", "boxs", "boxed", "walk", "aard", "walker", "s", "ed")) {
+			assertFalse(hunspell.derives(s), s);
+		}
+		return;
+	}
+
+	@Test
+	public void derivesPrefixedAndCrossProductForms() throws Exception {
+		Hunspell hunspell = testHunspell();
+		for (String s : List.of("unlove", "unloved", "unloving", "replay", "replays", "replayed")) {
+			assertTrue(hunspell.derives(s), s);
+		}
+		for (String s : List.of("unwalk", "unwalked", "replove", "reunplay", "un", "re")) {
+			assertFalse(hunspell.derives(s), s);
+		}
+		return;
+	}
+
+	@Test
+	public void forbiddenStemIsNotDerived() throws Exception {
+		assertFalse(testHunspell().derives("tehs"));
+		return;
+	}
+
+	@Test
+	public void readsLongFlags() throws Exception {
+		Hunspell hunspell = read("FLAG long\nSFX Ab Y 1\nSFX Ab 0 s .\nSFX Zz Y 1\nSFX Zz 0 ed .\n", "2\nwalk/AbZz\njump/Zz\n");
+		assertTrue(hunspell.derives("walks"));
+		assertTrue(hunspell.derives("walked"));
+		assertTrue(hunspell.derives("jumped"));
+		assertFalse(hunspell.derives("jumps"));
+		return;
+	}
+
+	@Test
+	public void readsNumericFlags() throws Exception {
+		Hunspell hunspell = read("FLAG num\nSFX 101 Y 1\nSFX 101 0 s .\nSFX 7 Y 1\nSFX 7 0 ed .\n", "2\nwalk/101,7\njump/7\n");
+		assertTrue(hunspell.derives("walks"));
+		assertTrue(hunspell.derives("walked"));
+		assertTrue(hunspell.derives("jumped"));
+		assertFalse(hunspell.derives("jumps"));
+		return;
+	}
+
+	@Test
+	public void malformedAffixFileThrowsException() throws Exception {
+		assertThrows(IllegalArgumentException.class, () -> read("SFX S Y 2\nSFX S 0 s .\n", "1\nwalk/S\n"));
+		assertThrows(IllegalArgumentException.class, () -> read("SFX S Y many\n", "1\nwalk/S\n"));
+		assertThrows(IllegalArgumentException.class, () -> read("SFX S Y 1\nSFX S 0 s [a\n", "1\nwalk/S\n"));
+		return;
+	}
+
+	private Hunspell read(String aff, String dic) throws IOException {
+		Path affPath = Files.writeString(directory.resolve("test.aff"), aff);
+		Path dicPath = Files.writeString(directory.resolve("test.dic"), dic);
+		return Hunspell.read(dicPath, affPath, UnaryOperator.identity());
+	}
+}
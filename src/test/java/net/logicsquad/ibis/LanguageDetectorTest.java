@@ -0,0 +1,61 @@
+package net.logicsquad.ibis;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests on {@link LanguageDetector}.
+ * 
+ * @author paulh
+ */
+public class LanguageDetectorTest {
+	@Test
+	public void builtInDetectsEnglishFrenchAndGerman() {
+		LanguageDetector detector = LanguageDetector.builtIn();
+		assertEquals(Locale.ENGLISH, detector.detect("The seller ships the order within two days of payment."));
+		assertEquals(Locale.FRENCH, detector.detect("Le vendeur expédie la commande dans les deux jours suivant le paiement."));
+		assertEquals(Locale.GERMAN, detector.detect("Der Verkäufer versendet die Bestellung innerhalb von zwei Tagen nach der Zahlung."));
+		return;
+	}
+
+	@Test
+	public void detectIgnoresCase() {
+		assertEquals(Locale.GERMAN, LanguageDetector.builtIn().detect("DER HUND UND DIE KATZE"));
+		return;
+	}
+
+	@Test
+	public void textWithoutStopwordsHasNoVerdict() {
+		assertNull(LanguageDetector.builtIn().detect("Shipping Policy"));
+		assertNull(LanguageDetector.builtIn().detect(""));
+		return;
+	}
+
+	@Test
+	public void tiesGoToFirstLanguageTag() {
+		LanguageDetector detector = LanguageDetector.of(Map.of(Locale.ITALIAN, List.of("il"), Locale.FRENCH, List.of("il")));
+		assertEquals(List.of(Locale.FRENCH, Locale.ITALIAN), detector.locales());
+		assertEquals(Locale.FRENCH, detector.detect("il"));
+		return;
+	}
+
+	@Test
+	public void detectExaminesOnlyLeadingWords() {
+		String text = "x ".repeat(LanguageDetector.MAX_WORDS) + "the and of";
+		assertNull(LanguageDetector.builtIn().detect(text));
+		return;
+	}
+
+	@Test
+	public void ofRejectsNoLanguages() {
+		assertThrows(IllegalArgumentException.class, () -> LanguageDetector.of(Map.of()));
+		return;
+	}
+}
@@ -0,0 +1,88 @@
+package net.logicsquad.ibis;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests on {@link LongMap}.
+ * 
+ * @author paulh
+ */
+public class LongMapTest {
+	private static final int COUNT = 10_000;
+
+	@Test
+	public void getReturnsNullForMissingKey() {
+		LongMap<String> map = new LongMap<>();
+		assertNull(map.get(0L));
+		assertNull(map.get(42L));
+		return;
+	}
+
+	@Test
+	public void computeIfAbsentStoresValueOnce() {
+		LongMap<String> map = new LongMap<>();
+		String value = map.computeIfAbsent(0L, k -> "zero");
+		assertSame(value, map.computeIfAbsent(0L, k -> "other"));
+		assertEquals("zero", map.get(0L));
+		assertEquals(1, map.size());
+		return;
+	}
+
+	@Test
+	public void mapSurvivesRehashing() {
+		LongMap<Long> map = new LongMap<>();
+		for (long k = 0; k < COUNT; k++) {
+			map.computeIfAbsent(k << 5, Long::valueOf);
+		}
+		assertEquals(COUNT, map.size());
+		for (long k = 0; k < COUNT; k++) {
+			assertEquals(k << 5, map.get(k << 5));
+		}
+		assertNull(map.get(1L));
+		return;
+	}
+
+	@Test
+	public void mapValuesKeepsKeys() {
+		LongMap<Long> map = new LongMap<>();
+		for (long k = 0; k < COUNT; k++) {
+			map.computeIfAbsent(k << 5, Long::valueOf);
+		}
+		LongMap<String> mapped = map.mapValues(v -> Long.toString(v));
+		assertEquals(COUNT, mapped.size());
+		for (long k = 0; k < COUNT; k++) {
+			assertEquals(Long.toString(k << 5), mapped.get(k << 5));
+		}
+		assertNull(mapped.get(1L));
+		return;
+	}
+
+	@Test
+	public void computeIfAbsentRejectsReservedKey() {
+		LongMap<String> map = new LongMap<>();
+		assertThrows(IllegalArgumentException.class, () -> map.computeIfAbsent(PhoneticCode.NONE, k -> "none"));
+		return;
+	}
+
+	@Test
+	public void valuesVisitsEachValueOnce() {
+		LongMap<Long> map = new LongMap<>();
+		for (long k = 0; k < COUNT; k++) {
+			map.computeIfAbsent(k, Long::valueOf);
+		}
+		Set<Long> values = new HashSet<>();
+		for (Long value : map.values()) {
+			values.add(value);
+		}
+		assertEquals(COUNT, values.size());
+		return;
+	}
+}
@@ -0,0 +1,62 @@
+package net.logicsquad.ibis;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import java.util.Locale;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests on {@link MultilingualChecker}.
+ * 
+ * @author paulh
+ */
+public class MultilingualCheckerTest {
+	private static final Dictionary ENGLISH = Dictionary.builder().addWords(List.of("the", "seller", "ships", "order", "today", "and"))
+			.build();
+
+	private static final Dictionary FRENCH = Dictionary.builder().addWords(List.of("le", "vendeur", "expédie", "la", "commande", "et", "homme"))
+			.build();
+
+	private static final MultilingualChecker CHECKER = MultilingualChecker.builder(LanguageDetector.builtIn()).add(Locale.UK, ENGLISH)
+			.add(Locale.FRANCE, FRENCH).build();
+
+	@Test
+	public void paragraphsAreCheckedAgainstTheirLanguage() {
+		String text = "The seller ships the ordr today.\n\nLe vendeur expédie la comande.\n";
+		List<Word> words = CHECKER.checkSpelling(text);
+		assertEquals(2, words.size());
+		assertEquals(Word.of("ordr", 21), words.get(0));
+		assertEquals(List.of("order"), words.get(0).suggestions());
+		assertEquals(Word.of("comande", text.indexOf("comande")), words.get(1));
+		assertEquals(List.of("commande"), words.get(1).suggestions());
+		return;
+	}
+
+	@Test
+	public void paragraphWithoutVerdictFollowsPreviousParagraph() {
+		String text = "Le vendeur expédie la commande.\n\nVendeur Expédie\n\nSeller\n";
+		List<Word> words = CHECKER.checkSpelling(text);
+		assertEquals(List.of(Word.of("Seller", text.indexOf("Seller"))), words);
+		assertEquals(Locale.UK, CHECKER.localeOf("Vendeur Expédie"));
+		assertEquals(Locale.FRANCE, CHECKER.localeOf("la commande"));
+		return;
+	}
+
+	@Test
+	public void frenchParagraphsDropElisions() {
+		String text = "Le vendeur et l'homme.";
+		assertEquals(List.of(), CHECKER.checkSpelling(text));
+		return;
+	}
+
+	@Test
+	public void builderRejectsDuplicateLanguageAndNoLanguages() {
+		MultilingualChecker.Builder builder = MultilingualChecker.builder(LanguageDetector.builtIn()).add(Locale.UK, ENGLISH);
+		assertThrows(IllegalArgumentException.class, () -> builder.add(Locale.US, ENGLISH));
+		assertThrows(IllegalStateException.class, () -> MultilingualChecker.builder(LanguageDetector.builtIn()).build());
+		return;
+	}
+}
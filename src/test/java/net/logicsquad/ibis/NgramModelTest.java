@@ -0,0 +1,66 @@
+package net.logicsquad.ibis;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests on {@link NgramModel}.
+ * 
+ * @author paulh
+ */
+public class NgramModelTest {
+	@Test
+	public void loadReadsAllOrders() throws IOException {
+		NgramModel model = NgramModel.load(new InputStreamReader(NgramModelTest.class.getResourceAsStream("/ngrams.txt"), StandardCharsets.UTF_8));
+		assertEquals(29, model.size());
+		assertEquals(562, model.total());
+		assertEquals(Math.log(100), model.logCount(NgramModel.hash("a")), 1.0 / 16);
+		assertEquals(Math.log(10), model.logCount(NgramModel.hash("over"), NgramModel.hash("there")), 1.0 / 16);
+		assertEquals(Math.log(3), model.logCount(NgramModel.hash("over"), NgramModel.hash("their"), NgramModel.hash("heads")), 1.0 / 16);
+		return;
+	}
+
+	@Test
+	public void lookupsIgnoreCaseAndOrderMatters() throws IOException {
+		NgramModel model = NgramModel.load(new StringReader("over there\t10\n"));
+		assertEquals(Math.log(10), model.logCount(NgramModel.hash("Over"), NgramModel.hash("THERE")), 1.0 / 16);
+		assertEquals(Double.NEGATIVE_INFINITY, model.logCount(NgramModel.hash("there"), NgramModel.hash("over")));
+		assertEquals(Double.NEGATIVE_INFINITY, model.logCount(NgramModel.hash("over")));
+		return;
+	}
+
+	@Test
+	public void malformedLinesAreIgnored() throws IOException {
+		NgramModel model = NgramModel.load(new StringReader("no count\nbad\tcount\nzero\t0\none two three four\t5\nfine\t1\n"));
+		assertEquals(1, model.size());
+		return;
+	}
+
+	@Test
+	public void modelSurvivesRehashing() throws IOException {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < 10_000; i++) {
+			sb.append("w").append(i).append(" x\t").append(i + 1).append('\n');
+		}
+		NgramModel model = NgramModel.load(new StringReader(sb.toString()));
+		assertEquals(10_000, model.size());
+		for (int i = 0; i < 10_000; i += 997) {
+			assertEquals(Math.log(i + 1), model.logCount(NgramModel.hash("w" + i), NgramModel.hash("x")), 1.0 / 16);
+		}
+		return;
+	}
+
+	@Test
+	public void loadThrowsOnMissingFile() {
+		assertThrows(IllegalArgumentException.class, () -> NgramModel.load(Path.of("does-not-exist.txt")));
+		return;
+	}
+}
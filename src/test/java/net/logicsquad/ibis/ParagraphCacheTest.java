@@ -0,0 +1,80 @@
+package net.logicsquad.ibis;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests on {@link ParagraphCache}.
+ * 
+ * @author paulh
+ */
+public class ParagraphCacheTest extends AbstractTest {
+	private static final Dictionary DICTIONARY = Dictionary.builder().addWord("alpha").build();
+
+	@Test
+	public void keyDependsOnRangeContentOnly() {
+		assertEquals(ParagraphCache.key("alpha beta", 0, 5), ParagraphCache.key("xx alpha", 3, 8));
+		assertNotEquals(ParagraphCache.key("alpha", 0, 5), ParagraphCache.key("alphb", 0, 5));
+		assertNotEquals(ParagraphCache.key("alpha", 0, 4), ParagraphCache.key("alpha", 0, 5));
+		return;
+	}
+
+	@Test
+	public void collidingHashesDoNotShareEntries() {
+		ParagraphCache cache = new ParagraphCache(10);
+		ParagraphCache.Key secret = new ParagraphCache.Key("xx secrte", 3, 6, 42);
+		ParagraphCache.Key other = new ParagraphCache.Key("public", 0, 6, 42);
+		assertEquals(secret.hashCode(), other.hashCode());
+		assertNotEquals(secret, other);
+		cache.put(DICTIONARY, secret, List.of(Word.of("secrte", 0)));
+		assertNull(cache.get(DICTIONARY, other));
+		assertEquals(List.of(Word.of("secrte", 0)), cache.get(DICTIONARY, new ParagraphCache.Key("secrte", 0, 6, 42)));
+		return;
+	}
+
+	@Test
+	public void leastRecentlyUsedEntryIsEvicted() {
+		ParagraphCache cache = new ParagraphCache(2);
+		ParagraphCache.Key one = ParagraphCache.key("one", 0, 3);
+		ParagraphCache.Key two = ParagraphCache.key("two", 0, 3);
+		ParagraphCache.Key three = ParagraphCache.key("three", 0, 5);
+		cache.put(DICTIONARY, one, List.of());
+		cache.put(DICTIONARY, two, List.of(Word.of("two", 0)));
+		assertNotNull(cache.get(DICTIONARY, one));
+		cache.put(DICTIONARY, three, List.of());
+		assertEquals(2, cache.size());
+		assertNotNull(cache.get(DICTIONARY, one));
+		assertNull(cache.get(DICTIONARY, two));
+		assertNotNull(cache.get(DICTIONARY, three));
+		assertEquals(3, cache.hits());
+		assertEquals(1, cache.misses());
+		return;
+	}
+
+	@Test
+	public void entriesAreKeptPerDictionary() {
+		ParagraphCache cache = new ParagraphCache(10);
+		Dictionary overlay = Dictionary.builder(DICTIONARY).addWord("one").build();
+		ParagraphCache.Key key = ParagraphCache.key("one", 0, 3);
+		cache.put(DICTIONARY, key, List.of(Word.of("one", 0)));
+		assertNull(cache.get(overlay, key));
+		cache.put(overlay, key, List.of());
+		assertEquals(List.of(Word.of("one", 0)), cache.get(DICTIONARY, key));
+		assertEquals(List.of(), cache.get(overlay, key));
+		assertEquals(2, cache.size());
+		return;
+	}
+
+	@Test
+	public void nonPositiveSizeIsRejected() {
+		assertThrows(IllegalArgumentException.class, () -> new ParagraphCache(0));
+		return;
+	}
+}
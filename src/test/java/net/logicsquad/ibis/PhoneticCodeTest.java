@@ -0,0 +1,82 @@
+package net.logicsquad.ibis;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.commons.codec.language.Metaphone;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests on {@link PhoneticCode}.
+ * 
+ * @author paulh
+ */
+public class PhoneticCodeTest {
+	private static final Metaphone METAPHONE = new Metaphone();
+
+	private static final List<String> WORD_LISTS = List.of("/words-1.txt.gz", "/words-2.txt", "/names-1.txt.gz", "/names-2.txt", "/acronyms.txt");
+
+	// Exercises initial-letter exceptions, silent letters, digraphs, truncation and odd input
+	private static final List<String> SPECIAL_CASES = List.of("", "a", "A", "z", "0", "-", "'", "ß", "ŉ", "ı", "aeon", "knight", "gnome", "pneumatic",
+			"wrack", "whale", "xylophone", "science", "ciao", "ocean", "school", "chorus", "church", "lamb", "lambs", "edge", "judge", "ghost", "tough",
+			"signed", "gnomed", "phone", "quiet", "station", "mission", "asia", "match", "thin", "vivid", "yawn", "fox", "sax", "taxes", "zoo",
+			"accept", "bookkeeper", "ahh", "ch", "dg", "gh", "th", "straße", "naïve", "café", "über", "x-ray", "don't", "e.g.", "MCCARTHY", "Ng");
+
+	@Test
+	public void encodeMatchesCommonsCodecForSpecialCases() {
+		for (String s : SPECIAL_CASES) {
+			assertEquals(METAPHONE.encode(s), PhoneticCode.toString(PhoneticCode.encode(s)), s);
+		}
+		return;
+	}
+
+	@Test
+	public void encodeMatchesCommonsCodecForBuiltInWordLists() throws IOException {
+		for (String resource : WORD_LISTS) {
+			try (InputStream is = Dictionary.class.getResourceAsStream(resource);
+					BufferedReader reader = new BufferedReader(new InputStreamReader(resource.endsWith(".gz") ? new GZIPInputStream(is) : is, StandardCharsets.UTF_8))) {
+				for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+					String word = line.strip();
+					assertEquals(METAPHONE.encode(word), PhoneticCode.toString(PhoneticCode.encode(word)), word);
+				}
+			}
+		}
+		return;
+	}
+
+	@Test
+	public void encodeAcceptsAnyCharSequence() {
+		assertEquals(PhoneticCode.encode("thought"), PhoneticCode.encode(new StringBuilder("thought")));
+		return;
+	}
+
+	@Test
+	public void encodeIgnoresCase() {
+		assertEquals(PhoneticCode.encode("australian"), PhoneticCode.encode("AUSTRALIAN"));
+		assertEquals(PhoneticCode.encode("australian"), PhoneticCode.encode("Australian"));
+		return;
+	}
+
+	@Test
+	public void encodeNeverReturnsNone() {
+		for (String s : SPECIAL_CASES) {
+			assertNotEquals(PhoneticCode.NONE, PhoneticCode.encode(s));
+		}
+		return;
+	}
+
+	@Test
+	public void encodeThrowsOnNull() {
+		assertThrows(NullPointerException.class, () -> PhoneticCode.encode(null));
+		return;
+	}
+}
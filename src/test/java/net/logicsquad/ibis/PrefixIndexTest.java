@@ -0,0 +1,87 @@
+package net.logicsquad.ibis;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests on {@link PrefixIndex}.
+ * 
+ * @author paulh
+ */
+public class PrefixIndexTest {
+	private static final PrefixIndex INDEX = new PrefixIndex(List.of(List.of("book", "Bookshelf", "box"), List.of("BOOKS", "cat"), List.of()));
+
+	@Test
+	public void wordsAreSortedCaseInsensitively() {
+		assertEquals(5, INDEX.size());
+		assertEquals(List.of("book", "BOOKS", "Bookshelf", "box", "cat"), List.of(INDEX.get(0), INDEX.get(1), INDEX.get(2), INDEX.get(3), INDEX.get(4)));
+		return;
+	}
+
+	@Test
+	public void rangeNarrowsOneCharacterAtATime() {
+		int lo = 0;
+		int hi = INDEX.size();
+		String prefix = "BOOK";
+		for (int depth = 0; depth < prefix.length(); depth++) {
+			lo = INDEX.lowerBound(lo, hi, depth, prefix.charAt(depth));
+			hi = INDEX.upperBound(lo, hi, depth, prefix.charAt(depth));
+		}
+		assertEquals(0, lo);
+		assertEquals(3, hi);
+		// Exact match sorts first
+		assertEquals(4, INDEX.get(lo).length());
+		return;
+	}
+
+	@Test
+	public void rangeIsEmptyForUnknownPrefix() {
+		int lo = INDEX.lowerBound(0, INDEX.size(), 0, 'd');
+		assertEquals(lo, INDEX.upperBound(lo, INDEX.size(), 0, 'd'));
+		return;
+	}
+
+	@Test
+	public void forEachByFrequencyVisitsRangeInOrderOfFrequency() {
+		PrefixIndex index = new PrefixIndex(List.of(List.of("book", "Bookshelf", "box"), List.of("BOOKS", "cat")), Map.of("box", 5, "BOOKS", 9, "cat", 1));
+		List<String> visited = new ArrayList<>();
+		index.forEachByFrequency(0, index.size(), i -> visited.add(index.get(i)));
+		assertEquals(List.of("BOOKS", "box", "cat", "book", "Bookshelf"), visited);
+		visited.clear();
+		index.forEachByFrequency(0, 3, i -> visited.add(index.get(i)) && visited.size() < 2);
+		assertEquals(List.of("BOOKS", "book"), visited);
+		return;
+	}
+
+	@Test
+	public void forEachByFrequencyMatchesSort() {
+		Random random = new Random(1);
+		List<String> words = new ArrayList<>();
+		Map<String, Integer> frequencies = new HashMap<>();
+		for (int i = 0; i < 1000; i++) {
+			String word = "w" + i;
+			words.add(word);
+			frequencies.put(word, random.nextInt(50));
+		}
+		PrefixIndex index = new PrefixIndex(List.of(words), frequencies);
+		for (int from = 0; from < index.size(); from += 97) {
+			int to = Math.min(index.size(), from + random.nextInt(300) + 1);
+			List<Integer> expected = new ArrayList<>();
+			for (int i = from; i < to; i++) {
+				expected.add(i);
+			}
+			expected.sort((a, b) -> index.frequency(a) != index.frequency(b) ? index.frequency(b) - index.frequency(a) : a - b);
+			List<Integer> actual = new ArrayList<>();
+			index.forEachByFrequency(from, to, actual::add);
+			assertEquals(expected, actual);
+		}
+		return;
+	}
+}
@@ -0,0 +1,77 @@
+package net.logicsquad.ibis;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests on {@link TextSplitter}.
+ * 
+ * @author paulh
+ */
+public class TextSplitterTest extends AbstractTest {
+	private static final String PARAGRAPHS = "One two three.\n\nFour five six.\n \nSeven.";
+
+	private static final String SENTENCES = "One two three. Four five six. Seven.";
+
+	private static final String NO_BREAKS = "Onetwothreefourfivesixseveneightnine";
+
+	@Test
+	public void shortTextIsSingleChunk() {
+		assertArrayEquals(new int[] { 0, PARAGRAPHS.length() }, TextSplitter.split(PARAGRAPHS, 1000));
+		assertArrayEquals(new int[] { 0, 0 }, TextSplitter.split("", 1000));
+		return;
+	}
+
+	@Test
+	public void splitPrefersParagraphBreaks() {
+		assertArrayEquals(new int[] { 0, 16, 33, PARAGRAPHS.length() }, TextSplitter.split(PARAGRAPHS, 10));
+		return;
+	}
+
+	@Test
+	public void splitFallsBackToSentenceBreaks() {
+		assertArrayEquals(new int[] { 0, 15, 30, SENTENCES.length() }, TextSplitter.split(SENTENCES, 10));
+		return;
+	}
+
+	@Test
+	public void textWithoutWhitespaceIsSingleChunk() {
+		assertArrayEquals(new int[] { 0, NO_BREAKS.length() }, TextSplitter.split(NO_BREAKS, 10));
+		return;
+	}
+
+	@Test
+	public void chunksEndAfterWhitespace() {
+		String text = stringFromResource("/correct.txt");
+		int[] boundaries = TextSplitter.split(text, 50);
+		assertEquals(0, boundaries[0]);
+		assertEquals(text.length(), boundaries[boundaries.length - 1]);
+		for (int i = 1; i < boundaries.length - 1; i++) {
+			assertTrue(boundaries[i] - boundaries[i - 1] >= 50);
+			assertTrue(Character.isWhitespace(text.charAt(boundaries[i] - 1)));
+		}
+		return;
+	}
+
+	@Test
+	public void paragraphsSplitsAtEveryBlankLine() {
+		assertArrayEquals(new int[] { 0, 16, 33, PARAGRAPHS.length() }, TextSplitter.paragraphs(PARAGRAPHS));
+		assertArrayEquals(new int[] { 0, SENTENCES.length() }, TextSplitter.paragraphs(SENTENCES));
+		assertArrayEquals(new int[] { 0, 0 }, TextSplitter.paragraphs(""));
+		String many = "One.\n\n".repeat(20) + "Two.";
+		int[] boundaries = TextSplitter.paragraphs(many);
+		assertEquals(22, boundaries.length);
+		assertEquals(many.length(), boundaries[21]);
+		return;
+	}
+
+	@Test
+	public void splitRejectsNonPositiveTargetSize() {
+		assertThrows(IllegalArgumentException.class, () -> TextSplitter.split(SENTENCES, 0));
+		return;
+	}
+}
@@ -3,8 +3,13 @@ package net.logicsquad.ibis;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
 
+import java.text.Normalizer;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 
 import org.junit.jupiter.api.Test;
 
@@ -73,6 +78,26 @@ public class TokenizerTest {
 	private static final String TEST_11 = "(E.g. one.) (I.e. another.)";
 	private static final List<Word> EXPECTED_11 = List.of(Word.of("E.g.", 1), Word.of("one", 6), Word.of("I.e.", 13), Word.of("another", 18));
 
+	private static final String HTML_1 = "<p class=\"intro\">Helo <b>world</b>&nbsp;&amp; <a href=\"https://exmaple.com/pth\">frends</a>.</p>"
+			+ "<!-- a cmment --><pre>int x = y;</pre><script>var zzz = 1;</script>Bye";
+	private static final List<Word> HTML_EXPECTED_1 = List.of(Word.of("Helo", 17), Word.of("world", 25), Word.of("frends", 80), Word.of("Bye", 162));
+
+	private static final String MARKDOWN_1 = """
+			# Titel
+
+			Some `inlne code` and [a lnk](https://exmaple.com/pth "titel") here.
+
+			```java
+			Strng s = nul;
+			```
+
+			    indented cde
+
+			[ref]: https://exmaple.com/ref
+			Visit https://exmaple.org/abc now.
+			""";
+	private static final List<String> MARKDOWN_EXPECTED_1 = List.of("Titel", "Some", "and", "lnk", "here", "Visit", "now");
+
 	@Test
 	public void constructorThrowsOnNull() {
 		assertThrows(NullPointerException.class, () -> new Tokenizer(null));
@@ -176,4 +201,152 @@ public class TokenizerTest {
 		testTokenizerAndWordList(new Tokenizer(TEST_11), EXPECTED_11);
 		return;
 	}
+
+	@Test
+	public void htmlMarkupIsSkipped() {
+		Tokenizer tokenizer = Tokenizer.builder(HTML_1).markup(Markup.HTML).build();
+		assertEquals(HTML_EXPECTED_1, allWords(tokenizer));
+		for (Word w : HTML_EXPECTED_1) {
+			assertEquals(w.text(), HTML_1.substring(w.start(), w.end()));
+		}
+		return;
+	}
+
+	@Test
+	public void markdownMarkupIsSkipped() {
+		Tokenizer tokenizer = Tokenizer.builder(MARKDOWN_1).markup(Markup.MARKDOWN).build();
+		List<Word> words = allWords(tokenizer);
+		assertEquals(MARKDOWN_EXPECTED_1, words.stream().map(Word::text).toList());
+		for (Word w : words) {
+			assertEquals(w.text(), MARKDOWN_1.substring(w.start(), w.end()));
+		}
+		return;
+	}
+
+	@Test
+	public void plainTextIsNotSkipped() {
+		assertEquals(List.of("Helo", "world"), allWords(new Tokenizer("<b>Helo</b> world")).stream().map(Word::text).filter(s -> !s.equals("b")).toList());
+		assertEquals(List.of(Word.of("Helo", 3), Word.of("world", 12)), allWords(Tokenizer.builder("<b>Helo</b> world").markup(Markup.HTML).build()));
+		return;
+	}
+
+	@Test
+	public void unclosedMarkupIsNotSkipped() {
+		assertEquals(List.of(Word.of("if", 0), Word.of("is", 9), Word.of("true", 12)), allWords(Tokenizer.builder("if a < b is true").markup(Markup.HTML).build()));
+		assertEquals(List.of(Word.of("one", 2), Word.of("two", 6)), allWords(Tokenizer.builder("``one two").markup(Markup.MARKDOWN).build()));
+		return;
+	}
+
+	private static List<Word> allWords(Tokenizer tokenizer) {
+		List<Word> result = new ArrayList<>();
+		while (tokenizer.hasNext()) {
+			result.add(tokenizer.next());
+		}
+		return result;
+	}
+
+	@Test
+	public void identifiersAreSkippedByDefault() {
+		String text = "See https://docs.exmaple.com/api/v2/pth, www.exmaple.org/docs or (someone.else@exmaple.com) for /usr/locl/bin, "
+				+ "src/mian/jva, C:\\Progrm Files, docs.exmaple.com/ap and commit 3f2a9c1e0b or 0xDEADBEF. This and/or that.";
+		List<String> expected = List.of("See", "or", "for", "Files", "and", "commit", "or", "This", "and", "or", "that");
+		assertEquals(expected, allWords(new Tokenizer(text)).stream().map(Word::text).toList());
+		for (Word w : allWords(new Tokenizer(text))) {
+			assertEquals(w.text(), text.substring(w.start(), w.end()));
+		}
+		return;
+	}
+
+	@Test
+	public void identifiersAreNotSkippedIfDisabled() {
+		Tokenizer tokenizer = Tokenizer.builder("Read docs/intro/start now").skipIdentifiers(false).build();
+		assertEquals(List.of("Read", "docs", "intro", "start", "now"), allWords(tokenizer).stream().map(Word::text).toList());
+		return;
+	}
+
+	@Test
+	public void longDottedAndHyphenatedRunsScanInLinearTime() {
+		for (String unit : List.of("a.", "x-", "a+", "(a", "'a")) {
+			String text = unit.repeat(500_000);
+			assertTimeoutPreemptively(Duration.ofSeconds(5), () -> allWords(new Tokenizer(text)), unit);
+			assertTimeoutPreemptively(Duration.ofSeconds(5), () -> allWords(Tokenizer.builder(text).markup(Markup.HTML).build()), unit);
+		}
+		return;
+	}
+
+	@Test
+	public void markdownLinksAndReferencesScanInLinearTime() {
+		for (String text : List.of("](".repeat(200_000), "[x\n".repeat(200_000), "](a(".repeat(100_000) + ")")) {
+			assertTimeoutPreemptively(Duration.ofSeconds(5), () -> allWords(Tokenizer.builder(text).markup(Markup.MARKDOWN).build()));
+		}
+		return;
+	}
+
+	@Test
+	public void markdownLinkDestinationsAreSkipped() {
+		String text = "[one](alpha) (two [three](beta(gamma)) [four](delta\nfive)";
+		assertEquals(List.of("one", "two", "three", "four", "delta", "five"), allWords(Tokenizer.builder(text).markup(Markup.MARKDOWN).build())
+				.stream().map(Word::text).toList());
+		return;
+	}
+
+	@Test
+	public void wordsResemblingIdentifiersAreNotSkipped() {
+		assertEquals(List.of("deadbeef", "effaced", "km", "either", "or"), allWords(new Tokenizer("deadbeef effaced km/h either/or")).stream().map(Word::text).toList());
+		assertEquals(List.of("Dear", "Mr", "Mrs", "Ms", "Smith", "e.g.", "i.e.", "ibid"), allWords(new Tokenizer("Dear Mr./Mrs./Ms. Smith, e.g./i.e. ibid./"))
+				.stream().map(Word::text).toList());
+		return;
+	}
+
+	@Test
+	public void decomposedWordsAreComposed() {
+		String text = "A cafe\u0301 cre\u0300me";
+		List<Word> words = allWords(new Tokenizer(text));
+		assertEquals(List.of("café", "crème"), words.stream().map(Word::text).toList());
+		// Offsets still delimit original characters
+		assertEquals("cafe\u0301", text.substring(words.get(0).start(), words.get(0).end()));
+		assertEquals("cre\u0300me", text.substring(words.get(1).start(), words.get(1).end()));
+		assertEquals(text.length(), words.get(1).end());
+		return;
+	}
+
+	@Test
+	public void compatibilityCharactersFoldedWithNfkc() {
+		String text = "ﬁne ｗｏｒｄｓ";
+		assertEquals(List.of("ﬁne", "ｗｏｒｄｓ"), allWords(new Tokenizer(text)).stream().map(Word::text).toList());
+		List<Word> words = allWords(Tokenizer.builder(text).normalization(Normalizer.Form.NFKC).build());
+		assertEquals(List.of("fine", "words"), words.stream().map(Word::text).toList());
+		assertEquals(3, words.get(0).end());
+		return;
+	}
+
+	@Test
+	public void normalizationCanBeDisabled() {
+		String text = "cafe\u0301";
+		assertEquals(List.of(text), allWords(Tokenizer.builder(text).normalization(null).build()).stream().map(Word::text).toList());
+		return;
+	}
+
+	@Test
+	public void wordsOfOnlyDashesAreSkipped() {
+		Tokenizer tokenizer = new Tokenizer("Use --verbose or ---- here");
+		List<Word> words = new ArrayList<>();
+		while (tokenizer.hasNext()) {
+			words.add(tokenizer.next());
+		}
+		assertEquals(List.of(Word.of("Use", 0), Word.of("verbose", 6), Word.of("or", 14), Word.of("here", 22)), words);
+		return;
+	}
+
+	@Test
+	public void localeSelectsLanguageRules() {
+		String text = "L'homme d'affaires";
+		List<Word> words = new ArrayList<>();
+		Tokenizer tokenizer = Tokenizer.builder(text).locale(Locale.FRENCH).build();
+		while (tokenizer.hasNext()) {
+			words.add(tokenizer.next());
+		}
+		assertEquals(List.of(Word.of("homme", 2), Word.of("affaires", 10)), words);
+		return;
+	}
 }
@@ -0,0 +1,151 @@
+package net.logicsquad.ibis;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Unit tests on {@link WordJournal}.
+ * 
+ * @author paulh
+ */
+public class WordJournalTest {
+	private static Dictionary base;
+
+	@TempDir
+	private Path directory;
+
+	@BeforeAll
+	public static void init() {
+		base = Dictionary.builder().addWord("alpha").addWord("beta").build();
+		return;
+	}
+
+	@Test
+	public void changesApplyImmediately() throws IOException {
+		try (WordJournal journal = WordJournal.open(directory.resolve("learned"), base)) {
+			journal.add("gamma");
+			journal.remove("beta");
+			assertTrue(journal.get().isCorrect(Word.of("alpha", 0)));
+			assertTrue(journal.get().isCorrect(Word.of("gamma", 0)));
+			assertFalse(journal.get().isCorrect(Word.of("beta", 0)));
+		}
+		assertTrue(base.isCorrect(Word.of("beta", 0)));
+		return;
+	}
+
+	@Test
+	public void laterChangesOverrideEarlierOnes() throws IOException {
+		try (WordJournal journal = WordJournal.open(directory.resolve("learned"), base)) {
+			journal.add("gamma");
+			journal.remove("gamma");
+			assertFalse(journal.get().isCorrect(Word.of("gamma", 0)));
+			journal.add("gamma");
+			journal.remove("alpha");
+			journal.add("alpha");
+			assertTrue(journal.get().isCorrect(Word.of("gamma", 0)));
+			assertTrue(journal.get().isCorrect(Word.of("alpha", 0)));
+			journal.remove("gamma");
+			journal.compact();
+			assertFalse(journal.get().isCorrect(Word.of("gamma", 0)));
+			assertTrue(journal.get().isCorrect(Word.of("alpha", 0)));
+			assertEquals(1, journal.get().statistics().wordCount());
+		}
+		return;
+	}
+
+	@Test
+	public void layersAreRebuiltAfterManyChanges() throws IOException {
+		try (WordJournal journal = WordJournal.open(directory.resolve("learned"), base)) {
+			for (int i = 0; i < WordJournal.MAX_LAYERS * 10; i++) {
+				journal.add("word" + i);
+				assertTrue(journal.get().depth() <= base.depth() + 1 + WordJournal.MAX_LAYERS);
+			}
+			journal.remove("word0");
+			assertFalse(journal.get().isCorrect(Word.of("word0", 0)));
+			assertTrue(journal.get().isCorrect(Word.of("word" + (WordJournal.MAX_LAYERS * 10 - 1), 0)));
+			journal.compact();
+			assertEquals(base.depth() + 1, journal.get().depth());
+		}
+		return;
+	}
+
+	@Test
+	public void changesSurviveReopening() throws IOException {
+		Path path = directory.resolve("learned");
+		try (WordJournal journal = WordJournal.open(path, base)) {
+			journal.add("gamma");
+			journal.add("delta");
+			journal.remove("gamma");
+			journal.remove("alpha");
+		}
+		assertEquals("+gamma\n+delta\n-gamma\n-alpha\n", Files.readString(path));
+		try (WordJournal journal = WordJournal.open(path, base)) {
+			assertFalse(journal.get().isCorrect(Word.of("gamma", 0)));
+			assertTrue(journal.get().isCorrect(Word.of("delta", 0)));
+			assertFalse(journal.get().isCorrect(Word.of("alpha", 0)));
+		}
+		return;
+	}
+
+	@Test
+	public void compactMergesJournalIntoSnapshot() throws IOException {
+		Path path = directory.resolve("learned");
+		try (WordJournal journal = WordJournal.open(path, base)) {
+			journal.add("gamma");
+			journal.add("delta");
+			journal.remove("gamma");
+			journal.compact();
+			assertEquals(0, Files.size(path));
+			assertEquals("+delta\n-gamma\n", Files.readString(directory.resolve("learned.snapshot")));
+			journal.add("epsilon");
+		}
+		try (WordJournal journal = WordJournal.open(path, base)) {
+			assertTrue(journal.get().isCorrect(Word.of("delta", 0)));
+			assertTrue(journal.get().isCorrect(Word.of("epsilon", 0)));
+			assertFalse(journal.get().isCorrect(Word.of("gamma", 0)));
+		}
+		return;
+	}
+
+	@Test
+	public void incompleteFinalEntryIsDiscarded() throws IOException {
+		Path path = Files.writeString(directory.resolve("learned"), "+gamma\n+del", StandardCharsets.UTF_8);
+		try (WordJournal journal = WordJournal.open(path, base)) {
+			assertTrue(journal.get().isCorrect(Word.of("gamma", 0)));
+			assertFalse(journal.get().isCorrect(Word.of("del", 0)));
+			journal.add("delta");
+		}
+		assertEquals("+gamma\n+delta\n", Files.readString(path));
+		return;
+	}
+
+	@Test
+	public void malformedEntryIsIgnored() throws IOException {
+		Path path = Files.writeString(directory.resolve("learned"), "+gamma\n?\n", StandardOpenOption.CREATE);
+		try (WordJournal journal = WordJournal.open(path, base)) {
+			assertTrue(journal.get().isCorrect(Word.of("gamma", 0)));
+		}
+		return;
+	}
+
+	@Test
+	public void addRejectsMultiLineWords() throws IOException {
+		try (WordJournal journal = WordJournal.open(directory.resolve("learned"), base)) {
+			assertThrows(IllegalArgumentException.class, () -> journal.add("two\nlines"));
+			assertThrows(IllegalArgumentException.class, () -> journal.add("  "));
+		}
+		return;
+	}
+}
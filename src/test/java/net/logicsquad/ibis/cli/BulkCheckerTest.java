@@ -0,0 +1,112 @@
+package net.logicsquad.ibis.cli;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import net.logicsquad.ibis.Dictionary;
+import net.logicsquad.ibis.Markup;
+import net.logicsquad.ibis.server.Json;
+
+/**
+ * Unit tests on {@link BulkChecker}.
+ *
+ * @author paulh
+ */
+public class BulkCheckerTest {
+	private static final Dictionary DICTIONARY = Dictionary.builder().addWords(List.of("this", "is", "fine", "some", "and", "spelling"))
+			.build();
+
+	@TempDir
+	private Path directory;
+
+	@Test
+	public void reportsMisspellingsInFileOrder() throws Exception {
+		Files.writeString(directory.resolve("b.txt"), "This is fnie.");
+		Files.createDirectories(directory.resolve("a"));
+		Files.writeString(directory.resolve("a/notes.md"), "Some `codde` and speling");
+		Files.writeString(directory.resolve("a/image.png"), "xyzzy");
+		StringWriter output = new StringWriter();
+		BulkCheckStatistics statistics = BulkChecker.builder(DICTIONARY).threads(2).build().check(List.of(directory), output);
+		List<Object> lines = output.toString().lines().map(Json::parse).toList();
+		assertEquals(2, lines.size());
+		Map<?, ?> first = (Map<?, ?>) lines.get(0);
+		assertEquals(directory.resolve("a/notes.md").toString(), first.get("file"));
+		assertEquals(17L, first.get("offset"));
+		assertEquals("speling", first.get("word"));
+		assertEquals(List.of("spelling"), first.get("suggestions"));
+		Map<?, ?> second = (Map<?, ?>) lines.get(1);
+		assertEquals(directory.resolve("b.txt").toString(), second.get("file"));
+		assertEquals(8L, second.get("offset"));
+		assertEquals("fnie", second.get("word"));
+		assertEquals(2, statistics.files());
+		assertEquals(0, statistics.failures());
+		assertEquals(37, statistics.bytes());
+		assertEquals(2, statistics.misspellings());
+		return;
+	}
+
+	@Test
+	public void reportsUnreadableFilesAndContinues() throws Exception {
+		Path missing = directory.resolve("missing.txt");
+		Path present = Files.writeString(directory.resolve("present.txt"), "fine fnie");
+		StringWriter output = new StringWriter();
+		BulkCheckStatistics statistics = BulkChecker.builder(DICTIONARY).build().check(List.of(missing, present), output);
+		List<Object> lines = output.toString().lines().map(Json::parse).toList();
+		assertEquals(2, lines.size());
+		assertEquals(missing.toString(), ((Map<?, ?>) lines.get(0)).get("file"));
+		assertTrue(((Map<?, ?>) lines.get(0)).containsKey("error"));
+		assertEquals("fnie", ((Map<?, ?>) lines.get(1)).get("word"));
+		assertEquals(1, statistics.files());
+		assertEquals(1, statistics.failures());
+		return;
+	}
+
+	@Test
+	public void largeFilesAreMappedAndCheckedInChunks() throws Exception {
+		StringBuilder sb = new StringBuilder();
+		while (sb.length() < BulkChecker.MAP_THRESHOLD * 2) {
+			sb.append("this is fine\n\n");
+		}
+		int offset = sb.length();
+		sb.append("fnie");
+		Path file = Files.writeString(directory.resolve("large.txt"), sb);
+		assertEquals(sb.toString(), BulkChecker.read(file, StandardCharsets.UTF_8));
+		StringWriter output = new StringWriter();
+		BulkChecker.builder(DICTIONARY).threads(4).build().check(List.of(directory), output);
+		Map<?, ?> line = (Map<?, ?>) Json.parse(output.toString().strip());
+		assertEquals((long) offset, line.get("offset"));
+		return;
+	}
+
+	@Test
+	public void readReplacesMalformedInput() throws Exception {
+		Path file = Files.write(directory.resolve("bad.txt"), new byte[] { 'f', 'i', 'n', 'e', ' ', (byte) 0xff, ' ', 'i', 's' });
+		assertEquals("fine � is", BulkChecker.read(file, StandardCharsets.UTF_8));
+		return;
+	}
+
+	@Test
+	public void markupFollowsExtension() {
+		assertEquals(Markup.MARKDOWN, BulkChecker.markup(Path.of("README.md")));
+		assertEquals(Markup.HTML, BulkChecker.markup(Path.of("help/index.HTML")));
+		assertEquals(Markup.NONE, BulkChecker.markup(Path.of("notes.txt")));
+		return;
+	}
+
+	@Test
+	public void builderRejectsNonPositiveThreads() {
+		assertThrows(IllegalArgumentException.class, () -> BulkChecker.builder(DICTIONARY).threads(0));
+		return;
+	}
+}
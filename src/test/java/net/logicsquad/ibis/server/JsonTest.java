@@ -0,0 +1,86 @@
+package net.logicsquad.ibis.server;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests on {@link Json}.
+ * 
+ * @author paulh
+ */
+public class JsonTest {
+	@Test
+	public void parseReadsAllTypes() {
+		Object value = Json.parse(" {\"a\": [1, -2.5, true, false, null], \"b\": {\"c\": \"d\"}, \"e\": 12345678901234567890} ");
+		Map<String, Object> expected = new LinkedHashMap<>();
+		expected.put("a", Arrays.asList(1L, -2.5, true, false, null));
+		expected.put("b", Map.of("c", "d"));
+		expected.put("e", 1.2345678901234567e19);
+		assertEquals(expected, value);
+		return;
+	}
+
+	@Test
+	public void parseHandlesEscapes() {
+		assertEquals("a\"b\\c/d\ne\tf\u00e9", Json.parse("\"a\\\"b\\\\c\\/d\\ne\\tf\\u00e9\""));
+		return;
+	}
+
+	@Test
+	public void parseRejectsInvalidJson() {
+		for (String s : List.of("", "{", "[1,]", "{\"a\" 1}", "\"abc", "tru", "1 2", "{a:1}", "\"\\x\"", "-")) {
+			assertThrows(IllegalArgumentException.class, () -> Json.parse(s), s);
+		}
+		return;
+	}
+
+	@Test
+	public void parseReadsNumbers() {
+		assertEquals(List.of(0L, -0L, 10L, -7L, 0.5, -1.25, 1e3, 2.5e-3, 4e2, 1E2), Json.parse("[0, -0, 10, -7, 0.5, -1.25, 1e3, 2.5e-3, 4E+2, 1E2]"));
+		return;
+	}
+
+	@Test
+	public void parseRejectsInvalidNumbers() {
+		for (String s : List.of("01", "-01", "[01]", "1.", "1.e2", ".5", "-.5", "+1", "--1", "-1-2", "1+2", "1e", "1e+", "1E-", "1e2.5", "1-",
+				"0x1F", "1.5.2")) {
+			assertThrows(IllegalArgumentException.class, () -> Json.parse(s), s);
+		}
+		return;
+	}
+
+	@Test
+	public void parseRejectsDeepNesting() {
+		assertThrows(IllegalArgumentException.class, () -> Json.parse("[".repeat(200_000)));
+		assertThrows(IllegalArgumentException.class, () -> Json.parse("{\"a\":".repeat(200_000)));
+		String deepest = "[".repeat(Json.MAX_DEPTH) + "]".repeat(Json.MAX_DEPTH);
+		assertEquals(deepest, Json.toString(Json.parse(deepest)));
+		return;
+	}
+
+	@Test
+	public void writeRoundTrips() {
+		Map<String, Object> value = new LinkedHashMap<>();
+		value.put("text", "quote \" backslash \\ newline \n control \u0001");
+		value.put("list", List.of(1L, 2.5, true));
+		value.put("none", null);
+		String json = Json.toString(value);
+		assertEquals("{\"text\":\"quote \\\" backslash \\\\ newline \\n control \\u0001\",\"list\":[1,2.5,true],\"none\":null}", json);
+		assertEquals(value, Json.parse(json));
+		return;
+	}
+
+	@Test
+	public void writeRejectsUnrepresentableValues() {
+		assertThrows(IllegalArgumentException.class, () -> Json.toString(Double.NaN));
+		assertThrows(IllegalArgumentException.class, () -> Json.toString(new Object()));
+		return;
+	}
+}
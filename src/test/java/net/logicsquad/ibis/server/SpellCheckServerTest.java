@@ -0,0 +1,136 @@
+package net.logicsquad.ibis.server;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import net.logicsquad.ibis.Dictionary;
+
+/**
+ * Unit tests on {@link SpellCheckServer}, over localhost.
+ * 
+ * @author paulh
+ */
+public class SpellCheckServerTest {
+	private static SpellCheckServer server;
+
+	private static HttpClient client;
+
+	@BeforeAll
+	public static void setup() throws IOException {
+		Dictionary dictionary = Dictionary.builder().addWords(List.of("alpha", "beta", "gamma", "delta")).build();
+		server = SpellCheckServer.builder(dictionary).maxRequestBytes(1024).maxBatchSize(10).start();
+		client = HttpClient.newHttpClient();
+		return;
+	}
+
+	@AfterAll
+	public static void teardown() {
+		server.close();
+		client.close();
+		return;
+	}
+
+	@Test
+	public void checkStreamsMisspellings() throws IOException, InterruptedException {
+		HttpResponse<String> response = post("/check", "{\"text\": \"alpha betta gamma deltta\"}");
+		assertEquals(200, response.statusCode());
+		assertEquals("application/x-ndjson", response.headers().firstValue("Content-Type").orElse(null));
+		List<String> lines = response.body().lines().toList();
+		assertEquals(2, lines.size());
+		Map<?, ?> first = (Map<?, ?>) Json.parse(lines.get(0));
+		assertEquals(6L, first.get("start"));
+		assertEquals("betta", first.get("text"));
+		assertEquals(List.of("beta"), first.get("suggestions"));
+		assertEquals("deltta", ((Map<?, ?>) Json.parse(lines.get(1))).get("text"));
+		return;
+	}
+
+	@Test
+	public void batchReturnsOneLinePerText() throws IOException, InterruptedException {
+		HttpResponse<String> response = post("/check/batch", "{\"texts\": [\"alpha\", \"betta\", \"gama deltta\"]}");
+		assertEquals(200, response.statusCode());
+		Set<Long> indexes = new HashSet<>();
+		for (String line : response.body().lines().toList()) {
+			Map<?, ?> result = (Map<?, ?>) Json.parse(line);
+			long index = (Long) result.get("index");
+			indexes.add(index);
+			assertEquals((int) index, ((List<?>) result.get("misspellings")).size());
+		}
+		assertEquals(Set.of(0L, 1L, 2L), indexes);
+		return;
+	}
+
+	@Test
+	public void batchReportsTextsThatCannotBeChecked() throws IOException, InterruptedException {
+		try (SpellCheckServer failing = SpellCheckServer.builder(() -> {
+			throw new IllegalStateException("No Dictionary.");
+		}).start()) {
+			URI uri = URI.create("http://localhost:" + failing.address().getPort() + "/check/batch");
+			HttpRequest request = HttpRequest.newBuilder(uri).POST(HttpRequest.BodyPublishers.ofString("{\"texts\": [\"alpha\", \"betta\"]}")).build();
+			HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+			assertEquals(200, response.statusCode());
+			Set<Long> indexes = new HashSet<>();
+			for (String line : response.body().lines().toList()) {
+				Map<?, ?> result = (Map<?, ?>) Json.parse(line);
+				assertTrue(result.containsKey("error"));
+				indexes.add((Long) result.get("index"));
+			}
+			assertEquals(Set.of(0L, 1L), indexes);
+		}
+		return;
+	}
+
+	@Test
+	public void invalidRequestsAreRejected() throws IOException, InterruptedException {
+		assertEquals(400, post("/check", "{\"text\": ").statusCode());
+		assertEquals(400, post("/check", "{\"txt\": \"alpha\"}").statusCode());
+		assertEquals(400, post("/check/batch", "{\"texts\": [1]}").statusCode());
+		assertEquals(400, post("/check", "[".repeat(1000)).statusCode());
+		assertEquals(413, post("/check", "{\"text\": \"" + "a".repeat(2000) + "\"}").statusCode());
+		assertEquals(413, post("/check/batch", "{\"texts\": [" + String.join(",", java.util.Collections.nCopies(11, "\"a\"")) + "]}").statusCode());
+		assertEquals(404, post("/checker", "{}").statusCode());
+		HttpResponse<String> response = client.send(HttpRequest.newBuilder(uri("/check")).GET().build(), HttpResponse.BodyHandlers.ofString());
+		assertEquals(405, response.statusCode());
+		assertTrue(((Map<?, ?>) Json.parse(response.body())).containsKey("error"));
+		return;
+	}
+
+	@Test
+	public void statsReportCounters() throws IOException, InterruptedException {
+		post("/check", "{\"text\": \"betta\"}");
+		HttpResponse<String> response = client.send(HttpRequest.newBuilder(uri("/stats")).GET().build(), HttpResponse.BodyHandlers.ofString());
+		assertEquals(200, response.statusCode());
+		Map<?, ?> stats = (Map<?, ?>) Json.parse(response.body());
+		assertTrue((Long) stats.get("requests") >= 1);
+		assertTrue((Long) stats.get("texts") >= 1);
+		assertTrue((Long) stats.get("misspellings") >= 1);
+		assertTrue((Long) stats.get("maxLatencyMicros") >= (Long) stats.get("p50LatencyMicros"));
+		ServerStatistics statistics = server.statistics();
+		assertTrue(statistics.requests() >= 1);
+		assertTrue(statistics.latencyPercentile(0.99).compareTo(statistics.maxLatency()) <= 0);
+		return;
+	}
+
+	private static HttpResponse<String> post(String path, String body) throws IOException, InterruptedException {
+		HttpRequest request = HttpRequest.newBuilder(uri(path)).POST(HttpRequest.BodyPublishers.ofString(body)).build();
+		return client.send(request, HttpResponse.BodyHandlers.ofString());
+	}
+
+	private static URI uri(String path) {
+		return URI.create("http://localhost:" + server.address().getPort() + path);
+	}
+}